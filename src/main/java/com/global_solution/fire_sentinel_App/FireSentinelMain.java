@@ -1,20 +1,24 @@
 package com.global_solution.fire_sentinel_App;
 
+import com.global_solution.fire_sentinel_App.historico.EstatisticaOnline;
 import com.global_solution.fire_sentinel_App.model.Sensor;
 import com.global_solution.fire_sentinel_App.model.SensorData;
 import com.global_solution.fire_sentinel_App.model.Ocorrencia;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
-import java.util.OptionalDouble;
 
 public class FireSentinelMain {
     private static Scanner scanner = new Scanner(System.in);
     private static List<Sensor> sensores = new ArrayList<>();
     private static List<SensorData> leituras = new ArrayList<>();
     private static List<Ocorrencia> ocorrencias = new ArrayList<>();
+    private static Map<Long, EstatisticaOnline[]> estatisticasPorSensor = new HashMap<>();
+    private static Map<Long, SensorData[]> ultimasLeiturasPorSensor = new HashMap<>();
     private static Long nextSensorId = 1L;
     private static Long nextLeituraId = 1L;
     private static Long nextOcorrenciaId = 1L;
@@ -164,6 +168,7 @@ public class FireSentinelMain {
             leitura.setCo2(co2);
             
             leituras.add(leitura);
+            atualizarEstatisticas(leitura);
             
             System.out.println("\nLeitura registrada com sucesso!");
             System.out.println(leitura);
@@ -197,37 +202,53 @@ public class FireSentinelMain {
 
         System.out.println("\n=== Análise de Leituras ===");
         
-        // Agrupar leituras por sensor
+        // Estatísticas mantidas incrementalmente a cada leitura registrada
         for (Sensor sensor : sensores) {
-            List<SensorData> leiturasDoSensor = leituras.stream()
-                    .filter(l -> l.getSensor().equals(sensor))
-                    .toList();
+            EstatisticaOnline[] estatisticas = estatisticasPorSensor.get(sensor.getId());
                     
-            if (!leiturasDoSensor.isEmpty()) {
+            if (estatisticas != null) {
                 System.out.println("\nSensor: " + sensor.getNome());
                 
-                // Calcular médias
-                OptionalDouble mediaTemp = SensorData.calcularMediaMedida(leiturasDoSensor, SensorData::getTemperatura);
-                OptionalDouble mediaUmid = SensorData.calcularMediaMedida(leiturasDoSensor, SensorData::getUmidade);
-                OptionalDouble mediaFumaca = SensorData.calcularMediaMedida(leiturasDoSensor, SensorData::getNivelFumaca);
-                OptionalDouble mediaCO2 = SensorData.calcularMediaMedida(leiturasDoSensor, SensorData::getCo2);
+                EstatisticaOnline temperatura = estatisticas[0];
+                EstatisticaOnline umidade = estatisticas[1];
+                EstatisticaOnline fumaca = estatisticas[2];
+                EstatisticaOnline co2 = estatisticas[3];
                 
-                System.out.printf("Temperatura média: %.1f°C\n", mediaTemp.orElse(0.0));
-                System.out.printf("Umidade média: %.1f%%\n", mediaUmid.orElse(0.0));
-                System.out.printf("Nível médio de fumaça: %.1f ppm\n", mediaFumaca.orElse(0.0));
-                System.out.printf("CO2 médio: %.1f ppm\n", mediaCO2.orElse(0.0));
+                System.out.printf("Leituras: %d\n", temperatura.getQuantidade());
+                System.out.printf("Temperatura média: %.1f°C (desvio %.1f, mín %.1f, máx %.1f)\n",
+                        temperatura.getMedia(), temperatura.getDesvioPadrao(), temperatura.getMinimo(), temperatura.getMaximo());
+                System.out.printf("Umidade média: %.1f%% (desvio %.1f)\n", umidade.getMedia(), umidade.getDesvioPadrao());
+                System.out.printf("Nível médio de fumaça: %.1f ppm (máx %.1f)\n", fumaca.getMedia(), fumaca.getMaximo());
+                System.out.printf("CO2 médio: %.1f ppm (máx %.1f)\n", co2.getMedia(), co2.getMaximo());
                 
                 // Mostrar última leitura
-                SensorData ultimaLeitura = leiturasDoSensor.get(leiturasDoSensor.size() - 1);
-                if (leiturasDoSensor.size() > 1) {
-                    SensorData penultimaLeitura = leiturasDoSensor.get(leiturasDoSensor.size() - 2);
+                SensorData[] ultimas = ultimasLeiturasPorSensor.get(sensor.getId());
+                if (ultimas[0] != null) {
                     System.out.println("\nVariações da última leitura:");
-                    System.out.println(ultimaLeitura.analisarVariacoes(penultimaLeitura));
+                    System.out.println(ultimas[1].analisarVariacoes(ultimas[0]));
                 }
             }
         }
     }
 
+    /**
+     * Atualiza as estatísticas do sensor da leitura em O(1), sem percorrer as leituras anteriores.
+     * Guarda também a penúltima e a última leitura para a análise de variações.
+     */
+    private static void atualizarEstatisticas(SensorData leitura) {
+        Long sensorId = leitura.getSensor().getId();
+        EstatisticaOnline[] estatisticas = estatisticasPorSensor.computeIfAbsent(sensorId, id -> new EstatisticaOnline[] {
+                new EstatisticaOnline(), new EstatisticaOnline(), new EstatisticaOnline(), new EstatisticaOnline() });
+        estatisticas[0].adicionar(leitura.getTemperatura());
+        estatisticas[1].adicionar(leitura.getUmidade());
+        estatisticas[2].adicionar(leitura.getNivelFumaca());
+        estatisticas[3].adicionar(leitura.getCo2());
+        
+        SensorData[] ultimas = ultimasLeiturasPorSensor.computeIfAbsent(sensorId, id -> new SensorData[2]);
+        ultimas[0] = ultimas[1];
+        ultimas[1] = leitura;
+    }
+
     private static void registrarOcorrencia() {
         System.out.println("\n=== Registro de Ocorrência ===");
         
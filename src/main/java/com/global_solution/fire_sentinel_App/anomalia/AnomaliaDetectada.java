@@ -0,0 +1,36 @@
+package com.global_solution.fire_sentinel_App.anomalia;
+
+import java.time.LocalDateTime;
+
+import com.global_solution.fire_sentinel_App.historico.Metrica;
+
+/**
+ * Evento publicado quando uma métrica de uma leitura se afasta da linha de base do sensor,
+ * em qualquer sentido; o sinal do escore indica se o valor subiu ou caiu.
+ *
+ * @param sensorId ID do sensor
+ * @param regiao localização do sensor
+ * @param dataHora data/hora da leitura anômala
+ * @param metrica métrica anômala
+ * @param valor valor lido
+ * @param linhaBase média móvel da métrica antes da leitura
+ * @param desvioPadrao desvio padrão móvel da métrica antes da leitura
+ * @param escore escore z da leitura (positivo acima da linha de base, negativo abaixo)
+ */
+public record AnomaliaDetectada(
+        Long sensorId,
+        String regiao,
+        LocalDateTime dataHora,
+        Metrica metrica,
+        double valor,
+        double linhaBase,
+        double desvioPadrao,
+        double escore) {
+
+    /**
+     * @return boolean true se o desvio vai no sentido de incêndio (ex: umidade caindo, não subindo)
+     */
+    public boolean indicaIncendio() {
+        return metrica.indicaIncendio(escore);
+    }
+}
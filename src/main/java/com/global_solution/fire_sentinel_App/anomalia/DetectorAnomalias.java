@@ -0,0 +1,131 @@
+package com.global_solution.fire_sentinel_App.anomalia;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.global_solution.fire_sentinel_App.historico.Metrica;
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.transacao.AposCommit;
+
+/**
+ * Detecção incremental de anomalias nas leituras, por sensor e métrica.
+ *
+ * Cada sensor mantém uma linha de base EWMA (EstadoEwma); uma leitura cujo escore z
+ * passa do limiar em alguma métrica gera um evento AnomaliaDetectada. Assim uma
+ * variação brusca (ex: 22°C para 34°C em poucos minutos) é sinalizada antes de
+ * qualquer limite absoluto. Executa na ingestão (após o commit) em O(1) por leitura.
+ * O estado fica só em memória: após reiniciar a aplicação, cada sensor volta a
+ * formar sua linha de base durante as primeiras leituras (aquecimento).
+ */
+@Component
+public class DetectorAnomalias {
+
+    private static final int METRICAS = Metrica.values().length;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${anomalias.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${anomalias.alfa:0.1}")
+    private double alfa;
+
+    @Value("${anomalias.limiar-escore:4.0}")
+    private double limiarEscore;
+
+    @Value("${anomalias.aquecimento:10}")
+    private int aquecimento;
+
+    @Value("${anomalias.desvios-minimos:0.5,2.0,1.0,20.0}")
+    private double[] desviosMinimos;
+
+    private final ConcurrentHashMap<Long, EstadoEwma> estados = new ConcurrentHashMap<>();
+
+    private final LongAdder leiturasAvaliadas = new LongAdder();
+    private final LongAdder anomaliasDetectadas = new LongAdder();
+    private final LongAdder anomaliasSentidoIncendio = new LongAdder();
+
+    /**
+     * Avalia uma leitura persistida contra a linha de base do sensor.
+     * Dentro de uma transação, a leitura só é avaliada após o commit.
+     *
+     * @param leitura leitura persistida (com sensor resolvido)
+     */
+    public void registrar(Leitura leitura) {
+        if (!habilitado) {
+            return;
+        }
+        AposCommit.executar(() -> avaliar(leitura));
+    }
+
+    /**
+     * Descarta a linha de base de um sensor removido.
+     *
+     * @param sensorId ID do sensor
+     */
+    public void remover(Long sensorId) {
+        estados.remove(sensorId);
+    }
+
+    /**
+     * Retorna as métricas do detector, incluindo a memória fixa por sensor.
+     *
+     * @return Map com sensores, bytes por sensor, leituras avaliadas e anomalias detectadas (total e no sentido de incêndio)
+     */
+    public Map<String, Object> obterMetricas() {
+        long bytesPorSensor = EstadoEwma.calcularBytes(METRICAS);
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("habilitado", habilitado);
+        metricas.put("sensores", estados.size());
+        metricas.put("bytesPorSensor", bytesPorSensor);
+        metricas.put("bytesTotais", bytesPorSensor * estados.size());
+        metricas.put("leiturasAvaliadas", leiturasAvaliadas.sum());
+        metricas.put("anomaliasDetectadas", anomaliasDetectadas.sum());
+        metricas.put("anomaliasSentidoIncendio", anomaliasSentidoIncendio.sum());
+        return metricas;
+    }
+
+    private void avaliar(Leitura leitura) {
+        leiturasAvaliadas.increment();
+        double[] valores = new double[METRICAS];
+        for (Metrica metrica : Metrica.values()) {
+            valores[metrica.ordinal()] = metrica.valor(leitura);
+        }
+        double[] escores = new double[METRICAS];
+        double[] medias = new double[METRICAS];
+        double[] desvios = new double[METRICAS];
+        int amostras;
+        EstadoEwma estado = estados.computeIfAbsent(leitura.getSensor().getId(), id -> new EstadoEwma(METRICAS));
+        synchronized (estado) {
+            for (int i = 0; i < METRICAS; i++) {
+                medias[i] = estado.getMedia(i);
+                desvios[i] = estado.getDesvioPadrao(i);
+            }
+            amostras = estado.avaliar(valores, alfa, desviosMinimos, escores);
+        }
+        if (amostras < aquecimento) {
+            return;
+        }
+        for (Metrica metrica : Metrica.values()) {
+            int i = metrica.ordinal();
+            if (Math.abs(escores[i]) >= limiarEscore) {
+                anomaliasDetectadas.increment();
+                if (metrica.indicaIncendio(escores[i])) {
+                    anomaliasSentidoIncendio.increment();
+                }
+                // Publicado com o escore com sinal; quem consome decide quais sentidos interessam
+                eventPublisher.publishEvent(new AnomaliaDetectada(
+                        leitura.getSensor().getId(), leitura.getSensor().getLocalizacao(), leitura.getDataHora(),
+                        metrica, valores[i], medias[i], desvios[i], escores[i]));
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.global_solution.fire_sentinel_App.anomalia;
+
+import java.util.Arrays;
+
+/**
+ * Linha de base de um sensor: média e variância móveis exponenciais (EWMA) de cada
+ * métrica, guardadas em um único float[] (média e variância intercaladas).
+ *
+ * Cada leitura é comparada com a linha de base anterior (escore z) e só depois entra
+ * nela, de modo que um salto não dilui o próprio escore. Custa O(1) por leitura e
+ * ocupa uma quantidade fixa de bytes por sensor. Não é thread-safe.
+ */
+public class EstadoEwma {
+
+    /**
+     * Estimativa do custo fixo em bytes (cabeçalho do objeto com referência e contador,
+     * e cabeçalho do array).
+     */
+    private static final long BYTES_FIXOS = 16 + 16;
+
+    private final float[] linhaBase;
+    private int amostras;
+
+    /**
+     * @param metricas quantidade de métricas por leitura
+     */
+    public EstadoEwma(int metricas) {
+        this.linhaBase = new float[2 * metricas];
+        Arrays.fill(linhaBase, Float.NaN);
+    }
+
+    /**
+     * Calcula o escore z de cada valor contra a linha de base e atualiza a linha de base.
+     *
+     * @param valores valores da leitura por métrica (NaN para ausentes)
+     * @param alfa peso da leitura nova na média móvel (entre 0 e 1)
+     * @param desviosMinimos desvio padrão mínimo por métrica (evita escores enormes em sinais constantes)
+     * @param escores saída: escore z por métrica (NaN se ausente ou sem linha de base)
+     * @return int quantidade de leituras que formavam a linha de base antes desta
+     */
+    public int avaliar(double[] valores, double alfa, double[] desviosMinimos, double[] escores) {
+        for (int i = 0; i < valores.length; i++) {
+            double valor = valores[i];
+            double media = linhaBase[2 * i];
+            escores[i] = Double.NaN;
+            if (Double.isNaN(valor)) {
+                continue;
+            }
+            if (Double.isNaN(media)) {
+                linhaBase[2 * i] = (float) valor;
+                linhaBase[2 * i + 1] = 0f;
+                continue;
+            }
+            double variancia = linhaBase[2 * i + 1];
+            double diferenca = valor - media;
+            escores[i] = diferenca / Math.max(Math.sqrt(variancia), desviosMinimos[i]);
+            double incremento = alfa * diferenca;
+            linhaBase[2 * i] = (float) (media + incremento);
+            linhaBase[2 * i + 1] = (float) ((1 - alfa) * (variancia + diferenca * incremento));
+        }
+        return amostras++;
+    }
+
+    /**
+     * @param metrica índice da métrica
+     * @return double média móvel da métrica (NaN se ainda sem valores)
+     */
+    public double getMedia(int metrica) {
+        return linhaBase[2 * metrica];
+    }
+
+    /**
+     * @param metrica índice da métrica
+     * @return double desvio padrão móvel da métrica (NaN se ainda sem valores)
+     */
+    public double getDesvioPadrao(int metrica) {
+        return Math.sqrt(linhaBase[2 * metrica + 1]);
+    }
+
+    public int getAmostras() {
+        return amostras;
+    }
+
+    /**
+     * Calcula a memória ocupada pelo estado de um sensor.
+     *
+     * @param metricas quantidade de métricas por leitura
+     * @return long estimativa em bytes, fixa para toda a vida do estado
+     */
+    public static long calcularBytes(int metricas) {
+        return BYTES_FIXOS + 2L * metricas * Float.BYTES;
+    }
+}
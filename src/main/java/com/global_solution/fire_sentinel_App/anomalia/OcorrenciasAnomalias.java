@@ -0,0 +1,133 @@
+package com.global_solution.fire_sentinel_App.anomalia;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.global_solution.fire_sentinel_App.model.Ocorrencia;
+import com.global_solution.fire_sentinel_App.repository.OcorrenciaRepository;
+
+/**
+ * Registra uma Ocorrencia para cada anomalia detectada nas leituras no sentido de
+ * incêndio (temperatura, fumaça ou CO2 subindo; umidade caindo). Desvios no sentido
+ * oposto, como a umidade subindo com a chuva, são apenas contados.
+ *
+ * Para não gerar uma ocorrência por leitura durante um mesmo evento, cada sensor
+ * tem um intervalo mínimo entre ocorrências (contado pela data/hora das leituras);
+ * anomalias dentro do intervalo são apenas contadas. A severidade acompanha o
+ * módulo do escore z, limitada a 1-10.
+ */
+@Component
+public class OcorrenciasAnomalias {
+
+    private static final Logger log = LoggerFactory.getLogger(OcorrenciasAnomalias.class);
+
+    static final String ORIGEM = "Detector de Anomalias";
+
+    @Autowired
+    private OcorrenciaRepository ocorrenciaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${anomalias.ocorrencias.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${anomalias.ocorrencias.intervalo-minimo-ms:600000}")
+    private long intervaloMinimoMs;
+
+    private final ConcurrentHashMap<Long, LocalDateTime> ultimasOcorrencias = new ConcurrentHashMap<>();
+
+    private final LongAdder ocorrenciasRegistradas = new LongAdder();
+    private final LongAdder anomaliasSuprimidas = new LongAdder();
+    private final LongAdder anomaliasSentidoOposto = new LongAdder();
+
+    /**
+     * Registra a ocorrência de uma anomalia no sentido de incêndio, respeitando o
+     * intervalo mínimo do sensor.
+     *
+     * @param anomalia anomalia detectada
+     */
+    @EventListener
+    public void registrar(AnomaliaDetectada anomalia) {
+        if (!habilitado) {
+            return;
+        }
+        if (!anomalia.indicaIncendio()) {
+            anomaliasSentidoOposto.increment();
+            return;
+        }
+        AtomicBoolean registrar = new AtomicBoolean();
+        ultimasOcorrencias.compute(anomalia.sensorId(), (id, ultima) -> {
+            if (ultima != null && anomalia.dataHora().isBefore(ultima.plus(Duration.ofMillis(intervaloMinimoMs)))) {
+                return ultima;
+            }
+            registrar.set(true);
+            return anomalia.dataHora();
+        });
+        if (!registrar.get()) {
+            anomaliasSuprimidas.increment();
+            return;
+        }
+
+        Ocorrencia ocorrencia = new Ocorrencia(anomalia.regiao(), calcularSeveridade(anomalia.escore()));
+        ocorrencia.setDataHora(anomalia.dataHora());
+        ocorrencia.setOrigem(ORIGEM);
+        ocorrencia.setDescricao(String.format(Locale.ROOT,
+                "Anomalia em %s no sensor %d: valor %.2f, linha de base %.2f ± %.2f (escore z %.1f)",
+                anomalia.metrica(), anomalia.sensorId(), anomalia.valor(), anomalia.linhaBase(),
+                anomalia.desvioPadrao(), anomalia.escore()));
+        try {
+            // Nova transação: a detecção ocorre no afterCommit da ingestão
+            TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+            transacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            transacao.executeWithoutResult(status -> ocorrenciaRepository.save(ocorrencia));
+            ocorrenciasRegistradas.increment();
+        } catch (Exception e) {
+            log.warn("Falha ao registrar ocorrência de anomalia do sensor {}: {}", anomalia.sensorId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Descarta o controle de intervalo de um sensor removido.
+     *
+     * @param sensorId ID do sensor
+     */
+    public void remover(Long sensorId) {
+        ultimasOcorrencias.remove(sensorId);
+    }
+
+    /**
+     * Retorna as métricas das ocorrências geradas por anomalias.
+     *
+     * @return Map com ocorrências registradas, anomalias suprimidas pelo intervalo mínimo
+     *         e anomalias ignoradas por não irem no sentido de incêndio
+     */
+    public Map<String, Object> obterMetricas() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("habilitado", habilitado);
+        metricas.put("ocorrenciasRegistradas", ocorrenciasRegistradas.sum());
+        metricas.put("anomaliasSuprimidas", anomaliasSuprimidas.sum());
+        metricas.put("anomaliasSentidoOposto", anomaliasSentidoOposto.sum());
+        return metricas;
+    }
+
+    static int calcularSeveridade(double escore) {
+        return (int) Math.max(1, Math.min(10, Math.round(Math.abs(escore))));
+    }
+}
@@ -0,0 +1,158 @@
+package com.global_solution.fire_sentinel_App.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.repository.SensorRepository;
+
+/**
+ * Cache em memória do cadastro de sensores usado no caminho de ingestão.
+ * O parque de sensores quase não muda, então ele é carregado inteiro na inicialização
+ * e mantido atualizado pelo SensorServiceImpl a cada cadastro, atualização ou remoção.
+ * 
+ * As entradas são cópias desanexadas do Sensor sem a coleção de leituras, para que
+ * nunca disparem carregamento lazy fora de uma sessão. Em caso de falta, o sensor é
+ * buscado no banco e incluído no cache.
+ */
+@Component
+public class CacheSensores {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheSensores.class);
+
+    @Autowired
+    private SensorRepository sensorRepository;
+
+    private final ConcurrentHashMap<Long, Sensor> sensores = new ConcurrentHashMap<>();
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+
+    /**
+     * Carrega todos os sensores cadastrados quando a aplicação termina de subir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        List<Sensor> todos = sensorRepository.findAll();
+        todos.forEach(this::atualizar);
+        log.info("Cache de sensores carregado com {} sensores", todos.size());
+    }
+
+    /**
+     * Busca um sensor pelo ID, consultando o banco apenas em caso de falta.
+     *
+     * @param id ID do sensor
+     * @return Optional<Sensor> com a cópia em cache do sensor, se existir
+     */
+    public Optional<Sensor> buscar(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Sensor sensor = sensores.get(id);
+        if (sensor != null) {
+            acertos.increment();
+            return Optional.of(sensor);
+        }
+        faltas.increment();
+        return sensorRepository.findById(id).map(this::atualizar);
+    }
+
+    /**
+     * Busca vários sensores de uma vez; as faltas são resolvidas em uma única consulta.
+     *
+     * @param ids IDs dos sensores
+     * @return Map de ID para sensor contendo apenas os sensores encontrados
+     */
+    public Map<Long, Sensor> buscarTodos(Collection<Long> ids) {
+        Map<Long, Sensor> encontrados = new HashMap<>();
+        List<Long> ausentes = ids.stream()
+                .filter(id -> {
+                    Sensor sensor = sensores.get(id);
+                    if (sensor == null) {
+                        return true;
+                    }
+                    encontrados.put(id, sensor);
+                    return false;
+                })
+                .toList();
+        acertos.add(encontrados.size());
+        if (!ausentes.isEmpty()) {
+            faltas.add(ausentes.size());
+            sensorRepository.findAllById(ausentes)
+                    .forEach(sensor -> encontrados.put(sensor.getId(), atualizar(sensor)));
+        }
+        return encontrados;
+    }
+
+    /**
+     * Inclui ou substitui um sensor no cache.
+     *
+     * @param sensor sensor persistido
+     * @return Sensor cópia armazenada no cache
+     */
+    public Sensor atualizar(Sensor sensor) {
+        Sensor copia = copiar(sensor);
+        sensores.put(copia.getId(), copia);
+        return copia;
+    }
+
+    /**
+     * Remove um sensor do cache.
+     *
+     * @param id ID do sensor removido
+     */
+    public void remover(Long id) {
+        sensores.remove(id);
+    }
+
+    /**
+     * Retorna uma visão somente leitura de todos os sensores em cache.
+     *
+     * @return Collection<Sensor> sensores em cache
+     */
+    public Collection<Sensor> listar() {
+        return Collections.unmodifiableCollection(sensores.values());
+    }
+
+    /**
+     * Retorna as métricas do cache: tamanho, acertos, faltas e taxa de acerto.
+     *
+     * @return Map com as métricas atuais
+     */
+    public Map<String, Object> obterMetricas() {
+        long totalAcertos = acertos.sum();
+        long totalFaltas = faltas.sum();
+        long total = totalAcertos + totalFaltas;
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("tamanho", sensores.size());
+        metricas.put("acertos", totalAcertos);
+        metricas.put("faltas", totalFaltas);
+        metricas.put("taxaAcerto", total == 0 ? 0.0 : (double) totalAcertos / total);
+        return metricas;
+    }
+
+    private Sensor copiar(Sensor sensor) {
+        Sensor copia = new Sensor();
+        copia.setId(sensor.getId());
+        copia.setNome(sensor.getNome());
+        copia.setTipo(sensor.getTipo());
+        copia.setLocalizacao(sensor.getLocalizacao());
+        copia.setLatitude(sensor.getLatitude());
+        copia.setLongitude(sensor.getLongitude());
+        copia.setAtivo(sensor.isAtivo());
+        return copia;
+    }
+}
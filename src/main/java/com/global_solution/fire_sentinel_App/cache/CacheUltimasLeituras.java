@@ -0,0 +1,164 @@
+package com.global_solution.fire_sentinel_App.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.model.UltimaLeituraSensor;
+import com.global_solution.fire_sentinel_App.repository.LeituraRepository;
+import com.global_solution.fire_sentinel_App.repository.UltimaLeituraSensorRepository;
+import com.global_solution.fire_sentinel_App.transacao.AposCommit;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Tabela de "última leitura por sensor" com consulta em O(número de sensores).
+ * O estado fica em memória, indexado pelo ID do sensor, e é atualizado a cada ingestão
+ * bem-sucedida. Leituras fora de ordem (com dataHora anterior à atual) são ignoradas.
+ * 
+ * As alterações são gravadas periodicamente na tabela ultimas_leituras (write-behind),
+ * que é recarregada na inicialização; assim o endpoint não depende de varrer as leituras
+ * e a ingestão não paga um UPDATE extra por leitura. Se a tabela estiver vazia (primeira
+ * implantação sobre um banco que já tem leituras), ela é preenchida a partir de leituras.
+ */
+@Component
+public class CacheUltimasLeituras {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheUltimasLeituras.class);
+
+    @Autowired
+    private UltimaLeituraSensorRepository ultimaLeituraSensorRepository;
+
+    @Autowired
+    private LeituraRepository leituraRepository;
+
+    @Autowired
+    private CacheSensores cacheSensores;
+
+    private final ConcurrentHashMap<Long, Leitura> ultimas = new ConcurrentHashMap<>();
+    private final Set<Long> pendentes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Recarrega o estado persistido quando a aplicação termina de subir. Com a tabela
+     * ultimas_leituras vazia, preenche-a com a última leitura de cada sensor.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        List<UltimaLeituraSensor> estados = ultimaLeituraSensorRepository.findAll();
+        if (estados.isEmpty()) {
+            preencherAPartirDasLeituras();
+            return;
+        }
+        for (UltimaLeituraSensor estado : estados) {
+            Optional<Sensor> sensor = cacheSensores.buscar(estado.getSensorId());
+            sensor.ifPresent(s -> atualizar(estado.toLeitura(s), false));
+        }
+        log.info("Últimas leituras carregadas para {} sensores", ultimas.size());
+    }
+
+    /**
+     * Preenche o estado e a tabela ultimas_leituras com uma única consulta de
+     * MAX(dataHora) por sensor sobre leituras.
+     */
+    private void preencherAPartirDasLeituras() {
+        List<Leitura> leituras = leituraRepository.findUltimasPorSensor();
+        List<Long> sensorIds = leituras.stream().map(leitura -> leitura.getSensor().getId()).distinct().toList();
+        Map<Long, Sensor> sensores = cacheSensores.buscarTodos(sensorIds);
+        for (Leitura leitura : leituras) {
+            Sensor sensor = sensores.get(leitura.getSensor().getId());
+            if (sensor != null) {
+                leitura.setSensor(sensor);
+                atualizar(leitura, true);
+            }
+        }
+        gravarPendentes();
+        log.info("Últimas leituras preenchidas a partir de leituras para {} sensores", ultimas.size());
+    }
+
+    /**
+     * Registra uma leitura persistida como candidata a última leitura do sensor.
+     * Dentro de uma transação, a atualização só é aplicada após o commit.
+     *
+     * @param leitura leitura persistida (com sensor resolvido)
+     */
+    public void registrar(Leitura leitura) {
+        AposCommit.executar(() -> atualizar(leitura, true));
+    }
+
+    /**
+     * Retorna a última leitura de cada sensor.
+     *
+     * @return List<Leitura> com uma leitura por sensor
+     */
+    public List<Leitura> listar() {
+        return new ArrayList<>(ultimas.values());
+    }
+
+    /**
+     * Retorna a última leitura conhecida de um sensor.
+     *
+     * @param sensorId ID do sensor
+     * @return Optional<Leitura> com a última leitura, se houver
+     */
+    public Optional<Leitura> buscar(Long sensorId) {
+        return Optional.ofNullable(ultimas.get(sensorId));
+    }
+
+    /**
+     * Descarta a última leitura de um sensor removido, em memória e na tabela ultimas_leituras.
+     *
+     * @param sensorId ID do sensor removido
+     */
+    public void remover(Long sensorId) {
+        ultimas.remove(sensorId);
+        pendentes.remove(sensorId);
+        ultimaLeituraSensorRepository.deleteById(sensorId);
+    }
+
+    /**
+     * Grava na tabela ultimas_leituras os sensores alterados desde a última gravação.
+     */
+    @Scheduled(fixedDelayString = "${leituras.ultimas.intervalo-gravacao-ms:5000}")
+    @PreDestroy
+    public void gravarPendentes() {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        List<UltimaLeituraSensor> estados = new ArrayList<>();
+        for (Long sensorId : pendentes) {
+            pendentes.remove(sensorId);
+            Leitura leitura = ultimas.get(sensorId);
+            if (leitura != null) {
+                estados.add(UltimaLeituraSensor.fromLeitura(leitura));
+            }
+        }
+        try {
+            ultimaLeituraSensorRepository.saveAll(estados);
+        } catch (Exception e) {
+            estados.forEach(estado -> pendentes.add(estado.getSensorId()));
+            log.warn("Falha ao gravar últimas leituras: {}", e.getMessage());
+        }
+    }
+
+    private void atualizar(Leitura leitura, boolean marcarPendente) {
+        Long sensorId = leitura.getSensor().getId();
+        Leitura resultado = ultimas.merge(sensorId, leitura,
+                (atual, nova) -> nova.getDataHora().isBefore(atual.getDataHora()) ? atual : nova);
+        if (marcarPendente && resultado == leitura) {
+            pendentes.add(sensorId);
+        }
+    }
+}
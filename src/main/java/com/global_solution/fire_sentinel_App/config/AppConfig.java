@@ -1,14 +1,34 @@
 package com.global_solution.fire_sentinel_App.config;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
+    /**
+     * RestTemplate sobre o HttpClient do JDK, que mantém um pool de conexões keep-alive
+     * reaproveitadas entre as chamadas. Conexão e resposta têm prazo máximo, para que uma
+     * API lenta não prenda as threads da aplicação indefinidamente.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(
+            @Value("${ia.risk.analysis.http.timeout-conexao-ms:1000}") long timeoutConexaoMs,
+            @Value("${ia.risk.analysis.http.timeout-leitura-ms:3000}") long timeoutLeituraMs) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(timeoutConexaoMs))
+                .build();
+        JdkClientHttpRequestFactory fabrica = new JdkClientHttpRequestFactory(httpClient);
+        fabrica.setReadTimeout(Duration.ofMillis(timeoutLeituraMs));
+        return new RestTemplate(fabrica);
     }
 }
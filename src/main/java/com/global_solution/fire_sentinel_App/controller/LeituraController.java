@@ -1,10 +1,14 @@
 package com.global_solution.fire_sentinel_App.controller;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,9 +17,17 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.global_solution.fire_sentinel_App.dto.CursorTemporal;
 import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.PercentisDTO;
+import com.global_solution.fire_sentinel_App.dto.PontoSerieDTO;
+import com.global_solution.fire_sentinel_App.dto.ResultadoLoteLeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.TendenciaSensorDTO;
+import com.global_solution.fire_sentinel_App.historico.Metrica;
 import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Resolucao;
 import com.global_solution.fire_sentinel_App.service.LeituraService;
 
 /**
@@ -32,36 +44,108 @@ public class LeituraController {
     @Autowired
     private LeituraService leituraService;
     
+    @Autowired
+    private Paginacao paginacao;
+    
+    @Value("${leituras.lote.tamanho-maximo:1000}")
+    private int tamanhoMaximoLote;
+    
     /**
      * Registra uma nova leitura de sensor no sistema.
      * 
      * @param leituraDTO DTO contendo os dados da leitura a ser registrada
-     * @return ResponseEntity com a leitura registrada e status HTTP 201 (CREATED)
+     * @return ResponseEntity com a leitura registrada e status HTTP 201 (CREATED), ou
+     *         202 (ACCEPTED) quando a leitura foi aceita pelo log e ainda não tem ID
      */
     @PostMapping
     public ResponseEntity<Leitura> registrarLeitura(@RequestBody LeituraDTO leituraDTO) {
         Leitura novaLeitura = leituraService.registrarLeitura(leituraDTO);
-        return new ResponseEntity<>(novaLeitura, HttpStatus.CREATED);
+        HttpStatus status = novaLeitura.getId() != null ? HttpStatus.CREATED : HttpStatus.ACCEPTED;
+        return new ResponseEntity<>(novaLeitura, status);
+    }
+    
+    /**
+     * Registra um lote de leituras enviado por um gateway em uma única requisição.
+     * 
+     * @param leiturasDTO lista de DTOs com os dados das leituras
+     * @return ResponseEntity com o status de cada item e HTTP 201 (CREATED) se todas
+     *         forem aceitas, 202 (ACCEPTED) se foram aceitas pelo log e ainda não têm ID,
+     *         207 (MULTI_STATUS) se alguma for rejeitada, ou 413 (PAYLOAD_TOO_LARGE) se o
+     *         lote tiver mais itens que leituras.lote.tamanho-maximo
+     */
+    @PostMapping("/lote")
+    public ResponseEntity<ResultadoLoteLeituraDTO> registrarLeituras(@RequestBody List<LeituraDTO> leiturasDTO) {
+        if (leiturasDTO.size() > tamanhoMaximoLote) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        ResultadoLoteLeituraDTO resultado = leituraService.registrarLeituras(leiturasDTO);
+        HttpStatus status;
+        if (resultado.getRejeitadas() > 0) {
+            status = HttpStatus.MULTI_STATUS;
+        } else if (resultado.getItens().stream().anyMatch(item -> item.getLeituraId() == null)) {
+            status = HttpStatus.ACCEPTED;
+        } else {
+            status = HttpStatus.CREATED;
+        }
+        return new ResponseEntity<>(resultado, status);
     }
     
     /**
-     * Lista todas as leituras do sistema, com opção de filtrar por sensor.
+     * Lista as leituras do sistema com paginação por cursor, com opção de filtrar
+     * por sensor ou por período. O cursor da próxima página, quando houver, é
+     * retornado no cabeçalho X-Proximo-Cursor: o ID da última leitura na listagem
+     * geral e "dataHora_id" nas listagens por sensor e por período.
      * 
      * @param sensorId ID opcional do sensor para filtrar as leituras
-     * @return ResponseEntity com a lista de leituras e status HTTP 200 (OK)
+     * @param inicio data/hora inicial opcional do período
+     * @param fim data/hora final opcional do período
+     * @param after cursor da última leitura da página anterior, como recebido em X-Proximo-Cursor
+     * @param limit tamanho máximo da página
+     * @return ResponseEntity com a página de leituras e status HTTP 200 (OK), ou
+     *         requisição inválida (400) se o cursor não estiver no formato da listagem
      */
     @GetMapping
     public ResponseEntity<List<Leitura>> listarLeituras(
-            @RequestParam(required = false) Long sensorId) {
+            @RequestParam(required = false) Long sensorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         
-        List<Leitura> leituras;
-        if (sensorId != null) {
-            leituras = leituraService.buscarPorSensor(sensorId);
-        } else {
-            leituras = leituraService.listarTodas();
+        int limite = paginacao.normalizarLimite(limit);
+        try {
+            if (sensorId != null) {
+                List<Leitura> leituras = leituraService.buscarPorSensor(
+                        sensorId, after != null ? CursorTemporal.valueOf(after) : null, limite);
+                return paginacao.responder(leituras, limite, LeituraController::cursorTemporal);
+            }
+            if (inicio != null && fim != null) {
+                List<Leitura> leituras = leituraService.buscarPorPeriodo(
+                        inicio, fim, after != null ? CursorTemporal.valueOf(after) : null, limite);
+                return paginacao.responder(leituras, limite, LeituraController::cursorTemporal);
+            }
+            List<Leitura> leituras = leituraService.listarPagina(after != null ? Long.valueOf(after) : null, limite);
+            return paginacao.responder(leituras, limite, Leitura::getId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
-        
-        return ResponseEntity.ok(leituras);
+    }
+    
+    private static CursorTemporal cursorTemporal(Leitura leitura) {
+        return new CursorTemporal(leitura.getDataHora(), leitura.getId());
+    }
+    
+    /**
+     * Exporta as leituras em NDJSON (uma leitura JSON por linha), em streaming.
+     * Selecionado quando o cliente envia Accept: application/x-ndjson.
+     * 
+     * @param sensorId ID opcional do sensor para filtrar as leituras
+     * @return ResponseEntity com o corpo em streaming e status HTTP 200 (OK)
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarLeituras(
+            @RequestParam(required = false) Long sensorId) {
+        return paginacao.<LeituraDTO>ndjson(consumidor -> leituraService.exportarLeituras(sensorId, consumidor));
     }
     
     /**
@@ -77,6 +161,114 @@ public class LeituraController {
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    /**
+     * Retorna a série temporal agregada de um sensor (mínimo, máximo, média, último valor
+     * e quantidade de cada métrica por intervalo), própria para gráficos de longos períodos.
+     * 
+     * @param id ID do sensor
+     * @param resolucao resolução dos intervalos (MINUTE, HOUR ou DAY)
+     * @param inicio data/hora inicial do período
+     * @param fim data/hora final do período
+     * @return ResponseEntity com os pontos da série e status HTTP 200 (OK)
+     */
+    @GetMapping("/sensor/{id}/serie")
+    public ResponseEntity<List<PontoSerieDTO>> obterSerie(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "HOUR") Resolucao resolucao,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
+        List<PontoSerieDTO> serie = leituraService.buscarSerie(id, resolucao, inicio, fim);
+        return ResponseEntity.ok(serie);
+    }
+    
+    /**
+     * Retorna o histórico de leituras de um sensor no período, decodificado dos blocos
+     * comprimidos por sensor-hora. Inclui as leituras já removidas pela retenção; leituras
+     * gravadas antes de os blocos existirem só entram nele quando a retenção as alcança.
+     * 
+     * @param id ID do sensor
+     * @param inicio data/hora inicial do período
+     * @param fim data/hora final do período
+     * @return ResponseEntity com as leituras do período e status HTTP 200 (OK)
+     */
+    @GetMapping("/sensor/{id}/historico")
+    public ResponseEntity<List<LeituraDTO>> obterHistorico(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
+        List<LeituraDTO> historico = leituraService.buscarHistorico(id, inicio, fim);
+        return ResponseEntity.ok(historico);
+    }
+    
+    /**
+     * Retorna percentis de uma métrica do sensor no período, estimados a partir dos
+     * sketches de quantis por sensor-hora (erro relativo de até 1%).
+     * 
+     * @param id ID do sensor
+     * @param metrica métrica consultada (TEMPERATURA, UMIDADE, NIVEL_FUMACA ou CO2)
+     * @param inicio data/hora inicial do período
+     * @param fim data/hora final do período
+     * @param quantis quantis desejados entre 0 e 1 (padrão 0.5, 0.95 e 0.99)
+     * @return ResponseEntity com os percentis (200) ou requisição inválida (400) se algum quantil estiver fora de [0, 1]
+     */
+    @GetMapping("/sensor/{id}/percentis")
+    public ResponseEntity<PercentisDTO> obterPercentis(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "TEMPERATURA") Metrica metrica,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(defaultValue = "0.5,0.95,0.99") List<Double> quantis) {
+        if (!quantisValidos(quantis)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(leituraService.buscarPercentis(id, metrica, inicio, fim, quantis));
+    }
+    
+    /**
+     * Retorna percentis de uma métrica para todos os sensores de uma área no período.
+     * 
+     * @param latitude latitude do centro da área
+     * @param longitude longitude do centro da área
+     * @param raio raio da área em quilômetros
+     * @param metrica métrica consultada (TEMPERATURA, UMIDADE, NIVEL_FUMACA ou CO2)
+     * @param inicio data/hora inicial do período
+     * @param fim data/hora final do período
+     * @param quantis quantis desejados entre 0 e 1 (padrão 0.5, 0.95 e 0.99)
+     * @return ResponseEntity com os percentis (200) ou requisição inválida (400) se algum quantil estiver fora de [0, 1]
+     */
+    @GetMapping("/area/{latitude}/{longitude}/{raio}/percentis")
+    public ResponseEntity<PercentisDTO> obterPercentisPorArea(
+            @PathVariable Double latitude,
+            @PathVariable Double longitude,
+            @PathVariable Double raio,
+            @RequestParam(defaultValue = "TEMPERATURA") Metrica metrica,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(defaultValue = "0.5,0.95,0.99") List<Double> quantis) {
+        if (!quantisValidos(quantis)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(leituraService.buscarPercentisPorArea(latitude, longitude, raio, metrica, inicio, fim, quantis));
+    }
+    
+    private static boolean quantisValidos(List<Double> quantis) {
+        return !quantis.isEmpty() && quantis.stream().allMatch(q -> q != null && q >= 0 && q <= 1);
+    }
+    
+    /**
+     * Retorna variação e tendência recentes de cada métrica de um sensor, calculadas
+     * sobre as últimas leituras mantidas em memória.
+     * 
+     * @param id ID do sensor
+     * @return ResponseEntity com as tendências (200) ou não encontrado (404) se não houver leituras
+     */
+    @GetMapping("/sensor/{id}/tendencia")
+    public ResponseEntity<TendenciaSensorDTO> obterTendencia(@PathVariable Long id) {
+        Optional<TendenciaSensorDTO> tendencia = leituraService.obterTendencia(id);
+        return tendencia.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
     /**
      * Retorna as últimas leituras registradas para cada sensor.
      * Útil para monitoramento em tempo real do estado dos sensores.
@@ -0,0 +1,239 @@
+package com.global_solution.fire_sentinel_App.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.global_solution.fire_sentinel_App.anomalia.DetectorAnomalias;
+import com.global_solution.fire_sentinel_App.anomalia.OcorrenciasAnomalias;
+import com.global_solution.fire_sentinel_App.cache.CacheSensores;
+import com.global_solution.fire_sentinel_App.geo.IndiceEspacial;
+import com.global_solution.fire_sentinel_App.historico.ArmazenamentoBlocosLeituras;
+import com.global_solution.fire_sentinel_App.historico.EstatisticasSensores;
+import com.global_solution.fire_sentinel_App.historico.HistoricoRecenteLeituras;
+import com.global_solution.fire_sentinel_App.ia.AvaliadorRiscoLocal;
+import com.global_solution.fire_sentinel_App.ia.CacheAnalisesRisco;
+import com.global_solution.fire_sentinel_App.ia.ClienteIALote;
+import com.global_solution.fire_sentinel_App.pipeline.FilaReanaliseRisco;
+import com.global_solution.fire_sentinel_App.pipeline.PipelineAnaliseRisco;
+import com.global_solution.fire_sentinel_App.retencao.PoliticaRetencao;
+import com.global_solution.fire_sentinel_App.serie.AgregadorPercentis;
+import com.global_solution.fire_sentinel_App.serie.AgregadorSeries;
+import com.global_solution.fire_sentinel_App.wal.AplicadorLogLeituras;
+
+/**
+ * Controller REST que expõe métricas operacionais dos componentes internos do Fire Sentinel.
+ * Usado para acompanhar filas, caches e demais estruturas do caminho de ingestão.
+ * 
+ * @RestController indica que esta classe é um controlador REST
+ * @RequestMapping("/metricas") mapeia todas as requisições para /metricas
+ */
+@RestController
+@RequestMapping("/metricas")
+public class MetricasController {
+    
+    @Autowired
+    private PipelineAnaliseRisco pipelineAnaliseRisco;
+    
+    @Autowired
+    private FilaReanaliseRisco filaReanaliseRisco;
+    
+    @Autowired
+    private ClienteIALote clienteIALote;
+    
+    @Autowired
+    private AvaliadorRiscoLocal avaliadorRiscoLocal;
+    
+    @Autowired
+    private CacheAnalisesRisco cacheAnalisesRisco;
+    
+    @Autowired
+    private CacheSensores cacheSensores;
+    
+    @Autowired
+    private IndiceEspacial indiceEspacial;
+    
+    @Autowired
+    private AgregadorSeries agregadorSeries;
+    
+    @Autowired
+    private PoliticaRetencao politicaRetencao;
+    
+    @Autowired
+    private HistoricoRecenteLeituras historicoRecenteLeituras;
+    
+    @Autowired
+    private ArmazenamentoBlocosLeituras armazenamentoBlocosLeituras;
+    
+    @Autowired
+    private AplicadorLogLeituras aplicadorLogLeituras;
+    
+    @Autowired
+    private EstatisticasSensores estatisticasSensores;
+    
+    @Autowired
+    private AgregadorPercentis agregadorPercentis;
+    
+    @Autowired
+    private DetectorAnomalias detectorAnomalias;
+    
+    @Autowired
+    private OcorrenciasAnomalias ocorrenciasAnomalias;
+    
+    /**
+     * Retorna as métricas do pipeline assíncrono de análise de risco.
+     * 
+     * @return ResponseEntity com profundidade da fila e contadores, status HTTP 200 (OK)
+     */
+    @GetMapping("/pipeline-risco")
+    public ResponseEntity<Map<String, Object>> obterMetricasPipelineRisco() {
+        return ResponseEntity.ok(pipelineAnaliseRisco.obterMetricas());
+    }
+    
+    /**
+     * Retorna as métricas da fila persistente de reanálise de risco.
+     * 
+     * @return ResponseEntity com tamanho da fila, idade da pendência mais antiga e tentativas, status HTTP 200 (OK)
+     */
+    @GetMapping("/reanalise-risco")
+    public ResponseEntity<Map<String, Object>> obterMetricasReanaliseRisco() {
+        return ResponseEntity.ok(filaReanaliseRisco.obterMetricas());
+    }
+    
+    /**
+     * Retorna as métricas do cliente em micro-lotes da API de IA.
+     * 
+     * @return ResponseEntity com lotes enviados e tamanho médio, status HTTP 200 (OK)
+     */
+    @GetMapping("/ia-lote")
+    public ResponseEntity<Map<String, Object>> obterMetricasClienteIALote() {
+        return ResponseEntity.ok(clienteIALote.obterMetricas());
+    }
+    
+    /**
+     * Retorna as métricas do modelo de risco local e das chamadas à API evitadas por ele.
+     * 
+     * @return ResponseEntity com modo, análises locais, chamadas evitadas e fallbacks, status HTTP 200 (OK)
+     */
+    @GetMapping("/ia-local")
+    public ResponseEntity<Map<String, Object>> obterMetricasIALocal() {
+        return ResponseEntity.ok(avaliadorRiscoLocal.obterMetricas());
+    }
+    
+    /**
+     * Retorna as métricas do cache de respostas da API de IA.
+     * 
+     * @return ResponseEntity com tamanho, taxa de acerto, expirações e despejos, status HTTP 200 (OK)
+     */
+    @GetMapping("/cache-ia")
+    public ResponseEntity<Map<String, Object>> obterMetricasCacheIA() {
+        return ResponseEntity.ok(cacheAnalisesRisco.obterMetricas());
+    }
+    
+    /**
+     * Retorna as métricas do cache de sensores (acertos e faltas).
+     * 
+     * @return ResponseEntity com tamanho, acertos, faltas e taxa de acerto, status HTTP 200 (OK)
+     */
+    @GetMapping("/cache-sensores")
+    public ResponseEntity<Map<String, Object>> obterMetricasCacheSensores() {
+        return ResponseEntity.ok(cacheSensores.obterMetricas());
+    }
+    
+    /**
+     * Retorna as métricas do índice espacial de sensores.
+     * 
+     * @return ResponseEntity com sensores indexados e células ocupadas, status HTTP 200 (OK)
+     */
+    @GetMapping("/indice-espacial")
+    public ResponseEntity<Map<String, Object>> obterMetricasIndiceEspacial() {
+        return ResponseEntity.ok(indiceEspacial.obterMetricas());
+    }
+    
+    /**
+     * Retorna as métricas do agregador de séries temporais.
+     * 
+     * @return ResponseEntity com leituras agregadas e agregados pendentes de gravação, status HTTP 200 (OK)
+     */
+    @GetMapping("/series")
+    public ResponseEntity<Map<String, Object>> obterMetricasSeries() {
+        return ResponseEntity.ok(agregadorSeries.obterMetricas());
+    }
+    
+    /**
+     * Retorna as métricas da política de retenção, incluindo o relatório da última execução.
+     * 
+     * @return ResponseEntity com riscos compactados e leituras removidas, status HTTP 200 (OK)
+     */
+    @GetMapping("/retencao")
+    public ResponseEntity<Map<String, Object>> obterMetricasRetencao() {
+        return ResponseEntity.ok(politicaRetencao.obterMetricas());
+    }
+    
+    /**
+     * Retorna as métricas do histórico recente de leituras em memória.
+     * 
+     * @return ResponseEntity com sensores e memória fixa por sensor, status HTTP 200 (OK)
+     */
+    @GetMapping("/historico-recente")
+    public ResponseEntity<Map<String, Object>> obterMetricasHistoricoRecente() {
+        return ResponseEntity.ok(historicoRecenteLeituras.obterMetricas());
+    }
+    
+    /**
+     * Retorna as métricas do histórico comprimido em blocos por sensor-hora.
+     * 
+     * @return ResponseEntity com blocos gravados e bytes por leitura, status HTTP 200 (OK)
+     */
+    @GetMapping("/blocos-leituras")
+    public ResponseEntity<Map<String, Object>> obterMetricasBlocosLeituras() {
+        return ResponseEntity.ok(armazenamentoBlocosLeituras.obterMetricas());
+    }
+    
+    /**
+     * Retorna as métricas do log durável de leituras e da sua aplicação ao banco.
+     * 
+     * @return ResponseEntity com sequências, sincronizações e atraso de aplicação, status HTTP 200 (OK)
+     */
+    @GetMapping("/log-leituras")
+    public ResponseEntity<Map<String, Object>> obterMetricasLogLeituras() {
+        return ResponseEntity.ok(aplicadorLogLeituras.obterMetricas());
+    }
+    
+    /**
+     * Retorna as métricas das estatísticas incrementais por sensor.
+     * 
+     * @return ResponseEntity com sensores em memória, aquecimentos e consultas, status HTTP 200 (OK)
+     */
+    @GetMapping("/estatisticas-sensores")
+    public ResponseEntity<Map<String, Object>> obterMetricasEstatisticasSensores() {
+        return ResponseEntity.ok(estatisticasSensores.obterMetricas());
+    }
+    
+    /**
+     * Retorna as métricas dos sketches de percentis por sensor-hora.
+     * 
+     * @return ResponseEntity com sketches gravados, pendentes e consultas, status HTTP 200 (OK)
+     */
+    @GetMapping("/percentis")
+    public ResponseEntity<Map<String, Object>> obterMetricasPercentis() {
+        return ResponseEntity.ok(agregadorPercentis.obterMetricas());
+    }
+    
+    /**
+     * Retorna as métricas do detector de anomalias e das ocorrências geradas por ele.
+     * 
+     * @return ResponseEntity com sensores, memória por sensor, anomalias e ocorrências, status HTTP 200 (OK)
+     */
+    @GetMapping("/anomalias")
+    public ResponseEntity<Map<String, Object>> obterMetricasAnomalias() {
+        Map<String, Object> metricas = new LinkedHashMap<>(detectorAnomalias.obterMetricas());
+        metricas.put("ocorrencias", ocorrenciasAnomalias.obterMetricas());
+        return ResponseEntity.ok(metricas);
+    }
+}
@@ -6,6 +6,7 @@ import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,7 +17,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.global_solution.fire_sentinel_App.dto.CursorTemporal;
 import com.global_solution.fire_sentinel_App.dto.OcorrenciaDTO;
 import com.global_solution.fire_sentinel_App.service.OcorrenciaService;
 
@@ -34,6 +37,9 @@ public class OcorrenciaController {
     @Autowired
     private OcorrenciaService ocorrenciaService;
     
+    @Autowired
+    private Paginacao paginacao;
+    
     /**
      * Registra uma nova ocorrência no sistema.
      * 
@@ -47,14 +53,31 @@ public class OcorrenciaController {
     }
     
     /**
-     * Lista todas as ocorrências registradas no sistema.
+     * Lista as ocorrências registradas no sistema com paginação por cursor.
+     * O cursor da próxima página, quando houver, é retornado no cabeçalho X-Proximo-Cursor.
      * 
-     * @return ResponseEntity com a lista de ocorrências e status HTTP 200 (OK)
+     * @param after ID da última ocorrência da página anterior (cursor)
+     * @param limit tamanho máximo da página
+     * @return ResponseEntity com a página de ocorrências e status HTTP 200 (OK)
      */
     @GetMapping
-    public ResponseEntity<List<OcorrenciaDTO>> listarOcorrencias() {
-        List<OcorrenciaDTO> ocorrencias = ocorrenciaService.listarTodas();
-        return ResponseEntity.ok(ocorrencias);
+    public ResponseEntity<List<OcorrenciaDTO>> listarOcorrencias(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        int limite = paginacao.normalizarLimite(limit);
+        List<OcorrenciaDTO> ocorrencias = ocorrenciaService.listarPagina(after, limite);
+        return paginacao.responder(ocorrencias, limite, OcorrenciaDTO::getId);
+    }
+    
+    /**
+     * Exporta as ocorrências em NDJSON (uma ocorrência JSON por linha), em streaming.
+     * Selecionado quando o cliente envia Accept: application/x-ndjson.
+     * 
+     * @return ResponseEntity com o corpo em streaming e status HTTP 200 (OK)
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarOcorrencias() {
+        return paginacao.<OcorrenciaDTO>ndjson(ocorrenciaService::exportarOcorrencias);
     }
     
     /**
@@ -74,12 +97,18 @@ public class OcorrenciaController {
      * Busca ocorrências por região.
      * 
      * @param regiao nome da região para filtrar
+     * @param after ID da última ocorrência da página anterior (cursor)
+     * @param limit tamanho máximo da página
      * @return ResponseEntity com a lista de ocorrências da região e status HTTP 200 (OK)
      */
     @GetMapping("/regiao/{regiao}")
-    public ResponseEntity<List<OcorrenciaDTO>> buscarPorRegiao(@PathVariable String regiao) {
-        List<OcorrenciaDTO> ocorrencias = ocorrenciaService.buscarPorRegiao(regiao);
-        return ResponseEntity.ok(ocorrencias);
+    public ResponseEntity<List<OcorrenciaDTO>> buscarPorRegiao(
+            @PathVariable String regiao,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        int limite = paginacao.normalizarLimite(limit);
+        List<OcorrenciaDTO> ocorrencias = ocorrenciaService.buscarPorRegiao(regiao, after, limite);
+        return paginacao.responder(ocorrencias, limite, OcorrenciaDTO::getId);
     }
     
     /**
@@ -99,14 +128,20 @@ public class OcorrenciaController {
      * 
      * @param inicio data/hora inicial do período
      * @param fim data/hora final do período
+     * @param after cursor "dataHora_id" da última ocorrência da página anterior
+     * @param limit tamanho máximo da página
      * @return ResponseEntity com a lista de ocorrências e status HTTP 200 (OK)
      */
     @GetMapping("/periodo")
     public ResponseEntity<List<OcorrenciaDTO>> buscarPorPeriodo(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
-        List<OcorrenciaDTO> ocorrencias = ocorrenciaService.buscarPorPeriodo(inicio, fim);
-        return ResponseEntity.ok(ocorrencias);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(required = false) CursorTemporal after,
+            @RequestParam(required = false) Integer limit) {
+        int limite = paginacao.normalizarLimite(limit);
+        List<OcorrenciaDTO> ocorrencias = ocorrenciaService.buscarPorPeriodo(inicio, fim, after, limite);
+        return paginacao.responder(ocorrencias, limite,
+                ocorrencia -> new CursorTemporal(ocorrencia.getDataHora(), ocorrencia.getId()));
     }
     
     /**
@@ -0,0 +1,106 @@
+package com.global_solution.fire_sentinel_App.controller;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Apoio aos endpoints de listagem: paginação por cursor (keyset) e exportação em NDJSON.
+ * 
+ * Na paginação, o parâmetro "after" identifica o último item da página anterior (o ID
+ * nas listagens em ordem de ID; dataHora e ID, ver CursorTemporal, nas listagens em
+ * ordem cronológica) e "limit" o tamanho da página (limitado a um máximo configurável).
+ * Quando a página vem cheia, o cursor da próxima página é devolvido no cabeçalho
+ * X-Proximo-Cursor.
+ * 
+ * No modo NDJSON (Accept: application/x-ndjson), cada item é serializado e escrito
+ * assim que lido do banco, mantendo o uso de heap constante.
+ */
+@Component
+public class Paginacao {
+    
+    public static final String CABECALHO_PROXIMO_CURSOR = "X-Proximo-Cursor";
+    
+    private static final int LINHAS_POR_FLUSH = 500;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${api.paginacao.limite-padrao:100}")
+    private int limitePadrao;
+    
+    @Value("${api.paginacao.limite-maximo:1000}")
+    private int limiteMaximo;
+    
+    /**
+     * Normaliza o tamanho de página solicitado.
+     * 
+     * @param limit tamanho solicitado (pode ser nulo)
+     * @return int tamanho de página entre 1 e o limite máximo
+     */
+    public int normalizarLimite(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return limitePadrao;
+        }
+        return Math.min(limit, limiteMaximo);
+    }
+    
+    /**
+     * Monta a resposta de uma página, incluindo o cursor da próxima página quando houver.
+     * 
+     * @param itens itens da página
+     * @param limite tamanho de página usado na consulta
+     * @param cursor função que extrai o cursor (ID ou CursorTemporal) de um item
+     * @return ResponseEntity com a página e status HTTP 200 (OK)
+     */
+    public <T> ResponseEntity<List<T>> responder(List<T> itens, int limite, Function<T, ?> cursor) {
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+        if (!itens.isEmpty() && itens.size() >= limite) {
+            resposta.header(CABECALHO_PROXIMO_CURSOR, String.valueOf(cursor.apply(itens.get(itens.size() - 1))));
+        }
+        return resposta.body(itens);
+    }
+    
+    /**
+     * Monta uma resposta NDJSON que escreve os itens à medida que o produtor os entrega.
+     * 
+     * @param produtor função que percorre os itens e os entrega ao consumidor recebido
+     * @return ResponseEntity com o corpo em streaming
+     */
+    public <T> ResponseEntity<StreamingResponseBody> ndjson(Consumer<Consumer<T>> produtor) {
+        StreamingResponseBody corpo = saida -> {
+            Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+            int[] linhas = {0};
+            produtor.accept(item -> {
+                try {
+                    escritor.write(objectMapper.writeValueAsString(item));
+                    escritor.write('\n');
+                    if (++linhas[0] % LINHAS_POR_FLUSH == 0) {
+                        escritor.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            escritor.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(corpo);
+    }
+}
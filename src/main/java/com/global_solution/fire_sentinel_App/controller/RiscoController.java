@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
@@ -60,6 +61,18 @@ public class RiscoController {
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    /**
+     * Obtém a última análise de risco de vários sensores em uma única requisição.
+     * 
+     * @param sensorIds IDs dos sensores (ex: ?sensorIds=1,2,3)
+     * @return ResponseEntity com o último risco de cada sensor que possui análise, status HTTP 200 (OK)
+     */
+    @GetMapping("/ultimos")
+    public ResponseEntity<List<RiscoDTO>> obterUltimosRiscosPorSensores(@RequestParam List<Long> sensorIds) {
+        List<RiscoDTO> ultimosRiscos = riscoService.obterUltimosRiscosPorSensores(sensorIds);
+        return ResponseEntity.ok(ultimosRiscos);
+    }
+    
     /**
      * Retorna o histórico completo de análises de risco para um sensor.
      * 
@@ -5,6 +5,7 @@ import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,8 +14,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.global_solution.fire_sentinel_App.dto.EstatisticasSensorDTO;
 import com.global_solution.fire_sentinel_App.dto.SensorDTO;
 import com.global_solution.fire_sentinel_App.model.Sensor;
 import com.global_solution.fire_sentinel_App.service.SensorService;
@@ -33,6 +37,9 @@ public class SensorController {
     @Autowired
     private SensorService sensorService;
     
+    @Autowired
+    private Paginacao paginacao;
+    
     /**
      * Cadastra um novo sensor no sistema.
      * 
@@ -46,14 +53,31 @@ public class SensorController {
     }
     
     /**
-     * Lista todos os sensores cadastrados no sistema.
+     * Lista os sensores cadastrados no sistema com paginação por cursor.
+     * O cursor da próxima página, quando houver, é retornado no cabeçalho X-Proximo-Cursor.
      * 
-     * @return ResponseEntity com a lista de sensores e status HTTP 200 (OK)
+     * @param after ID do último sensor da página anterior (cursor)
+     * @param limit tamanho máximo da página
+     * @return ResponseEntity com a página de sensores e status HTTP 200 (OK)
      */
     @GetMapping
-    public ResponseEntity<List<Sensor>> listarSensores() {
-        List<Sensor> sensores = sensorService.listarTodos();
-        return ResponseEntity.ok(sensores);
+    public ResponseEntity<List<Sensor>> listarSensores(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        int limite = paginacao.normalizarLimite(limit);
+        List<Sensor> sensores = sensorService.listarPagina(after, limite);
+        return paginacao.responder(sensores, limite, Sensor::getId);
+    }
+    
+    /**
+     * Exporta os sensores em NDJSON (um sensor JSON por linha), em streaming.
+     * Selecionado quando o cliente envia Accept: application/x-ndjson.
+     * 
+     * @return ResponseEntity com o corpo em streaming e status HTTP 200 (OK)
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarSensores() {
+        return paginacao.<SensorDTO>ndjson(sensorService::exportarSensores);
     }
     
     /**
@@ -69,6 +93,21 @@ public class SensorController {
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    /**
+     * Retorna as estatísticas das leituras de um sensor (quantidade, média, variância,
+     * desvio padrão, mínimo e máximo de cada métrica) desde o início, na última hora e
+     * nas últimas 24 horas. Respondido a partir de acumuladores incrementais, sem
+     * percorrer as leituras.
+     * 
+     * @param id ID do sensor
+     * @return ResponseEntity com as estatísticas (200) ou sensor não encontrado (404)
+     */
+    @GetMapping("/{id}/estatisticas")
+    public ResponseEntity<EstatisticasSensorDTO> obterEstatisticas(@PathVariable Long id) {
+        return sensorService.obterEstatisticas(id).map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
     /**
      * Atualiza os dados de um sensor existente.
      * 
@@ -0,0 +1,47 @@
+package com.global_solution.fire_sentinel_App.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Cursor das listagens ordenadas por data/hora (keyset sobre dataHora e ID).
+ *
+ * Leva as duas chaves do último item da página anterior, de modo que a próxima
+ * página não depende de reler esse item no banco: se ele for removido entre uma
+ * página e outra (retenção, exclusão do sensor), a paginação continua do mesmo ponto.
+ * No cabeçalho X-Proximo-Cursor e no parâmetro "after" é representado como
+ * "dataHora_id", por exemplo "2024-05-10T14:30:00.123456_42".
+ *
+ * @param dataHora data/hora do último item da página anterior
+ * @param id ID do último item da página anterior (desempate entre itens do mesmo instante)
+ */
+public record CursorTemporal(LocalDateTime dataHora, Long id) {
+
+    private static final char SEPARADOR = '_';
+
+    /**
+     * Interpreta o cursor recebido no parâmetro "after".
+     *
+     * @param valor cursor no formato "dataHora_id"
+     * @return CursorTemporal correspondente
+     * @throws IllegalArgumentException se o valor não estiver no formato esperado
+     */
+    public static CursorTemporal valueOf(String valor) {
+        int separador = valor.lastIndexOf(SEPARADOR);
+        if (separador <= 0) {
+            throw new IllegalArgumentException("Cursor inválido: " + valor);
+        }
+        try {
+            return new CursorTemporal(
+                    LocalDateTime.parse(valor.substring(0, separador)),
+                    Long.valueOf(valor.substring(separador + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + valor, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return dataHora.toString() + SEPARADOR + id;
+    }
+}
@@ -0,0 +1,42 @@
+package com.global_solution.fire_sentinel_App.dto;
+
+import com.global_solution.fire_sentinel_App.historico.EstatisticaOnline;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com as estatísticas descritivas de uma métrica em um período.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstatisticaDescritivaDTO {
+    private long quantidade;
+    private Double media;
+    private Double variancia;
+    private Double desvioPadrao;
+    private Double minimo;
+    private Double maximo;
+    
+    /**
+     * Converte um acumulador incremental em DTO
+     * @param estatistica acumulador da métrica
+     * @return EstatisticaDescritivaDTO correspondente (campos nulos se não houver valores)
+     */
+    public static EstatisticaDescritivaDTO fromEstatistica(EstatisticaOnline estatistica) {
+        EstatisticaDescritivaDTO dto = new EstatisticaDescritivaDTO();
+        dto.setQuantidade(estatistica.getQuantidade());
+        dto.setMedia(valorOuNulo(estatistica.getMedia()));
+        dto.setVariancia(valorOuNulo(estatistica.getVariancia()));
+        dto.setDesvioPadrao(valorOuNulo(estatistica.getDesvioPadrao()));
+        dto.setMinimo(valorOuNulo(estatistica.getMinimo()));
+        dto.setMaximo(valorOuNulo(estatistica.getMaximo()));
+        return dto;
+    }
+    
+    private static Double valorOuNulo(double valor) {
+        return Double.isNaN(valor) ? null : valor;
+    }
+}
@@ -0,0 +1,44 @@
+package com.global_solution.fire_sentinel_App.dto;
+
+import java.time.LocalDateTime;
+
+import com.global_solution.fire_sentinel_App.historico.EstatisticaOnline;
+import com.global_solution.fire_sentinel_App.historico.Metrica;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com as estatísticas das métricas de um sensor em um período
+ * (desde o início, última hora ou últimas 24 horas).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstatisticasPeriodoDTO {
+    private LocalDateTime inicio;
+    private LocalDateTime fim;
+    private EstatisticaDescritivaDTO temperatura;
+    private EstatisticaDescritivaDTO umidade;
+    private EstatisticaDescritivaDTO nivelFumaca;
+    private EstatisticaDescritivaDTO co2;
+    
+    /**
+     * Monta o DTO a partir dos acumuladores de cada métrica
+     * @param inicio início do período (nulo para "desde o início")
+     * @param fim fim do período
+     * @param estatisticas um acumulador por métrica, na ordem de Metrica.values()
+     * @return EstatisticasPeriodoDTO correspondente
+     */
+    public static EstatisticasPeriodoDTO of(LocalDateTime inicio, LocalDateTime fim, EstatisticaOnline[] estatisticas) {
+        EstatisticasPeriodoDTO dto = new EstatisticasPeriodoDTO();
+        dto.setInicio(inicio);
+        dto.setFim(fim);
+        dto.setTemperatura(EstatisticaDescritivaDTO.fromEstatistica(estatisticas[Metrica.TEMPERATURA.ordinal()]));
+        dto.setUmidade(EstatisticaDescritivaDTO.fromEstatistica(estatisticas[Metrica.UMIDADE.ordinal()]));
+        dto.setNivelFumaca(EstatisticaDescritivaDTO.fromEstatistica(estatisticas[Metrica.NIVEL_FUMACA.ordinal()]));
+        dto.setCo2(EstatisticaDescritivaDTO.fromEstatistica(estatisticas[Metrica.CO2.ordinal()]));
+        return dto;
+    }
+}
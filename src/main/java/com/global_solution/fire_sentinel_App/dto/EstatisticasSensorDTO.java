@@ -0,0 +1,21 @@
+package com.global_solution.fire_sentinel_App.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com as estatísticas incrementais de um sensor: desde o início, na última hora
+ * e nas últimas 24 horas. Calculado a partir dos acumuladores em memória, sem
+ * percorrer as leituras. O total inclui as leituras já removidas pela política de
+ * retenção, que continuam em agregados_leituras.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstatisticasSensorDTO {
+    private Long sensorId;
+    private EstatisticasPeriodoDTO total;
+    private EstatisticasPeriodoDTO ultimaHora;
+    private EstatisticasPeriodoDTO ultimas24Horas;
+}
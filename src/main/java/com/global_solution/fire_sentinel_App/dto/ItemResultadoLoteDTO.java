@@ -0,0 +1,46 @@
+package com.global_solution.fire_sentinel_App.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO que representa o resultado do processamento de um item de um lote de leituras.
+ * Indica se a leitura foi aceita ou rejeitada e, neste caso, o motivo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemResultadoLoteDTO {
+
+    public static final String ACEITA = "ACEITA";
+    public static final String REJEITADA = "REJEITADA";
+
+    private int indice;
+    private Long sensorId;
+    private Long leituraId;
+    private String status;
+    private String motivo;
+
+    /**
+     * Cria o resultado de um item aceito.
+     * @param indice posição do item no lote recebido
+     * @param sensorId ID do sensor da leitura
+     * @param leituraId ID gerado para a leitura persistida
+     * @return ItemResultadoLoteDTO com status ACEITA
+     */
+    public static ItemResultadoLoteDTO aceita(int indice, Long sensorId, Long leituraId) {
+        return new ItemResultadoLoteDTO(indice, sensorId, leituraId, ACEITA, null);
+    }
+
+    /**
+     * Cria o resultado de um item rejeitado.
+     * @param indice posição do item no lote recebido
+     * @param sensorId ID do sensor informado (pode ser nulo)
+     * @param motivo motivo da rejeição
+     * @return ItemResultadoLoteDTO com status REJEITADA
+     */
+    public static ItemResultadoLoteDTO rejeitada(int indice, Long sensorId, String motivo) {
+        return new ItemResultadoLoteDTO(indice, sensorId, null, REJEITADA, motivo);
+    }
+}
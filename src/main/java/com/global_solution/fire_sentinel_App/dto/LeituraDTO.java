@@ -1,7 +1,11 @@
 package com.global_solution.fire_sentinel_App.dto;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
+import com.global_solution.fire_sentinel_App.historico.JanelaLeituras;
+import com.global_solution.fire_sentinel_App.historico.Metrica;
 import com.global_solution.fire_sentinel_App.model.Leitura;
 
 import lombok.AllArgsConstructor;
@@ -48,6 +52,32 @@ public class LeituraDTO {
         return dto;
     }
     
+    /**
+     * Converte as leituras de uma janela do histórico em DTOs (sem ID, pois as
+     * leituras vêm dos blocos comprimidos e não das linhas da tabela)
+     * @param sensorId ID do sensor das leituras
+     * @param janela leituras decodificadas do histórico
+     * @return List<LeituraDTO> em ordem cronológica
+     */
+    public static List<LeituraDTO> fromJanela(Long sensorId, JanelaLeituras janela) {
+        List<LeituraDTO> leituras = new ArrayList<>(janela.tamanho());
+        for (int i = 0; i < janela.tamanho(); i++) {
+            LeituraDTO dto = new LeituraDTO();
+            dto.setSensorId(sensorId);
+            dto.setDataHora(janela.getDataHora(i));
+            dto.setTemperatura(valorOuNulo(janela.valor(Metrica.TEMPERATURA, i)));
+            dto.setUmidade(valorOuNulo(janela.valor(Metrica.UMIDADE, i)));
+            dto.setNivelFumaca(valorOuNulo(janela.valor(Metrica.NIVEL_FUMACA, i)));
+            dto.setCo2(valorOuNulo(janela.valor(Metrica.CO2, i)));
+            leituras.add(dto);
+        }
+        return leituras;
+    }
+    
+    private static Double valorOuNulo(double valor) {
+        return Double.isNaN(valor) ? null : valor;
+    }
+    
     /**
      * Converte o DTO em uma entidade Leitura
      * @return Objeto Leitura correspondente
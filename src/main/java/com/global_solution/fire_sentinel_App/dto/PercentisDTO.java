@@ -0,0 +1,34 @@
+package com.global_solution.fire_sentinel_App.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import com.global_solution.fire_sentinel_App.historico.Metrica;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com os percentis de uma métrica para um sensor ou uma região em um período.
+ * Os valores são estimados por sketches de quantis com erro relativo limitado
+ * (campo erroRelativo); mínimo e máximo são exatos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PercentisDTO {
+    private Metrica metrica;
+    private LocalDateTime inicio;
+    private LocalDateTime fim;
+    private int sensores;
+    private long quantidade;
+    private Double minimo;
+    private Double maximo;
+    private double erroRelativo;
+    
+    /**
+     * Percentis estimados, indexados pelo nome (ex: p50, p95, p99, p99.9)
+     */
+    private Map<String, Double> percentis;
+}
@@ -0,0 +1,48 @@
+package com.global_solution.fire_sentinel_App.dto;
+
+import java.time.LocalDateTime;
+
+import com.global_solution.fire_sentinel_App.model.AgregadoLeitura;
+import com.global_solution.fire_sentinel_App.model.Resolucao;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO (Data Transfer Object) para um ponto da série temporal de leituras de um sensor.
+ * Cada ponto resume as leituras de um intervalo (minuto, hora ou dia).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PontoSerieDTO {
+    private Long sensorId;
+    private Resolucao resolucao;
+    private LocalDateTime inicio;
+    private long quantidade;
+    private ResumoMetricaDTO temperatura;
+    private ResumoMetricaDTO umidade;
+    private ResumoMetricaDTO nivelFumaca;
+    private ResumoMetricaDTO co2;
+    
+    /**
+     * Converte um objeto AgregadoLeitura em PontoSerieDTO
+     * @param agregado Objeto AgregadoLeitura a ser convertido
+     * @return PontoSerieDTO correspondente
+     */
+    public static PontoSerieDTO fromEntity(AgregadoLeitura agregado) {
+        if (agregado == null) return null;
+        
+        PontoSerieDTO dto = new PontoSerieDTO();
+        dto.setSensorId(agregado.getSensorId());
+        dto.setResolucao(agregado.getResolucao());
+        dto.setInicio(agregado.getInicio());
+        dto.setQuantidade(agregado.getQuantidade());
+        dto.setTemperatura(ResumoMetricaDTO.fromEntity(agregado.getTemperatura()));
+        dto.setUmidade(ResumoMetricaDTO.fromEntity(agregado.getUmidade()));
+        dto.setNivelFumaca(ResumoMetricaDTO.fromEntity(agregado.getNivelFumaca()));
+        dto.setCo2(ResumoMetricaDTO.fromEntity(agregado.getCo2()));
+        return dto;
+    }
+}
@@ -0,0 +1,28 @@
+package com.global_solution.fire_sentinel_App.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com o resultado de uma execução da política de retenção.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatorioRetencaoDTO {
+    private LocalDateTime inicioExecucao;
+    private LocalDateTime limiteLeituras;
+    private LocalDateTime limiteRiscos;
+    private long riscosCompactados;
+    private long agregadosRiscoGravados;
+    private long riscosDesvinculados;
+    private long leiturasCompactadas;
+    private long agregadosLeituraGravados;
+    private long leiturasConsolidadasEmBlocos;
+    private long leiturasRemovidas;
+    private int lotes;
+    private long duracaoMs;
+}
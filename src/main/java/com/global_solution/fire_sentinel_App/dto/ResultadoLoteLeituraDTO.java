@@ -0,0 +1,33 @@
+package com.global_solution.fire_sentinel_App.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com o resultado do registro de um lote de leituras.
+ * Traz os totais do lote e o status de cada item, na mesma ordem do envio.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoLoteLeituraDTO {
+    private int total;
+    private int aceitas;
+    private int rejeitadas;
+    private List<ItemResultadoLoteDTO> itens;
+
+    /**
+     * Monta o resultado do lote a partir dos itens processados.
+     * @param itens resultado individual de cada leitura
+     * @return ResultadoLoteLeituraDTO com os totais calculados
+     */
+    public static ResultadoLoteLeituraDTO of(List<ItemResultadoLoteDTO> itens) {
+        int aceitas = (int) itens.stream()
+                .filter(item -> ItemResultadoLoteDTO.ACEITA.equals(item.getStatus()))
+                .count();
+        return new ResultadoLoteLeituraDTO(itens.size(), aceitas, itens.size() - aceitas, itens);
+    }
+}
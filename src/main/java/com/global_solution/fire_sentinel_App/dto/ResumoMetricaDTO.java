@@ -0,0 +1,33 @@
+package com.global_solution.fire_sentinel_App.dto;
+
+import com.global_solution.fire_sentinel_App.model.EstatisticaMetrica;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com o resumo de uma métrica em um intervalo da série temporal.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoMetricaDTO {
+    private Double minimo;
+    private Double maximo;
+    private Double media;
+    private Double ultimo;
+    private long quantidade;
+    
+    /**
+     * Converte um objeto EstatisticaMetrica em ResumoMetricaDTO
+     * @param estatistica Objeto EstatisticaMetrica a ser convertido
+     * @return ResumoMetricaDTO correspondente
+     */
+    public static ResumoMetricaDTO fromEntity(EstatisticaMetrica estatistica) {
+        if (estatistica == null) return null;
+        
+        return new ResumoMetricaDTO(estatistica.getMinimo(), estatistica.getMaximo(),
+                estatistica.calcularMedia(), estatistica.getUltimo(), estatistica.getQuantidade());
+    }
+}
@@ -21,10 +21,19 @@ public class RiscoDTO {
     private String sensorNome;
     private Long leituraId;
     private LocalDateTime dataHoraAnalise;
+    /**
+     * Quando a análise provisória foi substituída pela da API de IA (null se não foi).
+     */
+    private LocalDateTime reanalisadoEm;
     private Double nivelRisco;
     private String categoria;
     private String descricao;
     private String recomendacao;
+    /**
+     * Análise provisória (fallback local ou erro): a API de IA falhou e a leitura
+     * aguarda reanálise (ver FilaReanaliseRisco).
+     */
+    private boolean provisoria;
     
     /**
      * Converte um objeto Risco em RiscoDTO
@@ -38,8 +47,9 @@ public class RiscoDTO {
         dto.setId(risco.getId());
         dto.setSensorId(risco.getSensor().getId());
         dto.setSensorNome(risco.getSensor().getNome());
-        dto.setLeituraId(risco.getLeitura().getId());
+        dto.setLeituraId(risco.getLeitura() != null ? risco.getLeitura().getId() : null);
         dto.setDataHoraAnalise(risco.getDataHoraAnalise());
+        dto.setReanalisadoEm(risco.getReanalisadoEm());
         dto.setNivelRisco(risco.getNivelRisco());
         dto.setCategoria(risco.getCategoria());
         dto.setDescricao(risco.getDescricao());
@@ -56,6 +66,7 @@ public class RiscoDTO {
         Risco risco = new Risco();
         risco.setId(this.id);
         risco.setDataHoraAnalise(this.dataHoraAnalise);
+        risco.setReanalisadoEm(this.reanalisadoEm);
         risco.setNivelRisco(this.nivelRisco);
         risco.setCategoria(this.categoria);
         risco.setDescricao(this.descricao);
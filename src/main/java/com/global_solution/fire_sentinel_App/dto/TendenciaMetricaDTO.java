@@ -0,0 +1,44 @@
+package com.global_solution.fire_sentinel_App.dto;
+
+import com.global_solution.fire_sentinel_App.historico.JanelaLeituras;
+import com.global_solution.fire_sentinel_App.historico.Metrica;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com a variação e a tendência recentes de uma métrica de um sensor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TendenciaMetricaDTO {
+    private Double ultimo;
+    private Double media;
+    private Double minimo;
+    private Double maximo;
+    private Double variacaoPercentual;
+    private Double tendenciaPorHora;
+    
+    /**
+     * Calcula o resumo de uma métrica a partir da janela de leituras recentes
+     * @param janela leituras recentes do sensor
+     * @param metrica métrica a ser resumida
+     * @return TendenciaMetricaDTO correspondente
+     */
+    public static TendenciaMetricaDTO fromJanela(JanelaLeituras janela, Metrica metrica) {
+        TendenciaMetricaDTO dto = new TendenciaMetricaDTO();
+        dto.setUltimo(valorOuNulo(janela.ultimo(metrica)));
+        dto.setMedia(valorOuNulo(janela.media(metrica)));
+        dto.setMinimo(valorOuNulo(janela.minimo(metrica)));
+        dto.setMaximo(valorOuNulo(janela.maximo(metrica)));
+        dto.setVariacaoPercentual(janela.variacaoPercentual(metrica));
+        dto.setTendenciaPorHora(janela.tendenciaPorHora(metrica));
+        return dto;
+    }
+    
+    private static Double valorOuNulo(double valor) {
+        return Double.isNaN(valor) ? null : valor;
+    }
+}
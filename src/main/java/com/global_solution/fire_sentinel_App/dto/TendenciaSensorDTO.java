@@ -0,0 +1,47 @@
+package com.global_solution.fire_sentinel_App.dto;
+
+import java.time.LocalDateTime;
+
+import com.global_solution.fire_sentinel_App.historico.JanelaLeituras;
+import com.global_solution.fire_sentinel_App.historico.Metrica;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com as variações e tendências das leituras recentes de um sensor.
+ * Calculado a partir do histórico em memória, sem consultar o banco.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TendenciaSensorDTO {
+    private Long sensorId;
+    private int leituras;
+    private LocalDateTime inicioJanela;
+    private LocalDateTime fimJanela;
+    private TendenciaMetricaDTO temperatura;
+    private TendenciaMetricaDTO umidade;
+    private TendenciaMetricaDTO nivelFumaca;
+    private TendenciaMetricaDTO co2;
+    
+    /**
+     * Monta o DTO a partir da janela de leituras recentes de um sensor
+     * @param sensorId ID do sensor
+     * @param janela leituras recentes do sensor (não vazia)
+     * @return TendenciaSensorDTO correspondente
+     */
+    public static TendenciaSensorDTO fromJanela(Long sensorId, JanelaLeituras janela) {
+        TendenciaSensorDTO dto = new TendenciaSensorDTO();
+        dto.setSensorId(sensorId);
+        dto.setLeituras(janela.tamanho());
+        dto.setInicioJanela(janela.getDataHora(0));
+        dto.setFimJanela(janela.getDataHora(janela.tamanho() - 1));
+        dto.setTemperatura(TendenciaMetricaDTO.fromJanela(janela, Metrica.TEMPERATURA));
+        dto.setUmidade(TendenciaMetricaDTO.fromJanela(janela, Metrica.UMIDADE));
+        dto.setNivelFumaca(TendenciaMetricaDTO.fromJanela(janela, Metrica.NIVEL_FUMACA));
+        dto.setCo2(TendenciaMetricaDTO.fromJanela(janela, Metrica.CO2));
+        return dto;
+    }
+}
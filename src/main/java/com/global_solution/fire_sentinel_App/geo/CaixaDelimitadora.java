@@ -0,0 +1,83 @@
+package com.global_solution.fire_sentinel_App.geo;
+
+/**
+ * Retângulo de latitude/longitude que contém um círculo de raio conhecido.
+ * Usado como pré-filtro barato antes do cálculo exato de distância (Haversine):
+ * todo ponto dentro do círculo está dentro da caixa, mas não o contrário.
+ */
+public final class CaixaDelimitadora {
+
+    /**
+     * Quilômetros por grau de latitude (raio médio da Terra de 6371 km).
+     */
+    public static final double KM_POR_GRAU = 6371 * Math.PI / 180;
+
+    private final double latitudeMinima;
+    private final double latitudeMaxima;
+    private final double longitudeMinima;
+    private final double longitudeMaxima;
+
+    private CaixaDelimitadora(double latitudeMinima, double latitudeMaxima,
+            double longitudeMinima, double longitudeMaxima) {
+        this.latitudeMinima = latitudeMinima;
+        this.latitudeMaxima = latitudeMaxima;
+        this.longitudeMinima = longitudeMinima;
+        this.longitudeMaxima = longitudeMaxima;
+    }
+
+    /**
+     * Calcula a caixa que envolve o círculo de raio raioKm em torno de um ponto.
+     * Perto dos polos, ou quando o círculo cruza a linha de data, a caixa cobre
+     * todas as longitudes.
+     *
+     * @param latitude latitude do centro
+     * @param longitude longitude do centro
+     * @param raioKm raio em quilômetros
+     * @return CaixaDelimitadora que contém o círculo
+     */
+    public static CaixaDelimitadora aoRedorDe(double latitude, double longitude, double raioKm) {
+        double deltaLat = raioKm / KM_POR_GRAU;
+        double latMin = Math.max(latitude - deltaLat, -90);
+        double latMax = Math.min(latitude + deltaLat, 90);
+
+        double cosLat = Math.min(Math.cos(Math.toRadians(latMin)), Math.cos(Math.toRadians(latMax)));
+        if (latMin <= -90 || latMax >= 90 || cosLat <= 1e-9) {
+            return new CaixaDelimitadora(latMin, latMax, -180, 180);
+        }
+        double deltaLon = raioKm / (KM_POR_GRAU * cosLat);
+        double lonMin = longitude - deltaLon;
+        double lonMax = longitude + deltaLon;
+        if (deltaLon >= 180 || lonMin < -180 || lonMax > 180) {
+            return new CaixaDelimitadora(latMin, latMax, -180, 180);
+        }
+        return new CaixaDelimitadora(latMin, latMax, lonMin, lonMax);
+    }
+
+    /**
+     * Verifica se um ponto está dentro da caixa.
+     *
+     * @param latitude latitude do ponto
+     * @param longitude longitude do ponto
+     * @return boolean indicando se o ponto está na caixa
+     */
+    public boolean contem(double latitude, double longitude) {
+        return latitude >= latitudeMinima && latitude <= latitudeMaxima
+                && longitude >= longitudeMinima && longitude <= longitudeMaxima;
+    }
+
+    public double getLatitudeMinima() {
+        return latitudeMinima;
+    }
+
+    public double getLatitudeMaxima() {
+        return latitudeMaxima;
+    }
+
+    public double getLongitudeMinima() {
+        return longitudeMinima;
+    }
+
+    public double getLongitudeMaxima() {
+        return longitudeMaxima;
+    }
+}
@@ -0,0 +1,207 @@
+package com.global_solution.fire_sentinel_App.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.repository.SensorRepository;
+
+/**
+ * Índice espacial em memória dos sensores ativos, organizado como uma grade regular
+ * de células de latitude/longitude.
+ * 
+ * Uma busca por área calcula a caixa delimitadora do círculo, visita apenas as células
+ * que a interceptam e confirma cada candidato com Sensor.calcularDistancia. Cada célula
+ * guarda um array imutável de sensores (copy-on-write), de modo que as leituras do
+ * índice não usam locks; as escritas, raras, são serializadas.
+ * 
+ * O índice é carregado na inicialização e mantido pelo SensorServiceImpl.
+ */
+@Component
+public class IndiceEspacial {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceEspacial.class);
+
+    private static final Sensor[] VAZIO = new Sensor[0];
+
+    @Autowired
+    private SensorRepository sensorRepository;
+    
+    @Value("${geo.indice.habilitado:true}")
+    private boolean habilitado = true;
+
+    private final double tamanhoCelula;
+    private final int colunas;
+    private final int linhas;
+
+    private final ConcurrentHashMap<Long, Sensor[]> celulas = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> celulaPorSensor = new ConcurrentHashMap<>();
+
+    public IndiceEspacial(@Value("${geo.indice.tamanho-celula-graus:0.1}") double tamanhoCelula) {
+        this.tamanhoCelula = tamanhoCelula;
+        this.colunas = (int) Math.ceil(360 / tamanhoCelula);
+        this.linhas = (int) Math.ceil(180 / tamanhoCelula);
+    }
+
+    /**
+     * Carrega os sensores ativos quando a aplicação termina de subir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        if (!habilitado) {
+            log.info("Índice espacial desabilitado; consultas por área irão ao banco");
+            return;
+        }
+        List<Sensor> ativos = sensorRepository.findByAtivo(true);
+        ativos.forEach(this::atualizar);
+        log.info("Índice espacial carregado com {} sensores em {} células", celulaPorSensor.size(), celulas.size());
+    }
+
+    /**
+     * Inclui, move ou remove um sensor do índice de acordo com sua posição e estado.
+     * Sensores inativos ou sem coordenadas são removidos.
+     *
+     * @param sensor sensor cadastrado ou atualizado
+     */
+    public synchronized void atualizar(Sensor sensor) {
+        remover(sensor.getId());
+        if (!habilitado || !sensor.isAtivo() || sensor.getLatitude() == null || sensor.getLongitude() == null) {
+            return;
+        }
+        long chave = chaveCelula(linha(sensor.getLatitude()), coluna(sensor.getLongitude()));
+        Sensor[] atuais = celulas.getOrDefault(chave, VAZIO);
+        Sensor[] novos = Arrays.copyOf(atuais, atuais.length + 1);
+        novos[atuais.length] = copiar(sensor);
+        celulas.put(chave, novos);
+        celulaPorSensor.put(sensor.getId(), chave);
+    }
+
+    /**
+     * Remove um sensor do índice.
+     *
+     * @param sensorId ID do sensor
+     */
+    public synchronized void remover(Long sensorId) {
+        Long chave = celulaPorSensor.remove(sensorId);
+        if (chave == null) {
+            return;
+        }
+        Sensor[] atuais = celulas.getOrDefault(chave, VAZIO);
+        Sensor[] novos = Arrays.stream(atuais)
+                .filter(s -> !s.getId().equals(sensorId))
+                .toArray(Sensor[]::new);
+        if (novos.length == 0) {
+            celulas.remove(chave);
+        } else {
+            celulas.put(chave, novos);
+        }
+    }
+
+    /**
+     * Busca os sensores ativos dentro de uma área circular.
+     *
+     * @param latitude latitude do centro da área
+     * @param longitude longitude do centro da área
+     * @param raioKm raio da área em quilômetros
+     * @return List<Sensor> sensores dentro da área
+     */
+    public List<Sensor> buscarNaArea(double latitude, double longitude, double raioKm) {
+        CaixaDelimitadora caixa = CaixaDelimitadora.aoRedorDe(latitude, longitude, raioKm);
+        int linhaMin = linha(caixa.getLatitudeMinima());
+        int linhaMax = linha(caixa.getLatitudeMaxima());
+        int colunaMin = coluna(caixa.getLongitudeMinima());
+        int colunaMax = coluna(caixa.getLongitudeMaxima());
+
+        List<Sensor> encontrados = new ArrayList<>();
+        long celulasNaCaixa = (long) (linhaMax - linhaMin + 1) * (colunaMax - colunaMin + 1);
+        if (celulasNaCaixa > celulas.size()) {
+            // Área grande: mais barato percorrer apenas as células ocupadas
+            celulas.forEach((chave, sensores) -> {
+                int linha = (int) (chave / colunas);
+                int coluna = (int) (chave % colunas);
+                if (linha >= linhaMin && linha <= linhaMax && coluna >= colunaMin && coluna <= colunaMax) {
+                    filtrar(sensores, caixa, latitude, longitude, raioKm, encontrados);
+                }
+            });
+            return encontrados;
+        }
+        for (int linha = linhaMin; linha <= linhaMax; linha++) {
+            for (int coluna = colunaMin; coluna <= colunaMax; coluna++) {
+                Sensor[] sensores = celulas.get(chaveCelula(linha, coluna));
+                if (sensores != null) {
+                    filtrar(sensores, caixa, latitude, longitude, raioKm, encontrados);
+                }
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * Indica se o índice está habilitado (geo.indice.habilitado).
+     *
+     * @return boolean indicando se as consultas por área devem usar o índice
+     */
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Retorna as métricas do índice.
+     *
+     * @return Map com quantidade de sensores indexados e de células ocupadas
+     */
+    public Map<String, Object> obterMetricas() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("habilitado", habilitado);
+        metricas.put("tamanhoCelulaGraus", tamanhoCelula);
+        metricas.put("sensores", celulaPorSensor.size());
+        metricas.put("celulasOcupadas", celulas.size());
+        return metricas;
+    }
+
+    private void filtrar(Sensor[] sensores, CaixaDelimitadora caixa, double latitude, double longitude,
+            double raioKm, List<Sensor> encontrados) {
+        for (Sensor sensor : sensores) {
+            if (caixa.contem(sensor.getLatitude(), sensor.getLongitude())
+                    && sensor.estaDentroArea(latitude, longitude, raioKm)) {
+                encontrados.add(sensor);
+            }
+        }
+    }
+
+    private int linha(double latitude) {
+        return Math.min((int) Math.floor((latitude + 90) / tamanhoCelula), linhas - 1);
+    }
+
+    private int coluna(double longitude) {
+        return Math.min((int) Math.floor((longitude + 180) / tamanhoCelula), colunas - 1);
+    }
+
+    private long chaveCelula(int linha, int coluna) {
+        return (long) linha * colunas + coluna;
+    }
+
+    private Sensor copiar(Sensor sensor) {
+        Sensor copia = new Sensor();
+        copia.setId(sensor.getId());
+        copia.setNome(sensor.getNome());
+        copia.setTipo(sensor.getTipo());
+        copia.setLocalizacao(sensor.getLocalizacao());
+        copia.setLatitude(sensor.getLatitude());
+        copia.setLongitude(sensor.getLongitude());
+        copia.setAtivo(sensor.isAtivo());
+        return copia;
+    }
+}
@@ -0,0 +1,74 @@
+package com.global_solution.fire_sentinel_App.historico;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Colunas primitivas de tamanho crescente para juntar leituras de várias origens
+ * (bloco gravado e leituras pendentes) antes de codificar ou devolver uma janela.
+ */
+class AcumuladorLeituras {
+
+    private long[] instantes;
+    private double[][] valores;
+    private int tamanho;
+
+    AcumuladorLeituras(int capacidadeInicial) {
+        int capacidade = Math.max(capacidadeInicial, 8);
+        this.instantes = new long[capacidade];
+        this.valores = new double[Metrica.values().length][capacidade];
+    }
+
+    void adicionar(long instante, double[] metricas) {
+        if (tamanho == instantes.length) {
+            int novaCapacidade = tamanho * 2;
+            instantes = Arrays.copyOf(instantes, novaCapacidade);
+            for (int m = 0; m < valores.length; m++) {
+                valores[m] = Arrays.copyOf(valores[m], novaCapacidade);
+            }
+        }
+        instantes[tamanho] = instante;
+        for (int m = 0; m < valores.length; m++) {
+            valores[m][tamanho] = metricas[m];
+        }
+        tamanho++;
+    }
+
+    void adicionar(JanelaLeituras janela, long de, long ate) {
+        double[] metricas = new double[valores.length];
+        for (int i = 0; i < janela.tamanho(); i++) {
+            long instante = janela.getInstante(i);
+            if (instante < de || instante > ate) {
+                continue;
+            }
+            for (Metrica metrica : Metrica.values()) {
+                metricas[metrica.ordinal()] = janela.valor(metrica, i);
+            }
+            adicionar(instante, metricas);
+        }
+    }
+
+    int getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Retorna as leituras acumuladas em ordem cronológica (ordenação estável).
+     */
+    JanelaLeituras paraJanela() {
+        int[] ordem = IntStream.range(0, tamanho).boxed()
+                .sorted(Comparator.comparingLong(i -> instantes[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        long[] instantesOrdenados = new long[tamanho];
+        double[][] valoresOrdenados = new double[valores.length][tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            instantesOrdenados[i] = instantes[ordem[i]];
+            for (int m = 0; m < valores.length; m++) {
+                valoresOrdenados[m][i] = valores[m][ordem[i]];
+            }
+        }
+        return new JanelaLeituras(instantesOrdenados, valoresOrdenados);
+    }
+}
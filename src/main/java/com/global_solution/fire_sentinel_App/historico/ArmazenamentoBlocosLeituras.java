@@ -0,0 +1,300 @@
+package com.global_solution.fire_sentinel_App.historico;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.global_solution.fire_sentinel_App.model.BlocoLeituras;
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Resolucao;
+import com.global_solution.fire_sentinel_App.repository.BlocoLeiturasRepository;
+import com.global_solution.fire_sentinel_App.transacao.AposCommit;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Histórico comprimido das leituras por sensor e hora (tabela blocos_leituras).
+ * 
+ * As leituras confirmadas são acumuladas em memória por sensor-hora e, periodicamente,
+ * anexadas ao bloco da hora (decodifica, junta e recodifica com CodificadorBlocoLeituras).
+ * 
+ * Antes de remover as linhas de leituras, a política de retenção passa cada lote por
+ * consolidar, que anexa as leituras ausentes dos blocos: as gravadas antes de os blocos
+ * existirem e as que se perderam da memória em uma queda do processo. Assim o histórico
+ * continua disponível depois da retenção. Dentro da janela de retenção, leituras nessas
+ * condições só estão nas linhas de leituras até serem consolidadas.
+ */
+@Component
+public class ArmazenamentoBlocosLeituras {
+
+    private static final Logger log = LoggerFactory.getLogger(ArmazenamentoBlocosLeituras.class);
+
+    @Autowired
+    private BlocoLeiturasRepository blocoLeiturasRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ConcurrentHashMap<Chave, AcumuladorLeituras> pendentes = new ConcurrentHashMap<>();
+
+    private final LongAdder blocosGravados = new LongAdder();
+    private final LongAdder leiturasGravadas = new LongAdder();
+    private final LongAdder bytesGravados = new LongAdder();
+    private final LongAdder falhasGravacao = new LongAdder();
+    private final LongAdder leiturasConsolidadas = new LongAdder();
+
+    /**
+     * Registra uma leitura persistida para ser anexada ao bloco da sua hora.
+     * Dentro de uma transação, a leitura só é registrada após o commit.
+     *
+     * @param leitura leitura persistida (com sensor resolvido)
+     */
+    public void registrar(Leitura leitura) {
+        AposCommit.executar(() -> acumular(leitura));
+    }
+
+    /**
+     * Retorna o histórico de um sensor no período, decodificando os blocos gravados
+     * e incluindo as leituras ainda pendentes de gravação.
+     *
+     * @param sensorId ID do sensor
+     * @param inicio data/hora inicial do período
+     * @param fim data/hora final do período
+     * @return JanelaLeituras com as leituras do período em ordem cronológica
+     */
+    public JanelaLeituras buscarHistorico(Long sensorId, LocalDateTime inicio, LocalDateTime fim) {
+        long de = JanelaLeituras.paraInstante(inicio);
+        long ate = JanelaLeituras.paraInstante(fim);
+        AcumuladorLeituras resultado = new AcumuladorLeituras(256);
+        for (BlocoLeituras bloco : blocoLeiturasRepository
+                .findBySensorIdAndInicioBetweenOrderByInicioAsc(sensorId, Resolucao.HOUR.truncar(inicio), fim)) {
+            resultado.adicionar(CodificadorBlocoLeituras.decodificar(bloco.getDados()), de, ate);
+        }
+        pendentes.forEach((chave, acumulador) -> {
+            if (chave.sensorId().equals(sensorId)) {
+                JanelaLeituras parcial;
+                synchronized (acumulador) {
+                    parcial = acumulador.paraJanela();
+                }
+                resultado.adicionar(parcial, de, ate);
+            }
+        });
+        return resultado.paraJanela();
+    }
+
+    /**
+     * Anexa as leituras pendentes aos blocos de suas horas.
+     */
+    @Scheduled(fixedDelayString = "${leituras.series.intervalo-gravacao-ms:5000}")
+    @PreDestroy
+    public synchronized void gravarPendentes() {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        Map<Chave, AcumuladorLeituras> lote = new HashMap<>();
+        for (Chave chave : pendentes.keySet()) {
+            AcumuladorLeituras acumulador = pendentes.remove(chave);
+            if (acumulador != null) {
+                lote.put(chave, acumulador);
+            }
+        }
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> gravar(lote));
+        } catch (Exception e) {
+            // Devolve as leituras para a próxima tentativa
+            lote.forEach((chave, acumulador) -> pendentes.merge(chave, acumulador, (atual, devolvido) -> {
+                JanelaLeituras janela = devolvido.paraJanela();
+                synchronized (atual) {
+                    atual.adicionar(janela, Long.MIN_VALUE, Long.MAX_VALUE);
+                }
+                return atual;
+            }));
+            falhasGravacao.increment();
+            log.warn("Falha ao gravar blocos de leituras: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Anexa aos blocos as leituras que ainda não estão neles, antes que a política de
+     * retenção remova as linhas. Uma leitura já está no bloco quando o bloco gravado ou o
+     * acumulador pendente da hora tem uma entrada com o mesmo instante e os mesmos valores
+     * (contadas com multiplicidade, para não confundir leituras idênticas). Executa em
+     * transação própria, sem concorrer com a gravação periódica.
+     *
+     * @param leituras leituras que serão removidas (com sensor resolvido)
+     * @return int quantidade de leituras anexadas aos blocos
+     */
+    public synchronized int consolidar(List<Leitura> leituras) {
+        if (leituras.isEmpty()) {
+            return 0;
+        }
+        Map<Chave, List<Leitura>> porHora = new HashMap<>();
+        for (Leitura leitura : leituras) {
+            porHora.computeIfAbsent(chave(leitura), c -> new ArrayList<>()).add(leitura);
+        }
+        int anexadas = new TransactionTemplate(transactionManager).execute(status -> {
+            Map<Chave, BlocoLeituras> existentes = buscarBlocos(porHora.keySet());
+            List<BlocoLeituras> alterados = new ArrayList<>();
+            int total = 0;
+            for (Map.Entry<Chave, List<Leitura>> entrada : porHora.entrySet()) {
+                Chave chave = entrada.getKey();
+                BlocoLeituras bloco = existentes.get(chave);
+                Map<Entrada, Integer> presentes = new HashMap<>();
+                if (bloco != null) {
+                    contar(presentes, CodificadorBlocoLeituras.decodificar(bloco.getDados()));
+                }
+                AcumuladorLeituras pendente = pendentes.get(chave);
+                if (pendente != null) {
+                    JanelaLeituras janela;
+                    synchronized (pendente) {
+                        janela = pendente.paraJanela();
+                    }
+                    contar(presentes, janela);
+                }
+                AcumuladorLeituras ausentes = new AcumuladorLeituras(entrada.getValue().size());
+                for (Leitura leitura : entrada.getValue()) {
+                    long instante = JanelaLeituras.paraInstante(leitura.getDataHora());
+                    double[] valores = valores(leitura);
+                    Entrada chaveEntrada = new Entrada(instante, Arrays.stream(valores).boxed().toList());
+                    int vezes = presentes.getOrDefault(chaveEntrada, 0);
+                    if (vezes > 0) {
+                        presentes.put(chaveEntrada, vezes - 1);
+                    } else {
+                        ausentes.adicionar(instante, valores);
+                    }
+                }
+                if (ausentes.getTamanho() > 0) {
+                    alterados.add(anexar(chave, bloco, ausentes));
+                    total += ausentes.getTamanho();
+                }
+            }
+            blocoLeiturasRepository.saveAll(alterados);
+            blocosGravados.add(alterados.size());
+            return total;
+        });
+        leiturasConsolidadas.add(anexadas);
+        return anexadas;
+    }
+
+    /**
+     * Retorna as métricas do armazenamento comprimido.
+     *
+     * @return Map com blocos gravados, leituras e bytes por leitura
+     */
+    public Map<String, Object> obterMetricas() {
+        long leituras = leiturasGravadas.sum();
+        long bytes = bytesGravados.sum();
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("blocosGravados", blocosGravados.sum());
+        metricas.put("leiturasGravadas", leituras);
+        metricas.put("bytesGravados", bytes);
+        metricas.put("bytesPorLeitura", leituras == 0 ? 0.0 : (double) bytes / leituras);
+        metricas.put("blocosPendentes", pendentes.size());
+        metricas.put("falhasGravacao", falhasGravacao.sum());
+        metricas.put("leiturasConsolidadas", leiturasConsolidadas.sum());
+        return metricas;
+    }
+
+    private void acumular(Leitura leitura) {
+        double[] valores = valores(leitura);
+        long instante = JanelaLeituras.paraInstante(leitura.getDataHora());
+        pendentes.compute(chave(leitura), (c, acumulador) -> {
+            AcumuladorLeituras destino = acumulador != null ? acumulador : new AcumuladorLeituras(64);
+            synchronized (destino) {
+                destino.adicionar(instante, valores);
+            }
+            return destino;
+        });
+    }
+
+    private void gravar(Map<Chave, AcumuladorLeituras> lote) {
+        Map<Chave, BlocoLeituras> existentes = buscarBlocos(lote.keySet());
+        List<BlocoLeituras> alterados = new ArrayList<>();
+        lote.forEach((chave, acumulador) -> alterados.add(anexar(chave, existentes.get(chave), acumulador)));
+        blocoLeiturasRepository.saveAll(alterados);
+        blocosGravados.add(alterados.size());
+    }
+
+    private Map<Chave, BlocoLeituras> buscarBlocos(Set<Chave> chaves) {
+        Set<Long> sensorIds = new HashSet<>();
+        Set<LocalDateTime> inicios = new HashSet<>();
+        chaves.forEach(chave -> {
+            sensorIds.add(chave.sensorId());
+            inicios.add(chave.inicio());
+        });
+        Map<Chave, BlocoLeituras> existentes = new HashMap<>();
+        for (BlocoLeituras bloco : blocoLeiturasRepository.findBySensorIdInAndInicioIn(sensorIds, inicios)) {
+            existentes.put(new Chave(bloco.getSensorId(), bloco.getInicio()), bloco);
+        }
+        return existentes;
+    }
+
+    /**
+     * Junta as leituras ao bloco da hora (ou a um bloco novo) e recodifica.
+     */
+    private BlocoLeituras anexar(Chave chave, BlocoLeituras bloco, AcumuladorLeituras acumulador) {
+        int capacidade = acumulador.getTamanho() + (bloco != null ? bloco.getQuantidade() : 0);
+        AcumuladorLeituras combinado = new AcumuladorLeituras(capacidade);
+        if (bloco == null) {
+            bloco = new BlocoLeituras(null, chave.sensorId(), chave.inicio(), 0, null);
+        } else {
+            combinado.adicionar(CodificadorBlocoLeituras.decodificar(bloco.getDados()), Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+        combinado.adicionar(acumulador.paraJanela(), Long.MIN_VALUE, Long.MAX_VALUE);
+        JanelaLeituras janela = combinado.paraJanela();
+        byte[] dados = CodificadorBlocoLeituras.codificar(janela.instantes(), janela.valores());
+        leiturasGravadas.add(janela.tamanho() - bloco.getQuantidade());
+        bytesGravados.add(dados.length - (bloco.getDados() != null ? bloco.getDados().length : 0));
+        bloco.setQuantidade(janela.tamanho());
+        bloco.setDados(dados);
+        return bloco;
+    }
+
+    private static void contar(Map<Entrada, Integer> presentes, JanelaLeituras janela) {
+        Metrica[] metricas = Metrica.values();
+        for (int i = 0; i < janela.tamanho(); i++) {
+            List<Double> valores = new ArrayList<>(metricas.length);
+            for (Metrica metrica : metricas) {
+                valores.add(janela.valor(metrica, i));
+            }
+            presentes.merge(new Entrada(janela.getInstante(i), valores), 1, Integer::sum);
+        }
+    }
+
+    private static Chave chave(Leitura leitura) {
+        return new Chave(leitura.getSensor().getId(), Resolucao.HOUR.truncar(leitura.getDataHora()));
+    }
+
+    private static double[] valores(Leitura leitura) {
+        double[] valores = new double[Metrica.values().length];
+        for (Metrica metrica : Metrica.values()) {
+            valores[metrica.ordinal()] = metrica.valor(leitura);
+        }
+        return valores;
+    }
+
+    private record Chave(Long sensorId, LocalDateTime inicio) {
+    }
+
+    /**
+     * Uma leitura no bloco: instante e valores das métricas (NaN para ausentes).
+     */
+    private record Entrada(long instante, List<Double> valores) {
+    }
+}
@@ -0,0 +1,108 @@
+package com.global_solution.fire_sentinel_App.historico;
+
+/**
+ * Buffer circular com as últimas N leituras de um sensor, armazenadas em colunas de
+ * tipos primitivos (um long[] de instantes e um double[] por métrica).
+ * 
+ * O tamanho é fixo desde a criação: adicionar uma leitura com o buffer cheio sobrescreve
+ * a mais antiga. As leituras são mantidas em ordem cronológica; uma leitura fora de ordem
+ * é inserida na posição correta ou descartada se for mais antiga que todo o buffer cheio.
+ */
+public class BufferCircularLeituras {
+
+    /**
+     * Estimativa do custo fixo em bytes de um buffer (cabeçalhos de objeto e de arrays).
+     */
+    private static final long BYTES_FIXOS = 16 + 16 + 16 + 16 + Metrica.values().length * 16L;
+
+    private final int capacidade;
+    private final long[] instantes;
+    private final double[][] valores;
+    private int inicio;
+    private int tamanho;
+
+    public BufferCircularLeituras(int capacidade) {
+        this.capacidade = capacidade;
+        this.instantes = new long[capacidade];
+        this.valores = new double[Metrica.values().length][capacidade];
+    }
+
+    /**
+     * Calcula a memória ocupada por um buffer com a capacidade informada.
+     *
+     * @param capacidade quantidade máxima de leituras
+     * @return long estimativa em bytes, fixa para toda a vida do buffer
+     */
+    public static long calcularBytes(int capacidade) {
+        return BYTES_FIXOS + (long) capacidade * Long.BYTES + (long) Metrica.values().length * capacidade * Double.BYTES;
+    }
+
+    /**
+     * Adiciona uma leitura ao buffer.
+     *
+     * @param instante instante da leitura em milissegundos (epoch)
+     * @param metricas valores na ordem de Metrica.values() (NaN para ausentes)
+     */
+    public synchronized void adicionar(long instante, double... metricas) {
+        int posicao = tamanho;
+        // Leituras fora de ordem: encontra a posição cronológica a partir do fim
+        while (posicao > 0 && instantes[indice(posicao - 1)] > instante) {
+            posicao--;
+        }
+        if (tamanho == capacidade) {
+            if (posicao == 0) {
+                return;
+            }
+            // Descarta a mais antiga para abrir espaço
+            inicio = (inicio + 1) % capacidade;
+            tamanho--;
+            posicao--;
+        }
+        for (int i = tamanho; i > posicao; i--) {
+            copiar(indice(i - 1), indice(i));
+        }
+        int destino = indice(posicao);
+        instantes[destino] = instante;
+        for (int m = 0; m < valores.length; m++) {
+            valores[m][destino] = metricas[m];
+        }
+        tamanho++;
+    }
+
+    /**
+     * Copia o conteúdo atual para uma janela imutável, em ordem cronológica.
+     *
+     * @return JanelaLeituras com as leituras do buffer
+     */
+    public synchronized JanelaLeituras copiarJanela() {
+        long[] copiaInstantes = new long[tamanho];
+        double[][] copiaValores = new double[valores.length][tamanho];
+        int primeiraParte = Math.min(tamanho, capacidade - inicio);
+        System.arraycopy(instantes, inicio, copiaInstantes, 0, primeiraParte);
+        System.arraycopy(instantes, 0, copiaInstantes, primeiraParte, tamanho - primeiraParte);
+        for (int m = 0; m < valores.length; m++) {
+            System.arraycopy(valores[m], inicio, copiaValores[m], 0, primeiraParte);
+            System.arraycopy(valores[m], 0, copiaValores[m], primeiraParte, tamanho - primeiraParte);
+        }
+        return new JanelaLeituras(copiaInstantes, copiaValores);
+    }
+
+    public synchronized int getTamanho() {
+        return tamanho;
+    }
+
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    private int indice(int posicao) {
+        return (inicio + posicao) % capacidade;
+    }
+
+    private void copiar(int origem, int destino) {
+        instantes[destino] = instantes[origem];
+        for (int m = 0; m < valores.length; m++) {
+            valores[m][destino] = valores[m][origem];
+        }
+    }
+}
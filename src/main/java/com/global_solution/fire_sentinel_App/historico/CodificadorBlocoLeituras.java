@@ -0,0 +1,176 @@
+package com.global_solution.fire_sentinel_App.historico;
+
+/**
+ * Codificação compacta de um bloco de leituras de um sensor, no estilo Gorilla
+ * (Pelkonen et al., VLDB 2015):
+ * - Instantes gravados como delta-of-delta com prefixos de tamanho variável;
+ *   leituras em intervalo regular custam 1 bit por instante
+ * - Cada métrica gravada como uma coluna de XORs com o valor anterior; valores
+ *   repetidos custam 1 bit e valores próximos reaproveitam a janela de bits significativos
+ * 
+ * Formato: quantidade (32 bits), primeiro instante (64 bits), instantes, e então uma
+ * coluna por métrica na ordem de Metrica.values(). Valores ausentes (NaN) são preservados.
+ */
+public final class CodificadorBlocoLeituras {
+
+    private CodificadorBlocoLeituras() {
+    }
+
+    /**
+     * Codifica um bloco de leituras.
+     *
+     * @param instantes instantes das leituras em milissegundos, em ordem crescente
+     * @param valores uma coluna por métrica (na ordem de Metrica.values()), do mesmo tamanho de instantes
+     * @return byte[] bloco codificado
+     */
+    public static byte[] codificar(long[] instantes, double[][] valores) {
+        int quantidade = instantes.length;
+        EscritorBits escritor = new EscritorBits(quantidade * 4 + 16);
+        escritor.escrever(quantidade, 32);
+        if (quantidade == 0) {
+            return escritor.paraBytes();
+        }
+
+        escritor.escrever(instantes[0], 64);
+        long deltaAnterior = 0;
+        for (int i = 1; i < quantidade; i++) {
+            long delta = instantes[i] - instantes[i - 1];
+            codificarDeltaDoDelta(escritor, delta - deltaAnterior);
+            deltaAnterior = delta;
+        }
+
+        for (double[] coluna : valores) {
+            codificarColuna(escritor, coluna, quantidade);
+        }
+        return escritor.paraBytes();
+    }
+
+    /**
+     * Decodifica um bloco gravado por codificar.
+     *
+     * @param bloco bytes do bloco
+     * @return JanelaLeituras com as leituras do bloco, em ordem cronológica
+     */
+    public static JanelaLeituras decodificar(byte[] bloco) {
+        LeitorBits leitor = new LeitorBits(bloco);
+        int quantidade = (int) leitor.ler(32);
+        long[] instantes = new long[quantidade];
+        double[][] valores = new double[Metrica.values().length][quantidade];
+        if (quantidade == 0) {
+            return new JanelaLeituras(instantes, valores);
+        }
+
+        instantes[0] = leitor.ler(64);
+        long deltaAnterior = 0;
+        for (int i = 1; i < quantidade; i++) {
+            deltaAnterior += decodificarDeltaDoDelta(leitor);
+            instantes[i] = instantes[i - 1] + deltaAnterior;
+        }
+
+        for (double[] coluna : valores) {
+            decodificarColuna(leitor, coluna, quantidade);
+        }
+        return new JanelaLeituras(instantes, valores);
+    }
+
+    private static void codificarDeltaDoDelta(EscritorBits escritor, long dod) {
+        if (dod == 0) {
+            escritor.escreverBit(false);
+        } else if (dod >= -63 && dod <= 64) {
+            escritor.escrever(0b10, 2);
+            escritor.escrever(dod, 7);
+        } else if (dod >= -255 && dod <= 256) {
+            escritor.escrever(0b110, 3);
+            escritor.escrever(dod, 9);
+        } else if (dod >= -2047 && dod <= 2048) {
+            escritor.escrever(0b1110, 4);
+            escritor.escrever(dod, 12);
+        } else if (dod > Integer.MIN_VALUE && dod <= Integer.MAX_VALUE) {
+            escritor.escrever(0b11110, 5);
+            escritor.escrever(dod, 32);
+        } else {
+            escritor.escrever(0b11111, 5);
+            escritor.escrever(dod, 64);
+        }
+    }
+
+    private static long decodificarDeltaDoDelta(LeitorBits leitor) {
+        if (!leitor.lerBit()) {
+            return 0;
+        }
+        if (!leitor.lerBit()) {
+            return estenderSinal(leitor.ler(7), 7);
+        }
+        if (!leitor.lerBit()) {
+            return estenderSinal(leitor.ler(9), 9);
+        }
+        if (!leitor.lerBit()) {
+            return estenderSinal(leitor.ler(12), 12);
+        }
+        if (!leitor.lerBit()) {
+            return estenderSinal(leitor.ler(32), 32);
+        }
+        return leitor.ler(64);
+    }
+
+    private static long estenderSinal(long valor, int bits) {
+        // Os limites superiores (64, 256, 2048) cabem como o menor negativo do intervalo
+        long estendido = (valor << (64 - bits)) >> (64 - bits);
+        return estendido == -(1L << (bits - 1)) ? (1L << (bits - 1)) : estendido;
+    }
+
+    private static void codificarColuna(EscritorBits escritor, double[] coluna, int quantidade) {
+        long anterior = Double.doubleToRawLongBits(coluna[0]);
+        escritor.escrever(anterior, 64);
+        int zerosEsquerdaAnterior = Integer.MAX_VALUE;
+        int zerosDireitaAnterior = 0;
+        for (int i = 1; i < quantidade; i++) {
+            long atual = Double.doubleToRawLongBits(coluna[i]);
+            long xor = atual ^ anterior;
+            anterior = atual;
+            if (xor == 0) {
+                escritor.escreverBit(false);
+                continue;
+            }
+            escritor.escreverBit(true);
+            int zerosEsquerda = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int zerosDireita = Long.numberOfTrailingZeros(xor);
+            if (zerosEsquerdaAnterior != Integer.MAX_VALUE
+                    && zerosEsquerda >= zerosEsquerdaAnterior && zerosDireita >= zerosDireitaAnterior) {
+                // Cabe na janela de bits significativos do valor anterior
+                escritor.escreverBit(false);
+                escritor.escrever(xor >>> zerosDireitaAnterior, 64 - zerosEsquerdaAnterior - zerosDireitaAnterior);
+            } else {
+                int significativos = 64 - zerosEsquerda - zerosDireita;
+                escritor.escreverBit(true);
+                escritor.escrever(zerosEsquerda, 5);
+                escritor.escrever(significativos == 64 ? 0 : significativos, 6);
+                escritor.escrever(xor >>> zerosDireita, significativos);
+                zerosEsquerdaAnterior = zerosEsquerda;
+                zerosDireitaAnterior = zerosDireita;
+            }
+        }
+    }
+
+    private static void decodificarColuna(LeitorBits leitor, double[] coluna, int quantidade) {
+        long anterior = leitor.ler(64);
+        coluna[0] = Double.longBitsToDouble(anterior);
+        int zerosEsquerda = 0;
+        int zerosDireita = 0;
+        for (int i = 1; i < quantidade; i++) {
+            if (leitor.lerBit()) {
+                if (leitor.lerBit()) {
+                    zerosEsquerda = (int) leitor.ler(5);
+                    int significativos = (int) leitor.ler(6);
+                    if (significativos == 0) {
+                        significativos = 64;
+                    }
+                    zerosDireita = 64 - zerosEsquerda - significativos;
+                }
+                long xor = leitor.ler(64 - zerosEsquerda - zerosDireita) << zerosDireita;
+                anterior ^= xor;
+            }
+            coluna[i] = Double.longBitsToDouble(anterior);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.global_solution.fire_sentinel_App.historico;
+
+import java.util.Arrays;
+
+/**
+ * Escreve sequências de bits em um array de bytes que cresce sob demanda.
+ * Usado pelo CodificadorBlocoLeituras.
+ */
+class EscritorBits {
+
+    private byte[] bytes;
+    private long totalBits;
+
+    EscritorBits(int capacidadeInicialBytes) {
+        this.bytes = new byte[Math.max(capacidadeInicialBytes, 16)];
+    }
+
+    /**
+     * Escreve os quantidade bits menos significativos de valor (do mais para o menos significativo).
+     */
+    void escrever(long valor, int quantidade) {
+        garantirCapacidade(quantidade);
+        for (int restante = quantidade; restante > 0;) {
+            int posicaoByte = (int) (totalBits >>> 3);
+            int livresNoByte = 8 - (int) (totalBits & 7);
+            int escrever = Math.min(livresNoByte, restante);
+            int bitsParte = (int) ((valor >>> (restante - escrever)) & ((1L << escrever) - 1));
+            bytes[posicaoByte] |= (byte) (bitsParte << (livresNoByte - escrever));
+            restante -= escrever;
+            totalBits += escrever;
+        }
+    }
+
+    void escreverBit(boolean bit) {
+        escrever(bit ? 1 : 0, 1);
+    }
+
+    byte[] paraBytes() {
+        return Arrays.copyOf(bytes, (int) ((totalBits + 7) >>> 3));
+    }
+
+    private void garantirCapacidade(int bitsAdicionais) {
+        long bytesNecessarios = (totalBits + bitsAdicionais + 7) >>> 3;
+        if (bytesNecessarios > bytes.length) {
+            bytes = Arrays.copyOf(bytes, (int) Math.max(bytesNecessarios, bytes.length * 2L));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.global_solution.fire_sentinel_App.historico;
+
+/**
+ * Acumulador incremental de quantidade, média, variância, mínimo e máximo de uma métrica.
+ *
+ * Usa o algoritmo de Welford, numericamente estável (não acumula soma dos quadrados),
+ * e a combinação de Chan et al. para juntar acumuladores parciais sem rever os valores.
+ * Cada valor custa O(1) e a memória é constante. Valores ausentes (NaN) são ignorados.
+ * Não é thread-safe; quem compartilha a instância deve sincronizar o acesso.
+ */
+public class EstatisticaOnline {
+
+    private long quantidade;
+    private double media;
+    private double m2;
+    private double minimo = Double.NaN;
+    private double maximo = Double.NaN;
+
+    /**
+     * Cria um acumulador a partir de um resumo que não guarda a variância (ex: os agregados
+     * de agregados_leituras). A variância dentro do resumo é desconhecida e tomada como 0:
+     * combinado a outros, ele contribui só com a dispersão entre as médias.
+     *
+     * @param quantidade quantidade de valores resumidos
+     * @param soma soma dos valores
+     * @param minimo menor valor
+     * @param maximo maior valor
+     * @return EstatisticaOnline equivalente ao resumo (vazio se quantidade for 0)
+     */
+    public static EstatisticaOnline deResumo(long quantidade, double soma, double minimo, double maximo) {
+        EstatisticaOnline estatistica = new EstatisticaOnline();
+        if (quantidade > 0) {
+            estatistica.quantidade = quantidade;
+            estatistica.media = soma / quantidade;
+            estatistica.minimo = minimo;
+            estatistica.maximo = maximo;
+        }
+        return estatistica;
+    }
+
+    /**
+     * Adiciona um valor ao acumulador.
+     *
+     * @param valor valor da métrica (NaN é ignorado)
+     */
+    public void adicionar(double valor) {
+        if (Double.isNaN(valor)) {
+            return;
+        }
+        quantidade++;
+        double delta = valor - media;
+        media += delta / quantidade;
+        m2 += delta * (valor - media);
+        minimo = quantidade == 1 ? valor : Math.min(minimo, valor);
+        maximo = quantidade == 1 ? valor : Math.max(maximo, valor);
+    }
+
+    /**
+     * Junta a este acumulador os valores resumidos por outro.
+     *
+     * @param outra acumulador a ser combinado (não é alterado)
+     */
+    public void combinar(EstatisticaOnline outra) {
+        if (outra.quantidade == 0) {
+            return;
+        }
+        if (quantidade == 0) {
+            quantidade = outra.quantidade;
+            media = outra.media;
+            m2 = outra.m2;
+            minimo = outra.minimo;
+            maximo = outra.maximo;
+            return;
+        }
+        long total = quantidade + outra.quantidade;
+        double delta = outra.media - media;
+        media += delta * outra.quantidade / total;
+        m2 += outra.m2 + delta * delta * ((double) quantidade * outra.quantidade / total);
+        quantidade = total;
+        minimo = Math.min(minimo, outra.minimo);
+        maximo = Math.max(maximo, outra.maximo);
+    }
+
+    public EstatisticaOnline copiar() {
+        EstatisticaOnline copia = new EstatisticaOnline();
+        copia.combinar(this);
+        return copia;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    /**
+     * @return double média dos valores (NaN se vazio)
+     */
+    public double getMedia() {
+        return quantidade == 0 ? Double.NaN : media;
+    }
+
+    /**
+     * @return double variância amostral (n - 1) dos valores (NaN se vazio, 0 com um único valor)
+     */
+    public double getVariancia() {
+        if (quantidade == 0) {
+            return Double.NaN;
+        }
+        return quantidade == 1 ? 0.0 : m2 / (quantidade - 1);
+    }
+
+    public double getDesvioPadrao() {
+        return Math.sqrt(getVariancia());
+    }
+
+    public double getMinimo() {
+        return minimo;
+    }
+
+    public double getMaximo() {
+        return maximo;
+    }
+}
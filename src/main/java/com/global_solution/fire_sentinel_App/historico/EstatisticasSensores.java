@@ -0,0 +1,202 @@
+package com.global_solution.fire_sentinel_App.historico;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.global_solution.fire_sentinel_App.dto.EstatisticasPeriodoDTO;
+import com.global_solution.fire_sentinel_App.dto.EstatisticasSensorDTO;
+import com.global_solution.fire_sentinel_App.model.AgregadoLeitura;
+import com.global_solution.fire_sentinel_App.model.EstatisticaMetrica;
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Resolucao;
+import com.global_solution.fire_sentinel_App.serie.AgregadorSeries;
+import com.global_solution.fire_sentinel_App.transacao.AposCommit;
+
+/**
+ * Estatísticas incrementais por sensor e métrica (quantidade, média, variância,
+ * mínimo e máximo), desde o início e em janelas da última hora e das últimas 24 horas.
+ *
+ * Atualizadas na ingestão (após o commit) em O(1) por leitura e consultadas em O(1),
+ * sem percorrer as leituras. A janela da última hora usa intervalos de 5 minutos e a
+ * de 24 horas intervalos de 1 hora; a borda antiga de cada janela tem essa resolução.
+ *
+ * Um sensor ainda sem acumuladores (por exemplo, após reiniciar a aplicação) é aquecido
+ * na primeira consulta, fora do mapa e da ingestão, a partir de agregados_leituras: o total
+ * a partir dos agregados por hora e as janelas a partir dos agregados por minuto das
+ * 24 horas até a leitura mais recente. Até lá a ingestão não atualiza o sensor, pois as
+ * leituras já entram nos agregados. Os agregados não guardam a variância, então a parte
+ * aquecida contribui para a variância só com a dispersão entre horas (total) ou minutos
+ * (janelas); nas janelas isso se corrige quando elas avançam.
+ *
+ * O total cobre todas as leituras já ingeridas, inclusive as removidas de leituras pela
+ * política de retenção, pois os agregados são mantidos.
+ */
+@Component
+public class EstatisticasSensores {
+
+    private static final int METRICAS = Metrica.values().length;
+    private static final long MINUTO_MS = 60_000L;
+    private static final LocalDateTime INICIO_HISTORICO = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime FIM_HISTORICO = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    @Autowired
+    private AgregadorSeries agregadorSeries;
+
+    private final ConcurrentHashMap<Long, EstatisticasSensor> sensores = new ConcurrentHashMap<>();
+
+    private final LongAdder aquecimentos = new LongAdder();
+    private final LongAdder consultas = new LongAdder();
+
+    /**
+     * Registra uma leitura persistida nas estatísticas do sensor.
+     * Dentro de uma transação, a leitura só é registrada após o commit.
+     *
+     * @param leitura leitura persistida (com sensor resolvido)
+     */
+    public void registrar(Leitura leitura) {
+        AposCommit.executar(() -> adicionar(leitura));
+    }
+
+    /**
+     * Retorna as estatísticas de um sensor, com as janelas terminando no instante atual.
+     *
+     * @param sensorId ID do sensor
+     * @return EstatisticasSensorDTO com os períodos total, última hora e últimas 24 horas
+     */
+    public EstatisticasSensorDTO obter(Long sensorId) {
+        return obter(sensorId, LocalDateTime.now());
+    }
+
+    /**
+     * Retorna as estatísticas de um sensor, com as janelas terminando na referência.
+     *
+     * @param sensorId ID do sensor
+     * @param referencia fim das janelas da última hora e das últimas 24 horas
+     * @return EstatisticasSensorDTO com os períodos total, última hora e últimas 24 horas
+     */
+    public EstatisticasSensorDTO obter(Long sensorId, LocalDateTime referencia) {
+        consultas.increment();
+        EstatisticasSensor estatisticas = sensores.get(sensorId);
+        if (estatisticas == null) {
+            // Aquece fora do computeIfAbsent para não bloquear o mapa durante as consultas ao banco
+            EstatisticasSensor aquecidas = aquecer(sensorId);
+            EstatisticasSensor existentes = sensores.putIfAbsent(sensorId, aquecidas);
+            estatisticas = existentes != null ? existentes : aquecidas;
+        }
+        long instante = JanelaLeituras.paraInstante(referencia);
+        EstatisticasSensorDTO dto = new EstatisticasSensorDTO();
+        dto.setSensorId(sensorId);
+        synchronized (estatisticas) {
+            dto.setTotal(EstatisticasPeriodoDTO.of(null, referencia, estatisticas.total));
+            dto.setUltimaHora(periodo(estatisticas.ultimaHora, referencia, instante));
+            dto.setUltimas24Horas(periodo(estatisticas.ultimoDia, referencia, instante));
+        }
+        return dto;
+    }
+
+    /**
+     * Descarta as estatísticas de um sensor removido.
+     *
+     * @param sensorId ID do sensor
+     */
+    public void remover(Long sensorId) {
+        sensores.remove(sensorId);
+    }
+
+    /**
+     * Retorna as métricas das estatísticas incrementais.
+     *
+     * @return Map com sensores em memória, aquecimentos e consultas
+     */
+    public Map<String, Object> obterMetricas() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("sensores", sensores.size());
+        metricas.put("aquecimentosDoBanco", aquecimentos.sum());
+        metricas.put("consultas", consultas.sum());
+        return metricas;
+    }
+
+    private EstatisticasPeriodoDTO periodo(JanelaEstatisticas janela, LocalDateTime referencia, long instante) {
+        LocalDateTime inicio = referencia.minus(Duration.ofMillis(janela.getDuracaoMs()));
+        return EstatisticasPeriodoDTO.of(inicio, referencia, janela.consultar(instante, METRICAS));
+    }
+
+    private void adicionar(Leitura leitura) {
+        Long sensorId = leitura.getSensor().getId();
+        EstatisticasSensor estatisticas = sensores.get(sensorId);
+        // Sem acumuladores, a leitura é contada pelos agregados quando o sensor for aquecido
+        if (estatisticas != null) {
+            estatisticas.adicionar(leitura);
+        }
+    }
+
+    private EstatisticasSensor aquecer(Long sensorId) {
+        aquecimentos.increment();
+        EstatisticasSensor estatisticas = new EstatisticasSensor();
+        List<AgregadoLeitura> horas = agregadorSeries.buscarSerie(sensorId, Resolucao.HOUR, INICIO_HISTORICO, FIM_HISTORICO);
+        if (horas.isEmpty()) {
+            return estatisticas;
+        }
+        LocalDateTime ultima = horas.get(horas.size() - 1).getUltimaDataHora();
+        for (AgregadoLeitura hora : horas) {
+            estatisticas.combinarTotal(resumo(hora));
+        }
+        for (AgregadoLeitura minuto : agregadorSeries.buscarSerie(sensorId, Resolucao.MINUTE, ultima.minusHours(24), ultima)) {
+            estatisticas.combinarJanelas(JanelaLeituras.paraInstante(minuto.getInicio()), resumo(minuto));
+        }
+        return estatisticas;
+    }
+
+    private static EstatisticaOnline[] resumo(AgregadoLeitura agregado) {
+        EstatisticaMetrica[] metricas = { agregado.getTemperatura(), agregado.getUmidade(),
+                agregado.getNivelFumaca(), agregado.getCo2() };
+        EstatisticaOnline[] resumo = new EstatisticaOnline[METRICAS];
+        for (Metrica metrica : Metrica.values()) {
+            EstatisticaMetrica estatistica = metricas[metrica.ordinal()];
+            resumo[metrica.ordinal()] = estatistica.getQuantidade() == 0 ? new EstatisticaOnline()
+                    : EstatisticaOnline.deResumo(estatistica.getQuantidade(), estatistica.getSoma(),
+                            estatistica.getMinimo(), estatistica.getMaximo());
+        }
+        return resumo;
+    }
+
+    /**
+     * Acumuladores de um sensor: total e janelas da última hora e das últimas 24 horas.
+     */
+    private static final class EstatisticasSensor {
+
+        private final EstatisticaOnline[] total = JanelaEstatisticas.novoIntervalo(METRICAS);
+        private final JanelaEstatisticas ultimaHora = new JanelaEstatisticas(5 * MINUTO_MS, 12);
+        private final JanelaEstatisticas ultimoDia = new JanelaEstatisticas(60 * MINUTO_MS, 24);
+
+        synchronized void adicionar(Leitura leitura) {
+            double[] valores = new double[METRICAS];
+            for (Metrica metrica : Metrica.values()) {
+                valores[metrica.ordinal()] = metrica.valor(leitura);
+                total[metrica.ordinal()].adicionar(valores[metrica.ordinal()]);
+            }
+            long instante = JanelaLeituras.paraInstante(leitura.getDataHora());
+            ultimaHora.adicionar(instante, valores);
+            ultimoDia.adicionar(instante, valores);
+        }
+
+        synchronized void combinarTotal(EstatisticaOnline[] resumo) {
+            for (int i = 0; i < METRICAS; i++) {
+                total[i].combinar(resumo[i]);
+            }
+        }
+
+        synchronized void combinarJanelas(long instante, EstatisticaOnline[] resumo) {
+            ultimaHora.combinar(instante, resumo);
+            ultimoDia.combinar(instante, resumo);
+        }
+    }
+}
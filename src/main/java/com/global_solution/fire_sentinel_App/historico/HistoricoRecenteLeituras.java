@@ -0,0 +1,125 @@
+package com.global_solution.fire_sentinel_App.historico;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.repository.LeituraRepository;
+import com.global_solution.fire_sentinel_App.transacao.AposCommit;
+
+/**
+ * Histórico em memória das últimas N leituras de cada sensor, em buffers circulares
+ * de tipos primitivos (BufferCircularLeituras).
+ * 
+ * Preenchido na ingestão (após o commit), atende os cálculos de variação e tendência
+ * sem consultar o banco nem montar entidades JPA. Um sensor ainda sem buffer (por
+ * exemplo, após reiniciar a aplicação) é aquecido uma única vez com as últimas N
+ * leituras do banco.
+ */
+@Component
+public class HistoricoRecenteLeituras {
+
+    @Autowired
+    private LeituraRepository leituraRepository;
+
+    @Value("${leituras.recentes.capacidade:64}")
+    private int capacidade;
+
+    private final ConcurrentHashMap<Long, BufferCircularLeituras> buffers = new ConcurrentHashMap<>();
+
+    private final LongAdder aquecimentos = new LongAdder();
+
+    /**
+     * Registra uma leitura persistida no histórico do sensor.
+     * Dentro de uma transação, a leitura só é registrada após o commit.
+     *
+     * @param leitura leitura persistida (com sensor resolvido)
+     */
+    public void registrar(Leitura leitura) {
+        AposCommit.executar(() -> adicionar(leitura));
+    }
+
+    /**
+     * Retorna as leituras recentes de um sensor, da mais antiga para a mais recente.
+     *
+     * @param sensorId ID do sensor
+     * @return JanelaLeituras com até N leituras (vazia se o sensor não tiver leituras)
+     */
+    public JanelaLeituras obterJanela(Long sensorId) {
+        return obterBuffer(sensorId).copiarJanela();
+    }
+
+    /**
+     * Descarta o histórico de um sensor removido.
+     *
+     * @param sensorId ID do sensor
+     */
+    public void remover(Long sensorId) {
+        buffers.remove(sensorId);
+    }
+
+    /**
+     * Retorna as métricas do histórico, incluindo a memória fixa por sensor.
+     *
+     * @return Map com capacidade, sensores, bytes por sensor e bytes totais
+     */
+    public Map<String, Object> obterMetricas() {
+        long bytesPorSensor = BufferCircularLeituras.calcularBytes(capacidade);
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("capacidadePorSensor", capacidade);
+        metricas.put("sensores", buffers.size());
+        metricas.put("bytesPorSensor", bytesPorSensor);
+        metricas.put("bytesTotais", bytesPorSensor * buffers.size());
+        metricas.put("aquecimentosDoBanco", aquecimentos.sum());
+        return metricas;
+    }
+
+    private void adicionar(Leitura leitura) {
+        Long sensorId = leitura.getSensor().getId();
+        BufferCircularLeituras buffer = buffers.get(sensorId);
+        if (buffer == null) {
+            // O aquecimento já lê do banco a leitura recém-confirmada
+            obterBuffer(sensorId);
+            return;
+        }
+        adicionar(buffer, leitura);
+    }
+
+    private BufferCircularLeituras obterBuffer(Long sensorId) {
+        BufferCircularLeituras buffer = buffers.get(sensorId);
+        if (buffer == null) {
+            // Aquece fora do computeIfAbsent para não bloquear o mapa durante a consulta ao banco
+            BufferCircularLeituras aquecido = aquecer(sensorId);
+            BufferCircularLeituras existente = buffers.putIfAbsent(sensorId, aquecido);
+            buffer = existente != null ? existente : aquecido;
+        }
+        return buffer;
+    }
+
+    private BufferCircularLeituras aquecer(Long sensorId) {
+        aquecimentos.increment();
+        BufferCircularLeituras buffer = new BufferCircularLeituras(capacidade);
+        List<Leitura> recentes = leituraRepository.findBySensorIdOrderByDataHoraDescIdDesc(sensorId, Limit.of(capacidade));
+        for (int i = recentes.size() - 1; i >= 0; i--) {
+            adicionar(buffer, recentes.get(i));
+        }
+        return buffer;
+    }
+
+    private void adicionar(BufferCircularLeituras buffer, Leitura leitura) {
+        Metrica[] metricas = Metrica.values();
+        double[] valores = new double[metricas.length];
+        for (Metrica metrica : metricas) {
+            valores[metrica.ordinal()] = metrica.valor(leitura);
+        }
+        buffer.adicionar(JanelaLeituras.paraInstante(leitura.getDataHora()), valores);
+    }
+}
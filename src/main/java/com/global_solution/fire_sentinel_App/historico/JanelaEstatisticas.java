@@ -0,0 +1,105 @@
+package com.global_solution.fire_sentinel_App.historico;
+
+import java.util.Arrays;
+
+/**
+ * Estatísticas de uma janela deslizante de tempo (ex: última hora), em um anel de
+ * intervalos de largura fixa, cada um com um EstatisticaOnline por métrica.
+ *
+ * Adicionar uma leitura custa O(1) e consultar combina um número fixo de intervalos,
+ * independente de quantas leituras a janela tem. A borda antiga da janela tem a
+ * resolução de um intervalo: o intervalo mais antigo entra inteiro na consulta.
+ * Não é thread-safe.
+ */
+class JanelaEstatisticas {
+
+    private final long larguraIntervaloMs;
+    private final long[] inicios;
+    private final EstatisticaOnline[][] intervalos;
+
+    /**
+     * @param larguraIntervaloMs largura de cada intervalo em milissegundos
+     * @param quantidadeIntervalos quantidade de intervalos (duração da janela = largura x quantidade)
+     */
+    JanelaEstatisticas(long larguraIntervaloMs, int quantidadeIntervalos) {
+        this.larguraIntervaloMs = larguraIntervaloMs;
+        this.inicios = new long[quantidadeIntervalos];
+        this.intervalos = new EstatisticaOnline[quantidadeIntervalos][];
+        Arrays.fill(inicios, Long.MIN_VALUE);
+    }
+
+    long getDuracaoMs() {
+        return larguraIntervaloMs * inicios.length;
+    }
+
+    /**
+     * Adiciona uma leitura ao intervalo do seu instante. Um intervalo reaproveitado
+     * do anel é zerado antes; leituras mais antigas que o intervalo ocupando sua
+     * posição já estão fora da janela e são ignoradas.
+     */
+    void adicionar(long instante, double[] valores) {
+        EstatisticaOnline[] intervalo = intervalo(instante, valores.length);
+        if (intervalo != null) {
+            for (int i = 0; i < valores.length; i++) {
+                intervalo[i].adicionar(valores[i]);
+            }
+        }
+    }
+
+    /**
+     * Combina ao intervalo do instante um resumo de várias leituras (uma estatística
+     * por métrica), com as mesmas regras de adicionar. O resumo deve caber inteiro
+     * em um intervalo.
+     */
+    void combinar(long instante, EstatisticaOnline[] resumo) {
+        EstatisticaOnline[] intervalo = intervalo(instante, resumo.length);
+        if (intervalo != null) {
+            for (int i = 0; i < resumo.length; i++) {
+                intervalo[i].combinar(resumo[i]);
+            }
+        }
+    }
+
+    private EstatisticaOnline[] intervalo(long instante, int quantidadeMetricas) {
+        long numero = Math.floorDiv(instante, larguraIntervaloMs);
+        long inicio = numero * larguraIntervaloMs;
+        int posicao = (int) Math.floorMod(numero, (long) inicios.length);
+        if (inicios[posicao] > inicio) {
+            return null;
+        }
+        if (inicios[posicao] < inicio || intervalos[posicao] == null) {
+            inicios[posicao] = inicio;
+            intervalos[posicao] = novoIntervalo(quantidadeMetricas);
+        }
+        return intervalos[posicao];
+    }
+
+    /**
+     * Combina os intervalos que caem na janela terminada na referência.
+     *
+     * @param referencia fim da janela, em milissegundos
+     * @param quantidadeMetricas quantidade de métricas por leitura
+     * @return EstatisticaOnline[] uma estatística por métrica (novas instâncias)
+     */
+    EstatisticaOnline[] consultar(long referencia, int quantidadeMetricas) {
+        long primeiroInicio = Math.floorDiv(referencia, larguraIntervaloMs) * larguraIntervaloMs
+                - (inicios.length - 1) * larguraIntervaloMs;
+        EstatisticaOnline[] resultado = novoIntervalo(quantidadeMetricas);
+        for (int posicao = 0; posicao < inicios.length; posicao++) {
+            if (intervalos[posicao] != null && inicios[posicao] >= primeiroInicio && inicios[posicao] <= referencia) {
+                for (int i = 0; i < quantidadeMetricas; i++) {
+                    resultado[i].combinar(intervalos[posicao][i]);
+                }
+            }
+        }
+        return resultado;
+    }
+
+    static EstatisticaOnline[] novoIntervalo(int quantidadeMetricas) {
+        EstatisticaOnline[] intervalo = new EstatisticaOnline[quantidadeMetricas];
+        for (int i = 0; i < quantidadeMetricas; i++) {
+            intervalo[i] = new EstatisticaOnline();
+        }
+        return intervalo;
+    }
+}
@@ -0,0 +1,196 @@
+package com.global_solution.fire_sentinel_App.historico;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Cópia imutável das leituras recentes de um sensor, em ordem cronológica, com os
+ * cálculos de variação e tendência feitos diretamente sobre os arrays primitivos.
+ * Valores ausentes são representados por NaN e ignorados nos cálculos.
+ */
+public class JanelaLeituras {
+
+    private static final double MILIS_POR_HORA = 3_600_000.0;
+
+    private final long[] instantes;
+    private final double[][] valores;
+
+    JanelaLeituras(long[] instantes, double[][] valores) {
+        this.instantes = instantes;
+        this.valores = valores;
+    }
+
+    /**
+     * Converte uma data/hora de leitura no instante usado pelo histórico.
+     *
+     * @param dataHora data e hora da leitura
+     * @return long milissegundos desde a época (UTC)
+     */
+    public static long paraInstante(LocalDateTime dataHora) {
+        return dataHora.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public int tamanho() {
+        return instantes.length;
+    }
+
+    public boolean isVazia() {
+        return instantes.length == 0;
+    }
+
+    /**
+     * Retorna a data/hora da leitura na posição informada (0 = mais antiga).
+     *
+     * @param posicao posição na janela
+     * @return LocalDateTime da leitura
+     */
+    public LocalDateTime getDataHora(int posicao) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(instantes[posicao]), ZoneOffset.UTC);
+    }
+
+    /**
+     * Retorna o instante da leitura na posição informada (0 = mais antiga).
+     *
+     * @param posicao posição na janela
+     * @return long milissegundos desde a época (UTC)
+     */
+    public long getInstante(int posicao) {
+        return instantes[posicao];
+    }
+
+    /**
+     * Retorna a coluna de instantes (uso interno dos codificadores, sem cópia).
+     */
+    long[] instantes() {
+        return instantes;
+    }
+
+    /**
+     * Retorna as colunas de métricas (uso interno dos codificadores, sem cópia).
+     */
+    double[][] valores() {
+        return valores;
+    }
+
+    /**
+     * Retorna o valor de uma métrica na posição informada (0 = mais antiga).
+     *
+     * @param metrica métrica desejada
+     * @param posicao posição na janela
+     * @return double valor ou NaN se ausente
+     */
+    public double valor(Metrica metrica, int posicao) {
+        return valores[metrica.ordinal()][posicao];
+    }
+
+    /**
+     * Retorna o valor mais recente de uma métrica.
+     *
+     * @param metrica métrica desejada
+     * @return double valor ou NaN se não houver
+     */
+    public double ultimo(Metrica metrica) {
+        double[] coluna = valores[metrica.ordinal()];
+        for (int i = coluna.length - 1; i >= 0; i--) {
+            if (!Double.isNaN(coluna[i])) {
+                return coluna[i];
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Calcula a média de uma métrica na janela.
+     *
+     * @param metrica métrica desejada
+     * @return double média ou NaN se não houver valores
+     */
+    public double media(Metrica metrica) {
+        double soma = 0;
+        int quantidade = 0;
+        for (double valor : valores[metrica.ordinal()]) {
+            if (!Double.isNaN(valor)) {
+                soma += valor;
+                quantidade++;
+            }
+        }
+        return quantidade == 0 ? Double.NaN : soma / quantidade;
+    }
+
+    public double minimo(Metrica metrica) {
+        double minimo = Double.NaN;
+        for (double valor : valores[metrica.ordinal()]) {
+            if (!Double.isNaN(valor) && !(valor >= minimo)) {
+                minimo = valor;
+            }
+        }
+        return minimo;
+    }
+
+    public double maximo(Metrica metrica) {
+        double maximo = Double.NaN;
+        for (double valor : valores[metrica.ordinal()]) {
+            if (!Double.isNaN(valor) && !(valor <= maximo)) {
+                maximo = valor;
+            }
+        }
+        return maximo;
+    }
+
+    /**
+     * Calcula a variação percentual entre as duas leituras mais recentes de uma métrica,
+     * com a mesma convenção de SensorData.analisarVariacoes (0 quando a base é zero).
+     *
+     * @param metrica métrica desejada
+     * @return double variação percentual ou 0 se não houver duas leituras
+     */
+    public double variacaoPercentual(Metrica metrica) {
+        double[] coluna = valores[metrica.ordinal()];
+        double atual = Double.NaN;
+        for (int i = coluna.length - 1; i >= 0; i--) {
+            if (Double.isNaN(coluna[i])) {
+                continue;
+            }
+            if (Double.isNaN(atual)) {
+                atual = coluna[i];
+            } else {
+                return coluna[i] == 0 ? 0.0 : (atual - coluna[i]) / coluna[i] * 100;
+            }
+        }
+        return 0.0;
+    }
+
+    /**
+     * Calcula a tendência de uma métrica (inclinação da regressão linear por mínimos
+     * quadrados), em unidades da métrica por hora.
+     *
+     * @param metrica métrica desejada
+     * @return double variação por hora ou 0 se não houver pelo menos dois instantes distintos
+     */
+    public double tendenciaPorHora(Metrica metrica) {
+        double[] coluna = valores[metrica.ordinal()];
+        if (instantes.length < 2) {
+            return 0.0;
+        }
+        long referencia = instantes[0];
+        double somaX = 0, somaY = 0, somaXX = 0, somaXY = 0;
+        int n = 0;
+        for (int i = 0; i < coluna.length; i++) {
+            if (Double.isNaN(coluna[i])) {
+                continue;
+            }
+            double x = (instantes[i] - referencia) / MILIS_POR_HORA;
+            somaX += x;
+            somaY += coluna[i];
+            somaXX += x * x;
+            somaXY += x * coluna[i];
+            n++;
+        }
+        double denominador = n * somaXX - somaX * somaX;
+        if (n < 2 || denominador == 0) {
+            return 0.0;
+        }
+        return (n * somaXY - somaX * somaY) / denominador;
+    }
+}
@@ -0,0 +1,35 @@
+package com.global_solution.fire_sentinel_App.historico;
+
+/**
+ * Lê sequências de bits gravadas pelo EscritorBits.
+ */
+class LeitorBits {
+
+    private final byte[] bytes;
+    private long posicao;
+
+    LeitorBits(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * Lê quantidade bits (até 64) como um valor sem sinal.
+     */
+    long ler(int quantidade) {
+        long valor = 0;
+        for (int restante = quantidade; restante > 0;) {
+            int posicaoByte = (int) (posicao >>> 3);
+            int disponiveisNoByte = 8 - (int) (posicao & 7);
+            int ler = Math.min(disponiveisNoByte, restante);
+            int bitsParte = (bytes[posicaoByte] >>> (disponiveisNoByte - ler)) & ((1 << ler) - 1);
+            valor = (valor << ler) | bitsParte;
+            restante -= ler;
+            posicao += ler;
+        }
+        return valor;
+    }
+
+    boolean lerBit() {
+        return ler(1) == 1;
+    }
+}
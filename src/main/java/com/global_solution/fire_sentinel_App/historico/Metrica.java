@@ -0,0 +1,46 @@
+package com.global_solution.fire_sentinel_App.historico;
+
+import java.util.function.Function;
+
+import com.global_solution.fire_sentinel_App.model.Leitura;
+
+/**
+ * Métricas ambientais de uma leitura, usadas como colunas do histórico recente.
+ */
+public enum Metrica {
+
+    TEMPERATURA(Leitura::getTemperatura, 1),
+    UMIDADE(Leitura::getUmidade, -1),
+    NIVEL_FUMACA(Leitura::getNivelFumaca, 1),
+    CO2(Leitura::getCo2, 1);
+
+    private final Function<Leitura, Double> extrator;
+    private final int sentidoIncendio;
+
+    Metrica(Function<Leitura, Double> extrator, int sentidoIncendio) {
+        this.extrator = extrator;
+        this.sentidoIncendio = sentidoIncendio;
+    }
+
+    /**
+     * Extrai o valor desta métrica de uma leitura.
+     *
+     * @param leitura leitura de origem
+     * @return double valor da métrica ou NaN se ausente
+     */
+    public double valor(Leitura leitura) {
+        Double valor = extrator.apply(leitura);
+        return valor != null ? valor : Double.NaN;
+    }
+
+    /**
+     * Indica se uma variação no sentido do sinal aponta para incêndio: temperatura,
+     * fumaça e CO2 subindo ou umidade caindo.
+     *
+     * @param variacao variação ou escore com sinal (positivo acima da referência)
+     * @return boolean true se a variação vai no sentido de incêndio
+     */
+    public boolean indicaIncendio(double variacao) {
+        return variacao * sentidoIncendio > 0;
+    }
+}
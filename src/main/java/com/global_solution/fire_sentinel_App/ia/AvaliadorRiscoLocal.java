@@ -0,0 +1,150 @@
+package com.global_solution.fire_sentinel_App.ia;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.global_solution.fire_sentinel_App.dto.RiscoDTO;
+import com.global_solution.fire_sentinel_App.model.Leitura;
+
+/**
+ * Modelo de risco local, executado no próprio processo sem chamada HTTP.
+ *
+ * O nível de risco é o índice de Leitura.calcularIndiceRisco (0 a 1) e a descrição traz
+ * a severidade estimada por IAEngine. No modo HIBRIDO, índices abaixo do limite seguro
+ * ou a partir do limite crítico são conclusivos e respondidos localmente; só a faixa
+ * intermediária (ambígua) é enviada à API externa. Nos modos REMOTO e HIBRIDO o modelo
+ * local também é o fallback quando a API falha.
+ */
+@Component
+public class AvaliadorRiscoLocal {
+
+    static final String ORIGEM_LOCAL = "Análise local";
+
+    @Value("${ia.risk.analysis.modo:HIBRIDO}")
+    private ModoAnaliseRisco modo;
+
+    @Value("${ia.risk.analysis.local.limite-seguro:0.4}")
+    private double limiteSeguro;
+
+    @Value("${ia.risk.analysis.local.limite-critico:0.8}")
+    private double limiteCritico;
+
+    private final LongAdder analisesLocais = new LongAdder();
+    private final LongAdder chamadasRemotasEvitadas = new LongAdder();
+    private final LongAdder escalonamentosRemotos = new LongAdder();
+    private final LongAdder fallbacksLocais = new LongAdder();
+
+    public ModoAnaliseRisco getModo() {
+        return modo;
+    }
+
+    /**
+     * Verifica se a leitura tem as métricas usadas pelo modelo local.
+     *
+     * @param leitura leitura a ser analisada
+     * @return boolean true se temperatura, umidade e nível de fumaça estiverem presentes
+     */
+    public boolean podeAvaliar(Leitura leitura) {
+        return leitura.getTemperatura() != null && leitura.getUmidade() != null && leitura.getNivelFumaca() != null;
+    }
+
+    /**
+     * Analisa o risco da leitura com o modelo local.
+     *
+     * @param leitura leitura com temperatura, umidade e nível de fumaça (ver podeAvaliar)
+     * @return RiscoDTO com nível, categoria e descrição da análise local
+     */
+    public RiscoDTO avaliar(Leitura leitura) {
+        analisesLocais.increment();
+        double indice = leitura.calcularIndiceRisco();
+        int severidade = IAEngine.preverSeveridade(leitura.getTemperatura(), leitura.getUmidade(), leitura.getNivelFumaca());
+
+        RiscoDTO risco = new RiscoDTO();
+        risco.setNivelRisco(indice);
+        risco.setCategoria(categorizar(indice));
+        risco.setDescricao(String.format(Locale.ROOT, "%s: índice %.2f, severidade estimada %d/10",
+                ORIGEM_LOCAL, indice, severidade));
+        risco.setDataHoraAnalise(LocalDateTime.now());
+        risco.setLeituraId(leitura.getId());
+        risco.setSensorId(leitura.getSensor() != null ? leitura.getSensor().getId() : null);
+        return risco;
+    }
+
+    /**
+     * Decide, pelo modo configurado, se a leitura já analisada localmente também
+     * deve ir à API externa. No modo HIBRIDO só a faixa ambígua (entre o limite seguro
+     * e o limite crítico) é enviada. Contabiliza a decisão nas métricas.
+     *
+     * @param indice índice de risco calculado localmente
+     * @return boolean true se a API externa deve ser consultada
+     */
+    public boolean deveConsultarApi(double indice) {
+        boolean consultar = switch (modo) {
+            case LOCAL -> false;
+            case REMOTO -> true;
+            case HIBRIDO -> indice >= limiteSeguro && indice < limiteCritico;
+        };
+        if (!consultar) {
+            chamadasRemotasEvitadas.increment();
+        } else if (modo == ModoAnaliseRisco.HIBRIDO) {
+            escalonamentosRemotos.increment();
+        }
+        return consultar;
+    }
+
+    /**
+     * Registra que a análise local substituiu uma chamada à API que falhou. A análise
+     * fica marcada como provisória até a reanálise pela API.
+     *
+     * @param local análise local usada no lugar da resposta da API
+     * @param motivo descrição da falha
+     * @return RiscoDTO a própria análise local, com o motivo na descrição
+     */
+    public RiscoDTO usarComoFallback(RiscoDTO local, String motivo) {
+        fallbacksLocais.increment();
+        local.setDescricao(local.getDescricao() + " (API indisponível: " + motivo + ")");
+        local.setProvisoria(true);
+        return local;
+    }
+
+    /**
+     * Classifica um índice de risco nas categorias usadas pelas análises (mesmos
+     * limites de Risco.gerarRecomendacao).
+     *
+     * @param indice índice de risco entre 0 e 1
+     * @return String BAIXO, MÉDIO, ALTO ou CRÍTICO
+     */
+    public static String categorizar(double indice) {
+        if (indice >= 0.8) {
+            return "CRÍTICO";
+        } else if (indice >= 0.6) {
+            return "ALTO";
+        } else if (indice >= 0.4) {
+            return "MÉDIO";
+        }
+        return "BAIXO";
+    }
+
+    /**
+     * Retorna as métricas do modelo local.
+     *
+     * @return Map com modo, limites, análises locais, chamadas evitadas, escalonamentos e fallbacks
+     */
+    public Map<String, Object> obterMetricas() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("modo", modo);
+        metricas.put("limiteSeguro", limiteSeguro);
+        metricas.put("limiteCritico", limiteCritico);
+        metricas.put("analisesLocais", analisesLocais.sum());
+        metricas.put("chamadasRemotasEvitadas", chamadasRemotasEvitadas.sum());
+        metricas.put("escalonamentosRemotos", escalonamentosRemotos.sum());
+        metricas.put("fallbacksLocais", fallbacksLocais.sum());
+        return metricas;
+    }
+}
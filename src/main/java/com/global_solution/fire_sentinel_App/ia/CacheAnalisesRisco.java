@@ -0,0 +1,185 @@
+package com.global_solution.fire_sentinel_App.ia;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.RiscoDTO;
+
+/**
+ * Cache das respostas da API de IA, na frente da chamada remota.
+ *
+ * A chave é o tipo do sensor mais a tupla (temperatura, umidade, nível de fumaça, CO2)
+ * quantizada pelos passos configurados: leituras quase idênticas de um sensor em estado
+ * estável caem na mesma chave e reaproveitam a análise sem nova chamada HTTP. As
+ * entradas expiram após ttl-ms e, ao atingir a capacidade, a menos usada recentemente
+ * é descartada (LRU). Apenas respostas da API são guardadas; fallbacks locais não.
+ */
+@Component
+public class CacheAnalisesRisco {
+
+    /**
+     * Valor quantizado de uma métrica ausente na leitura.
+     */
+    private static final long AUSENTE = Long.MIN_VALUE;
+
+    private record Chave(String tipoSensor, long temperatura, long umidade, long nivelFumaca, long co2) {
+    }
+
+    private record Entrada(RiscoDTO risco, long expiraEmMs) {
+    }
+
+    private final boolean habilitado;
+    private final int capacidade;
+    private final long ttlMs;
+    private final double[] passos;
+
+    private final LinkedHashMap<Chave, Entrada> entradas;
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder expiracoes = new LongAdder();
+    private final LongAdder despejos = new LongAdder();
+
+    @Autowired
+    public CacheAnalisesRisco(@Value("${ia.risk.analysis.cache.habilitado:true}") boolean habilitado,
+            @Value("${ia.risk.analysis.cache.capacidade:10000}") int capacidade,
+            @Value("${ia.risk.analysis.cache.ttl-ms:60000}") long ttlMs,
+            @Value("${ia.risk.analysis.cache.passos:0.5,1.0,1.0,10.0}") double[] passos) {
+        if (passos.length != 4) {
+            throw new IllegalArgumentException("Informe 4 passos de quantização (temperatura, umidade, fumaça, CO2)");
+        }
+        this.habilitado = habilitado;
+        this.capacidade = capacidade;
+        this.ttlMs = ttlMs;
+        this.passos = passos.clone();
+        // accessOrder=true: a iteração começa pela entrada menos usada recentemente
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Chave, Entrada> maisAntiga) {
+                if (size() > CacheAnalisesRisco.this.capacidade) {
+                    despejos.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Busca uma análise em cache para uma leitura equivalente (mesmo tipo de sensor e
+     * mesmos valores quantizados). O resultado é uma cópia com os IDs da leitura atual.
+     *
+     * @param tipoSensor tipo do sensor da leitura
+     * @param leitura leitura a ser analisada
+     * @return RiscoDTO análise reaproveitada ou null em caso de falta
+     */
+    public RiscoDTO buscar(String tipoSensor, LeituraDTO leitura) {
+        if (!habilitado) {
+            return null;
+        }
+        Chave chave = criarChave(tipoSensor, leitura);
+        Entrada entrada;
+        synchronized (entradas) {
+            entrada = entradas.get(chave);
+            if (entrada != null && System.currentTimeMillis() >= entrada.expiraEmMs()) {
+                entradas.remove(chave);
+                expiracoes.increment();
+                entrada = null;
+            }
+        }
+        if (entrada == null) {
+            faltas.increment();
+            return null;
+        }
+        acertos.increment();
+        return copiar(entrada.risco(), leitura);
+    }
+
+    /**
+     * Guarda a resposta da API para a leitura informada.
+     *
+     * @param tipoSensor tipo do sensor da leitura
+     * @param leitura leitura analisada
+     * @param risco resposta da API de IA
+     */
+    public void guardar(String tipoSensor, LeituraDTO leitura, RiscoDTO risco) {
+        if (!habilitado || risco == null) {
+            return;
+        }
+        Entrada entrada = new Entrada(copiar(risco, leitura), System.currentTimeMillis() + ttlMs);
+        synchronized (entradas) {
+            entradas.put(criarChave(tipoSensor, leitura), entrada);
+        }
+    }
+
+    /**
+     * Descarta todas as análises em cache.
+     */
+    public void limpar() {
+        synchronized (entradas) {
+            entradas.clear();
+        }
+    }
+
+    /**
+     * Retorna as métricas do cache.
+     *
+     * @return Map com tamanho, capacidade, acertos, faltas, taxa de acerto, expirações e despejos
+     */
+    public Map<String, Object> obterMetricas() {
+        long totalAcertos = acertos.sum();
+        long totalFaltas = faltas.sum();
+        long total = totalAcertos + totalFaltas;
+        int tamanho;
+        synchronized (entradas) {
+            tamanho = entradas.size();
+        }
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("habilitado", habilitado);
+        metricas.put("tamanho", tamanho);
+        metricas.put("capacidade", capacidade);
+        metricas.put("ttlMs", ttlMs);
+        metricas.put("acertos", totalAcertos);
+        metricas.put("faltas", totalFaltas);
+        metricas.put("taxaAcerto", total == 0 ? 0.0 : (double) totalAcertos / total);
+        metricas.put("expiracoes", expiracoes.sum());
+        metricas.put("despejos", despejos.sum());
+        return metricas;
+    }
+
+    private Chave criarChave(String tipoSensor, LeituraDTO leitura) {
+        return new Chave(tipoSensor,
+                quantizar(leitura.getTemperatura(), passos[0]),
+                quantizar(leitura.getUmidade(), passos[1]),
+                quantizar(leitura.getNivelFumaca(), passos[2]),
+                quantizar(leitura.getCo2(), passos[3]));
+    }
+
+    private static long quantizar(Double valor, double passo) {
+        return valor == null ? AUSENTE : Math.round(valor / passo);
+    }
+
+    private static RiscoDTO copiar(RiscoDTO risco, LeituraDTO leitura) {
+        RiscoDTO copia = new RiscoDTO();
+        copia.setNivelRisco(risco.getNivelRisco());
+        copia.setCategoria(risco.getCategoria());
+        copia.setDescricao(risco.getDescricao());
+        copia.setRecomendacao(risco.getRecomendacao());
+        copia.setDataHoraAnalise(LocalDateTime.now());
+        copia.setLeituraId(leitura.getId());
+        copia.setSensorId(leitura.getSensorId());
+        copia.setSensorNome(leitura.getSensorNome());
+        return copia;
+    }
+}
@@ -0,0 +1,478 @@
+package com.global_solution.fire_sentinel_App.ia;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.RiscoDTO;
+import com.global_solution.fire_sentinel_App.ia.EndpointsIA.EndpointIA;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Cliente da API externa de análise de risco que agrupa as chamadas em micro-lotes.
+ * As leituras pendentes são acumuladas por até N itens ou T milissegundos e enviadas
+ * como um único array para o endpoint de lote; os RiscoDTO retornados (na mesma ordem)
+ * são devolvidos a cada chamador por meio de um CompletableFuture.
+ * 
+ * Se o endpoint de lote não existir (404, 405, 415 ou 501), o cliente passa a usar
+ * chamadas individuais para o endpoint original.
+ * 
+ * Proteções contra uma API lenta ou fora do ar: no máximo N análises em andamento
+ * (bulkhead; as excedentes são recusadas na hora) e um disjuntor (DisjuntorIA) que
+ * recusa as chamadas enquanto a API está falhando. Um pedido recusado termina com
+ * exceção imediatamente, e o chamador usa o modelo local.
+ * 
+ * Com várias réplicas da API (EndpointsIA), cada lote ou chamada vai para a réplica de
+ * menor latência; se ela demorar além do percentil configurado, uma cópia (hedge) segue
+ * para a segunda melhor e vale a primeira resposta bem-sucedida.
+ */
+@Component
+public class ClienteIALote {
+
+    private static final Logger log = LoggerFactory.getLogger(ClienteIALote.class);
+
+    private final RestTemplate restTemplate;
+    private final EndpointsIA endpoints;
+    private final String sufixoLote;
+    private final int tamanhoMaximo;
+    private final long esperaMaximaMs;
+    private final int concorrencia;
+    private final DisjuntorIA disjuntor;
+    private final int maximoEmAndamento;
+    private final Semaphore emAndamento;
+
+    private final LinkedBlockingQueue<Pedido> pendentes = new LinkedBlockingQueue<>();
+    private volatile boolean loteSuportado;
+    private volatile boolean executando;
+    private Thread despachante;
+    private ExecutorService envio;
+    private ThreadPoolExecutor chamadas;
+
+    private final LongAdder lotesEnviados = new LongAdder();
+    private final LongAdder itensEmLote = new LongAdder();
+    private final LongAdder chamadasIndividuais = new LongAdder();
+    private final LongAdder recusadasPorLimite = new LongAdder();
+    private final LongAdder recusadasPorDisjuntor = new LongAdder();
+
+    @Autowired
+    public ClienteIALote(RestTemplate restTemplate,
+            EndpointsIA endpoints,
+            @Value("${ia.risk.analysis.lote.habilitado:true}") boolean habilitado,
+            @Value("${ia.risk.analysis.lote.sufixo:/lote}") String sufixo,
+            @Value("${ia.risk.analysis.lote.tamanho-maximo:50}") int tamanhoMaximo,
+            @Value("${ia.risk.analysis.lote.espera-maxima-ms:20}") long esperaMaximaMs,
+            @Value("${ia.risk.analysis.lote.concorrencia:4}") int concorrencia,
+            @Value("${ia.risk.analysis.maximo-em-andamento:64}") int maximoEmAndamento,
+            DisjuntorIA disjuntor) {
+        this.restTemplate = restTemplate;
+        this.endpoints = endpoints;
+        this.sufixoLote = sufixo;
+        this.loteSuportado = habilitado;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.concorrencia = concorrencia;
+        this.maximoEmAndamento = maximoEmAndamento;
+        this.emAndamento = new Semaphore(maximoEmAndamento);
+        this.disjuntor = disjuntor;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        AtomicInteger contador = new AtomicInteger();
+        envio = Executors.newFixedThreadPool(concorrencia, r -> {
+            Thread thread = new Thread(r, "ia-lote-envio-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Chamadas HTTP (primárias e hedges): cada envio tem no máximo uma primária e um hedge
+        // em disputa, então concorrencia x 2 threads. Uma chamada perdedora que ainda ocupa uma
+        // thread (limitada pelo prazo de resposta) faz as próximas esperarem na fila.
+        AtomicInteger contadorChamadas = new AtomicInteger();
+        int threadsChamadas = concorrencia * 2;
+        chamadas = new ThreadPoolExecutor(threadsChamadas, threadsChamadas, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "ia-chamada-" + contadorChamadas.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executando = true;
+        despachante = new Thread(this::despachar, "ia-lote-despachante");
+        despachante.setDaemon(true);
+        despachante.start();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executando = false;
+        if (despachante != null) {
+            despachante.interrupt();
+        }
+        if (envio != null) {
+            envio.shutdown();
+        }
+        if (chamadas != null) {
+            chamadas.shutdown();
+        }
+        Pedido pedido;
+        while ((pedido = pendentes.poll()) != null) {
+            pedido.resultado.completeExceptionally(new IllegalStateException("Cliente de IA encerrado"));
+        }
+    }
+
+    /**
+     * Solicita a análise de risco de uma leitura.
+     * A requisição é agrupada com outras pendentes e enviada no próximo lote.
+     * Com o limite de análises em andamento atingido ou o disjuntor aberto, o pedido
+     * é recusado e o CompletableFuture já retorna concluído com exceção.
+     *
+     * @param leituraDTO dados da leitura a ser analisada
+     * @return CompletableFuture concluído com o RiscoDTO retornado pela API
+     */
+    public CompletableFuture<RiscoDTO> analisar(LeituraDTO leituraDTO) {
+        Pedido pedido = new Pedido(leituraDTO);
+        if (!executando) {
+            pedido.resultado.completeExceptionally(new IllegalStateException("Cliente de IA não iniciado"));
+            return pedido.resultado;
+        }
+        if (!emAndamento.tryAcquire()) {
+            recusadasPorLimite.increment();
+            pedido.resultado.completeExceptionally(new RejectedExecutionException(
+                    "Limite de " + maximoEmAndamento + " análises em andamento na API de IA"));
+            return pedido.resultado;
+        }
+        if (!disjuntor.permitirChamada()) {
+            emAndamento.release();
+            recusadasPorDisjuntor.increment();
+            pedido.resultado.completeExceptionally(new RejectedExecutionException("Disjuntor da API de IA aberto"));
+            return pedido.resultado;
+        }
+        pedido.resultado.whenComplete((risco, erro) -> emAndamento.release());
+        pendentes.add(pedido);
+        return pedido.resultado;
+    }
+
+    /**
+     * Laço do despachante: aguarda o primeiro pedido e completa o lote até atingir
+     * o tamanho máximo ou o tempo máximo de espera.
+     */
+    private void despachar() {
+        while (executando) {
+            try {
+                Pedido primeiro = pendentes.take();
+                List<Pedido> lote = new ArrayList<>(tamanhoMaximo);
+                lote.add(primeiro);
+                long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(esperaMaximaMs);
+                while (lote.size() < tamanhoMaximo) {
+                    long restante = limite - System.nanoTime();
+                    if (restante <= 0) {
+                        pendentes.drainTo(lote, tamanhoMaximo - lote.size());
+                        break;
+                    }
+                    Pedido proximo = pendentes.poll(restante, TimeUnit.NANOSECONDS);
+                    if (proximo == null) {
+                        break;
+                    }
+                    lote.add(proximo);
+                }
+                envio.execute(() -> enviar(lote));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("Erro no despachante de lotes da IA: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void enviar(List<Pedido> lote) {
+        if (loteSuportado && lote.size() > 1) {
+            try {
+                RiscoDTO[] resultados = enviarLote(lote);
+                disjuntor.registrarSucesso();
+                for (int i = 0; i < lote.size(); i++) {
+                    lote.get(i).resultado.complete(resultados[i]);
+                }
+                return;
+            } catch (HttpClientErrorException | HttpServerErrorException e) {
+                if (!isLoteNaoSuportado(e.getStatusCode().value())) {
+                    registrarErro(e);
+                    falharTodos(lote, e);
+                    return;
+                }
+                log.info("Endpoint de lote da IA indisponível ({}); usando chamadas individuais", e.getStatusCode());
+                loteSuportado = false;
+            } catch (Exception e) {
+                registrarErro(e);
+                falharTodos(lote, e);
+                return;
+            }
+        }
+        for (int i = 0; i < lote.size(); i++) {
+            Pedido pedido = lote.get(i);
+            // O primeiro pedido passou pelo disjuntor ao ser aceito; os seguintes são verificados
+            // de novo, pois as falhas dos anteriores podem tê-lo aberto
+            if (i > 0 && !disjuntor.permitirChamada()) {
+                RejectedExecutionException recusa = new RejectedExecutionException("Disjuntor da API de IA aberto");
+                for (Pedido restante : lote.subList(i, lote.size())) {
+                    recusadasPorDisjuntor.increment();
+                    restante.resultado.completeExceptionally(recusa);
+                }
+                return;
+            }
+            try {
+                chamadasIndividuais.increment();
+                HttpEntity<LeituraDTO> requisicao = criarRequisicao(pedido.leitura);
+                RiscoDTO risco = chamarComHedge(
+                        endpoint -> restTemplate.postForObject(endpoint.getUrl(), requisicao, RiscoDTO.class));
+                disjuntor.registrarSucesso();
+                pedido.resultado.complete(risco);
+            } catch (Exception e) {
+                registrarErro(e);
+                pedido.resultado.completeExceptionally(traduzir(e));
+            }
+        }
+    }
+
+    private RiscoDTO[] enviarLote(List<Pedido> lote) {
+        List<LeituraDTO> leituras = lote.stream().map(pedido -> pedido.leitura).toList();
+        HttpEntity<List<LeituraDTO>> requisicao = criarRequisicao(leituras);
+        RiscoDTO[] resultados = chamarComHedge(
+                endpoint -> restTemplate.postForObject(endpoint.getUrl() + sufixoLote, requisicao, RiscoDTO[].class));
+        lotesEnviados.increment();
+        itensEmLote.add(lote.size());
+
+        if (resultados == null || resultados.length != lote.size()) {
+            throw new IllegalStateException("Resposta do lote com tamanho inesperado: "
+                    + (resultados == null ? "vazia" : Arrays.toString(resultados)));
+        }
+        return resultados;
+    }
+
+    /**
+     * Executa a chamada na réplica de menor latência. Se ela não responder dentro da
+     * espera de hedge (percentil da sua latência), envia uma cópia à segunda melhor
+     * réplica e retorna a primeira resposta bem-sucedida. A perdedora é cancelada: se ainda
+     * está na fila, não chega a ser enviada; se já está em andamento, segue até o fim apenas
+     * para alimentar as estatísticas. Falhando as duas, propaga o último erro.
+     */
+    private <T> T chamarComHedge(Function<EndpointIA, T> chamada) {
+        EndpointIA primario = endpoints.selecionar(null);
+        CompletableFuture<T> primeira = executar(primario, chamada);
+        long esperaHedge = endpoints.calcularEsperaHedge(primario);
+        if (esperaHedge < 0) {
+            return aguardar(primeira);
+        }
+        try {
+            return primeira.get(esperaHedge, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Primário acima do percentil: segue para o hedge
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Chamada à API de IA interrompida", e);
+        } catch (ExecutionException e) {
+            throw desembrulhar(e.getCause());
+        }
+
+        EndpointIA secundario = endpoints.selecionar(primario);
+        endpoints.registrarHedgeEnviado();
+        CompletableFuture<T> segunda = executar(secundario, chamada);
+        Corrida<T> corrida = new Corrida<>();
+        primeira.whenComplete((resultado, erro) -> corrida.concluir(resultado, erro, null));
+        segunda.whenComplete((resultado, erro) ->
+                corrida.concluir(resultado, erro, () -> endpoints.registrarHedgeVencedor(secundario)));
+        try {
+            return aguardar(corrida.vencedora);
+        } finally {
+            primeira.cancel(false);
+            segunda.cancel(false);
+        }
+    }
+
+    /**
+     * Executa a chamada em uma réplica, registrando a latência (ou a falha) na réplica.
+     * Erros 4xx contam como resposta: a réplica está saudável.
+     */
+    private <T> CompletableFuture<T> executar(EndpointIA endpoint, Function<EndpointIA, T> chamada) {
+        return CompletableFuture.supplyAsync(() -> {
+            long inicio = System.nanoTime();
+            try {
+                T resultado = chamada.apply(endpoint);
+                endpoint.registrarResposta(System.nanoTime() - inicio);
+                return resultado;
+            } catch (HttpClientErrorException e) {
+                endpoint.registrarResposta(System.nanoTime() - inicio);
+                throw e;
+            } catch (RuntimeException e) {
+                endpoint.registrarFalha();
+                throw e;
+            }
+        }, chamadas);
+    }
+
+    /**
+     * Aguarda a chamada; não há prazo aqui porque o próprio cliente HTTP tem prazo de resposta.
+     */
+    private static <T> T aguardar(CompletableFuture<T> chamada) {
+        try {
+            return chamada.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Chamada à API de IA interrompida", e);
+        } catch (ExecutionException e) {
+            throw desembrulhar(e.getCause());
+        }
+    }
+
+    private static RuntimeException desembrulhar(Throwable erro) {
+        return erro instanceof RuntimeException runtime
+                ? runtime
+                : new IllegalStateException("Falha na chamada à API de IA", erro);
+    }
+
+    private boolean isLoteNaoSuportado(int status) {
+        return status == HttpStatus.NOT_FOUND.value()
+                || status == HttpStatus.METHOD_NOT_ALLOWED.value()
+                || status == HttpStatus.UNSUPPORTED_MEDIA_TYPE.value()
+                || status == HttpStatus.NOT_IMPLEMENTED.value();
+    }
+
+    /**
+     * Erros 4xx indicam problema na requisição, não na saúde da API: a API respondeu,
+     * o que conta como sucesso para o disjuntor.
+     */
+    private void registrarErro(Exception erro) {
+        if (erro instanceof HttpClientErrorException) {
+            disjuntor.registrarSucesso();
+        } else {
+            disjuntor.registrarFalha();
+        }
+    }
+
+    private void falharTodos(List<Pedido> lote, Exception erro) {
+        Exception traduzido = traduzir(erro);
+        lote.forEach(pedido -> pedido.resultado.completeExceptionally(traduzido));
+    }
+
+    /**
+     * O RestTemplate sobre o HttpClient do JDK sinaliza o prazo de resposta esgotado
+     * cancelando a requisição; o pedido termina com ResourceAccessException em vez de
+     * parecer cancelado pelo chamador.
+     */
+    private static Exception traduzir(Exception erro) {
+        if (erro instanceof CancellationException) {
+            return new ResourceAccessException("Prazo de resposta da API de IA esgotado");
+        }
+        return erro;
+    }
+
+    private <T> HttpEntity<T> criarRequisicao(T corpo) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new HttpEntity<>(corpo, headers);
+    }
+
+    /**
+     * Retorna as métricas do cliente em lote.
+     *
+     * @return Map com lotes enviados, tamanho médio dos lotes, chamadas individuais,
+     *         análises em andamento, recusas, chamadas HTTP em andamento e na fila,
+     *         estado do disjuntor e latência por réplica
+     */
+    public Map<String, Object> obterMetricas() {
+        long lotes = lotesEnviados.sum();
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("loteSuportado", loteSuportado);
+        metricas.put("tamanhoMaximo", tamanhoMaximo);
+        metricas.put("esperaMaximaMs", esperaMaximaMs);
+        metricas.put("pendentes", pendentes.size());
+        metricas.put("lotesEnviados", lotes);
+        metricas.put("tamanhoMedioLote", lotes == 0 ? 0.0 : (double) itensEmLote.sum() / lotes);
+        metricas.put("chamadasIndividuais", chamadasIndividuais.sum());
+        metricas.put("maximoEmAndamento", maximoEmAndamento);
+        metricas.put("emAndamento", maximoEmAndamento - emAndamento.availablePermits());
+        metricas.put("recusadasPorLimite", recusadasPorLimite.sum());
+        metricas.put("recusadasPorDisjuntor", recusadasPorDisjuntor.sum());
+        if (chamadas != null) {
+            metricas.put("chamadasEmAndamento", chamadas.getActiveCount());
+            metricas.put("chamadasNaFila", chamadas.getQueue().size());
+        }
+        metricas.put("disjuntor", disjuntor.obterMetricas());
+        metricas.put("endpoints", endpoints.obterMetricas());
+        return metricas;
+    }
+
+    /**
+     * Disputa entre a chamada primária e o hedge: a primeira resposta bem-sucedida vence;
+     * o erro só é propagado quando as duas chamadas falham.
+     */
+    private static class Corrida<T> {
+
+        private final CompletableFuture<T> vencedora = new CompletableFuture<>();
+        private final AtomicInteger restantes = new AtomicInteger(2);
+        private final AtomicBoolean decidida = new AtomicBoolean();
+
+        /**
+         * @param aoVencer ação executada antes de entregar o resultado, se este vencer (ou null)
+         */
+        void concluir(T resultado, Throwable erro, Runnable aoVencer) {
+            if (erro == null) {
+                if (decidida.compareAndSet(false, true)) {
+                    if (aoVencer != null) {
+                        aoVencer.run();
+                    }
+                    vencedora.complete(resultado);
+                }
+            } else if (restantes.decrementAndGet() == 0) {
+                vencedora.completeExceptionally(erro instanceof CompletionException ? erro.getCause() : erro);
+            }
+        }
+    }
+
+    /**
+     * Pedido de análise aguardando envio.
+     */
+    private static class Pedido {
+
+        private final LeituraDTO leitura;
+        private final CompletableFuture<RiscoDTO> resultado = new CompletableFuture<>();
+
+        Pedido(LeituraDTO leitura) {
+            this.leitura = leitura;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.global_solution.fire_sentinel_App.ia;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Disjuntor (circuit breaker) das chamadas à API externa de IA.
+ *
+ * FECHADO: as chamadas passam; após N falhas consecutivas o disjuntor abre.
+ * ABERTO: as chamadas são recusadas sem tocar a rede até o tempo de espera acabar.
+ * SEMI_ABERTO: uma única chamada de teste passa; sucesso fecha, falha reabre.
+ * Enquanto as chamadas são recusadas, a análise de risco usa o modelo local.
+ */
+@Component
+public class DisjuntorIA {
+
+    private static final Logger log = LoggerFactory.getLogger(DisjuntorIA.class);
+
+    public enum Estado { FECHADO, ABERTO, SEMI_ABERTO }
+
+    private final int limiteFalhas;
+    private final long tempoAbertoMs;
+
+    private Estado estado = Estado.FECHADO;
+    private int falhasConsecutivas;
+    private long abertoAteMs;
+    private boolean chamadaDeTesteEmAndamento;
+
+    private final LongAdder aberturas = new LongAdder();
+    private final LongAdder chamadasRecusadas = new LongAdder();
+
+    @Autowired
+    public DisjuntorIA(@Value("${ia.risk.analysis.disjuntor.limite-falhas:5}") int limiteFalhas,
+            @Value("${ia.risk.analysis.disjuntor.tempo-aberto-ms:30000}") long tempoAbertoMs) {
+        this.limiteFalhas = limiteFalhas;
+        this.tempoAbertoMs = tempoAbertoMs;
+    }
+
+    /**
+     * Verifica se uma chamada pode ser feita agora. No estado SEMI_ABERTO, apenas a
+     * primeira chamada é liberada até que seu resultado seja registrado.
+     *
+     * @return boolean true se a chamada pode seguir para a API
+     */
+    public synchronized boolean permitirChamada() {
+        if (estado == Estado.ABERTO && System.currentTimeMillis() >= abertoAteMs) {
+            estado = Estado.SEMI_ABERTO;
+            chamadaDeTesteEmAndamento = false;
+        }
+        boolean permitida = switch (estado) {
+            case FECHADO -> true;
+            case ABERTO -> false;
+            case SEMI_ABERTO -> !chamadaDeTesteEmAndamento;
+        };
+        if (estado == Estado.SEMI_ABERTO && permitida) {
+            chamadaDeTesteEmAndamento = true;
+        }
+        if (!permitida) {
+            chamadasRecusadas.increment();
+        }
+        return permitida;
+    }
+
+    /**
+     * Registra uma chamada bem-sucedida: zera as falhas e fecha o disjuntor.
+     */
+    public synchronized void registrarSucesso() {
+        if (estado != Estado.FECHADO) {
+            log.info("API de IA respondeu novamente; disjuntor fechado");
+        }
+        estado = Estado.FECHADO;
+        falhasConsecutivas = 0;
+        chamadaDeTesteEmAndamento = false;
+    }
+
+    /**
+     * Registra uma chamada que falhou (erro do servidor, tempo esgotado ou conexão).
+     * Abre o disjuntor ao atingir o limite de falhas ou se a chamada de teste falhar.
+     */
+    public synchronized void registrarFalha() {
+        falhasConsecutivas++;
+        if (estado == Estado.SEMI_ABERTO || (estado == Estado.FECHADO && falhasConsecutivas >= limiteFalhas)) {
+            estado = Estado.ABERTO;
+            abertoAteMs = System.currentTimeMillis() + tempoAbertoMs;
+            chamadaDeTesteEmAndamento = false;
+            aberturas.increment();
+            log.warn("Disjuntor da API de IA aberto por {} ms após {} falhas consecutivas", tempoAbertoMs, falhasConsecutivas);
+        }
+    }
+
+    public synchronized Estado getEstado() {
+        return estado;
+    }
+
+    /**
+     * Retorna as métricas do disjuntor.
+     *
+     * @return Map com estado, falhas consecutivas, aberturas e chamadas recusadas
+     */
+    public synchronized Map<String, Object> obterMetricas() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("estado", estado);
+        metricas.put("falhasConsecutivas", falhasConsecutivas);
+        metricas.put("limiteFalhas", limiteFalhas);
+        metricas.put("tempoAbertoMs", tempoAbertoMs);
+        metricas.put("aberturas", aberturas.sum());
+        metricas.put("chamadasRecusadas", chamadasRecusadas.sum());
+        return metricas;
+    }
+}
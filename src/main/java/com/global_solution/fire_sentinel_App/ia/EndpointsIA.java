@@ -0,0 +1,254 @@
+package com.global_solution.fire_sentinel_App.ia;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.global_solution.fire_sentinel_App.serie.SketchQuantis;
+
+/**
+ * Réplicas da API de IA e a política de escolha entre elas.
+ *
+ * Cada endpoint mantém a média móvel exponencial (EWMA) da latência observada e um
+ * sketch de quantis (SketchQuantis) com o histograma de latências. A chamada vai para o
+ * endpoint de menor EWMA; uma falha conta como latência igual à penalidade, afastando o
+ * tráfego de réplicas com problema. Como a EWMA de uma réplica só muda quando ela é
+ * chamada, o valor decai pela metade a cada meia-vida sem chamadas: uma réplica afastada
+ * por falhas volta a ser escolhida depois de algum tempo e, se tiver se recuperado,
+ * recupera o tráfego. Se o escolhido não responder dentro do percentil
+ * configurado da sua própria latência, o cliente envia uma cópia (hedge) ao segundo
+ * melhor endpoint e usa a primeira resposta. Com um único endpoint não há hedge.
+ */
+@Component
+public class EndpointsIA {
+
+    private static final double[] QUANTIS_METRICAS = {0.5, 0.9, 0.95, 0.99, 0.999};
+
+    private final List<EndpointIA> endpoints;
+    private final double alfa;
+    private final boolean hedgeHabilitado;
+    private final double percentilHedge;
+    private final int amostrasMinimasHedge;
+    private final long esperaMinimaHedgeMs;
+    private final double penalidadeFalhaMs;
+    private final long meiaVidaNanos;
+
+    private final LongAdder hedgesEnviados = new LongAdder();
+    private final LongAdder hedgesVencedores = new LongAdder();
+
+    @Autowired
+    public EndpointsIA(@Value("${ia.risk.analysis.urls:${ia.risk.analysis.url}}") List<String> urls,
+            @Value("${ia.risk.analysis.endpoints.alfa:0.2}") double alfa,
+            @Value("${ia.risk.analysis.endpoints.penalidade-falha-ms:${ia.risk.analysis.http.timeout-leitura-ms:3000}}") long penalidadeFalhaMs,
+            @Value("${ia.risk.analysis.endpoints.meia-vida-ms:10000}") long meiaVidaMs,
+            @Value("${ia.risk.analysis.hedge.habilitado:true}") boolean hedgeHabilitado,
+            @Value("${ia.risk.analysis.hedge.percentil:0.95}") double percentilHedge,
+            @Value("${ia.risk.analysis.hedge.amostras-minimas:20}") int amostrasMinimasHedge,
+            @Value("${ia.risk.analysis.hedge.espera-minima-ms:5}") long esperaMinimaHedgeMs) {
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos uma URL da API de IA");
+        }
+        if (!(percentilHedge > 0 && percentilHedge < 1)) {
+            throw new IllegalArgumentException("Percentil do hedge deve estar entre 0 e 1: " + percentilHedge);
+        }
+        List<EndpointIA> lista = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            lista.add(new EndpointIA(url.trim()));
+        }
+        this.endpoints = List.copyOf(lista);
+        this.alfa = alfa;
+        this.penalidadeFalhaMs = penalidadeFalhaMs;
+        this.meiaVidaNanos = TimeUnit.MILLISECONDS.toNanos(meiaVidaMs);
+        this.hedgeHabilitado = hedgeHabilitado;
+        this.percentilHedge = percentilHedge;
+        this.amostrasMinimasHedge = amostrasMinimasHedge;
+        this.esperaMinimaHedgeMs = esperaMinimaHedgeMs;
+    }
+
+    public List<EndpointIA> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Escolhe o endpoint de menor latência média (EWMA, decaída pelo tempo sem chamadas).
+     * Endpoints ainda sem amostras têm prioridade, para que todas as réplicas sejam medidas.
+     *
+     * @param ignorado endpoint a desconsiderar (o primário, ao escolher o hedge) ou null
+     * @return EndpointIA escolhido (o próprio ignorado se for o único)
+     */
+    public EndpointIA selecionar(EndpointIA ignorado) {
+        EndpointIA melhor = null;
+        double menorLatencia = Double.MAX_VALUE;
+        for (EndpointIA endpoint : endpoints) {
+            if (endpoint == ignorado) {
+                continue;
+            }
+            double latencia = endpoint.getLatenciaMediaMs();
+            if (melhor == null || latencia < menorLatencia) {
+                melhor = endpoint;
+                menorLatencia = latencia;
+            }
+        }
+        return melhor != null ? melhor : ignorado;
+    }
+
+    /**
+     * Calcula quanto esperar pelo primário antes de enviar o hedge: o percentil
+     * configurado da latência do primário, com piso em espera-minima-ms.
+     *
+     * @param primario endpoint que recebeu a chamada
+     * @return long espera em milissegundos, ou -1 se não deve haver hedge (desabilitado,
+     *         endpoint único ou amostras insuficientes no primário)
+     */
+    public long calcularEsperaHedge(EndpointIA primario) {
+        if (!hedgeHabilitado || endpoints.size() < 2) {
+            return -1;
+        }
+        double percentil = primario.quantilLatencia(percentilHedge, amostrasMinimasHedge);
+        if (Double.isNaN(percentil)) {
+            return -1;
+        }
+        return Math.max(esperaMinimaHedgeMs, (long) Math.ceil(percentil));
+    }
+
+    /**
+     * Registra o envio de uma cópia (hedge) da chamada.
+     */
+    public void registrarHedgeEnviado() {
+        hedgesEnviados.increment();
+    }
+
+    /**
+     * Registra que a resposta usada veio da cópia (hedge) e não do primário.
+     *
+     * @param endpoint endpoint que respondeu ao hedge
+     */
+    public void registrarHedgeVencedor(EndpointIA endpoint) {
+        hedgesVencedores.increment();
+        endpoint.registrarVitoriaHedge();
+    }
+
+    /**
+     * Retorna as métricas dos endpoints e do hedge.
+     *
+     * @return Map com configuração do hedge, hedges enviados e vencedores e, por endpoint,
+     *         latência EWMA, chamadas, falhas e histograma (quantis) de latência
+     */
+    public Map<String, Object> obterMetricas() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("hedgeHabilitado", hedgeHabilitado && endpoints.size() > 1);
+        metricas.put("percentilHedge", percentilHedge);
+        metricas.put("hedgesEnviados", hedgesEnviados.sum());
+        metricas.put("hedgesVencedores", hedgesVencedores.sum());
+        List<Map<String, Object>> porEndpoint = new ArrayList<>(endpoints.size());
+        for (EndpointIA endpoint : endpoints) {
+            porEndpoint.add(endpoint.obterMetricas());
+        }
+        metricas.put("endpoints", porEndpoint);
+        return metricas;
+    }
+
+    /**
+     * Uma réplica da API de IA com suas estatísticas de latência.
+     */
+    public final class EndpointIA {
+
+        private final String url;
+        private final SketchQuantis latencias = new SketchQuantis();
+        private double latenciaMediaMs;
+        private long atualizadoEmNanos;
+        private long respostas;
+        private long falhas;
+        private long vitoriasHedge;
+
+        private EndpointIA(String url) {
+            this.url = url;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        /**
+         * Registra o tempo de uma resposta (inclusive erros 4xx, em que a réplica respondeu).
+         *
+         * @param nanos duração da chamada em nanossegundos
+         */
+        public synchronized void registrarResposta(long nanos) {
+            double ms = nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+            latencias.adicionar(ms);
+            atualizarMedia(ms);
+            respostas++;
+        }
+
+        /**
+         * Registra uma falha (erro 5xx, conexão ou prazo esgotado) como latência igual
+         * à penalidade, sem entrar no histograma.
+         */
+        public synchronized void registrarFalha() {
+            atualizarMedia(penalidadeFalhaMs);
+            falhas++;
+        }
+
+        private synchronized void registrarVitoriaHedge() {
+            vitoriasHedge++;
+        }
+
+        /**
+         * Latência média (EWMA) decaída pelo tempo desde a última chamada.
+         *
+         * @return double latência em milissegundos (0 se ainda não houve chamadas)
+         */
+        public synchronized double getLatenciaMediaMs() {
+            return respostas + falhas == 0 ? 0.0 : mediaDecaida(System.nanoTime());
+        }
+
+        synchronized double quantilLatencia(double quantil, int amostrasMinimas) {
+            return latencias.getQuantidade() < amostrasMinimas ? Double.NaN : latencias.quantil(quantil);
+        }
+
+        synchronized Map<String, Object> obterMetricas() {
+            Map<String, Object> metricas = new LinkedHashMap<>();
+            metricas.put("url", url);
+            metricas.put("latenciaMediaMs", getLatenciaMediaMs());
+            metricas.put("respostas", respostas);
+            metricas.put("falhas", falhas);
+            metricas.put("vitoriasHedge", vitoriasHedge);
+            Map<String, Object> histograma = new LinkedHashMap<>();
+            for (double quantil : QUANTIS_METRICAS) {
+                double valor = latencias.quantil(quantil);
+                histograma.put("p" + BigDecimal.valueOf(quantil * 100).stripTrailingZeros().toPlainString(),
+                        Double.isNaN(valor) ? null : valor);
+            }
+            histograma.put("max", latencias.getQuantidade() == 0 ? null : latencias.getMaximo());
+            metricas.put("latenciasMs", histograma);
+            return metricas;
+        }
+
+        private void atualizarMedia(double ms) {
+            long agora = System.nanoTime();
+            if (respostas + falhas == 0) {
+                latenciaMediaMs = ms;
+            } else {
+                double media = mediaDecaida(agora);
+                latenciaMediaMs = media + alfa * (ms - media);
+            }
+            atualizadoEmNanos = agora;
+        }
+
+        private double mediaDecaida(long agora) {
+            if (meiaVidaNanos <= 0) {
+                return latenciaMediaMs;
+            }
+            return latenciaMediaMs * Math.pow(0.5, (agora - atualizadoEmNanos) / (double) meiaVidaNanos);
+        }
+    }
+}
@@ -15,9 +15,21 @@ public class IAEngine {
      * @return Nível de severidade (1 a 10)
      */
     public static int preverSeveridade(SensorData sensor) {
-        double score = (sensor.getTemperatura() * 0.4) +
-                (sensor.getNivelFumaca() * 100) -
-                (sensor.getUmidade() * 0.5);
+        return preverSeveridade(sensor.getTemperatura(), sensor.getUmidade(), sensor.getNivelFumaca());
+    }
+
+    /**
+     * Calcula a severidade a partir dos valores medidos, sem montar um SensorData.
+     *
+     * @param temperatura temperatura em graus Celsius
+     * @param umidade umidade relativa em porcentagem
+     * @param nivelFumaca nível de fumaça
+     * @return Nível de severidade (1 a 10)
+     */
+    public static int preverSeveridade(double temperatura, double umidade, double nivelFumaca) {
+        double score = (temperatura * 0.4) +
+                (nivelFumaca * 100) -
+                (umidade * 0.5);
 
         if (score > 90) return 10;
         else if (score > 70) return 8;
@@ -25,4 +37,36 @@ public class IAEngine {
         else if (score > 30) return 4;
         else return 2;
     }
+
+    /**
+     * Calcula a severidade de várias leituras de uma vez, a partir de arrays paralelos.
+     * Produz exatamente os mesmos valores que preverSeveridade para cada posição.
+     *
+     * O laço não tem desvios nem objetos: as faixas viram somas de comparações, o que
+     * permite ao compilador JIT vetorizá-lo. Indicado para reprocessamentos de grandes
+     * volumes de leituras.
+     *
+     * @param temperaturas temperaturas em graus Celsius
+     * @param umidades umidades relativas em porcentagem
+     * @param niveisFumaca níveis de fumaça
+     * @param severidades saída: severidade (1 a 10) de cada leitura
+     * @throws IllegalArgumentException se os arrays tiverem tamanhos diferentes
+     */
+    public static void preverSeveridades(double[] temperaturas, double[] umidades, double[] niveisFumaca, int[] severidades) {
+        int n = severidades.length;
+        if (temperaturas.length != n || umidades.length != n || niveisFumaca.length != n) {
+            throw new IllegalArgumentException("Os arrays devem ter o mesmo tamanho");
+        }
+        for (int i = 0; i < n; i++) {
+            double score = (temperaturas[i] * 0.4) +
+                    (niveisFumaca[i] * 100) -
+                    (umidades[i] * 0.5);
+            // 2, 4, 6, 8 ou 10 conforme as faixas de preverSeveridade (> 30, > 50, > 70, > 90)
+            severidades[i] = 2
+                    + (score > 30 ? 2 : 0)
+                    + (score > 50 ? 2 : 0)
+                    + (score > 70 ? 2 : 0)
+                    + (score > 90 ? 2 : 0);
+        }
+    }
 }
@@ -0,0 +1,22 @@
+package com.global_solution.fire_sentinel_App.ia;
+
+/**
+ * Onde a análise de risco de uma leitura é feita.
+ */
+public enum ModoAnaliseRisco {
+
+    /**
+     * Apenas o modelo local (AvaliadorRiscoLocal); a API externa nunca é chamada.
+     */
+    LOCAL,
+
+    /**
+     * Sempre a API externa; o modelo local é usado só se a API falhar.
+     */
+    REMOTO,
+
+    /**
+     * Modelo local primeiro; a API externa é chamada apenas para índices ambíguos.
+     */
+    HIBRIDO
+}
@@ -0,0 +1,172 @@
+package com.global_solution.fire_sentinel_App.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.AttributeOverrides;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Classe que representa o resumo das leituras de um sensor em um intervalo de tempo
+ * (minuto, hora ou dia). Mantida de forma incremental a cada ingestão, permite montar
+ * séries temporais sem ler as leituras brutas.
+ */
+@Entity
+@Table(name = "agregados_leituras", indexes = {
+        @Index(name = "idx_agregados_sensor_resolucao_inicio", columnList = "sensorId, resolucao, inicio", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgregadoLeitura {
+
+    /**
+     * Identificador único do agregado.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "agregadoLeituraSeq")
+    @SequenceGenerator(name = "agregadoLeituraSeq", sequenceName = "agregados_leituras_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Identificador do sensor das leituras agregadas.
+     */
+    private Long sensorId;
+
+    /**
+     * Resolução do intervalo (MINUTE, HOUR ou DAY).
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private Resolucao resolucao;
+
+    /**
+     * Início do intervalo agregado.
+     */
+    private LocalDateTime inicio;
+
+    /**
+     * Quantidade de leituras agregadas no intervalo.
+     */
+    private long quantidade;
+
+    /**
+     * Data e hora da leitura mais recente do intervalo.
+     */
+    private LocalDateTime ultimaDataHora;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "quantidade", column = @Column(name = "temperatura_quantidade")),
+            @AttributeOverride(name = "minimo", column = @Column(name = "temperatura_min")),
+            @AttributeOverride(name = "maximo", column = @Column(name = "temperatura_max")),
+            @AttributeOverride(name = "soma", column = @Column(name = "temperatura_soma")),
+            @AttributeOverride(name = "ultimo", column = @Column(name = "temperatura_ultima"))
+    })
+    private EstatisticaMetrica temperatura = new EstatisticaMetrica();
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "quantidade", column = @Column(name = "umidade_quantidade")),
+            @AttributeOverride(name = "minimo", column = @Column(name = "umidade_min")),
+            @AttributeOverride(name = "maximo", column = @Column(name = "umidade_max")),
+            @AttributeOverride(name = "soma", column = @Column(name = "umidade_soma")),
+            @AttributeOverride(name = "ultimo", column = @Column(name = "umidade_ultima"))
+    })
+    private EstatisticaMetrica umidade = new EstatisticaMetrica();
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "quantidade", column = @Column(name = "nivel_fumaca_quantidade")),
+            @AttributeOverride(name = "minimo", column = @Column(name = "nivel_fumaca_min")),
+            @AttributeOverride(name = "maximo", column = @Column(name = "nivel_fumaca_max")),
+            @AttributeOverride(name = "soma", column = @Column(name = "nivel_fumaca_soma")),
+            @AttributeOverride(name = "ultimo", column = @Column(name = "nivel_fumaca_ultima"))
+    })
+    private EstatisticaMetrica nivelFumaca = new EstatisticaMetrica();
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "quantidade", column = @Column(name = "co2_quantidade")),
+            @AttributeOverride(name = "minimo", column = @Column(name = "co2_min")),
+            @AttributeOverride(name = "maximo", column = @Column(name = "co2_max")),
+            @AttributeOverride(name = "soma", column = @Column(name = "co2_soma")),
+            @AttributeOverride(name = "ultimo", column = @Column(name = "co2_ultima"))
+    })
+    private EstatisticaMetrica co2 = new EstatisticaMetrica();
+
+    /**
+     * Cria um agregado vazio para o intervalo que contém a data/hora informada.
+     *
+     * @param sensorId ID do sensor
+     * @param resolucao resolução do intervalo
+     * @param dataHora data/hora contida no intervalo
+     * @return AgregadoLeitura vazio
+     */
+    public static AgregadoLeitura vazio(Long sensorId, Resolucao resolucao, LocalDateTime dataHora) {
+        AgregadoLeitura agregado = new AgregadoLeitura();
+        agregado.setSensorId(sensorId);
+        agregado.setResolucao(resolucao);
+        agregado.setInicio(resolucao.truncar(dataHora));
+        return agregado;
+    }
+
+    /**
+     * Incorpora uma leitura ao agregado.
+     *
+     * @param leitura leitura pertencente ao intervalo
+     */
+    public void adicionar(Leitura leitura) {
+        boolean maisRecente = ultimaDataHora == null || !leitura.getDataHora().isBefore(ultimaDataHora);
+        quantidade++;
+        if (maisRecente) {
+            ultimaDataHora = leitura.getDataHora();
+        }
+        temperatura.adicionar(leitura.getTemperatura(), maisRecente);
+        umidade.adicionar(leitura.getUmidade(), maisRecente);
+        nivelFumaca.adicionar(leitura.getNivelFumaca(), maisRecente);
+        co2.adicionar(leitura.getCo2(), maisRecente);
+    }
+
+    /**
+     * Combina outro agregado do mesmo sensor, resolução e intervalo a este.
+     *
+     * @param outro agregado a ser incorporado
+     * @return este agregado, já combinado
+     */
+    public AgregadoLeitura combinar(AgregadoLeitura outro) {
+        boolean outroMaisRecente = ultimaDataHora == null
+                || (outro.ultimaDataHora != null && !outro.ultimaDataHora.isBefore(ultimaDataHora));
+        quantidade += outro.quantidade;
+        if (outroMaisRecente) {
+            ultimaDataHora = outro.ultimaDataHora;
+        }
+        temperatura.combinar(outro.temperatura, outroMaisRecente);
+        umidade.combinar(outro.umidade, outroMaisRecente);
+        nivelFumaca.combinar(outro.nivelFumaca, outroMaisRecente);
+        co2.combinar(outro.co2, outroMaisRecente);
+        return this;
+    }
+
+    /**
+     * Cria uma cópia independente deste agregado (sem ID).
+     *
+     * @return AgregadoLeitura copiado
+     */
+    public AgregadoLeitura copiar() {
+        return vazio(sensorId, resolucao, inicio).combinar(this);
+    }
+}
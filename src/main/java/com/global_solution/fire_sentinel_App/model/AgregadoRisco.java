@@ -0,0 +1,123 @@
+package com.global_solution.fire_sentinel_App.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.AttributeOverrides;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Classe que representa o resumo diário das análises de risco de um sensor.
+ * Gerada pela política de retenção ao compactar análises antigas antes de removê-las.
+ */
+@Entity
+@Table(name = "agregados_riscos", indexes = {
+        @Index(name = "idx_agregados_riscos_sensor_inicio", columnList = "sensorId, inicio", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgregadoRisco {
+
+    /**
+     * Nível de risco a partir do qual a análise é contada como alerta (ALTO ou CRÍTICO).
+     */
+    public static final double NIVEL_ALERTA = 0.6;
+
+    /**
+     * Identificador único do agregado.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "agregadoRiscoSeq")
+    @SequenceGenerator(name = "agregadoRiscoSeq", sequenceName = "agregados_riscos_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Identificador do sensor das análises agregadas.
+     */
+    private Long sensorId;
+
+    /**
+     * Início do dia agregado.
+     */
+    private LocalDateTime inicio;
+
+    /**
+     * Quantidade de análises com nível de risco igual ou superior a NIVEL_ALERTA.
+     */
+    private long quantidadeAlertas;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "quantidade", column = @Column(name = "nivel_risco_quantidade")),
+            @AttributeOverride(name = "minimo", column = @Column(name = "nivel_risco_min")),
+            @AttributeOverride(name = "maximo", column = @Column(name = "nivel_risco_max")),
+            @AttributeOverride(name = "soma", column = @Column(name = "nivel_risco_soma")),
+            @AttributeOverride(name = "ultimo", column = @Column(name = "nivel_risco_ultimo"))
+    })
+    private EstatisticaMetrica nivelRisco = new EstatisticaMetrica();
+
+    /**
+     * Data e hora da análise mais recente do dia.
+     */
+    private LocalDateTime ultimaDataHoraAnalise;
+
+    /**
+     * Cria um agregado vazio para o dia que contém a data/hora informada.
+     *
+     * @param sensorId ID do sensor
+     * @param dataHora data/hora contida no dia
+     * @return AgregadoRisco vazio
+     */
+    public static AgregadoRisco vazio(Long sensorId, LocalDateTime dataHora) {
+        AgregadoRisco agregado = new AgregadoRisco();
+        agregado.setSensorId(sensorId);
+        agregado.setInicio(Resolucao.DAY.truncar(dataHora));
+        return agregado;
+    }
+
+    /**
+     * Incorpora uma análise de risco ao agregado.
+     *
+     * @param nivel nível de risco da análise
+     * @param dataHoraAnalise data e hora da análise
+     */
+    public void adicionar(Double nivel, LocalDateTime dataHoraAnalise) {
+        boolean maisRecente = ultimaDataHoraAnalise == null || !dataHoraAnalise.isBefore(ultimaDataHoraAnalise);
+        if (maisRecente) {
+            ultimaDataHoraAnalise = dataHoraAnalise;
+        }
+        nivelRisco.adicionar(nivel, maisRecente);
+        if (nivel != null && nivel >= NIVEL_ALERTA) {
+            quantidadeAlertas++;
+        }
+    }
+
+    /**
+     * Combina outro agregado do mesmo sensor e dia a este.
+     *
+     * @param outro agregado a ser incorporado
+     * @return este agregado, já combinado
+     */
+    public AgregadoRisco combinar(AgregadoRisco outro) {
+        boolean outroMaisRecente = ultimaDataHoraAnalise == null
+                || (outro.ultimaDataHoraAnalise != null && !outro.ultimaDataHoraAnalise.isBefore(ultimaDataHoraAnalise));
+        if (outroMaisRecente) {
+            ultimaDataHoraAnalise = outro.ultimaDataHoraAnalise;
+        }
+        nivelRisco.combinar(outro.nivelRisco, outroMaisRecente);
+        quantidadeAlertas += outro.quantidadeAlertas;
+        return this;
+    }
+}
@@ -0,0 +1,77 @@
+package com.global_solution.fire_sentinel_App.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Classe que representa uma análise de risco que falhou e aguarda nova tentativa.
+ * O Risco provisório gravado no lugar da análise (fallback local ou categoria ERRO/
+ * INDETERMINADO) é substituído pelo resultado da API de IA quando ela voltar a responder.
+ * Leitura e Risco são referenciados só pelo ID, sem chave estrangeira, para não
+ * impedir a política de retenção de removê-los.
+ */
+@Entity
+@Table(name = "analises_risco_pendentes", indexes = {
+        @Index(name = "idx_analises_pendentes_proxima", columnList = "proximaTentativa"),
+        @Index(name = "idx_analises_pendentes_risco", columnList = "riscoId", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnaliseRiscoPendente {
+
+    /**
+     * Identificador único da pendência.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "analisePendenteSeq")
+    @SequenceGenerator(name = "analisePendenteSeq", sequenceName = "analises_risco_pendentes_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Identificador da leitura a ser analisada novamente.
+     */
+    private Long leituraId;
+
+    /**
+     * Identificador do Risco provisório que será substituído.
+     */
+    private Long riscoId;
+
+    /**
+     * Identificador do sensor da leitura.
+     */
+    private Long sensorId;
+
+    /**
+     * Quantidade de novas tentativas já feitas.
+     */
+    private int tentativas;
+
+    /**
+     * Data e hora em que a análise falhou pela primeira vez.
+     */
+    private LocalDateTime criadoEm;
+
+    /**
+     * Data e hora a partir da qual a próxima tentativa pode ser feita.
+     */
+    private LocalDateTime proximaTentativa;
+
+    /**
+     * Motivo da última falha.
+     */
+    @Column(length = 500)
+    private String ultimoErro;
+}
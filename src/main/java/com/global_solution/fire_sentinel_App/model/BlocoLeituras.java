@@ -0,0 +1,61 @@
+package com.global_solution.fire_sentinel_App.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Classe que representa o histórico comprimido das leituras de um sensor em uma hora.
+ * Os instantes e as métricas ficam codificados em um único bloco binário
+ * (ver CodificadorBlocoLeituras), ocupando uma fração do espaço de uma linha por leitura.
+ */
+@Entity
+@Table(name = "blocos_leituras", indexes = {
+        @Index(name = "idx_blocos_sensor_inicio", columnList = "sensorId, inicio", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlocoLeituras {
+
+    /**
+     * Identificador único do bloco.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "blocoLeiturasSeq")
+    @SequenceGenerator(name = "blocoLeiturasSeq", sequenceName = "blocos_leituras_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Identificador do sensor das leituras do bloco.
+     */
+    private Long sensorId;
+
+    /**
+     * Início da hora coberta pelo bloco.
+     */
+    private LocalDateTime inicio;
+
+    /**
+     * Quantidade de leituras codificadas no bloco.
+     */
+    private int quantidade;
+
+    /**
+     * Leituras codificadas (delta-of-delta para instantes e XOR para as métricas).
+     */
+    @Lob
+    @Column(length = 1_000_000)
+    private byte[] dados;
+}
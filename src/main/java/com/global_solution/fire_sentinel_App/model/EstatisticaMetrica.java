@@ -0,0 +1,91 @@
+package com.global_solution.fire_sentinel_App.model;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resumo de uma métrica ambiental dentro de um intervalo de agregação:
+ * quantidade de valores, mínimo, máximo, soma e último valor.
+ * A média é derivada (soma / quantidade), o que permite combinar resumos
+ * de forma incremental sem guardar os valores brutos.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstatisticaMetrica {
+
+    /**
+     * Quantidade de valores não nulos agregados.
+     */
+    private long quantidade;
+
+    /**
+     * Menor valor observado no intervalo.
+     */
+    private Double minimo;
+
+    /**
+     * Maior valor observado no intervalo.
+     */
+    private Double maximo;
+
+    /**
+     * Soma dos valores observados no intervalo.
+     */
+    private double soma;
+
+    /**
+     * Valor mais recente observado no intervalo.
+     */
+    private Double ultimo;
+
+    /**
+     * Adiciona um valor ao resumo. Valores nulos são ignorados.
+     *
+     * @param valor valor da métrica
+     * @param maisRecente indica se o valor vem da leitura mais recente do intervalo
+     */
+    public void adicionar(Double valor, boolean maisRecente) {
+        if (valor == null) {
+            return;
+        }
+        quantidade++;
+        soma += valor;
+        minimo = minimo == null ? valor : Math.min(minimo, valor);
+        maximo = maximo == null ? valor : Math.max(maximo, valor);
+        if (maisRecente || ultimo == null) {
+            ultimo = valor;
+        }
+    }
+
+    /**
+     * Combina outro resumo do mesmo intervalo a este.
+     *
+     * @param outro resumo a ser incorporado
+     * @param outroMaisRecente indica se o último valor do outro resumo é mais recente
+     */
+    public void combinar(EstatisticaMetrica outro, boolean outroMaisRecente) {
+        if (outro == null || outro.quantidade == 0) {
+            return;
+        }
+        quantidade += outro.quantidade;
+        soma += outro.soma;
+        minimo = minimo == null ? outro.minimo : Math.min(minimo, outro.minimo);
+        maximo = maximo == null ? outro.maximo : Math.max(maximo, outro.maximo);
+        if (outroMaisRecente || ultimo == null) {
+            ultimo = outro.ultimo;
+        }
+    }
+
+    /**
+     * Calcula a média dos valores agregados.
+     *
+     * @return Double média ou null se não houver valores
+     */
+    public Double calcularMedia() {
+        return quantidade == 0 ? null : soma / quantidade;
+    }
+}
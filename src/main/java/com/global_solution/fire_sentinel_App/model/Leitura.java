@@ -2,12 +2,16 @@ package com.global_solution.fire_sentinel_App.model;
 
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -19,7 +23,11 @@ import lombok.NoArgsConstructor;
  * nível de fumaça e CO2, além da data e hora da leitura e o sensor que a realizou.
  */
 @Entity
-@Table(name = "leituras")
+@Table(name = "leituras", indexes = {
+        @Index(name = "idx_leituras_sensor_data_hora", columnList = "sensor_id, dataHora"),
+        @Index(name = "idx_leituras_data_hora", columnList = "dataHora"),
+        @Index(name = "idx_leituras_sequencia_log", columnList = "sequenciaLog")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,9 +35,12 @@ public class Leitura {
     
     /**
      * Identificador único da leitura.
+     * Gerado por sequência (e não por IDENTITY) para que o Hibernate consiga
+     * agrupar os INSERTs em lotes JDBC.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "leituraSeq")
+    @SequenceGenerator(name = "leituraSeq", sequenceName = "leituras_seq", allocationSize = 50)
     private Long id;
     
     /**
@@ -63,6 +74,23 @@ public class Leitura {
     @ManyToOne
     @JoinColumn(name = "sensor_id")
     private Sensor sensor;
+    
+    /**
+     * Sequência da leitura no log de leituras (LogLeituras), quando ela chegou por ele.
+     * Gravada na mesma transação da leitura, permite retomar a aplicação do log sem duplicar leituras.
+     */
+    @JsonIgnore
+    private Long sequenciaLog;
+
+    /**
+     * Indica que a leitura já está nos agregados gravados (agregados_leituras).
+     * É marcada por AgregadorSeries na mesma transação que grava os agregados parciais;
+     * leituras cujos parciais se perderam (queda do processo antes da gravação) ou
+     * gravadas antes dos agregados existirem ficam com false/null e são agregadas
+     * pela política de retenção antes de serem removidas.
+     */
+    @JsonIgnore
+    private Boolean agregada;
 
     /**
      * Calcula o índice de risco de incêndio com base nos parâmetros ambientais.
@@ -130,18 +158,31 @@ public class Leitura {
     /**
      * Compara esta leitura com outra e retorna a diferença percentual média entre os parâmetros.
      * Este método é útil para detectar variações significativas entre leituras consecutivas.
+     * Os valores desta leitura são a base do percentual; com base zero (ex: fumaça em 0 ppm),
+     * qualquer valor diferente conta como 100% e valores iguais como 0%. Parâmetros ausentes
+     * em apenas uma das leituras também contam como 100%.
      *
      * @param outraLeitura leitura a ser comparada
      * @return Double diferença percentual média entre as leituras
      */
     public Double calcularDiferencaPercentual(Leitura outraLeitura) {
-        double difTemperatura = Math.abs((temperatura - outraLeitura.getTemperatura()) / temperatura) * 100;
-        double difUmidade = Math.abs((umidade - outraLeitura.getUmidade()) / umidade) * 100;
-        double difFumaca = Math.abs((nivelFumaca - outraLeitura.getNivelFumaca()) / nivelFumaca) * 100;
+        double difTemperatura = calcularDiferencaPercentual(temperatura, outraLeitura.getTemperatura());
+        double difUmidade = calcularDiferencaPercentual(umidade, outraLeitura.getUmidade());
+        double difFumaca = calcularDiferencaPercentual(nivelFumaca, outraLeitura.getNivelFumaca());
         
         return (difTemperatura + difUmidade + difFumaca) / 3;
     }
 
+    private static double calcularDiferencaPercentual(Double base, Double valor) {
+        if (base == null || valor == null) {
+            return base == null && valor == null ? 0.0 : 100.0;
+        }
+        if (base == 0.0) {
+            return valor == 0.0 ? 0.0 : 100.0;
+        }
+        return Math.abs((base - valor) / base) * 100;
+    }
+
     /**
      * Sobrescreve o método toString para fornecer uma representação textual formatada da leitura.
      *
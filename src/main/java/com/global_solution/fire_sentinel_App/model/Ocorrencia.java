@@ -14,7 +14,10 @@ import lombok.AllArgsConstructor;
  * incluindo sua localização, severidade, origem e descrição detalhada.
  */
 @Entity
-@Table(name = "ocorrencias")
+@Table(name = "ocorrencias", indexes = {
+        @Index(name = "idx_ocorrencias_regiao", columnList = "regiao"),
+        @Index(name = "idx_ocorrencias_data_hora", columnList = "dataHora")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
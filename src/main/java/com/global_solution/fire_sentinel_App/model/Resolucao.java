@@ -0,0 +1,35 @@
+package com.global_solution.fire_sentinel_App.model;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Resoluções de agregação das séries temporais de leituras.
+ * Cada resolução define o tamanho do intervalo (bucket) em que as leituras são resumidas.
+ */
+public enum Resolucao {
+
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unidade;
+
+    Resolucao(ChronoUnit unidade) {
+        this.unidade = unidade;
+    }
+
+    /**
+     * Retorna o início do intervalo que contém a data/hora informada.
+     *
+     * @param dataHora data e hora da leitura
+     * @return LocalDateTime início do intervalo nesta resolução
+     */
+    public LocalDateTime truncar(LocalDateTime dataHora) {
+        return dataHora.truncatedTo(unidade);
+    }
+
+    public ChronoUnit getUnidade() {
+        return unidade;
+    }
+}
@@ -7,8 +7,10 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -21,7 +23,10 @@ import lombok.NoArgsConstructor;
  * e descrição detalhada.
  */
 @Entity
-@Table(name = "riscos")
+@Table(name = "riscos", indexes = {
+        @Index(name = "idx_riscos_sensor_data_hora", columnList = "sensor_id, dataHoraAnalise"),
+        @Index(name = "idx_riscos_data_hora", columnList = "dataHoraAnalise")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -31,7 +36,8 @@ public class Risco {
      * Identificador único do risco.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "riscoSeq")
+    @SequenceGenerator(name = "riscoSeq", sequenceName = "riscos_seq", allocationSize = 50)
     private Long id;
     
     /**
@@ -55,8 +61,16 @@ public class Risco {
      */
     private LocalDateTime dataHoraAnalise;
     
+    /**
+     * Data e hora em que uma análise provisória foi substituída pela da API de IA
+     * (ver FilaReanaliseRisco). A dataHoraAnalise original é mantida, para que a
+     * reanálise não torne este risco o mais recente do sensor.
+     */
+    private LocalDateTime reanalisadoEm;
+    
     /**
      * Leitura que originou esta análise de risco.
+     * Fica nula quando a leitura é removida pela política de retenção.
      */
     @ManyToOne
     @JoinColumn(name = "leitura_id")
@@ -8,7 +8,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -20,7 +22,9 @@ import lombok.NoArgsConstructor;
  * instalados em campo, incluindo sua localização, tipo e estado operacional.
  */
 @Entity
-@Table(name = "sensores")
+@Table(name = "sensores", indexes = {
+        @Index(name = "idx_sensores_lat_lon", columnList = "latitude, longitude")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,7 +34,8 @@ public class Sensor {
      * Identificador único do sensor.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sensorSeq")
+    @SequenceGenerator(name = "sensorSeq", sequenceName = "sensores_seq", allocationSize = 50)
     private Long id;
     
     /**
@@ -0,0 +1,62 @@
+package com.global_solution.fire_sentinel_App.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Classe que representa a distribuição das leituras de um sensor em uma hora,
+ * como um sketch de quantis por métrica (ver SketchQuantis). Sketches de vários
+ * sensores e horas são combinados para responder percentis sem ler as leituras.
+ */
+@Entity
+@Table(name = "sketches_leituras", indexes = {
+        @Index(name = "idx_sketches_sensor_inicio", columnList = "sensorId, inicio", unique = true),
+        @Index(name = "idx_sketches_inicio", columnList = "inicio")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SketchLeituras {
+
+    /**
+     * Identificador único do sketch.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sketchLeiturasSeq")
+    @SequenceGenerator(name = "sketchLeiturasSeq", sequenceName = "sketches_leituras_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Identificador do sensor das leituras.
+     */
+    private Long sensorId;
+
+    /**
+     * Início da hora coberta pelo sketch.
+     */
+    private LocalDateTime inicio;
+
+    /**
+     * Quantidade de leituras resumidas no sketch.
+     */
+    private long quantidade;
+
+    /**
+     * Um sketch de quantis por métrica, na ordem de Metrica.values().
+     */
+    @Lob
+    @Column(length = 1_000_000)
+    private byte[] dados;
+}
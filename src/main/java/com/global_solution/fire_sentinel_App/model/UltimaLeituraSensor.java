@@ -0,0 +1,94 @@
+package com.global_solution.fire_sentinel_App.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Classe que representa o estado mais recente conhecido de um sensor.
+ * Mantém uma única linha por sensor com os valores da última leitura recebida,
+ * servindo de fallback persistente para a tabela em memória de últimas leituras.
+ */
+@Entity
+@Table(name = "ultimas_leituras")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UltimaLeituraSensor {
+
+    /**
+     * Identificador do sensor (chave da tabela).
+     */
+    @Id
+    private Long sensorId;
+
+    /**
+     * Identificador da leitura mais recente do sensor.
+     */
+    private Long leituraId;
+
+    /**
+     * Data e hora da leitura mais recente.
+     */
+    private LocalDateTime dataHora;
+
+    /**
+     * Temperatura registrada em graus Celsius.
+     */
+    private Double temperatura;
+
+    /**
+     * Umidade relativa do ar em porcentagem.
+     */
+    private Double umidade;
+
+    /**
+     * Nível de fumaça detectado (em ppm).
+     */
+    private Double nivelFumaca;
+
+    /**
+     * Nível de CO2 detectado (em ppm).
+     */
+    private Double co2;
+
+    /**
+     * Cria o estado a partir de uma leitura persistida.
+     *
+     * @param leitura leitura mais recente do sensor
+     * @return UltimaLeituraSensor com os valores da leitura
+     */
+    public static UltimaLeituraSensor fromLeitura(Leitura leitura) {
+        return new UltimaLeituraSensor(
+                leitura.getSensor().getId(),
+                leitura.getId(),
+                leitura.getDataHora(),
+                leitura.getTemperatura(),
+                leitura.getUmidade(),
+                leitura.getNivelFumaca(),
+                leitura.getCo2());
+    }
+
+    /**
+     * Reconstrói a leitura representada por este estado.
+     *
+     * @param sensor sensor dono da leitura
+     * @return Leitura com os valores armazenados
+     */
+    public Leitura toLeitura(Sensor sensor) {
+        Leitura leitura = new Leitura();
+        leitura.setId(leituraId);
+        leitura.setDataHora(dataHora);
+        leitura.setTemperatura(temperatura);
+        leitura.setUmidade(umidade);
+        leitura.setNivelFumaca(nivelFumaca);
+        leitura.setCo2(co2);
+        leitura.setSensor(sensor);
+        return leitura;
+    }
+}
@@ -0,0 +1,281 @@
+package com.global_solution.fire_sentinel_App.pipeline;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.RiscoDTO;
+import com.global_solution.fire_sentinel_App.ia.ClienteIALote;
+import com.global_solution.fire_sentinel_App.ia.DisjuntorIA;
+import com.global_solution.fire_sentinel_App.model.AnaliseRiscoPendente;
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Risco;
+import com.global_solution.fire_sentinel_App.repository.AnaliseRiscoPendenteRepository;
+import com.global_solution.fire_sentinel_App.repository.LeituraRepository;
+import com.global_solution.fire_sentinel_App.repository.RiscoRepository;
+
+/**
+ * Fila persistente de análises de risco que falharam na API de IA.
+ *
+ * Quando a análise de uma leitura termina em um Risco provisório (a API falhou e foi
+ * usado o modelo local ou uma análise de erro), a leitura entra na tabela analises_risco_pendentes
+ * na mesma transação do Risco. Um worker agendado reenvia as pendências vencidas em
+ * lote pelo ClienteIALote e, com o resultado real, substitui o Risco provisório.
+ * Cada falha dobra a espera até a próxima tentativa (backoff exponencial, limitado a
+ * espera-maxima-ms); após maximo-tentativas a pendência é abandonada. Enquanto o
+ * disjuntor da API estiver aberto o worker não reenvia nada.
+ */
+@Component
+public class FilaReanaliseRisco {
+
+    private static final Logger log = LoggerFactory.getLogger(FilaReanaliseRisco.class);
+
+    @Autowired
+    private AnaliseRiscoPendenteRepository pendenteRepository;
+
+    @Autowired
+    private LeituraRepository leituraRepository;
+
+    @Autowired
+    private RiscoRepository riscoRepository;
+
+    @Autowired
+    private ClienteIALote clienteIALote;
+
+    @Autowired
+    private DisjuntorIA disjuntorIA;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${ia.reanalise.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${ia.reanalise.tamanho-lote:50}")
+    private int tamanhoLote;
+
+    @Value("${ia.reanalise.espera-inicial-ms:5000}")
+    private long esperaInicialMs;
+
+    @Value("${ia.reanalise.espera-maxima-ms:600000}")
+    private long esperaMaximaMs;
+
+    @Value("${ia.reanalise.maximo-tentativas:10}")
+    private int maximoTentativas;
+
+    @Value("${ia.risk.analysis.timeout-ms:10000}")
+    private long timeoutAnaliseMs;
+
+    private final LongAdder registradas = new LongAdder();
+    private final LongAdder reenvios = new LongAdder();
+    private final LongAdder concluidas = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder abandonadas = new LongAdder();
+    private final LongAdder descartadas = new LongAdder();
+
+    /**
+     * Inclui na fila a leitura cuja análise gerou um Risco provisório.
+     * Participa da transação do chamador, junto com o INSERT do Risco.
+     *
+     * @param leitura leitura persistida
+     * @param risco Risco provisório já salvo
+     * @param motivo descrição da falha
+     */
+    public void registrar(Leitura leitura, Risco risco, String motivo) {
+        if (!habilitado) {
+            return;
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        AnaliseRiscoPendente pendente = new AnaliseRiscoPendente();
+        pendente.setLeituraId(leitura.getId());
+        pendente.setRiscoId(risco.getId());
+        pendente.setSensorId(risco.getSensor().getId());
+        pendente.setCriadoEm(agora);
+        pendente.setProximaTentativa(agora.plus(Duration.ofMillis(calcularEspera(0))));
+        pendente.setUltimoErro(limitar(motivo));
+        pendenteRepository.save(pendente);
+        registradas.increment();
+    }
+
+    /**
+     * Execução agendada do worker de reanálise.
+     */
+    @Scheduled(fixedDelayString = "${ia.reanalise.intervalo-ms:5000}")
+    public void processarAgendado() {
+        if (habilitado) {
+            try {
+                processar();
+            } catch (Exception e) {
+                log.warn("Falha no worker de reanálise de risco: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reenvia à API de IA um lote de pendências vencidas e grava os resultados.
+     *
+     * @return int quantidade de Riscos provisórios substituídos nesta execução
+     */
+    public synchronized int processar() {
+        if (disjuntorIA.getEstado() == DisjuntorIA.Estado.ABERTO) {
+            return 0;
+        }
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        List<Reenvio> lote = transacao.execute(status -> carregarVencidas());
+        if (lote.isEmpty()) {
+            return 0;
+        }
+
+        // Todos os pedidos são enviados antes de aguardar: o ClienteIALote os agrupa em lotes
+        List<CompletableFuture<RiscoDTO>> resultados = new ArrayList<>(lote.size());
+        for (Reenvio reenvio : lote) {
+            reenvios.increment();
+            resultados.add(clienteIALote.analisar(reenvio.leitura()));
+        }
+        List<RiscoDTO> riscos = new ArrayList<>(lote.size());
+        List<String> erros = new ArrayList<>(lote.size());
+        for (CompletableFuture<RiscoDTO> resultado : resultados) {
+            try {
+                RiscoDTO risco = resultado.get(timeoutAnaliseMs, TimeUnit.MILLISECONDS);
+                riscos.add(risco);
+                erros.add(risco == null ? "resposta vazia" : null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                riscos.add(null);
+                erros.add("reanálise interrompida");
+            } catch (Exception e) {
+                riscos.add(null);
+                erros.add(e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            }
+        }
+
+        return transacao.execute(status -> gravarResultados(lote, riscos, erros));
+    }
+
+    /**
+     * Retorna as métricas da fila de reanálise.
+     *
+     * @return Map com tamanho da fila, idade da pendência mais antiga, maior número de
+     *         tentativas e contadores de reenvios, conclusões, falhas e abandonos
+     */
+    public Map<String, Object> obterMetricas() {
+        Long idadeMaisAntigaMs = pendenteRepository.findTopByOrderByCriadoEmAsc()
+                .map(pendente -> Duration.between(pendente.getCriadoEm(), LocalDateTime.now()).toMillis())
+                .orElse(null);
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("habilitado", habilitado);
+        metricas.put("pendentes", pendenteRepository.count());
+        metricas.put("idadeMaisAntigaMs", idadeMaisAntigaMs);
+        metricas.put("maiorTentativa", pendenteRepository.findMaiorTentativa());
+        metricas.put("registradas", registradas.sum());
+        metricas.put("reenvios", reenvios.sum());
+        metricas.put("concluidas", concluidas.sum());
+        metricas.put("falhas", falhas.sum());
+        metricas.put("abandonadas", abandonadas.sum());
+        metricas.put("descartadas", descartadas.sum());
+        return metricas;
+    }
+
+    /**
+     * Carrega as pendências vencidas e suas leituras. Pendências cuja leitura ou Risco
+     * foi removido (ex: pela política de retenção) são descartadas.
+     */
+    private List<Reenvio> carregarVencidas() {
+        List<AnaliseRiscoPendente> vencidas = pendenteRepository
+                .findByProximaTentativaLessThanEqualOrderByProximaTentativaAsc(LocalDateTime.now(), Limit.of(tamanhoLote));
+        if (vencidas.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Leitura> leituras = leituraRepository
+                .findAllById(vencidas.stream().map(AnaliseRiscoPendente::getLeituraId).toList())
+                .stream()
+                .collect(Collectors.toMap(Leitura::getId, Function.identity()));
+        List<Reenvio> lote = new ArrayList<>(vencidas.size());
+        for (AnaliseRiscoPendente pendente : vencidas) {
+            Leitura leitura = leituras.get(pendente.getLeituraId());
+            if (leitura == null || !riscoRepository.existsById(pendente.getRiscoId())) {
+                pendenteRepository.delete(pendente);
+                descartadas.increment();
+                continue;
+            }
+            lote.add(new Reenvio(pendente, LeituraDTO.fromEntity(leitura)));
+        }
+        return lote;
+    }
+
+    private int gravarResultados(List<Reenvio> lote, List<RiscoDTO> riscos, List<String> erros) {
+        int substituidos = 0;
+        LocalDateTime agora = LocalDateTime.now();
+        for (int i = 0; i < lote.size(); i++) {
+            AnaliseRiscoPendente pendente = lote.get(i).pendente();
+            RiscoDTO resultado = riscos.get(i);
+            if (erros.get(i) == null) {
+                Risco risco = riscoRepository.findById(pendente.getRiscoId()).orElse(null);
+                if (risco != null) {
+                    risco.setNivelRisco(resultado.getNivelRisco());
+                    risco.setCategoria(resultado.getCategoria());
+                    risco.setDescricao(resultado.getDescricao());
+                    // Mantém dataHoraAnalise: um risco antigo reanalisado não vira o atual do sensor
+                    risco.setReanalisadoEm(agora);
+                    substituidos++;
+                    concluidas.increment();
+                } else {
+                    descartadas.increment();
+                }
+                pendenteRepository.delete(pendente);
+                continue;
+            }
+
+            falhas.increment();
+            int tentativas = pendente.getTentativas() + 1;
+            if (tentativas >= maximoTentativas) {
+                log.warn("Reanálise da leitura {} abandonada após {} tentativas: {}",
+                        pendente.getLeituraId(), tentativas, erros.get(i));
+                pendenteRepository.delete(pendente);
+                abandonadas.increment();
+                continue;
+            }
+            pendente.setTentativas(tentativas);
+            pendente.setProximaTentativa(agora.plus(Duration.ofMillis(calcularEspera(tentativas))));
+            pendente.setUltimoErro(limitar(erros.get(i)));
+            pendenteRepository.save(pendente);
+        }
+        return substituidos;
+    }
+
+    /**
+     * Espera até a próxima tentativa: espera-inicial-ms dobrada a cada falha, até espera-maxima-ms.
+     */
+    private long calcularEspera(int tentativas) {
+        return Math.min(esperaMaximaMs, esperaInicialMs << Math.min(tentativas, 30));
+    }
+
+    private static String limitar(String motivo) {
+        return motivo != null && motivo.length() > 500 ? motivo.substring(0, 500) : motivo;
+    }
+
+    /**
+     * Pendência carregada para reenvio, com os dados da leitura.
+     */
+    private record Reenvio(AnaliseRiscoPendente pendente, LeituraDTO leitura) {
+    }
+}
@@ -0,0 +1,124 @@
+package com.global_solution.fire_sentinel_App.pipeline;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.global_solution.fire_sentinel_App.dto.RiscoDTO;
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Risco;
+
+/**
+ * Filtro de variação na frente da análise de risco.
+ *
+ * Guarda, por sensor, a última leitura analisada e a data da sua análise. Uma nova
+ * leitura cuja diferença percentual (Leitura.calcularDiferencaPercentual) fica abaixo
+ * do limite, enquanto a última análise ainda está atualizada (Risco.isAnaliseAtualizada),
+ * não gera chamada à IA nem um novo Risco: o último continua valendo. A leitura segue
+ * normalmente para as estatísticas, séries e detector de anomalias.
+ * O estado fica só em memória; após reiniciar, a primeira leitura de cada sensor é analisada.
+ */
+@Component
+public class FiltroVariacaoRisco {
+
+    private record UltimaAnalise(Leitura leitura, Risco risco) {
+    }
+
+    private final boolean habilitado;
+    private final double variacaoMinimaPercentual;
+    private final long validadeMinutos;
+
+    private final ConcurrentHashMap<Long, UltimaAnalise> ultimasAnalises = new ConcurrentHashMap<>();
+
+    private final LongAdder leiturasAvaliadas = new LongAdder();
+    private final LongAdder analisesIgnoradas = new LongAdder();
+
+    @Autowired
+    public FiltroVariacaoRisco(@Value("${ia.pipeline.filtro.habilitado:true}") boolean habilitado,
+            @Value("${ia.pipeline.filtro.variacao-minima-percentual:5.0}") double variacaoMinimaPercentual,
+            @Value("${ia.pipeline.filtro.validade-minutos:10}") long validadeMinutos) {
+        this.habilitado = habilitado;
+        this.variacaoMinimaPercentual = variacaoMinimaPercentual;
+        this.validadeMinutos = validadeMinutos;
+    }
+
+    /**
+     * Verifica se a leitura precisa de uma nova análise de risco. Leituras ignoradas
+     * são contabilizadas nas métricas.
+     *
+     * @param leitura leitura persistida (com sensor resolvido)
+     * @return boolean true se a leitura deve ser analisada
+     */
+    public boolean deveAnalisar(Leitura leitura) {
+        if (!habilitado) {
+            return true;
+        }
+        leiturasAvaliadas.increment();
+        UltimaAnalise ultima = ultimasAnalises.get(leitura.getSensor().getId());
+        if (ultima == null || !ultima.risco().isAnaliseAtualizada(validadeMinutos)
+                || ultima.leitura().calcularDiferencaPercentual(leitura) >= variacaoMinimaPercentual) {
+            return true;
+        }
+        analisesIgnoradas.increment();
+        return false;
+    }
+
+    /**
+     * Registra a leitura como a última analisada do sensor. Análises provisórias (API
+     * com falha) não são registradas, para que a próxima leitura seja analisada novamente.
+     *
+     * @param leitura leitura analisada
+     * @param risco resultado da análise
+     */
+    public void registrarAnalise(Leitura leitura, RiscoDTO risco) {
+        if (!habilitado || risco == null || risco.isProvisoria()) {
+            return;
+        }
+        Risco ultimo = new Risco();
+        // Mesma data gravada no Risco por RiscoServiceImpl.analisarRisco
+        ultimo.setDataHoraAnalise(LocalDateTime.now());
+        ultimasAnalises.put(leitura.getSensor().getId(), new UltimaAnalise(copiar(leitura), ultimo));
+    }
+
+    /**
+     * Descarta a última análise de um sensor removido.
+     *
+     * @param sensorId ID do sensor
+     */
+    public void remover(Long sensorId) {
+        ultimasAnalises.remove(sensorId);
+    }
+
+    /**
+     * Retorna as métricas do filtro.
+     *
+     * @return Map com limite, validade, sensores, leituras avaliadas e análises ignoradas
+     */
+    public Map<String, Object> obterMetricas() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("habilitado", habilitado);
+        metricas.put("variacaoMinimaPercentual", variacaoMinimaPercentual);
+        metricas.put("validadeMinutos", validadeMinutos);
+        metricas.put("sensores", ultimasAnalises.size());
+        metricas.put("leiturasAvaliadas", leiturasAvaliadas.sum());
+        metricas.put("analisesIgnoradas", analisesIgnoradas.sum());
+        return metricas;
+    }
+
+    /**
+     * Copia apenas os valores usados na comparação, sem prender a entidade e seu sensor.
+     */
+    private static Leitura copiar(Leitura leitura) {
+        Leitura copia = new Leitura();
+        copia.setTemperatura(leitura.getTemperatura());
+        copia.setUmidade(leitura.getUmidade());
+        copia.setNivelFumaca(leitura.getNivelFumaca());
+        return copia;
+    }
+}
@@ -0,0 +1,201 @@
+package com.global_solution.fire_sentinel_App.pipeline;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.global_solution.fire_sentinel_App.dto.RiscoDTO;
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.service.RiscoService;
+import com.global_solution.fire_sentinel_App.transacao.AposCommit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Estágio assíncrono de análise de risco, desacoplado da persistência das leituras.
+ * As leituras já persistidas entram em uma fila limitada em memória e são consumidas
+ * por um pool de workers que chamam o serviço de risco e gravam o Risco resultante.
+ * 
+ * Com isso a ingestão retorna assim que a leitura está gravada, sem esperar a API de IA.
+ * O tamanho da fila, o número de workers e a política de descarte são configuráveis.
+ * Leituras sem variação relevante desde a última análise do sensor são descartadas
+ * pelo FiltroVariacaoRisco antes da chamada ao serviço de risco.
+ */
+@Component
+public class PipelineAnaliseRisco {
+
+    private static final Logger log = LoggerFactory.getLogger(PipelineAnaliseRisco.class);
+
+    @Autowired
+    private RiscoService riscoService;
+
+    @Autowired
+    private FiltroVariacaoRisco filtroVariacaoRisco;
+
+    @Value("${ia.pipeline.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${ia.pipeline.capacidade-fila:1000}")
+    private int capacidadeFila;
+
+    @Value("${ia.pipeline.workers:4}")
+    private int workers;
+
+    @Value("${ia.pipeline.politica-descarte:DESCARTAR_ANTIGA}")
+    private PoliticaDescarte politicaDescarte;
+
+    @Value("${ia.pipeline.espera-encerramento-ms:10000}")
+    private long esperaEncerramentoMs = 10_000;
+
+    private ThreadPoolExecutor executor;
+
+    private final LongAdder enfileiradas = new LongAdder();
+    private final LongAdder processadas = new LongAdder();
+    private final LongAdder descartadas = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder semVariacao = new LongAdder();
+
+    @PostConstruct
+    void iniciar() {
+        if (!habilitado) {
+            log.info("Pipeline assíncrono de risco desabilitado; análises serão síncronas");
+            return;
+        }
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory threadFactory = r -> {
+            Thread thread = new Thread(r, "analise-risco-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila), threadFactory, criarHandlerRejeicao());
+    }
+
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(esperaEncerramentoMs, TimeUnit.MILLISECONDS)) {
+            // Leituras ainda na fila não serão analisadas: ficam registradas como descartadas
+            List<Runnable> pendentes = executor.shutdownNow();
+            descartadas.add(pendentes.size());
+            List<Long> ids = pendentes.stream()
+                    .filter(TarefaAnalise.class::isInstance)
+                    .map(tarefa -> ((TarefaAnalise) tarefa).leitura.getId())
+                    .toList();
+            log.warn("Pipeline encerrado com {} leituras sem análise de risco: {}", pendentes.size(), ids);
+        }
+    }
+
+    /**
+     * Agenda a análise de risco de uma leitura persistida.
+     * Se houver uma transação ativa, o envio para a fila só ocorre após o commit,
+     * garantindo que os workers nunca vejam uma leitura que ainda não é durável.
+     * Com o pipeline desabilitado, a análise é feita na thread do chamador, também
+     * após o commit: a transação da ingestão não fica aberta durante a chamada à API.
+     *
+     * @param leitura leitura já persistida (com ID e sensor resolvido)
+     */
+    public void submeter(Leitura leitura) {
+        Runnable destino = executor == null ? () -> analisar(leitura) : () -> enfileirar(leitura);
+        AposCommit.executar(destino);
+    }
+
+    private void enfileirar(Leitura leitura) {
+        enfileiradas.increment();
+        executor.execute(new TarefaAnalise(leitura));
+    }
+
+    private void analisar(Leitura leitura) {
+        if (!filtroVariacaoRisco.deveAnalisar(leitura)) {
+            semVariacao.increment();
+            return;
+        }
+        try {
+            RiscoDTO risco = riscoService.analisarRisco(leitura, leitura.getSensor());
+            filtroVariacaoRisco.registrarAnalise(leitura, risco);
+            processadas.increment();
+        } catch (Exception e) {
+            falhas.increment();
+            log.warn("Falha ao analisar risco da leitura {}: {}", leitura.getId(), e.getMessage());
+        }
+    }
+
+    private RejectedExecutionHandler criarHandlerRejeicao() {
+        return (tarefa, pool) -> {
+            if (pool.isShutdown()) {
+                descartadas.increment();
+                return;
+            }
+            switch (politicaDescarte) {
+                case DESCARTAR_NOVA -> descartadas.increment();
+                case DESCARTAR_ANTIGA -> {
+                    // Sem reenviar ao executor: com produtores concorrentes isso chamaria o
+                    // handler de novo recursivamente
+                    if (pool.getQueue().poll() != null) {
+                        descartadas.increment();
+                    }
+                    if (!pool.getQueue().offer(tarefa)) {
+                        descartadas.increment();
+                    }
+                }
+                case EXECUTAR_NO_CHAMADOR -> tarefa.run();
+            }
+        };
+    }
+
+    /**
+     * Retorna as métricas do pipeline: profundidade da fila, contadores de processamento
+     * e leituras ignoradas pelo filtro de variação.
+     *
+     * @return Map com as métricas atuais
+     */
+    public Map<String, Object> obterMetricas() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("habilitado", executor != null);
+        metricas.put("politicaDescarte", politicaDescarte);
+        metricas.put("capacidadeFila", capacidadeFila);
+        metricas.put("profundidadeFila", executor != null ? executor.getQueue().size() : 0);
+        metricas.put("workersAtivos", executor != null ? executor.getActiveCount() : 0);
+        metricas.put("enfileiradas", enfileiradas.sum());
+        metricas.put("processadas", processadas.sum());
+        metricas.put("descartadas", descartadas.sum());
+        metricas.put("falhas", falhas.sum());
+        metricas.put("semVariacao", semVariacao.sum());
+        metricas.put("filtroVariacao", filtroVariacaoRisco.obterMetricas());
+        return metricas;
+    }
+
+    /**
+     * Tarefa executada pelos workers para uma leitura.
+     */
+    private class TarefaAnalise implements Runnable {
+
+        private final Leitura leitura;
+
+        TarefaAnalise(Leitura leitura) {
+            this.leitura = leitura;
+        }
+
+        @Override
+        public void run() {
+            analisar(leitura);
+        }
+    }
+}
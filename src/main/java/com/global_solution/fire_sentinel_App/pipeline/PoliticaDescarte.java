@@ -0,0 +1,22 @@
+package com.global_solution.fire_sentinel_App.pipeline;
+
+/**
+ * Política aplicada quando a fila do pipeline de análise de risco está cheia.
+ */
+public enum PoliticaDescarte {
+
+    /**
+     * Descarta a leitura que está chegando.
+     */
+    DESCARTAR_NOVA,
+
+    /**
+     * Descarta a leitura mais antiga da fila para abrir espaço para a nova.
+     */
+    DESCARTAR_ANTIGA,
+
+    /**
+     * Executa a análise na própria thread de ingestão (aplica contrapressão).
+     */
+    EXECUTAR_NO_CHAMADOR
+}
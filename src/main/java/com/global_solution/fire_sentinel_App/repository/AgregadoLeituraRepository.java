@@ -0,0 +1,21 @@
+package com.global_solution.fire_sentinel_App.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.global_solution.fire_sentinel_App.model.AgregadoLeitura;
+import com.global_solution.fire_sentinel_App.model.Resolucao;
+
+@Repository
+public interface AgregadoLeituraRepository extends JpaRepository<AgregadoLeitura, Long> {
+    
+    List<AgregadoLeitura> findBySensorIdAndResolucaoAndInicioBetweenOrderByInicioAsc(
+            Long sensorId, Resolucao resolucao, LocalDateTime inicio, LocalDateTime fim);
+    
+    List<AgregadoLeitura> findBySensorIdInAndResolucaoAndInicioIn(
+            Collection<Long> sensorIds, Resolucao resolucao, Collection<LocalDateTime> inicios);
+}
@@ -0,0 +1,23 @@
+package com.global_solution.fire_sentinel_App.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.global_solution.fire_sentinel_App.model.AnaliseRiscoPendente;
+
+@Repository
+public interface AnaliseRiscoPendenteRepository extends JpaRepository<AnaliseRiscoPendente, Long> {
+    
+    List<AnaliseRiscoPendente> findByProximaTentativaLessThanEqualOrderByProximaTentativaAsc(LocalDateTime limite, Limit limit);
+    
+    Optional<AnaliseRiscoPendente> findTopByOrderByCriadoEmAsc();
+    
+    @Query("SELECT COALESCE(MAX(p.tentativas), 0) FROM AnaliseRiscoPendente p")
+    int findMaiorTentativa();
+}
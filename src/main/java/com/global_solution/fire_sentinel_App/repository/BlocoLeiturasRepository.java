@@ -0,0 +1,18 @@
+package com.global_solution.fire_sentinel_App.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.global_solution.fire_sentinel_App.model.BlocoLeituras;
+
+@Repository
+public interface BlocoLeiturasRepository extends JpaRepository<BlocoLeituras, Long> {
+    
+    List<BlocoLeituras> findBySensorIdAndInicioBetweenOrderByInicioAsc(Long sensorId, LocalDateTime inicio, LocalDateTime fim);
+    
+    List<BlocoLeituras> findBySensorIdInAndInicioIn(Collection<Long> sensorIds, Collection<LocalDateTime> inicios);
+}
@@ -1,13 +1,23 @@
 package com.global_solution.fire_sentinel_App.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.global_solution.fire_sentinel_App.model.Leitura;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface LeituraRepository extends JpaRepository<Leitura, Long> {
     
@@ -16,4 +26,101 @@ public interface LeituraRepository extends JpaRepository<Leitura, Long> {
     List<Leitura> findByDataHoraBetween(LocalDateTime inicio, LocalDateTime fim);
     
     List<Leitura> findBySensorIdAndDataHoraBetween(Long sensorId, LocalDateTime inicio, LocalDateTime fim);
+    
+    /**
+     * Página de leituras em ordem de ID, a partir do cursor (exclusivo).
+     */
+    List<Leitura> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+    
+    /**
+     * Primeira página das leituras de um sensor, da mais recente para a mais antiga.
+     */
+    List<Leitura> findBySensorIdOrderByDataHoraDescIdDesc(Long sensorId, Limit limit);
+    
+    /**
+     * Página seguinte das leituras de um sensor (keyset sobre dataHora e ID),
+     * começando logo após a posição (dataHora, id) do cursor.
+     */
+    @Query("SELECT l FROM Leitura l WHERE l.sensor.id = :sensorId AND ("
+            + "l.dataHora < :dataHora OR (l.dataHora = :dataHora AND l.id < :id)) "
+            + "ORDER BY l.dataHora DESC, l.id DESC")
+    List<Leitura> findBySensorIdOrderByDataHoraDesc(
+            @Param("sensorId") Long sensorId,
+            @Param("dataHora") LocalDateTime dataHora,
+            @Param("id") Long id,
+            Limit limit);
+    
+    /**
+     * Primeira página das leituras de um período, em ordem cronológica.
+     */
+    List<Leitura> findByDataHoraBetweenOrderByDataHoraAscIdAsc(LocalDateTime inicio, LocalDateTime fim, Limit limit);
+    
+    /**
+     * Página seguinte das leituras de um período (keyset sobre dataHora e ID),
+     * começando logo após a posição (dataHora, id) do cursor.
+     */
+    @Query("SELECT l FROM Leitura l WHERE l.dataHora BETWEEN :inicio AND :fim AND ("
+            + "l.dataHora > :dataHora OR (l.dataHora = :dataHora AND l.id > :id)) "
+            + "ORDER BY l.dataHora ASC, l.id ASC")
+    List<Leitura> findByDataHoraBetween(
+            @Param("inicio") LocalDateTime inicio,
+            @Param("fim") LocalDateTime fim,
+            @Param("dataHora") LocalDateTime dataHora,
+            @Param("id") Long id,
+            Limit limit);
+    
+    /**
+     * Percorre todas as leituras em ordem de ID sem materializar o resultado.
+     * Deve ser consumido dentro de uma transação. No MySQL, o fetch size só é
+     * respeitado com useCursorFetch=true na URL de conexão (ver application.properties).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT l FROM Leitura l JOIN FETCH l.sensor ORDER BY l.id")
+    Stream<Leitura> streamTodas();
+    
+    /**
+     * Percorre as leituras de um sensor em ordem de ID sem materializar o resultado.
+     * Deve ser consumido dentro de uma transação.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT l FROM Leitura l JOIN FETCH l.sensor WHERE l.sensor.id = :sensorId ORDER BY l.id")
+    Stream<Leitura> streamPorSensor(@Param("sensorId") Long sensorId);
+    
+    /**
+     * IDs das leituras anteriores ao limite, em blocos (usado pela política de retenção).
+     */
+    @Query("SELECT l.id FROM Leitura l WHERE l.dataHora < :limite ORDER BY l.id")
+    List<Long> findIdsAnterioresA(@Param("limite") LocalDateTime limite, Limit limit);
+    
+    /**
+     * Busca, entre os IDs informados, as leituras que ainda não entraram nos agregados.
+     */
+    @Query("SELECT l FROM Leitura l JOIN FETCH l.sensor WHERE l.id IN :ids AND (l.agregada IS NULL OR l.agregada = false)")
+    List<Leitura> findNaoAgregadasPorIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Marca as leituras como incluídas nos agregados gravados.
+     */
+    @Modifying
+    @Query("UPDATE Leitura l SET l.agregada = true WHERE l.id IN :ids")
+    int marcarAgregadas(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query("DELETE FROM Leitura l WHERE l.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Maior sequência do log de leituras já aplicada ao banco.
+     */
+    @Query("SELECT MAX(l.sequenciaLog) FROM Leitura l")
+    Long findMaxSequenciaLog();
+    
+    /**
+     * Busca a leitura mais recente de cada sensor (MAX(dataHora) por sensor, resolvido
+     * pelo índice sensor_id, dataHora). Em caso de empate, todas as leituras do instante
+     * são retornadas.
+     */
+    @Query("SELECT l FROM Leitura l WHERE l.dataHora = "
+            + "(SELECT MAX(m.dataHora) FROM Leitura m WHERE m.sensor.id = l.sensor.id) ORDER BY l.id")
+    List<Leitura> findUltimasPorSensor();
 }
@@ -3,12 +3,20 @@ package com.global_solution.fire_sentinel_App.repository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.global_solution.fire_sentinel_App.model.Ocorrencia;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * Repositório para a entidade Ocorrencia.
  * Fornece métodos de acesso a dados para operações com ocorrências.
@@ -45,4 +53,42 @@ public interface OcorrenciaRepository extends JpaRepository<Ocorrencia, String>
      * Busca a ocorrência mais recente de uma região.
      */
     Optional<Ocorrencia> findFirstByRegiaoOrderByDataHoraDesc(String regiao);
-} 
\ No newline at end of file
+    
+    /**
+     * Página de ocorrências em ordem de ID, a partir do cursor (exclusivo).
+     */
+    List<Ocorrencia> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+    
+    /**
+     * Página de ocorrências de uma região em ordem de ID, a partir do cursor (exclusivo).
+     */
+    List<Ocorrencia> findByRegiaoAndIdGreaterThanOrderByIdAsc(String regiao, Long after, Limit limit);
+    
+    /**
+     * Primeira página das ocorrências de um período, em ordem cronológica.
+     */
+    List<Ocorrencia> findByDataHoraBetweenOrderByDataHoraAscIdAsc(LocalDateTime inicio, LocalDateTime fim, Limit limit);
+    
+    /**
+     * Página seguinte das ocorrências de um período (keyset sobre dataHora e ID),
+     * começando logo após a posição (dataHora, id) do cursor.
+     */
+    @Query("SELECT o FROM Ocorrencia o WHERE o.dataHora BETWEEN :inicio AND :fim AND ("
+            + "o.dataHora > :dataHora OR (o.dataHora = :dataHora AND o.id > :id)) "
+            + "ORDER BY o.dataHora ASC, o.id ASC")
+    List<Ocorrencia> findByDataHoraBetween(
+            @Param("inicio") LocalDateTime inicio,
+            @Param("fim") LocalDateTime fim,
+            @Param("dataHora") LocalDateTime dataHora,
+            @Param("id") Long id,
+            Limit limit);
+    
+    /**
+     * Percorre todas as ocorrências em ordem de ID sem materializar o resultado.
+     * Deve ser consumido dentro de uma transação. No MySQL, o fetch size só é
+     * respeitado com useCursorFetch=true na URL de conexão (ver application.properties).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT o FROM Ocorrencia o ORDER BY o.id")
+    Stream<Ocorrencia> streamTodas();
+}
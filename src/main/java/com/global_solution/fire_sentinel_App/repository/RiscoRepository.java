@@ -1,10 +1,15 @@
 package com.global_solution.fire_sentinel_App.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.global_solution.fire_sentinel_App.model.Risco;
@@ -16,7 +21,38 @@ public interface RiscoRepository extends JpaRepository<Risco, Long> {
     
     List<Risco> findBySensorIdOrderByDataHoraAnaliseDesc(Long sensorId);
     
+    // Último risco de cada sensor em uma única consulta; empates de dataHoraAnalise
+    // retornam mais de uma linha para o mesmo sensor e são resolvidos no serviço
+    @Query("SELECT r FROM Risco r JOIN FETCH r.sensor s LEFT JOIN FETCH r.leitura " +
+           "WHERE s.id IN :sensorIds AND r.dataHoraAnalise = " +
+           "(SELECT MAX(r2.dataHoraAnalise) FROM Risco r2 WHERE r2.sensor.id = s.id)")
+    List<Risco> findUltimosPorSensores(@Param("sensorIds") Collection<Long> sensorIds);
+    
     List<Risco> findByDataHoraAnaliseBetween(LocalDateTime inicio, LocalDateTime fim);
     
     List<Risco> findByCategoriaAndDataHoraAnaliseBetween(String categoria, LocalDateTime inicio, LocalDateTime fim);
+    
+    /**
+     * Resumo das análises anteriores ao limite, em blocos (usado pela política de retenção).
+     */
+    @Query("SELECT r.id AS id, r.sensor.id AS sensorId, r.nivelRisco AS nivelRisco, " +
+           "r.dataHoraAnalise AS dataHoraAnalise FROM Risco r " +
+           "WHERE r.dataHoraAnalise < :limite ORDER BY r.id")
+    List<ResumoRisco> findResumosAnterioresA(@Param("limite") LocalDateTime limite, Limit limit);
+    
+    @Modifying
+    @Query("DELETE FROM Risco r WHERE r.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Mantém as análises cujas leituras de origem foram removidas pela retenção
+    @Modifying
+    @Query("UPDATE Risco r SET r.leitura = null WHERE r.leitura.id IN :leituraIds")
+    int desvincularLeituras(@Param("leituraIds") Collection<Long> leituraIds);
+    
+    interface ResumoRisco {
+        Long getId();
+        Long getSensorId();
+        Double getNivelRisco();
+        LocalDateTime getDataHoraAnalise();
+    }
 }
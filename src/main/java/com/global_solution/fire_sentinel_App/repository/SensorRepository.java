@@ -1,25 +1,57 @@
 package com.global_solution.fire_sentinel_App.repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.global_solution.fire_sentinel_App.geo.CaixaDelimitadora;
 import com.global_solution.fire_sentinel_App.model.Sensor;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface SensorRepository extends JpaRepository<Sensor, Long> {
     
     List<Sensor> findByAtivo(boolean ativo);
     
+    /**
+     * Busca sensores ativos em uma área circular (mesmo critério do IndiceEspacial). A caixa
+     * delimitadora do círculo é usada como pré-filtro indexado (idx_sensores_lat_lon), de modo
+     * que o cálculo trigonométrico só é avaliado para os sensores dentro da caixa.
+     */
+    default List<Sensor> findSensoresNaArea(Double latitude, Double longitude, Double raio) {
+        CaixaDelimitadora caixa = CaixaDelimitadora.aoRedorDe(latitude, longitude, raio);
+        return findSensoresNaArea(latitude, longitude, raio,
+                caixa.getLatitudeMinima(), caixa.getLatitudeMaxima(),
+                caixa.getLongitudeMinima(), caixa.getLongitudeMaxima());
+    }
+    
     @Query(value = "SELECT s FROM Sensor s WHERE " +
+           "s.latitude BETWEEN :latitudeMinima AND :latitudeMaxima AND " +
+           "s.longitude BETWEEN :longitudeMinima AND :longitudeMaxima AND " +
+           "s.ativo = true AND " +
            "6371 * acos(cos(radians(:latitude)) * cos(radians(s.latitude)) * " +
            "cos(radians(s.longitude) - radians(:longitude)) + " +
            "sin(radians(:latitude)) * sin(radians(s.latitude))) <= :raio")
     List<Sensor> findSensoresNaArea(
             @Param("latitude") Double latitude, 
             @Param("longitude") Double longitude, 
-            @Param("raio") Double raio);
+            @Param("raio") Double raio,
+            @Param("latitudeMinima") Double latitudeMinima,
+            @Param("latitudeMaxima") Double latitudeMaxima,
+            @Param("longitudeMinima") Double longitudeMinima,
+            @Param("longitudeMaxima") Double longitudeMaxima);
+    
+    List<Sensor> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT s FROM Sensor s ORDER BY s.id")
+    Stream<Sensor> streamTodos();
 }
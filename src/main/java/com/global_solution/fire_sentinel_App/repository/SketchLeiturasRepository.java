@@ -0,0 +1,18 @@
+package com.global_solution.fire_sentinel_App.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.global_solution.fire_sentinel_App.model.SketchLeituras;
+
+@Repository
+public interface SketchLeiturasRepository extends JpaRepository<SketchLeituras, Long> {
+    
+    List<SketchLeituras> findBySensorIdInAndInicioBetween(Collection<Long> sensorIds, LocalDateTime inicio, LocalDateTime fim);
+    
+    List<SketchLeituras> findBySensorIdInAndInicioIn(Collection<Long> sensorIds, Collection<LocalDateTime> inicios);
+}
@@ -0,0 +1,10 @@
+package com.global_solution.fire_sentinel_App.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.global_solution.fire_sentinel_App.model.UltimaLeituraSensor;
+
+@Repository
+public interface UltimaLeituraSensorRepository extends JpaRepository<UltimaLeituraSensor, Long> {
+}
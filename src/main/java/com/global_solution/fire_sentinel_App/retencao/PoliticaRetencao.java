@@ -0,0 +1,216 @@
+package com.global_solution.fire_sentinel_App.retencao;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.global_solution.fire_sentinel_App.dto.RelatorioRetencaoDTO;
+import com.global_solution.fire_sentinel_App.historico.ArmazenamentoBlocosLeituras;
+import com.global_solution.fire_sentinel_App.model.AgregadoRisco;
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Resolucao;
+import com.global_solution.fire_sentinel_App.repository.AgregadoRiscoRepository;
+import com.global_solution.fire_sentinel_App.repository.LeituraRepository;
+import com.global_solution.fire_sentinel_App.repository.RiscoRepository;
+import com.global_solution.fire_sentinel_App.repository.RiscoRepository.ResumoRisco;
+import com.global_solution.fire_sentinel_App.serie.AgregadorSeries;
+
+/**
+ * Política de retenção das tabelas leituras e riscos.
+ * 
+ * Executada periodicamente, mantém os dados brutos apenas pela janela configurada:
+ * - Análises de risco antigas são compactadas em agregados diários por sensor
+ *   (agregados_riscos) e então removidas
+ * - Leituras antigas são removidas; as que ainda não estão em agregados_leituras (gravadas
+ *   antes de os agregados serem mantidos na ingestão ou cujos parciais se perderam em uma
+ *   queda do processo) são somadas a eles na mesma transação. Antes da remoção, as que
+ *   faltam nos blocos comprimidos (blocos_leituras) são anexadas a eles, para que o
+ *   histórico do sensor continue completo.
+ *   Análises mais recentes que apontam para leituras removidas são mantidas, sem a leitura
+ * 
+ * O trabalho é feito em blocos de tamanho fixo, cada um em sua própria transação,
+ * para que nenhum lock seja mantido por muito tempo.
+ */
+@Component
+public class PoliticaRetencao {
+
+    private static final Logger log = LoggerFactory.getLogger(PoliticaRetencao.class);
+
+    @Autowired
+    private LeituraRepository leituraRepository;
+
+    @Autowired
+    private RiscoRepository riscoRepository;
+
+    @Autowired
+    private AgregadoRiscoRepository agregadoRiscoRepository;
+
+    @Autowired
+    private AgregadorSeries agregadorSeries;
+
+    @Autowired
+    private ArmazenamentoBlocosLeituras armazenamentoBlocosLeituras;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${retencao.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${retencao.leituras.dias:30}")
+    private int diasLeituras;
+
+    @Value("${retencao.riscos.dias:90}")
+    private int diasRiscos;
+
+    @Value("${retencao.tamanho-lote:1000}")
+    private int tamanhoLote;
+
+    private final LongAdder execucoes = new LongAdder();
+    private final LongAdder totalRiscosCompactados = new LongAdder();
+    private final LongAdder totalLeiturasRemovidas = new LongAdder();
+    private volatile RelatorioRetencaoDTO ultimoRelatorio;
+
+    /**
+     * Execução agendada da política de retenção.
+     */
+    @Scheduled(cron = "${retencao.cron:0 30 3 * * *}")
+    public void executarAgendado() {
+        if (habilitado) {
+            executar();
+        }
+    }
+
+    /**
+     * Aplica a política de retenção, compactando e removendo os dados fora da janela.
+     *
+     * @return RelatorioRetencaoDTO com as quantidades processadas nesta execução
+     */
+    public synchronized RelatorioRetencaoDTO executar() {
+        long inicio = System.nanoTime();
+        LocalDateTime agora = LocalDateTime.now();
+        RelatorioRetencaoDTO relatorio = new RelatorioRetencaoDTO();
+        relatorio.setInicioExecucao(agora);
+        relatorio.setLimiteLeituras(agora.minusDays(diasLeituras));
+        relatorio.setLimiteRiscos(agora.minusDays(diasRiscos));
+
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+        // Análises antigas: compacta em agregados diários e remove
+        List<ResumoRisco> riscos;
+        do {
+            riscos = riscoRepository.findResumosAnterioresA(relatorio.getLimiteRiscos(), Limit.of(tamanhoLote));
+            if (!riscos.isEmpty()) {
+                List<ResumoRisco> bloco = riscos;
+                int agregados = transacao.execute(status -> compactarRiscos(bloco));
+                relatorio.setRiscosCompactados(relatorio.getRiscosCompactados() + bloco.size());
+                relatorio.setAgregadosRiscoGravados(relatorio.getAgregadosRiscoGravados() + agregados);
+                relatorio.setLotes(relatorio.getLotes() + 1);
+            }
+        } while (riscos.size() == tamanhoLote);
+
+        // Leituras antigas: os agregados e os blocos da ingestão precisam estar gravados antes da
+        // remoção; leituras que não estão nos agregados gravados são compactadas junto com a
+        // remoção do bloco, e as que faltam nos blocos de histórico são anexadas antes dela
+        agregadorSeries.gravarPendentes();
+        armazenamentoBlocosLeituras.gravarPendentes();
+        List<Long> leituraIds;
+        do {
+            leituraIds = leituraRepository.findIdsAnterioresA(relatorio.getLimiteLeituras(), Limit.of(tamanhoLote));
+            if (!leituraIds.isEmpty()) {
+                List<Long> bloco = leituraIds;
+                relatorio.setLeiturasConsolidadasEmBlocos(relatorio.getLeiturasConsolidadasEmBlocos()
+                        + armazenamentoBlocosLeituras.consolidar(leituraRepository.findAllById(bloco)));
+                transacao.executeWithoutResult(status -> {
+                    List<Leitura> naoAgregadas = agregadorSeries.semParciaisPendentes(
+                            leituraRepository.findNaoAgregadasPorIds(bloco));
+                    relatorio.setLeiturasCompactadas(relatorio.getLeiturasCompactadas() + naoAgregadas.size());
+                    relatorio.setAgregadosLeituraGravados(relatorio.getAgregadosLeituraGravados()
+                            + agregadorSeries.compactar(naoAgregadas));
+                    relatorio.setRiscosDesvinculados(relatorio.getRiscosDesvinculados()
+                            + riscoRepository.desvincularLeituras(bloco));
+                    relatorio.setLeiturasRemovidas(relatorio.getLeiturasRemovidas()
+                            + leituraRepository.deleteByIdIn(bloco));
+                });
+                relatorio.setLotes(relatorio.getLotes() + 1);
+            }
+        } while (leituraIds.size() == tamanhoLote);
+
+        relatorio.setDuracaoMs((System.nanoTime() - inicio) / 1_000_000);
+        execucoes.increment();
+        totalRiscosCompactados.add(relatorio.getRiscosCompactados());
+        totalLeiturasRemovidas.add(relatorio.getLeiturasRemovidas());
+        ultimoRelatorio = relatorio;
+
+        log.info("Retenção concluída em {} ms: {} riscos compactados em {} agregados, {} riscos desvinculados, "
+                + "{} leituras removidas ({} compactadas em agregados, {} anexadas aos blocos) em {} lotes",
+                relatorio.getDuracaoMs(), relatorio.getRiscosCompactados(), relatorio.getAgregadosRiscoGravados(),
+                relatorio.getRiscosDesvinculados(), relatorio.getLeiturasRemovidas(),
+                relatorio.getLeiturasCompactadas(), relatorio.getLeiturasConsolidadasEmBlocos(), relatorio.getLotes());
+        return relatorio;
+    }
+
+    /**
+     * Retorna as métricas da política de retenção.
+     *
+     * @return Map com configuração, totais acumulados e o relatório da última execução
+     */
+    public Map<String, Object> obterMetricas() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("habilitado", habilitado);
+        metricas.put("diasLeituras", diasLeituras);
+        metricas.put("diasRiscos", diasRiscos);
+        metricas.put("tamanhoLote", tamanhoLote);
+        metricas.put("execucoes", execucoes.sum());
+        metricas.put("totalRiscosCompactados", totalRiscosCompactados.sum());
+        metricas.put("totalLeiturasRemovidas", totalLeiturasRemovidas.sum());
+        metricas.put("ultimaExecucao", ultimoRelatorio);
+        return metricas;
+    }
+
+    private int compactarRiscos(List<ResumoRisco> riscos) {
+        Map<String, AgregadoRisco> parciais = new HashMap<>();
+        Set<Long> sensorIds = new HashSet<>();
+        Set<LocalDateTime> inicios = new HashSet<>();
+        List<Long> ids = new ArrayList<>(riscos.size());
+        for (ResumoRisco risco : riscos) {
+            LocalDateTime dia = Resolucao.DAY.truncar(risco.getDataHoraAnalise());
+            AgregadoRisco parcial = parciais.computeIfAbsent(chave(risco.getSensorId(), dia),
+                    c -> AgregadoRisco.vazio(risco.getSensorId(), dia));
+            parcial.adicionar(risco.getNivelRisco(), risco.getDataHoraAnalise());
+            sensorIds.add(parcial.getSensorId());
+            inicios.add(parcial.getInicio());
+            ids.add(risco.getId());
+        }
+
+        for (AgregadoRisco existente : agregadoRiscoRepository.findBySensorIdInAndInicioIn(sensorIds, inicios)) {
+            AgregadoRisco parcial = parciais.get(chave(existente.getSensorId(), existente.getInicio()));
+            if (parcial != null) {
+                parciais.put(chave(existente.getSensorId(), existente.getInicio()), existente.combinar(parcial));
+            }
+        }
+        agregadoRiscoRepository.saveAll(parciais.values());
+        riscoRepository.deleteByIdIn(ids);
+        return parciais.size();
+    }
+
+    private String chave(Long sensorId, LocalDateTime inicio) {
+        return sensorId + "|" + inicio;
+    }
+}
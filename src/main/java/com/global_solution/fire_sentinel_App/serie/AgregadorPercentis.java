@@ -0,0 +1,268 @@
+package com.global_solution.fire_sentinel_App.serie;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.global_solution.fire_sentinel_App.dto.PercentisDTO;
+import com.global_solution.fire_sentinel_App.historico.Metrica;
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Resolucao;
+import com.global_solution.fire_sentinel_App.model.SketchLeituras;
+import com.global_solution.fire_sentinel_App.repository.SketchLeiturasRepository;
+import com.global_solution.fire_sentinel_App.transacao.AposCommit;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Distribuição das leituras por sensor e hora em sketches de quantis (tabela sketches_leituras).
+ *
+ * As leituras confirmadas entram em sketches pendentes em memória (um por métrica por
+ * sensor-hora) que são combinados periodicamente com os já gravados. Na consulta, os
+ * sketches de todos os sensores e horas do período são combinados e os percentis saem
+ * do sketch resultante, sem ler nem ordenar as leituras. O período é considerado em
+ * horas inteiras: toda hora que intersecta [inicio, fim] entra na consulta.
+ */
+@Component
+public class AgregadorPercentis {
+
+    private static final Logger log = LoggerFactory.getLogger(AgregadorPercentis.class);
+
+    private static final int METRICAS = Metrica.values().length;
+
+    @Autowired
+    private SketchLeiturasRepository sketchLeiturasRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ConcurrentHashMap<Chave, SketchQuantis[]> pendentes = new ConcurrentHashMap<>();
+
+    private final LongAdder sketchesGravados = new LongAdder();
+    private final LongAdder sketchesCombinados = new LongAdder();
+    private final LongAdder consultas = new LongAdder();
+    private final LongAdder falhasGravacao = new LongAdder();
+
+    /**
+     * Registra uma leitura persistida no sketch da sua hora.
+     * Dentro de uma transação, a leitura só é registrada após o commit.
+     *
+     * @param leitura leitura persistida (com sensor resolvido)
+     */
+    public void registrar(Leitura leitura) {
+        AposCommit.executar(() -> acumular(leitura));
+    }
+
+    /**
+     * Estima percentis de uma métrica para um conjunto de sensores em um período.
+     *
+     * @param sensorIds sensores considerados (um sensor ou os sensores de uma região)
+     * @param metrica métrica consultada
+     * @param inicio data/hora inicial do período
+     * @param fim data/hora final do período
+     * @param quantis quantis desejados entre 0 e 1 (ex: 0.5, 0.95, 0.99)
+     * @return PercentisDTO com os percentis, quantidade, mínimo e máximo
+     */
+    public PercentisDTO buscarPercentis(Collection<Long> sensorIds, Metrica metrica,
+            LocalDateTime inicio, LocalDateTime fim, List<Double> quantis) {
+        consultas.increment();
+        LocalDateTime primeiraHora = Resolucao.HOUR.truncar(inicio);
+        SketchQuantis combinado = new SketchQuantis();
+        if (!sensorIds.isEmpty()) {
+            for (SketchLeituras sketch : sketchLeiturasRepository.findBySensorIdInAndInicioBetween(sensorIds, primeiraHora, fim)) {
+                combinado.combinar(decodificar(sketch.getDados())[metrica.ordinal()]);
+                sketchesCombinados.increment();
+            }
+        }
+        Set<Long> sensores = new HashSet<>(sensorIds);
+        for (Chave chave : pendentes.keySet()) {
+            if (sensores.contains(chave.sensorId()) && !chave.inicio().isBefore(primeiraHora) && !chave.inicio().isAfter(fim)) {
+                pendentes.computeIfPresent(chave, (c, parcial) -> {
+                    combinado.combinar(parcial[metrica.ordinal()]);
+                    return parcial;
+                });
+            }
+        }
+
+        Map<String, Double> percentis = new LinkedHashMap<>();
+        for (Double quantil : quantis) {
+            double valor = combinado.quantil(quantil);
+            percentis.put(nomePercentil(quantil), Double.isNaN(valor) ? null : valor);
+        }
+        PercentisDTO dto = new PercentisDTO();
+        dto.setMetrica(metrica);
+        dto.setInicio(inicio);
+        dto.setFim(fim);
+        dto.setSensores(sensorIds.size());
+        dto.setQuantidade(combinado.getQuantidade());
+        dto.setMinimo(combinado.getQuantidade() > 0 ? combinado.getMinimo() : null);
+        dto.setMaximo(combinado.getQuantidade() > 0 ? combinado.getMaximo() : null);
+        dto.setErroRelativo(combinado.getPrecisao());
+        dto.setPercentis(percentis);
+        return dto;
+    }
+
+    /**
+     * Combina os sketches pendentes com os já gravados de cada sensor-hora.
+     */
+    @Scheduled(fixedDelayString = "${leituras.series.intervalo-gravacao-ms:5000}")
+    @PreDestroy
+    public void gravarPendentes() {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        Map<Chave, SketchQuantis[]> lote = new HashMap<>();
+        for (Chave chave : pendentes.keySet()) {
+            SketchQuantis[] parcial = pendentes.remove(chave);
+            if (parcial != null) {
+                lote.put(chave, parcial);
+            }
+        }
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> gravar(lote));
+        } catch (Exception e) {
+            // Devolve os sketches para a próxima tentativa
+            lote.forEach((chave, parcial) -> pendentes.merge(chave, parcial, (atual, devolvido) -> {
+                combinar(atual, devolvido);
+                return atual;
+            }));
+            falhasGravacao.increment();
+            log.warn("Falha ao gravar sketches de percentis: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Retorna as métricas dos sketches de percentis.
+     *
+     * @return Map com sketches gravados, pendentes e combinados nas consultas
+     */
+    public Map<String, Object> obterMetricas() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("sketchesGravados", sketchesGravados.sum());
+        metricas.put("sketchesPendentes", pendentes.size());
+        metricas.put("consultas", consultas.sum());
+        metricas.put("sketchesCombinadosEmConsultas", sketchesCombinados.sum());
+        metricas.put("falhasGravacao", falhasGravacao.sum());
+        return metricas;
+    }
+
+    /**
+     * Nome do percentil no formato pNN (ex: 0.95 -> p95, 0.999 -> p99.9).
+     */
+    static String nomePercentil(double quantil) {
+        return "p" + BigDecimal.valueOf(quantil * 100).stripTrailingZeros().toPlainString();
+    }
+
+    private void acumular(Leitura leitura) {
+        Chave chave = new Chave(leitura.getSensor().getId(), Resolucao.HOUR.truncar(leitura.getDataHora()));
+        pendentes.compute(chave, (c, parcial) -> {
+            SketchQuantis[] destino = parcial != null ? parcial : novosSketches();
+            for (Metrica metrica : Metrica.values()) {
+                destino[metrica.ordinal()].adicionar(metrica.valor(leitura));
+            }
+            return destino;
+        });
+    }
+
+    private void gravar(Map<Chave, SketchQuantis[]> lote) {
+        Set<Long> sensorIds = new HashSet<>();
+        Set<LocalDateTime> inicios = new HashSet<>();
+        lote.keySet().forEach(chave -> {
+            sensorIds.add(chave.sensorId());
+            inicios.add(chave.inicio());
+        });
+        Map<Chave, SketchLeituras> existentes = new HashMap<>();
+        for (SketchLeituras sketch : sketchLeiturasRepository.findBySensorIdInAndInicioIn(sensorIds, inicios)) {
+            existentes.put(new Chave(sketch.getSensorId(), sketch.getInicio()), sketch);
+        }
+
+        List<SketchLeituras> alterados = new ArrayList<>();
+        lote.forEach((chave, parcial) -> {
+            SketchLeituras sketch = existentes.get(chave);
+            SketchQuantis[] combinados = novosSketches();
+            if (sketch == null) {
+                sketch = new SketchLeituras(null, chave.sensorId(), chave.inicio(), 0, null);
+            } else {
+                combinar(combinados, decodificar(sketch.getDados()));
+            }
+            combinar(combinados, parcial);
+            sketch.setQuantidade(Math.max(sketch.getQuantidade(), 0) + quantidadeLeituras(parcial));
+            sketch.setDados(codificar(combinados));
+            alterados.add(sketch);
+        });
+        sketchLeiturasRepository.saveAll(alterados);
+        sketchesGravados.add(alterados.size());
+    }
+
+    private static long quantidadeLeituras(SketchQuantis[] sketches) {
+        long quantidade = 0;
+        for (SketchQuantis sketch : sketches) {
+            quantidade = Math.max(quantidade, sketch.getQuantidade());
+        }
+        return quantidade;
+    }
+
+    private static SketchQuantis[] novosSketches() {
+        SketchQuantis[] sketches = new SketchQuantis[METRICAS];
+        for (int i = 0; i < METRICAS; i++) {
+            sketches[i] = new SketchQuantis();
+        }
+        return sketches;
+    }
+
+    private static void combinar(SketchQuantis[] destino, SketchQuantis[] origem) {
+        for (int i = 0; i < METRICAS; i++) {
+            destino[i].combinar(origem[i]);
+        }
+    }
+
+    static byte[] codificar(SketchQuantis[] sketches) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream saida = new DataOutputStream(bytes)) {
+            for (SketchQuantis sketch : sketches) {
+                sketch.escrever(saida);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static SketchQuantis[] decodificar(byte[] dados) {
+        SketchQuantis[] sketches = new SketchQuantis[METRICAS];
+        try (DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(dados))) {
+            for (int i = 0; i < METRICAS; i++) {
+                sketches[i] = SketchQuantis.ler(entrada);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Sketch de percentis inválido", e);
+        }
+        return sketches;
+    }
+
+    private record Chave(Long sensorId, LocalDateTime inicio) {
+    }
+}
@@ -0,0 +1,272 @@
+package com.global_solution.fire_sentinel_App.serie;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.global_solution.fire_sentinel_App.model.AgregadoLeitura;
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Resolucao;
+import com.global_solution.fire_sentinel_App.repository.AgregadoLeituraRepository;
+import com.global_solution.fire_sentinel_App.repository.LeituraRepository;
+import com.global_solution.fire_sentinel_App.transacao.AposCommit;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Mantém os agregados por sensor em minuto, hora e dia (tabela agregados_leituras).
+ * 
+ * Cada leitura confirmada é somada em memória a um agregado parcial do seu intervalo;
+ * periodicamente os parciais são combinados às linhas existentes e gravados em lote
+ * (write-behind), de modo que a ingestão não paga instruções SQL extras. As consultas
+ * de série combinam as linhas gravadas com os parciais ainda pendentes.
+ * 
+ * A mesma transação que grava os parciais marca as suas leituras como agregadas
+ * (Leitura.agregada). Se o processo cair antes da gravação, os parciais se perdem, mas
+ * as leituras continuam não marcadas e a PoliticaRetencao as soma aos agregados antes
+ * de removê-las.
+ */
+@Component
+public class AgregadorSeries {
+
+    private static final Logger log = LoggerFactory.getLogger(AgregadorSeries.class);
+
+    private static final int TAMANHO_BLOCO_MARCACAO = 1000;
+
+    @Autowired
+    private AgregadoLeituraRepository agregadoLeituraRepository;
+
+    @Autowired
+    private LeituraRepository leituraRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ConcurrentHashMap<Chave, AgregadoLeitura> pendentes = new ConcurrentHashMap<>();
+
+    /**
+     * IDs das leituras somadas aos parciais pendentes, marcadas como agregadas na gravação.
+     */
+    private final Set<Long> leiturasPendentes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Leitura: agregar uma leitura (parciais e ID). Escrita: separar o lote a gravar,
+     * para que os parciais e os IDs do lote correspondam às mesmas leituras.
+     */
+    private final ReentrantReadWriteLock trocaLote = new ReentrantReadWriteLock();
+
+    private final LongAdder leiturasAgregadas = new LongAdder();
+    private final LongAdder linhasGravadas = new LongAdder();
+    private final LongAdder leiturasMarcadas = new LongAdder();
+    private final LongAdder falhasGravacao = new LongAdder();
+
+    /**
+     * Registra uma leitura persistida nos agregados de todas as resoluções.
+     * Dentro de uma transação, a leitura só é agregada após o commit.
+     *
+     * @param leitura leitura persistida (com sensor resolvido)
+     */
+    public void registrar(Leitura leitura) {
+        AposCommit.executar(() -> agregar(leitura));
+    }
+
+    /**
+     * Monta a série de um sensor em uma resolução, combinando os agregados gravados
+     * com os parciais ainda não gravados.
+     *
+     * @param sensorId ID do sensor
+     * @param resolucao resolução da série
+     * @param inicio data/hora inicial do período
+     * @param fim data/hora final do período
+     * @return List<AgregadoLeitura> um agregado por intervalo, em ordem cronológica
+     */
+    public List<AgregadoLeitura> buscarSerie(Long sensorId, Resolucao resolucao, LocalDateTime inicio, LocalDateTime fim) {
+        LocalDateTime inicioIntervalo = resolucao.truncar(inicio);
+        TreeMap<LocalDateTime, AgregadoLeitura> serie = new TreeMap<>();
+        for (AgregadoLeitura agregado : agregadoLeituraRepository
+                .findBySensorIdAndResolucaoAndInicioBetweenOrderByInicioAsc(sensorId, resolucao, inicioIntervalo, fim)) {
+            serie.put(agregado.getInicio(), agregado);
+        }
+        pendentes.forEach((chave, parcial) -> {
+            if (chave.sensorId().equals(sensorId) && chave.resolucao() == resolucao
+                    && !chave.inicio().isBefore(inicioIntervalo) && !chave.inicio().isAfter(fim)) {
+                AgregadoLeitura copia;
+                synchronized (parcial) {
+                    copia = parcial.copiar();
+                }
+                serie.merge(chave.inicio(), copia, AgregadoLeitura::combinar);
+            }
+        });
+        return new ArrayList<>(serie.values());
+    }
+
+    /**
+     * Grava os agregados parciais acumulados desde a última gravação, combinando-os
+     * às linhas já existentes, e marca as suas leituras como agregadas na mesma transação.
+     */
+    @Scheduled(fixedDelayString = "${leituras.series.intervalo-gravacao-ms:5000}")
+    @PreDestroy
+    public void gravarPendentes() {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        Map<Chave, AgregadoLeitura> lote = new HashMap<>();
+        List<Long> leituraIds = new ArrayList<>();
+        trocaLote.writeLock().lock();
+        try {
+            for (Chave chave : pendentes.keySet()) {
+                AgregadoLeitura parcial = pendentes.remove(chave);
+                if (parcial != null) {
+                    lote.put(chave, parcial);
+                }
+            }
+            leituraIds.addAll(leiturasPendentes);
+            leiturasPendentes.clear();
+        } finally {
+            trocaLote.writeLock().unlock();
+        }
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                gravar(lote);
+                for (int i = 0; i < leituraIds.size(); i += TAMANHO_BLOCO_MARCACAO) {
+                    leituraRepository.marcarAgregadas(
+                            leituraIds.subList(i, Math.min(i + TAMANHO_BLOCO_MARCACAO, leituraIds.size())));
+                }
+            });
+            linhasGravadas.add(lote.size());
+            leiturasMarcadas.add(leituraIds.size());
+        } catch (Exception e) {
+            // Devolve os parciais e as leituras para a próxima tentativa
+            trocaLote.readLock().lock();
+            try {
+                lote.forEach((chave, parcial) -> pendentes.merge(chave, parcial.copiar(), AgregadoLeitura::combinar));
+                leiturasPendentes.addAll(leituraIds);
+            } finally {
+                trocaLote.readLock().unlock();
+            }
+            falhasGravacao.increment();
+            log.warn("Falha ao gravar agregados de leituras: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Filtra as leituras que já estão nos parciais ainda não gravados: elas não são
+     * marcadas como agregadas até a próxima gravação, mas não devem ser somadas de novo.
+     *
+     * @param leituras leituras não marcadas como agregadas
+     * @return List<Leitura> leituras que não estão em nenhum parcial pendente
+     */
+    public List<Leitura> semParciaisPendentes(List<Leitura> leituras) {
+        return leituras.stream().filter(leitura -> !leiturasPendentes.contains(leitura.getId())).toList();
+    }
+
+    /**
+     * Soma leituras que ainda não estão nos agregados (gravadas antes deles existirem
+     * ou cujos parciais se perderam) diretamente às linhas de agregados_leituras, na transação do chamador.
+     *
+     * @param leituras leituras com sensor resolvido
+     * @return int quantidade de linhas de agregados gravadas
+     */
+    public int compactar(List<Leitura> leituras) {
+        if (leituras.isEmpty()) {
+            return 0;
+        }
+        Map<Chave, AgregadoLeitura> lote = new HashMap<>();
+        for (Leitura leitura : leituras) {
+            Long sensorId = leitura.getSensor().getId();
+            for (Resolucao resolucao : Resolucao.values()) {
+                lote.computeIfAbsent(new Chave(sensorId, resolucao, resolucao.truncar(leitura.getDataHora())),
+                        c -> AgregadoLeitura.vazio(sensorId, resolucao, leitura.getDataHora()))
+                        .adicionar(leitura);
+            }
+        }
+        gravar(lote);
+        linhasGravadas.add(lote.size());
+        return lote.size();
+    }
+
+    /**
+     * Retorna as métricas do agregador.
+     *
+     * @return Map com leituras agregadas, parciais pendentes e linhas gravadas
+     */
+    public Map<String, Object> obterMetricas() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("leiturasAgregadas", leiturasAgregadas.sum());
+        metricas.put("agregadosPendentes", pendentes.size());
+        metricas.put("linhasGravadas", linhasGravadas.sum());
+        metricas.put("leiturasMarcadas", leiturasMarcadas.sum());
+        metricas.put("falhasGravacao", falhasGravacao.sum());
+        return metricas;
+    }
+
+    private void agregar(Leitura leitura) {
+        Long sensorId = leitura.getSensor().getId();
+        trocaLote.readLock().lock();
+        try {
+            for (Resolucao resolucao : Resolucao.values()) {
+                Chave chave = new Chave(sensorId, resolucao, resolucao.truncar(leitura.getDataHora()));
+                pendentes.compute(chave, (c, parcial) -> {
+                    AgregadoLeitura agregado = parcial != null ? parcial
+                            : AgregadoLeitura.vazio(sensorId, resolucao, leitura.getDataHora());
+                    synchronized (agregado) {
+                        agregado.adicionar(leitura);
+                    }
+                    return agregado;
+                });
+            }
+            leiturasPendentes.add(leitura.getId());
+        } finally {
+            trocaLote.readLock().unlock();
+        }
+        leiturasAgregadas.increment();
+    }
+
+    private void gravar(Map<Chave, AgregadoLeitura> lote) {
+        List<AgregadoLeitura> alterados = new ArrayList<>();
+        for (Resolucao resolucao : Resolucao.values()) {
+            Set<Long> sensorIds = new HashSet<>();
+            Set<LocalDateTime> inicios = new HashSet<>();
+            lote.keySet().stream().filter(c -> c.resolucao() == resolucao).forEach(c -> {
+                sensorIds.add(c.sensorId());
+                inicios.add(c.inicio());
+            });
+            if (sensorIds.isEmpty()) {
+                continue;
+            }
+            // Uma consulta por resolução traz as linhas existentes dos intervalos alterados
+            Map<Chave, AgregadoLeitura> existentes = new HashMap<>();
+            for (AgregadoLeitura agregado : agregadoLeituraRepository
+                    .findBySensorIdInAndResolucaoAndInicioIn(sensorIds, resolucao, inicios)) {
+                existentes.put(new Chave(agregado.getSensorId(), resolucao, agregado.getInicio()), agregado);
+            }
+            lote.forEach((chave, parcial) -> {
+                if (chave.resolucao() == resolucao) {
+                    AgregadoLeitura existente = existentes.get(chave);
+                    alterados.add(existente != null ? existente.combinar(parcial) : parcial);
+                }
+            });
+        }
+        agregadoLeituraRepository.saveAll(alterados);
+    }
+
+    private record Chave(Long sensorId, Resolucao resolucao, LocalDateTime inicio) {
+    }
+}
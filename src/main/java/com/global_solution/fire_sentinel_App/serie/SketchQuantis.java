@@ -0,0 +1,268 @@
+package com.global_solution.fire_sentinel_App.serie;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Sketch de quantis com erro relativo garantido, no estilo DDSketch (Masson et al., VLDB 2019).
+ *
+ * Cada valor cai em um intervalo logarítmico de razão gamma = (1 + precisão) / (1 - precisão),
+ * de modo que qualquer quantil estimado fica a no máximo "precisão" (ex: 1%) do valor real.
+ * Valores negativos e zero têm armazenamento próprio. Dois sketches de mesma precisão são
+ * combinados somando as contagens dos intervalos, o que permite guardar um sketch por
+ * sensor e período e juntá-los na consulta (vários sensores, vários períodos) sem rever
+ * as leituras. Valores ausentes (NaN) são ignorados. Não é thread-safe.
+ */
+public class SketchQuantis {
+
+    public static final double PRECISAO_PADRAO = 0.01;
+
+    private static final double MINIMO_INDEXAVEL = 1e-9;
+    private static final int MAXIMO_INTERVALOS = 2048;
+
+    private final double precisao;
+    private final double gamma;
+    private final double logGamma;
+
+    private final Armazem positivos = new Armazem();
+    private final Armazem negativos = new Armazem();
+    private long zeros;
+    private double minimo = Double.NaN;
+    private double maximo = Double.NaN;
+
+    public SketchQuantis() {
+        this(PRECISAO_PADRAO);
+    }
+
+    /**
+     * @param precisao erro relativo máximo dos quantis (entre 0 e 1, exclusivo)
+     */
+    public SketchQuantis(double precisao) {
+        if (!(precisao > 0 && precisao < 1)) {
+            throw new IllegalArgumentException("Precisão deve estar entre 0 e 1: " + precisao);
+        }
+        this.precisao = precisao;
+        this.gamma = (1 + precisao) / (1 - precisao);
+        this.logGamma = Math.log(gamma);
+    }
+
+    /**
+     * Adiciona um valor ao sketch.
+     *
+     * @param valor valor observado (NaN é ignorado)
+     */
+    public void adicionar(double valor) {
+        if (Double.isNaN(valor)) {
+            return;
+        }
+        if (valor > MINIMO_INDEXAVEL) {
+            positivos.adicionar(indice(valor), 1);
+        } else if (valor < -MINIMO_INDEXAVEL) {
+            negativos.adicionar(indice(-valor), 1);
+        } else {
+            zeros++;
+        }
+        minimo = getQuantidade() == 1 ? valor : Math.min(minimo, valor);
+        maximo = getQuantidade() == 1 ? valor : Math.max(maximo, valor);
+    }
+
+    /**
+     * Junta a este sketch as contagens de outro de mesma precisão.
+     *
+     * @param outro sketch a ser combinado (não é alterado)
+     * @throws IllegalArgumentException se as precisões forem diferentes
+     */
+    public void combinar(SketchQuantis outro) {
+        if (outro.precisao != precisao) {
+            throw new IllegalArgumentException("Sketches com precisões diferentes: " + precisao + " e " + outro.precisao);
+        }
+        if (outro.getQuantidade() == 0) {
+            return;
+        }
+        boolean vazio = getQuantidade() == 0;
+        positivos.combinar(outro.positivos);
+        negativos.combinar(outro.negativos);
+        zeros += outro.zeros;
+        minimo = vazio ? outro.minimo : Math.min(minimo, outro.minimo);
+        maximo = vazio ? outro.maximo : Math.max(maximo, outro.maximo);
+    }
+
+    /**
+     * Estima um quantil.
+     *
+     * @param quantil quantil desejado entre 0 e 1 (ex: 0.95 para o p95)
+     * @return double valor estimado (NaN se o sketch estiver vazio)
+     * @throws IllegalArgumentException se o quantil estiver fora de [0, 1]
+     */
+    public double quantil(double quantil) {
+        if (!(quantil >= 0 && quantil <= 1)) {
+            throw new IllegalArgumentException("Quantil deve estar entre 0 e 1: " + quantil);
+        }
+        long quantidade = getQuantidade();
+        if (quantidade == 0) {
+            return Double.NaN;
+        }
+        long posicao = (long) Math.floor(quantil * (quantidade - 1));
+        long acumulado = 0;
+        double estimativa = Double.NaN;
+        // Negativos do mais negativo (maior índice) para o mais próximo de zero
+        for (int i = negativos.contagens.length - 1; i >= 0 && Double.isNaN(estimativa); i--) {
+            acumulado += negativos.contagens[i];
+            if (acumulado > posicao) {
+                estimativa = -valor(negativos.menorIndice + i);
+            }
+        }
+        if (Double.isNaN(estimativa)) {
+            acumulado += zeros;
+            if (acumulado > posicao) {
+                estimativa = 0.0;
+            }
+        }
+        for (int i = 0; i < positivos.contagens.length && Double.isNaN(estimativa); i++) {
+            acumulado += positivos.contagens[i];
+            if (acumulado > posicao) {
+                estimativa = valor(positivos.menorIndice + i);
+            }
+        }
+        return Math.max(minimo, Math.min(maximo, estimativa));
+    }
+
+    public long getQuantidade() {
+        return positivos.total + negativos.total + zeros;
+    }
+
+    public double getMinimo() {
+        return minimo;
+    }
+
+    public double getMaximo() {
+        return maximo;
+    }
+
+    public double getPrecisao() {
+        return precisao;
+    }
+
+    /**
+     * Grava o sketch em formato binário compacto (contagens em varint).
+     */
+    public void escrever(DataOutput saida) throws IOException {
+        saida.writeDouble(precisao);
+        escreverVarLong(saida, zeros);
+        saida.writeDouble(minimo);
+        saida.writeDouble(maximo);
+        positivos.escrever(saida);
+        negativos.escrever(saida);
+    }
+
+    /**
+     * Lê um sketch gravado por escrever.
+     */
+    public static SketchQuantis ler(DataInput entrada) throws IOException {
+        SketchQuantis sketch = new SketchQuantis(entrada.readDouble());
+        sketch.zeros = lerVarLong(entrada);
+        sketch.minimo = entrada.readDouble();
+        sketch.maximo = entrada.readDouble();
+        sketch.positivos.ler(entrada);
+        sketch.negativos.ler(entrada);
+        return sketch;
+    }
+
+    private int indice(double valor) {
+        return (int) Math.ceil(Math.log(valor) / logGamma);
+    }
+
+    private double valor(int indice) {
+        // Ponto do intervalo (gamma^(i-1), gamma^i] com erro relativo máximo igual à precisão
+        return 2 * Math.pow(gamma, indice) / (gamma + 1);
+    }
+
+    private static void escreverVarLong(DataOutput saida, long valor) throws IOException {
+        while ((valor & ~0x7FL) != 0) {
+            saida.writeByte((int) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        saida.writeByte((int) valor);
+    }
+
+    private static long lerVarLong(DataInput entrada) throws IOException {
+        long valor = 0;
+        int deslocamento = 0;
+        byte atual;
+        do {
+            atual = entrada.readByte();
+            valor |= (long) (atual & 0x7F) << deslocamento;
+            deslocamento += 7;
+        } while ((atual & 0x80) != 0);
+        return valor;
+    }
+
+    /**
+     * Contagens por índice de intervalo em um array contíguo a partir de menorIndice.
+     * Se a faixa de índices passar de MAXIMO_INTERVALOS, os intervalos de menor
+     * magnitude são agrupados no menor índice mantido.
+     */
+    private static final class Armazem {
+
+        private long[] contagens = new long[0];
+        private int menorIndice;
+        private long total;
+
+        void adicionar(int indice, long quantidade) {
+            if (contagens.length == 0) {
+                contagens = new long[1];
+                menorIndice = indice;
+            } else if (indice < menorIndice || indice >= menorIndice + contagens.length) {
+                ajustarFaixa(Math.min(indice, menorIndice), Math.max(indice, menorIndice + contagens.length - 1));
+            }
+            contagens[Math.max(indice, menorIndice) - menorIndice] += quantidade;
+            total += quantidade;
+        }
+
+        void combinar(Armazem outro) {
+            for (int i = 0; i < outro.contagens.length; i++) {
+                if (outro.contagens[i] != 0) {
+                    adicionar(outro.menorIndice + i, outro.contagens[i]);
+                }
+            }
+        }
+
+        private void ajustarFaixa(int novoMenor, int novoMaior) {
+            novoMenor = Math.max(novoMenor, novoMaior - MAXIMO_INTERVALOS + 1);
+            long[] novas = new long[novoMaior - novoMenor + 1];
+            for (int i = 0; i < contagens.length; i++) {
+                int destino = Math.max(menorIndice + i, novoMenor) - novoMenor;
+                novas[destino] += contagens[i];
+            }
+            contagens = novas;
+            menorIndice = novoMenor;
+        }
+
+        void escrever(DataOutput saida) throws IOException {
+            int inicio = 0;
+            int fim = contagens.length;
+            while (inicio < fim && contagens[inicio] == 0) {
+                inicio++;
+            }
+            while (fim > inicio && contagens[fim - 1] == 0) {
+                fim--;
+            }
+            saida.writeInt(menorIndice + inicio);
+            escreverVarLong(saida, fim - inicio);
+            for (int i = inicio; i < fim; i++) {
+                escreverVarLong(saida, contagens[i]);
+            }
+        }
+
+        void ler(DataInput entrada) throws IOException {
+            menorIndice = entrada.readInt();
+            contagens = new long[(int) lerVarLong(entrada)];
+            total = 0;
+            for (int i = 0; i < contagens.length; i++) {
+                contagens[i] = lerVarLong(entrada);
+                total += contagens[i];
+            }
+        }
+    }
+}
@@ -1,20 +1,53 @@
 package com.global_solution.fire_sentinel_App.service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import com.global_solution.fire_sentinel_App.dto.CursorTemporal;
 import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.PercentisDTO;
+import com.global_solution.fire_sentinel_App.dto.PontoSerieDTO;
+import com.global_solution.fire_sentinel_App.dto.ResultadoLoteLeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.TendenciaSensorDTO;
+import com.global_solution.fire_sentinel_App.historico.Metrica;
 import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Resolucao;
+import com.global_solution.fire_sentinel_App.wal.RegistroLog;
 
 public interface LeituraService {
     
     Leitura registrarLeitura(LeituraDTO leituraDTO);
     
+    ResultadoLoteLeituraDTO registrarLeituras(List<LeituraDTO> leiturasDTO);
+    
+    int aplicarRegistrosLog(List<RegistroLog> registros);
+    
     List<Leitura> listarTodas();
     
     Optional<Leitura> buscarPorId(Long id);
     
     List<Leitura> buscarPorSensor(Long sensorId);
     
+    List<Leitura> listarPagina(Long after, int limite);
+    
+    List<Leitura> buscarPorSensor(Long sensorId, CursorTemporal after, int limite);
+    
+    List<Leitura> buscarPorPeriodo(LocalDateTime inicio, LocalDateTime fim, CursorTemporal after, int limite);
+    
+    void exportarLeituras(Long sensorId, Consumer<LeituraDTO> consumidor);
+    
+    List<PontoSerieDTO> buscarSerie(Long sensorId, Resolucao resolucao, LocalDateTime inicio, LocalDateTime fim);
+    
+    List<LeituraDTO> buscarHistorico(Long sensorId, LocalDateTime inicio, LocalDateTime fim);
+    
+    PercentisDTO buscarPercentis(Long sensorId, Metrica metrica, LocalDateTime inicio, LocalDateTime fim, List<Double> quantis);
+    
+    PercentisDTO buscarPercentisPorArea(Double latitude, Double longitude, Double raio, Metrica metrica,
+            LocalDateTime inicio, LocalDateTime fim, List<Double> quantis);
+    
+    Optional<TendenciaSensorDTO> obterTendencia(Long sensorId);
+    
     List<Leitura> obterUltimasLeiturasPorSensor();
 }
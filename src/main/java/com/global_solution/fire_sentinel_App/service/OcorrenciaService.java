@@ -3,7 +3,9 @@ package com.global_solution.fire_sentinel_App.service;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import com.global_solution.fire_sentinel_App.dto.CursorTemporal;
 import com.global_solution.fire_sentinel_App.dto.OcorrenciaDTO;
 import com.global_solution.fire_sentinel_App.model.Ocorrencia;
 
@@ -92,4 +94,41 @@ public interface OcorrenciaService {
      * @return boolean indicando se a remoção foi bem-sucedida
      */
     boolean removerOcorrencia(String id);
-} 
\ No newline at end of file
+    
+    /**
+     * Lista uma página de ocorrências em ordem de ID (paginação por cursor).
+     * 
+     * @param after ID da última ocorrência da página anterior ou null para a primeira página
+     * @param limite quantidade máxima de ocorrências na página
+     * @return List<OcorrenciaDTO> página de ocorrências
+     */
+    List<OcorrenciaDTO> listarPagina(Long after, int limite);
+    
+    /**
+     * Busca uma página de ocorrências de uma região (paginação por cursor).
+     * 
+     * @param regiao nome da região
+     * @param after ID da última ocorrência da página anterior ou null para a primeira página
+     * @param limite quantidade máxima de ocorrências na página
+     * @return List<OcorrenciaDTO> página de ocorrências da região
+     */
+    List<OcorrenciaDTO> buscarPorRegiao(String regiao, Long after, int limite);
+    
+    /**
+     * Busca uma página de ocorrências de um período, em ordem cronológica.
+     * 
+     * @param inicio data/hora inicial
+     * @param fim data/hora final
+     * @param after posição (dataHora, id) da última ocorrência da página anterior ou null para a primeira página
+     * @param limite quantidade máxima de ocorrências na página
+     * @return List<OcorrenciaDTO> página de ocorrências do período
+     */
+    List<OcorrenciaDTO> buscarPorPeriodo(LocalDateTime inicio, LocalDateTime fim, CursorTemporal after, int limite);
+    
+    /**
+     * Percorre todas as ocorrências entregando uma a uma ao consumidor, sem materializar a lista.
+     * 
+     * @param consumidor destino de cada ocorrência convertida em DTO
+     */
+    void exportarOcorrencias(Consumer<OcorrenciaDTO> consumidor);
+}
@@ -1,18 +1,25 @@
 package com.global_solution.fire_sentinel_App.service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
 import com.global_solution.fire_sentinel_App.dto.RiscoDTO;
+import com.global_solution.fire_sentinel_App.model.Leitura;
 import com.global_solution.fire_sentinel_App.model.Risco;
+import com.global_solution.fire_sentinel_App.model.Sensor;
 
 public interface RiscoService {
     
     RiscoDTO analisarRisco(LeituraDTO leituraDTO);
     
+    RiscoDTO analisarRisco(Leitura leitura, Sensor sensor);
+    
     Optional<RiscoDTO> obterUltimoRiscoPorSensor(Long sensorId);
     
+    List<RiscoDTO> obterUltimosRiscosPorSensores(Collection<Long> sensorIds);
+    
     List<Risco> obterHistoricoRiscoPorSensor(Long sensorId);
     
     List<RiscoDTO> obterRiscosPorArea(Double latitude, Double longitude, Double raio);
@@ -2,7 +2,9 @@ package com.global_solution.fire_sentinel_App.service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import com.global_solution.fire_sentinel_App.dto.EstatisticasSensorDTO;
 import com.global_solution.fire_sentinel_App.dto.SensorDTO;
 import com.global_solution.fire_sentinel_App.model.Sensor;
 
@@ -12,8 +14,14 @@ public interface SensorService {
     
     List<Sensor> listarTodos();
     
+    List<Sensor> listarPagina(Long after, int limite);
+    
+    void exportarSensores(Consumer<SensorDTO> consumidor);
+    
     Optional<Sensor> buscarPorId(Long id);
     
+    Optional<EstatisticasSensorDTO> obterEstatisticas(Long id);
+    
     Optional<Sensor> atualizarSensor(Long id, SensorDTO sensorDTO);
     
     boolean removerSensor(Long id);
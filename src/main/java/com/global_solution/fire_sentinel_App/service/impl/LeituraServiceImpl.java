@@ -4,28 +4,62 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.global_solution.fire_sentinel_App.anomalia.DetectorAnomalias;
+import com.global_solution.fire_sentinel_App.cache.CacheSensores;
+import com.global_solution.fire_sentinel_App.cache.CacheUltimasLeituras;
+import com.global_solution.fire_sentinel_App.dto.CursorTemporal;
+import com.global_solution.fire_sentinel_App.dto.ItemResultadoLoteDTO;
 import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.PercentisDTO;
+import com.global_solution.fire_sentinel_App.dto.PontoSerieDTO;
+import com.global_solution.fire_sentinel_App.dto.TendenciaSensorDTO;
+import com.global_solution.fire_sentinel_App.historico.ArmazenamentoBlocosLeituras;
+import com.global_solution.fire_sentinel_App.historico.EstatisticasSensores;
+import com.global_solution.fire_sentinel_App.historico.HistoricoRecenteLeituras;
+import com.global_solution.fire_sentinel_App.geo.IndiceEspacial;
+import com.global_solution.fire_sentinel_App.historico.JanelaLeituras;
+import com.global_solution.fire_sentinel_App.historico.Metrica;
+import com.global_solution.fire_sentinel_App.dto.ResultadoLoteLeituraDTO;
 import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Resolucao;
 import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.pipeline.PipelineAnaliseRisco;
 import com.global_solution.fire_sentinel_App.repository.LeituraRepository;
 import com.global_solution.fire_sentinel_App.repository.SensorRepository;
+import com.global_solution.fire_sentinel_App.serie.AgregadorPercentis;
+import com.global_solution.fire_sentinel_App.serie.AgregadorSeries;
 import com.global_solution.fire_sentinel_App.service.LeituraService;
-import com.global_solution.fire_sentinel_App.service.RiscoService;
+import com.global_solution.fire_sentinel_App.wal.LogLeituras;
+import com.global_solution.fire_sentinel_App.wal.RegistroLog;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 /**
  * Implementação do serviço de gerenciamento de leituras de sensores.
  * Responsável por processar e armazenar as leituras dos sensores do sistema.
  * 
  * Esta implementação fornece:
- * - Registro de novas leituras
- * - Consulta de histórico
- * - Análise automática de risco
+ * - Registro de novas leituras (individual ou em lote), opcionalmente via log durável
+ * - Consulta de histórico (paginada por cursor ou em streaming)
+ * - Séries temporais agregadas por minuto, hora e dia
+ * - Variações e tendências recentes a partir do histórico em memória
+ * - Histórico completo em blocos comprimidos por sensor e hora
+ * - Percentis por sensor ou área a partir de sketches de quantis
+ * - Detecção incremental de anomalias por sensor (DetectorAnomalias)
+ * - Análise automática de risco (assíncrona, via PipelineAnaliseRisco)
  * - Processamento de dados em tempo real
  * - Integração com serviço de risco
  */
@@ -35,41 +69,247 @@ public class LeituraServiceImpl implements LeituraService {
     @Autowired
     private LeituraRepository leituraRepository;
     
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private CacheSensores cacheSensores;
+    
+    @Autowired
+    private CacheUltimasLeituras cacheUltimasLeituras;
+    
+    @Autowired
+    private PipelineAnaliseRisco pipelineAnaliseRisco;
+    
+    @Autowired
+    private AgregadorSeries agregadorSeries;
+    
+    @Autowired
+    private HistoricoRecenteLeituras historicoRecenteLeituras;
+    
+    @Autowired
+    private ArmazenamentoBlocosLeituras armazenamentoBlocosLeituras;
+    
+    @Autowired
+    private EstatisticasSensores estatisticasSensores;
+    
+    @Autowired
+    private AgregadorPercentis agregadorPercentis;
+    
+    @Autowired
+    private DetectorAnomalias detectorAnomalias;
+    
+    @Autowired
+    private IndiceEspacial indiceEspacial;
+    
     @Autowired
     private SensorRepository sensorRepository;
     
     @Autowired
-    private RiscoService riscoService;
+    private LogLeituras logLeituras;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
     
     /**
      * Registra uma nova leitura de sensor no sistema.
-     * Valida o sensor, persiste a leitura e dispara análise de risco.
+     * Valida o sensor, persiste a leitura e agenda a análise de risco.
+     * O método retorna assim que a leitura está gravada; o Risco é produzido
+     * de forma assíncrona pelos workers do pipeline de análise. A leitura é gravada
+     * em uma transação própria e a análise só é agendada após o seu término, para que
+     * nenhuma conexão fique presa durante a chamada à API de IA.
+     * Com o log de leituras habilitado, o método retorna assim que a leitura está
+     * sincronizada no log, ainda sem ID; a gravação no banco ocorre em segundo plano.
      *
      * @param leituraDTO DTO contendo os dados da leitura
-     * @return Leitura entidade da leitura registrada
+     * @return Leitura entidade da leitura registrada (sem ID se aceita pelo log)
      * @throws IllegalArgumentException se o sensor não for encontrado
      */
     @Override
     public Leitura registrarLeitura(LeituraDTO leituraDTO) {
-        Optional<Sensor> sensorOptional = sensorRepository.findById(leituraDTO.getSensorId());
+        Optional<Sensor> sensorOptional = cacheSensores.buscar(leituraDTO.getSensorId());
         if (sensorOptional.isEmpty()) {
             throw new IllegalArgumentException("Sensor não encontrado com ID: " + leituraDTO.getSensorId());
         }
         
+        Leitura leitura = novaLeitura(leituraDTO, sensorOptional.get());
+        if (logLeituras.isHabilitado()) {
+            // Durável a partir daqui; a gravação no banco fica a cargo do AplicadorLogLeituras
+            logLeituras.anexar(List.of(paraLog(leitura)));
+            return leitura;
+        }
+        
+        Leitura leituraSalva = new TransactionTemplate(transactionManager).execute(status -> {
+            Leitura salva = leituraRepository.save(leitura);
+            publicar(salva);
+            return salva;
+        });
+        pipelineAnaliseRisco.submeter(leituraSalva);
+        
+        return leituraSalva;
+    }
+
+    /**
+     * Registra um lote de leituras enviado de uma só vez por um gateway.
+     * Os sensores do lote são validados pelo cache (faltas em uma única consulta) e as leituras aceitas
+     * são persistidas com saveAll, permitindo que o Hibernate use inserts em lote JDBC.
+     * Leituras inválidas são rejeitadas individualmente sem afetar o restante do lote.
+     *
+     * @param leiturasDTO lista de DTOs com os dados das leituras
+     * @return ResultadoLoteLeituraDTO com o status de aceite/rejeição de cada item
+     */
+    @Override
+    public ResultadoLoteLeituraDTO registrarLeituras(List<LeituraDTO> leiturasDTO) {
+        // Itens nulos do array JSON são rejeitados por validarItemLote
+        List<Long> sensorIds = leiturasDTO.stream()
+                .filter(Objects::nonNull)
+                .map(LeituraDTO::getSensorId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, Sensor> sensores = cacheSensores.buscarTodos(sensorIds);
+        
+        ItemResultadoLoteDTO[] itens = new ItemResultadoLoteDTO[leiturasDTO.size()];
+        List<Leitura> leiturasAceitas = new ArrayList<>();
+        List<Integer> indicesAceitos = new ArrayList<>();
+        
+        for (int i = 0; i < leiturasDTO.size(); i++) {
+            LeituraDTO leituraDTO = leiturasDTO.get(i);
+            String motivo = validarItemLote(leituraDTO, sensores);
+            if (motivo != null) {
+                itens[i] = ItemResultadoLoteDTO.rejeitada(i, leituraDTO != null ? leituraDTO.getSensorId() : null, motivo);
+                continue;
+            }
+            
+            leiturasAceitas.add(novaLeitura(leituraDTO, sensores.get(leituraDTO.getSensorId())));
+            indicesAceitos.add(i);
+        }
+        
+        if (logLeituras.isHabilitado()) {
+            // Uma única sincronização do log para todo o lote; os IDs só existem após a aplicação no banco
+            logLeituras.anexar(leiturasAceitas.stream().map(this::paraLog).toList());
+            for (int j = 0; j < leiturasAceitas.size(); j++) {
+                int indice = indicesAceitos.get(j);
+                itens[indice] = ItemResultadoLoteDTO.aceita(indice, leiturasAceitas.get(j).getSensor().getId(), null);
+            }
+            return ResultadoLoteLeituraDTO.of(List.of(itens));
+        }
+        
+        List<Leitura> leiturasSalvas = gravar(leiturasAceitas);
+        
+        for (int j = 0; j < leiturasSalvas.size(); j++) {
+            Leitura leituraSalva = leiturasSalvas.get(j);
+            int indice = indicesAceitos.get(j);
+            itens[indice] = ItemResultadoLoteDTO.aceita(indice, leituraSalva.getSensor().getId(), leituraSalva.getId());
+        }
+        
+        return ResultadoLoteLeituraDTO.of(List.of(itens));
+    }
+    
+    /**
+     * Persiste leituras que já estão duráveis no log de leituras.
+     * A sequência de cada registro é gravada junto com a leitura, na mesma transação,
+     * para que a aplicação do log possa ser retomada sem duplicar leituras.
+     * Registros de sensores que não existem mais são ignorados; a diferença entre
+     * a quantidade de registros e o retorno é contabilizada por AplicadorLogLeituras.
+     *
+     * @param registros registros do log em ordem de sequência
+     * @return int quantidade de leituras persistidas
+     */
+    @Override
+    public int aplicarRegistrosLog(List<RegistroLog> registros) {
+        List<Long> sensorIds = registros.stream()
+                .map(registro -> registro.leitura().getSensorId())
+                .distinct()
+                .toList();
+        Map<Long, Sensor> sensores = cacheSensores.buscarTodos(sensorIds);
+        
+        List<Leitura> leituras = new ArrayList<>(registros.size());
+        for (RegistroLog registro : registros) {
+            Sensor sensor = sensores.get(registro.leitura().getSensorId());
+            if (sensor != null) {
+                Leitura leitura = novaLeitura(registro.leitura(), sensor);
+                leitura.setSequenciaLog(registro.sequencia());
+                leituras.add(leitura);
+            }
+        }
+        
+        return gravar(leituras).size();
+    }
+    
+    /**
+     * Grava as leituras com saveAll em uma transação própria e, após o seu término,
+     * agenda a análise de risco de cada uma.
+     */
+    private List<Leitura> gravar(List<Leitura> leituras) {
+        List<Leitura> leiturasSalvas = new TransactionTemplate(transactionManager).execute(status -> {
+            List<Leitura> salvas = leituraRepository.saveAll(leituras);
+            salvas.forEach(this::publicar);
+            return salvas;
+        });
+        leiturasSalvas.forEach(pipelineAnaliseRisco::submeter);
+        return leiturasSalvas;
+    }
+    
+    private Leitura novaLeitura(LeituraDTO leituraDTO, Sensor sensor) {
         Leitura leitura = new Leitura();
         leitura.setTemperatura(leituraDTO.getTemperatura());
         leitura.setUmidade(leituraDTO.getUmidade());
         leitura.setNivelFumaca(leituraDTO.getNivelFumaca());
         leitura.setCo2(leituraDTO.getCo2());
         leitura.setDataHora(leituraDTO.getDataHora() != null ? leituraDTO.getDataHora() : LocalDateTime.now());
-        leitura.setSensor(sensorOptional.get());
-        
-        Leitura leituraSalva = leituraRepository.save(leitura);
-        
-        // Após registrar a leitura, analisar o risco automaticamente
-        riscoService.analisarRisco(leituraDTO);
-        
-        return leituraSalva;
+        leitura.setSensor(sensor);
+        // Marcada por AgregadorSeries quando os agregados parciais forem gravados
+        leitura.setAgregada(false);
+        return leitura;
+    }
+    
+    private LeituraDTO paraLog(Leitura leitura) {
+        LeituraDTO dto = new LeituraDTO();
+        dto.setSensorId(leitura.getSensor().getId());
+        dto.setDataHora(leitura.getDataHora());
+        dto.setTemperatura(leitura.getTemperatura());
+        dto.setUmidade(leitura.getUmidade());
+        dto.setNivelFumaca(leitura.getNivelFumaca());
+        dto.setCo2(leitura.getCo2());
+        return dto;
+    }
+    
+    /**
+     * Atualiza, após o commit, as estruturas derivadas de uma leitura persistida.
+     */
+    private void publicar(Leitura leituraSalva) {
+        cacheUltimasLeituras.registrar(leituraSalva);
+        agregadorSeries.registrar(leituraSalva);
+        historicoRecenteLeituras.registrar(leituraSalva);
+        armazenamentoBlocosLeituras.registrar(leituraSalva);
+        estatisticasSensores.registrar(leituraSalva);
+        agregadorPercentis.registrar(leituraSalva);
+        detectorAnomalias.registrar(leituraSalva);
+    }
+    
+    /**
+     * Valida um item do lote de leituras.
+     *
+     * @param leituraDTO item a ser validado
+     * @param sensores sensores do lote já carregados, indexados por ID
+     * @return String com o motivo da rejeição ou null se o item for válido
+     */
+    private String validarItemLote(LeituraDTO leituraDTO, Map<Long, Sensor> sensores) {
+        if (leituraDTO == null) {
+            return "Leitura vazia";
+        }
+        if (leituraDTO.getSensorId() == null) {
+            return "ID do sensor não informado";
+        }
+        if (!sensores.containsKey(leituraDTO.getSensorId())) {
+            return "Sensor não encontrado com ID: " + leituraDTO.getSensorId();
+        }
+        if (leituraDTO.getTemperatura() == null || leituraDTO.getUmidade() == null
+                || leituraDTO.getNivelFumaca() == null) {
+            return "Temperatura, umidade e nível de fumaça são obrigatórios";
+        }
+        return null;
     }
 
     /**
@@ -106,33 +346,172 @@ public class LeituraServiceImpl implements LeituraService {
     }
 
     /**
-     * Obtém a última leitura registrada para cada sensor ativo.
+     * Lista uma página de leituras em ordem de ID (paginação por cursor).
+     *
+     * @param after ID da última leitura da página anterior (exclusivo) ou null para a primeira página
+     * @param limite quantidade máxima de leituras na página
+     * @return List<Leitura> página de leituras
+     */
+    @Override
+    public List<Leitura> listarPagina(Long after, int limite) {
+        return leituraRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, Limit.of(limite));
+    }
+
+    /**
+     * Busca uma página das leituras de um sensor, da mais recente para a mais antiga.
+     * O cursor traz (dataHora, id) da última leitura da página anterior, e a posição é
+     * resolvida sem OFFSET e sem reler essa leitura (que pode já ter sido removida).
+     *
+     * @param sensorId ID do sensor
+     * @param after posição da última leitura da página anterior ou null para a primeira página
+     * @param limite quantidade máxima de leituras na página
+     * @return List<Leitura> página de leituras do sensor
+     */
+    @Override
+    public List<Leitura> buscarPorSensor(Long sensorId, CursorTemporal after, int limite) {
+        if (after == null) {
+            return leituraRepository.findBySensorIdOrderByDataHoraDescIdDesc(sensorId, Limit.of(limite));
+        }
+        return leituraRepository.findBySensorIdOrderByDataHoraDesc(sensorId, after.dataHora(), after.id(), Limit.of(limite));
+    }
+
+    /**
+     * Busca uma página das leituras de um período, em ordem cronológica.
+     *
+     * @param inicio data/hora inicial
+     * @param fim data/hora final
+     * @param after posição da última leitura da página anterior ou null para a primeira página
+     * @param limite quantidade máxima de leituras na página
+     * @return List<Leitura> página de leituras do período
+     */
+    @Override
+    public List<Leitura> buscarPorPeriodo(LocalDateTime inicio, LocalDateTime fim, CursorTemporal after, int limite) {
+        if (after == null) {
+            return leituraRepository.findByDataHoraBetweenOrderByDataHoraAscIdAsc(inicio, fim, Limit.of(limite));
+        }
+        return leituraRepository.findByDataHoraBetween(inicio, fim, after.dataHora(), after.id(), Limit.of(limite));
+    }
+
+    /**
+     * Percorre as leituras (de todos os sensores ou de um sensor) entregando uma a uma
+     * ao consumidor. As entidades são desanexadas após o uso, mantendo o consumo de
+     * memória constante independentemente do tamanho do resultado.
+     *
+     * @param sensorId ID do sensor ou null para todas as leituras
+     * @param consumidor destino de cada leitura convertida em DTO
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarLeituras(Long sensorId, Consumer<LeituraDTO> consumidor) {
+        try (Stream<Leitura> leituras = sensorId != null
+                ? leituraRepository.streamPorSensor(sensorId)
+                : leituraRepository.streamTodas()) {
+            leituras.forEach(leitura -> {
+                consumidor.accept(LeituraDTO.fromEntity(leitura));
+                entityManager.detach(leitura);
+            });
+        }
+    }
+
+    /**
+     * Monta a série temporal de um sensor a partir dos agregados por intervalo,
+     * sem ler as leituras brutas: um mês em resolução HOUR tem cerca de 720 pontos.
+     *
+     * @param sensorId ID do sensor
+     * @param resolucao resolução da série (MINUTE, HOUR ou DAY)
+     * @param inicio data/hora inicial do período
+     * @param fim data/hora final do período
+     * @return List<PontoSerieDTO> pontos da série em ordem cronológica
+     */
+    @Override
+    public List<PontoSerieDTO> buscarSerie(Long sensorId, Resolucao resolucao, LocalDateTime inicio, LocalDateTime fim) {
+        return agregadorSeries.buscarSerie(sensorId, resolucao, inicio, fim).stream()
+                .map(PontoSerieDTO::fromEntity)
+                .toList();
+    }
+
+    /**
+     * Retorna o histórico de leituras de um sensor no período a partir dos blocos
+     * comprimidos por sensor-hora, disponível mesmo após a retenção das linhas brutas
+     * (a retenção anexa aos blocos as leituras que faltam neles antes de removê-las).
+     *
+     * @param sensorId ID do sensor
+     * @param inicio data/hora inicial do período
+     * @param fim data/hora final do período
+     * @return List<LeituraDTO> leituras do período em ordem cronológica
+     */
+    @Override
+    public List<LeituraDTO> buscarHistorico(Long sensorId, LocalDateTime inicio, LocalDateTime fim) {
+        return LeituraDTO.fromJanela(sensorId, armazenamentoBlocosLeituras.buscarHistorico(sensorId, inicio, fim));
+    }
+
+    /**
+     * Estima percentis de uma métrica do sensor no período combinando os sketches
+     * de quantis por sensor-hora, sem ler as leituras brutas.
+     *
+     * @param sensorId ID do sensor
+     * @param metrica métrica consultada
+     * @param inicio data/hora inicial do período
+     * @param fim data/hora final do período
+     * @param quantis quantis desejados entre 0 e 1
+     * @return PercentisDTO com os percentis estimados
+     * @throws IllegalArgumentException se algum quantil estiver fora de [0, 1]
+     */
+    @Override
+    public PercentisDTO buscarPercentis(Long sensorId, Metrica metrica, LocalDateTime inicio, LocalDateTime fim, List<Double> quantis) {
+        return agregadorPercentis.buscarPercentis(List.of(sensorId), metrica, inicio, fim, quantis);
+    }
+
+    /**
+     * Estima percentis de uma métrica para todos os sensores da área no período.
+     *
+     * @param latitude latitude do centro da área
+     * @param longitude longitude do centro da área
+     * @param raio raio da área em quilômetros
+     * @param metrica métrica consultada
+     * @param inicio data/hora inicial do período
+     * @param fim data/hora final do período
+     * @param quantis quantis desejados entre 0 e 1
+     * @return PercentisDTO com os percentis estimados para a área
+     * @throws IllegalArgumentException se algum quantil estiver fora de [0, 1]
+     */
+    @Override
+    public PercentisDTO buscarPercentisPorArea(Double latitude, Double longitude, Double raio, Metrica metrica,
+            LocalDateTime inicio, LocalDateTime fim, List<Double> quantis) {
+        List<Sensor> sensoresNaArea = indiceEspacial.isHabilitado()
+                ? indiceEspacial.buscarNaArea(latitude, longitude, raio)
+                : sensorRepository.findSensoresNaArea(latitude, longitude, raio);
+        List<Long> sensorIds = sensoresNaArea.stream().map(Sensor::getId).toList();
+        return agregadorPercentis.buscarPercentis(sensorIds, metrica, inicio, fim, quantis);
+    }
+
+    /**
+     * Calcula variação e tendência das métricas do sensor sobre as últimas N leituras,
+     * usando o histórico em memória em vez de carregar entidades do banco.
+     *
+     * @param sensorId ID do sensor
+     * @return Optional<TendenciaSensorDTO> vazio se o sensor não tiver leituras
+     */
+    @Override
+    public Optional<TendenciaSensorDTO> obterTendencia(Long sensorId) {
+        JanelaLeituras janela = historicoRecenteLeituras.obterJanela(sensorId);
+        if (janela.isVazia()) {
+            return Optional.empty();
+        }
+        return Optional.of(TendenciaSensorDTO.fromJanela(sensorId, janela));
+    }
+
+    /**
+     * Obtém a última leitura registrada para cada sensor.
      * Útil para monitoramento em tempo real do estado dos sensores.
      *
-     * O método:
-     * 1. Busca todas as leituras
-     * 2. Agrupa por sensor
-     * 3. Seleciona a leitura mais recente de cada grupo
+     * A consulta é atendida pela tabela de últimas leituras mantida na ingestão,
+     * com custo proporcional ao número de sensores e não ao total de leituras.
      *
      * @return List<Leitura> lista com a última leitura de cada sensor
      */
     @Override
     public List<Leitura> obterUltimasLeiturasPorSensor() {
-        List<Leitura> todasLeituras = leituraRepository.findAll();
-        
-        // Agrupa as leituras por sensor e pega a mais recente de cada
-        Map<Sensor, List<Leitura>> leiturasPorSensor = todasLeituras.stream()
-                .collect(Collectors.groupingBy(Leitura::getSensor));
-        
-        List<Leitura> ultimasLeituras = new ArrayList<>();
-        
-        leiturasPorSensor.forEach((sensor, leituras) -> {
-            leituras.stream()
-                    .sorted((l1, l2) -> l2.getDataHora().compareTo(l1.getDataHora()))
-                    .findFirst()
-                    .ifPresent(ultimasLeituras::add);
-        });
-        
-        return ultimasLeituras;
+        return cacheUltimasLeituras.listar();
     }
 }
@@ -3,23 +3,31 @@ package com.global_solution.fire_sentinel_App.service.impl;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.global_solution.fire_sentinel_App.dto.CursorTemporal;
 import com.global_solution.fire_sentinel_App.dto.OcorrenciaDTO;
 import com.global_solution.fire_sentinel_App.model.Ocorrencia;
 import com.global_solution.fire_sentinel_App.repository.OcorrenciaRepository;
 import com.global_solution.fire_sentinel_App.service.OcorrenciaService;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
 /**
  * Implementação do serviço de gerenciamento de ocorrências.
  * Responsável por toda a lógica de negócio relacionada às ocorrências do sistema.
  * 
  * Esta implementação fornece:
  * - Registro e atualização de ocorrências
- * - Consultas por diferentes critérios
+ * - Consultas por diferentes critérios (paginadas por cursor ou em streaming)
  * - Análise de criticidade
  * - Conversão entre entidades e DTOs
  */
@@ -29,6 +37,9 @@ public class OcorrenciaServiceImpl implements OcorrenciaService {
     @Autowired
     private OcorrenciaRepository ocorrenciaRepository;
     
+    @PersistenceContext
+    private EntityManager entityManager;
+    
     @Override
     public OcorrenciaDTO registrarOcorrencia(OcorrenciaDTO ocorrenciaDTO) {
         Ocorrencia ocorrencia = ocorrenciaDTO.toEntity();
@@ -114,4 +125,41 @@ public class OcorrenciaServiceImpl implements OcorrenciaService {
         }
         return false;
     }
-} 
\ No newline at end of file
+
+    @Override
+    public List<OcorrenciaDTO> listarPagina(Long after, int limite) {
+        return ocorrenciaRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, Limit.of(limite))
+                .stream()
+                .map(OcorrenciaDTO::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<OcorrenciaDTO> buscarPorRegiao(String regiao, Long after, int limite) {
+        return ocorrenciaRepository.findByRegiaoAndIdGreaterThanOrderByIdAsc(regiao, after != null ? after : 0L, Limit.of(limite))
+                .stream()
+                .map(OcorrenciaDTO::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<OcorrenciaDTO> buscarPorPeriodo(LocalDateTime inicio, LocalDateTime fim, CursorTemporal after, int limite) {
+        List<Ocorrencia> ocorrencias = after == null
+                ? ocorrenciaRepository.findByDataHoraBetweenOrderByDataHoraAscIdAsc(inicio, fim, Limit.of(limite))
+                : ocorrenciaRepository.findByDataHoraBetween(inicio, fim, after.dataHora(), after.id(), Limit.of(limite));
+        return ocorrencias.stream()
+                .map(OcorrenciaDTO::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarOcorrencias(Consumer<OcorrenciaDTO> consumidor) {
+        try (Stream<Ocorrencia> ocorrencias = ocorrenciaRepository.streamTodas()) {
+            ocorrencias.forEach(ocorrencia -> {
+                consumidor.accept(OcorrenciaDTO.fromEntity(ocorrencia));
+                entityManager.detach(ocorrencia);
+            });
+        }
+    }
+}
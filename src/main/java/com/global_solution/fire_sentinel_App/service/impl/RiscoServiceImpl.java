@@ -2,23 +2,32 @@ package com.global_solution.fire_sentinel_App.service.impl;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.global_solution.fire_sentinel_App.cache.CacheSensores;
 import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
 import com.global_solution.fire_sentinel_App.dto.RiscoDTO;
+import com.global_solution.fire_sentinel_App.geo.IndiceEspacial;
+import com.global_solution.fire_sentinel_App.ia.AvaliadorRiscoLocal;
+import com.global_solution.fire_sentinel_App.ia.CacheAnalisesRisco;
+import com.global_solution.fire_sentinel_App.ia.ClienteIALote;
+import com.global_solution.fire_sentinel_App.ia.ModoAnaliseRisco;
 import com.global_solution.fire_sentinel_App.model.Leitura;
 import com.global_solution.fire_sentinel_App.model.Risco;
 import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.pipeline.FilaReanaliseRisco;
 import com.global_solution.fire_sentinel_App.repository.LeituraRepository;
 import com.global_solution.fire_sentinel_App.repository.RiscoRepository;
 import com.global_solution.fire_sentinel_App.repository.SensorRepository;
@@ -29,8 +38,8 @@ import com.global_solution.fire_sentinel_App.service.RiscoService;
  * Responsável por processar, analisar e gerenciar riscos de incêndio no sistema.
  * 
  * Esta implementação fornece:
- * - Análise de risco usando IA
- * - Integração com API externa de análise
+ * - Análise de risco usando IA (modelo local, API externa ou ambos)
+ * - Integração com API externa de análise, com fallback para o modelo local
  * - Persistência de análises
  * - Consultas geográficas
  * - Histórico de riscos
@@ -38,6 +47,11 @@ import com.global_solution.fire_sentinel_App.service.RiscoService;
 @Service
 public class RiscoServiceImpl implements RiscoService {
 
+    /**
+     * Quantidade máxima de IDs de sensor por consulta de últimos riscos (cláusula IN).
+     */
+    private static final int LOTE_CONSULTA_SENSORES = 500;
+    
     @Autowired
     private RiscoRepository riscoRepository;
     
@@ -48,36 +62,81 @@ public class RiscoServiceImpl implements RiscoService {
     private SensorRepository sensorRepository;
     
     @Autowired
-    private RestTemplate restTemplate;
+    private IndiceEspacial indiceEspacial;
+    
+    @Autowired
+    private CacheSensores cacheSensores;
+    
+    @Autowired
+    private ClienteIALote clienteIALote;
+    
+    @Autowired
+    private AvaliadorRiscoLocal avaliadorRiscoLocal;
+    
+    @Autowired
+    private CacheAnalisesRisco cacheAnalisesRisco;
+    
+    @Autowired
+    private FilaReanaliseRisco filaReanaliseRisco;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
     
-    @Value("${ia.risk.analysis.url}")
-    private String iaRiskAnalysisUrl;
+    @Value("${ia.risk.analysis.timeout-ms:10000}")
+    private long timeoutAnaliseMs;
     
     /**
-     * Analisa o risco de incêndio com base em uma leitura.
+     * Analisa o risco de incêndio com base em uma leitura já registrada.
      * Integra com API externa de IA para análise avançada.
      *
-     * @param leituraDTO DTO contendo os dados para análise
+     * @param leituraDTO DTO contendo os dados para análise (com o ID da leitura)
      * @return RiscoDTO contendo o resultado da análise
      * @throws IllegalArgumentException se a leitura ou sensor não forem encontrados
      */
     @Override
     public RiscoDTO analisarRisco(LeituraDTO leituraDTO) {
         // Buscar a leitura e o sensor
-        Optional<Leitura> leituraOptional = leituraRepository.findById(leituraDTO.getId());
-        Optional<Sensor> sensorOptional = sensorRepository.findById(leituraDTO.getSensorId());
+        Optional<Leitura> leituraOptional = leituraDTO.getId() != null
+                ? leituraRepository.findById(leituraDTO.getId())
+                : Optional.empty();
+        Optional<Sensor> sensorOptional = cacheSensores.buscar(leituraDTO.getSensorId());
         
         if (leituraOptional.isEmpty() || sensorOptional.isEmpty()) {
             throw new IllegalArgumentException("Leitura ou Sensor não encontrado");
         }
         
-        Leitura leitura = leituraOptional.get();
-        Sensor sensor = sensorOptional.get();
+        return analisarRisco(leituraOptional.get(), sensorOptional.get());
+    }
+    
+    /**
+     * Analisa o risco de incêndio de uma leitura já confirmada no banco.
+     * Recebe a leitura e o sensor já resolvidos pela ingestão, evitando reler ambos
+     * do banco. A análise (e a eventual chamada à API de IA) ocorre sem transação
+     * aberta; só o INSERT do Risco e, se a análise for provisória, da pendência de
+     * reanálise usam uma conexão, em uma transação própria e curta.
+     *
+     * @param leitura leitura persistida a ser analisada
+     * @param sensor sensor responsável pela leitura
+     * @return RiscoDTO contendo o resultado da análise
+     */
+    @Override
+    public RiscoDTO analisarRisco(Leitura leitura, Sensor sensor) {
+        LeituraDTO leituraDTO = LeituraDTO.fromEntity(leitura);
         
-        // Chamar API da IA para análise de risco
-        RiscoDTO riscoDTO = chamarAPIRiscoIA(leituraDTO);
+        // Modelo local primeiro; a API da IA só é chamada conforme o modo configurado
+        RiscoDTO riscoDTO = analisarLocalOuRemoto(leitura, sensor, leituraDTO);
         
-        // Persistir o resultado da análise
+        // Nova transação: o chamador pode estar no afterCommit de outra transação
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transacao.executeWithoutResult(status -> persistir(leitura, sensor, riscoDTO));
+        return riscoDTO;
+    }
+    
+    /**
+     * Grava o Risco da análise e, se ela for provisória, a pendência de reanálise.
+     */
+    private void persistir(Leitura leitura, Sensor sensor, RiscoDTO riscoDTO) {
         Risco risco = new Risco();
         risco.setNivelRisco(riscoDTO.getNivelRisco());
         risco.setCategoria(riscoDTO.getCategoria());
@@ -90,37 +149,79 @@ public class RiscoServiceImpl implements RiscoService {
         
         // Atualizar o DTO com o ID salvo
         riscoDTO.setId(riscoSalvo.getId());
+        riscoDTO.setLeituraId(leitura.getId());
+        riscoDTO.setSensorId(sensor.getId());
         
-        return riscoDTO;
+        // API falhou (fallback local ou análise de erro): o Risco será substituído na reanálise
+        if (riscoDTO.isProvisoria()) {
+            filaReanaliseRisco.registrar(leitura, riscoSalvo, riscoDTO.getDescricao());
+        }
+    }
+    
+    /**
+     * Analisa a leitura com o modelo local e, conforme o modo (LOCAL, REMOTO ou HIBRIDO),
+     * também com a API externa. Leituras na faixa segura nunca saem do processo no modo
+     * HIBRIDO.
+     *
+     * @param leitura leitura persistida
+     * @param sensor sensor responsável pela leitura
+     * @param leituraDTO DTO da leitura para a API externa
+     * @return RiscoDTO análise local ou da API
+     */
+    private RiscoDTO analisarLocalOuRemoto(Leitura leitura, Sensor sensor, LeituraDTO leituraDTO) {
+        if (!avaliadorRiscoLocal.podeAvaliar(leitura)) {
+            return avaliadorRiscoLocal.getModo() == ModoAnaliseRisco.LOCAL
+                    ? criarAnalisePadrao(leituraDTO, "INDETERMINADO", "Leitura sem as métricas usadas pela análise local")
+                    : chamarAPIRiscoIA(sensor.getTipo(), leituraDTO, null);
+        }
+        RiscoDTO local = avaliadorRiscoLocal.avaliar(leitura);
+        if (!avaliadorRiscoLocal.deveConsultarApi(local.getNivelRisco())) {
+            return local;
+        }
+        return chamarAPIRiscoIA(sensor.getTipo(), leituraDTO, local);
     }
     
     /**
      * Chama a API externa de IA para análise de risco.
-     * Implementa tratamento de erros e fallback em caso de falha.
+     * A chamada passa pelo cliente em micro-lotes, que agrupa leituras concorrentes
+     * em uma única requisição HTTP. Leituras equivalentes a uma já analisada (mesmo
+     * tipo de sensor e valores quantizados) são respondidas pelo CacheAnalisesRisco.
+     * Em caso de falha, usa a análise local quando houver uma; sem ela, registra uma
+     * análise padrão de erro. Nos dois casos a análise é provisória e a leitura entra
+     * na fila de reanálise.
      *
+     * @param tipoSensor tipo do sensor da leitura (parte da chave do cache)
      * @param leituraDTO DTO com dados para análise
-     * @return RiscoDTO resultado da análise ou análise padrão em caso de erro
+     * @param local análise local da mesma leitura (ou null)
+     * @return RiscoDTO resultado da análise, análise local ou análise padrão em caso de erro
      */
-    private RiscoDTO chamarAPIRiscoIA(LeituraDTO leituraDTO) {
+    private RiscoDTO chamarAPIRiscoIA(String tipoSensor, LeituraDTO leituraDTO, RiscoDTO local) {
+        RiscoDTO emCache = cacheAnalisesRisco.buscar(tipoSensor, leituraDTO);
+        if (emCache != null) {
+            return emCache;
+        }
         try {
-            // Configurar cabeçalhos para a requisição HTTP
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            
-            // Criar a entidade HTTP com os dados da leitura
-            HttpEntity<LeituraDTO> requestEntity = new HttpEntity<>(leituraDTO, headers);
-            
-            // Chamar a API de IA para análise de risco
-            RiscoDTO riscoAnalise = restTemplate.postForObject(iaRiskAnalysisUrl, requestEntity, RiscoDTO.class);
+            // Aguardar o resultado do lote em que a leitura foi incluída
+            RiscoDTO riscoAnalise = clienteIALote.analisar(leituraDTO).get(timeoutAnaliseMs, TimeUnit.MILLISECONDS);
             
             if (riscoAnalise == null) {
-                return criarAnalisePadrao(leituraDTO, "INDETERMINADO", "Não foi possível analisar o risco. API indisponível.");
+                return local != null
+                        ? avaliadorRiscoLocal.usarComoFallback(local, "resposta vazia")
+                        : criarAnaliseProvisoria(leituraDTO, "INDETERMINADO", "Não foi possível analisar o risco. API indisponível.");
             }
             
+            cacheAnalisesRisco.guardar(tipoSensor, leituraDTO, riscoAnalise);
             return riscoAnalise;
             
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return local != null
+                    ? avaliadorRiscoLocal.usarComoFallback(local, "análise interrompida")
+                    : criarAnaliseProvisoria(leituraDTO, "ERRO", "Análise de risco interrompida");
         } catch (Exception e) {
-            return criarAnalisePadrao(leituraDTO, "ERRO", "Erro ao processar análise de risco: " + e.getMessage());
+            return local != null
+                    ? avaliadorRiscoLocal.usarComoFallback(local, e.getMessage())
+                    : criarAnaliseProvisoria(leituraDTO, "ERRO", "Erro ao processar análise de risco: " + e.getMessage());
         }
     }
     
@@ -143,6 +244,21 @@ public class RiscoServiceImpl implements RiscoService {
         return riscoFallback;
     }
 
+    /**
+     * Cria uma análise padrão provisória, usada quando a API falhou e não há análise
+     * local; a leitura entra na fila de reanálise.
+     *
+     * @param leituraDTO DTO da leitura original
+     * @param categoria Categoria do risco padrão
+     * @param descricao Descrição do erro
+     * @return RiscoDTO análise padrão marcada como provisória
+     */
+    private RiscoDTO criarAnaliseProvisoria(LeituraDTO leituraDTO, String categoria, String descricao) {
+        RiscoDTO provisoria = criarAnalisePadrao(leituraDTO, categoria, descricao);
+        provisoria.setProvisoria(true);
+        return provisoria;
+    }
+
     /**
      * Obtém a última análise de risco realizada para um sensor.
      *
@@ -155,6 +271,37 @@ public class RiscoServiceImpl implements RiscoService {
         return ultimoRisco.map(this::converterParaDTO);
     }
 
+    /**
+     * Obtém a última análise de risco de cada sensor informado.
+     * Os sensores são consultados em blocos de LOTE_CONSULTA_SENSORES IDs, com uma
+     * única instrução SQL por bloco.
+     *
+     * @param sensorIds IDs dos sensores
+     * @return List<RiscoDTO> último risco de cada sensor que possui análise
+     */
+    @Override
+    public List<RiscoDTO> obterUltimosRiscosPorSensores(Collection<Long> sensorIds) {
+        List<Long> ids = new ArrayList<>(sensorIds);
+        Map<Long, Risco> ultimoPorSensor = new HashMap<>();
+        for (int inicio = 0; inicio < ids.size(); inicio += LOTE_CONSULTA_SENSORES) {
+            List<Long> bloco = ids.subList(inicio, Math.min(inicio + LOTE_CONSULTA_SENSORES, ids.size()));
+            for (Risco risco : riscoRepository.findUltimosPorSensores(bloco)) {
+                // Em caso de empate na data da análise, prevalece o risco gravado por último
+                ultimoPorSensor.merge(risco.getSensor().getId(), risco,
+                        (atual, novo) -> novo.getId() > atual.getId() ? novo : atual);
+            }
+        }
+        
+        List<RiscoDTO> ultimosRiscos = new ArrayList<>();
+        for (Long sensorId : ids) {
+            Risco risco = ultimoPorSensor.remove(sensorId);
+            if (risco != null) {
+                ultimosRiscos.add(converterParaDTO(risco));
+            }
+        }
+        return ultimosRiscos;
+    }
+
     /**
      * Retorna o histórico completo de análises de risco de um sensor.
      *
@@ -168,7 +315,8 @@ public class RiscoServiceImpl implements RiscoService {
 
     /**
      * Busca análises de risco em uma área geográfica específica.
-     * Utiliza cálculo de distância para encontrar sensores na área.
+     * Os sensores da área vêm do índice espacial em memória; com o índice desabilitado,
+     * a consulta vai ao banco com pré-filtro pela caixa delimitadora.
      *
      * @param latitude Latitude do ponto central
      * @param longitude Longitude do ponto central
@@ -178,17 +326,13 @@ public class RiscoServiceImpl implements RiscoService {
     @Override
     public List<RiscoDTO> obterRiscosPorArea(Double latitude, Double longitude, Double raio) {
         // Buscar sensores na área especificada
-        List<Sensor> sensoresNaArea = sensorRepository.findSensoresNaArea(latitude, longitude, raio);
-        
-        // Para cada sensor, buscar o último risco calculado
-        List<RiscoDTO> riscosNaArea = new ArrayList<>();
-        
-        for (Sensor sensor : sensoresNaArea) {
-            Optional<Risco> ultimoRisco = riscoRepository.findTopBySensorIdOrderByDataHoraAnaliseDesc(sensor.getId());
-            ultimoRisco.map(this::converterParaDTO).ifPresent(riscosNaArea::add);
-        }
+        List<Sensor> sensoresNaArea = indiceEspacial.isHabilitado()
+                ? indiceEspacial.buscarNaArea(latitude, longitude, raio)
+                : sensorRepository.findSensoresNaArea(latitude, longitude, raio);
         
-        return riscosNaArea;
+        // Buscar o último risco calculado de todos os sensores de uma vez
+        List<Long> sensorIds = sensoresNaArea.stream().map(Sensor::getId).toList();
+        return obterUltimosRiscosPorSensores(sensorIds);
     }
     
     /**
@@ -204,7 +348,7 @@ public class RiscoServiceImpl implements RiscoService {
         dto.setCategoria(risco.getCategoria());
         dto.setDescricao(risco.getDescricao());
         dto.setDataHoraAnalise(risco.getDataHoraAnalise());
-        dto.setLeituraId(risco.getLeitura().getId());
+        dto.setLeituraId(risco.getLeitura() != null ? risco.getLeitura().getId() : null);
         dto.setSensorId(risco.getSensor().getId());
         return dto;
     }
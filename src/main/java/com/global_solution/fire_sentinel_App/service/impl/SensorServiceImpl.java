@@ -2,15 +2,31 @@ package com.global_solution.fire_sentinel_App.service.impl;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.global_solution.fire_sentinel_App.anomalia.DetectorAnomalias;
+import com.global_solution.fire_sentinel_App.anomalia.OcorrenciasAnomalias;
+import com.global_solution.fire_sentinel_App.cache.CacheSensores;
+import com.global_solution.fire_sentinel_App.cache.CacheUltimasLeituras;
+import com.global_solution.fire_sentinel_App.dto.EstatisticasSensorDTO;
 import com.global_solution.fire_sentinel_App.dto.SensorDTO;
+import com.global_solution.fire_sentinel_App.geo.IndiceEspacial;
+import com.global_solution.fire_sentinel_App.historico.EstatisticasSensores;
+import com.global_solution.fire_sentinel_App.historico.HistoricoRecenteLeituras;
 import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.pipeline.FiltroVariacaoRisco;
 import com.global_solution.fire_sentinel_App.repository.SensorRepository;
 import com.global_solution.fire_sentinel_App.service.SensorService;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
 /**
  * Implementação do serviço de gerenciamento de sensores.
  * Responsável por toda a lógica de negócio relacionada aos sensores do sistema.
@@ -20,6 +36,9 @@ import com.global_solution.fire_sentinel_App.service.SensorService;
  * - Validações de dados
  * - Conversão entre DTOs e entidades
  * - Integração com o repositório de dados
+ * - Manutenção do cache de sensores usado na ingestão
+ * - Manutenção do índice espacial usado nas consultas por área
+ * - Estatísticas incrementais por sensor
  */
 @Service
 public class SensorServiceImpl implements SensorService {
@@ -27,6 +46,33 @@ public class SensorServiceImpl implements SensorService {
     @Autowired
     private SensorRepository sensorRepository;
     
+    @Autowired
+    private CacheSensores cacheSensores;
+    
+    @Autowired
+    private CacheUltimasLeituras cacheUltimasLeituras;
+    
+    @Autowired
+    private IndiceEspacial indiceEspacial;
+    
+    @Autowired
+    private EstatisticasSensores estatisticasSensores;
+    
+    @Autowired
+    private HistoricoRecenteLeituras historicoRecenteLeituras;
+    
+    @Autowired
+    private DetectorAnomalias detectorAnomalias;
+    
+    @Autowired
+    private OcorrenciasAnomalias ocorrenciasAnomalias;
+    
+    @Autowired
+    private FiltroVariacaoRisco filtroVariacaoRisco;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
     /**
      * Cadastra um novo sensor no sistema.
      * Converte o DTO recebido em uma entidade Sensor e persiste no banco de dados.
@@ -44,7 +90,10 @@ public class SensorServiceImpl implements SensorService {
         sensor.setLongitude(sensorDTO.getLongitude());
         sensor.setAtivo(sensorDTO.isAtivo());
         
-        return sensorRepository.save(sensor);
+        Sensor sensorSalvo = sensorRepository.save(sensor);
+        cacheSensores.atualizar(sensorSalvo);
+        indiceEspacial.atualizar(sensorSalvo);
+        return sensorSalvo;
     }
     
     /**
@@ -57,6 +106,34 @@ public class SensorServiceImpl implements SensorService {
         return sensorRepository.findAll();
     }
     
+    /**
+     * Lista uma página de sensores em ordem de ID (paginação por cursor).
+     *
+     * @param after ID do último sensor da página anterior ou null para a primeira página
+     * @param limite quantidade máxima de sensores na página
+     * @return List<Sensor> página de sensores
+     */
+    @Override
+    public List<Sensor> listarPagina(Long after, int limite) {
+        return sensorRepository.findByIdGreaterThanOrderByIdAsc(after != null ? after : 0L, Limit.of(limite));
+    }
+    
+    /**
+     * Percorre todos os sensores entregando um a um ao consumidor, sem materializar a lista.
+     *
+     * @param consumidor destino de cada sensor convertido em DTO
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarSensores(Consumer<SensorDTO> consumidor) {
+        try (Stream<Sensor> sensores = sensorRepository.streamTodos()) {
+            sensores.forEach(sensor -> {
+                consumidor.accept(SensorDTO.fromEntity(sensor));
+                entityManager.detach(sensor);
+            });
+        }
+    }
+    
     /**
      * Busca um sensor específico pelo seu ID.
      *
@@ -68,6 +145,18 @@ public class SensorServiceImpl implements SensorService {
         return sensorRepository.findById(id);
     }
     
+    /**
+     * Retorna as estatísticas incrementais de um sensor (desde o início, última hora
+     * e últimas 24 horas), mantidas em memória e atualizadas a cada leitura.
+     *
+     * @param id ID do sensor
+     * @return Optional<EstatisticasSensorDTO> vazio se o sensor não existir
+     */
+    @Override
+    public Optional<EstatisticasSensorDTO> obterEstatisticas(Long id) {
+        return cacheSensores.buscar(id).map(sensor -> estatisticasSensores.obter(id));
+    }
+    
     /**
      * Atualiza os dados de um sensor existente.
      * Verifica se o sensor existe antes de tentar atualizar.
@@ -90,6 +179,8 @@ public class SensorServiceImpl implements SensorService {
             sensor.setAtivo(sensorDTO.isAtivo());
             
             Sensor sensorAtualizado = sensorRepository.save(sensor);
+            cacheSensores.atualizar(sensorAtualizado);
+            indiceEspacial.atualizar(sensorAtualizado);
             return Optional.of(sensorAtualizado);
         }
         
@@ -107,6 +198,14 @@ public class SensorServiceImpl implements SensorService {
     public boolean removerSensor(Long id) {
         if (sensorRepository.existsById(id)) {
             sensorRepository.deleteById(id);
+            cacheSensores.remover(id);
+            cacheUltimasLeituras.remover(id);
+            indiceEspacial.remover(id);
+            estatisticasSensores.remover(id);
+            historicoRecenteLeituras.remover(id);
+            detectorAnomalias.remover(id);
+            ocorrenciasAnomalias.remover(id);
+            filtroVariacaoRisco.remover(id);
             return true;
         }
         return false;
@@ -0,0 +1,33 @@
+package com.global_solution.fire_sentinel_App.transacao;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Adia uma ação em memória (caches, agregadores, fila de análise) até o commit da
+ * transação corrente, para que ela nunca reflita uma gravação desfeita por rollback.
+ * Fora de uma transação, a ação é executada imediatamente.
+ */
+public final class AposCommit {
+
+    private AposCommit() {
+    }
+
+    /**
+     * Executa a ação após o commit da transação corrente ou, sem transação, na hora.
+     *
+     * @param acao ação a executar
+     */
+    public static void executar(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
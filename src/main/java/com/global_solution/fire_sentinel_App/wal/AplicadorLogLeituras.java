@@ -0,0 +1,236 @@
+package com.global_solution.fire_sentinel_App.wal;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.global_solution.fire_sentinel_App.repository.LeituraRepository;
+import com.global_solution.fire_sentinel_App.service.LeituraService;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Aplica ao banco as leituras já duráveis no LogLeituras, em lotes e em segundo plano.
+ *
+ * Na inicialização o log é reaplicado a partir da maior sequência já presente no banco
+ * (gravada junto com cada leitura), de modo que nada do que foi aceito se perde em
+ * uma queda e nenhuma leitura é gravada duas vezes. Isso exige um banco durável: com
+ * um banco em memória os sensores também se perdem na queda e todos os registros
+ * reaplicados seriam descartados por falta de sensor, por isso a aplicação não inicia
+ * com o log habilitado sobre jdbc:h2:mem. Registros sem sensor são descartados,
+ * contados e registrados no log da aplicação. Ainda na criação do bean, antes da ingestão,
+ * a numeração do log é alinhada com a maior sequência do banco, para que um diretório de
+ * log perdido ou recriado não reutilize sequências já aplicadas.
+ *
+ * Por padrão os segmentos cujas leituras já foram aplicadas são removidos
+ * (leituras.log.descartar-aplicados), limitando o disco ao segmento em uso e ao atraso
+ * da aplicação.
+ *
+ * Um lote que falha é tentado novamente a cada execução. Depois de
+ * leituras.log.maximo-tentativas-lote falhas seguidas, os registros do lote são aplicados
+ * um a um e os que continuam falhando são rejeitados (registrados com o conteúdo em
+ * ERROR e contados), desde que o banco esteja respondendo; se nem o banco responde,
+ * a aplicação fica parada no lote até ele voltar, e o bloqueio aparece nas métricas.
+ */
+@Component
+public class AplicadorLogLeituras {
+
+    private static final Logger log = LoggerFactory.getLogger(AplicadorLogLeituras.class);
+
+    @Autowired
+    private LogLeituras logLeituras;
+
+    @Autowired
+    private LeituraService leituraService;
+
+    @Autowired
+    private LeituraRepository leituraRepository;
+
+    @Value("${leituras.log.tamanho-lote-aplicacao:500}")
+    private int tamanhoLote;
+
+    @Value("${leituras.log.descartar-aplicados:true}")
+    private boolean descartarAplicados = true;
+
+    @Value("${leituras.log.maximo-tentativas-lote:5}")
+    private int maximoTentativas = 5;
+
+    @Value("${spring.datasource.url:}")
+    private String urlBanco;
+
+    private volatile long sequenciaAplicada = -1;
+
+    private final LongAdder leiturasAplicadas = new LongAdder();
+    private final LongAdder lotesAplicados = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder registrosSemSensor = new LongAdder();
+    private final LongAdder registrosRejeitados = new LongAdder();
+
+    private volatile int falhasConsecutivas;
+    private volatile long falhandoDesde;
+
+    /**
+     * Impede que o log seja habilitado sobre um banco em memória, onde a reaplicação
+     * após uma queda descartaria todos os registros, e alinha a numeração do log com a
+     * maior sequência já aplicada ao banco.
+     *
+     * @throws IllegalStateException se o banco for em memória ou se o log terminar antes
+     *         da sequência do banco
+     */
+    @PostConstruct
+    public void validar() {
+        if (!logLeituras.isHabilitado()) {
+            return;
+        }
+        if (urlBanco != null && urlBanco.startsWith("jdbc:h2:mem:")) {
+            throw new IllegalStateException("leituras.log.habilitado exige um banco durável; "
+                    + "spring.datasource.url aponta para um banco em memória: " + urlBanco);
+        }
+        Long ultimaNoBanco = leituraRepository.findMaxSequenciaLog();
+        if (ultimaNoBanco != null) {
+            logLeituras.avancarSequencia(ultimaNoBanco);
+        }
+    }
+
+    /**
+     * Reaplica o log ao iniciar a aplicação, antes de começar a aplicação periódica.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reaplicar() {
+        if (!logLeituras.isHabilitado()) {
+            return;
+        }
+        synchronized (this) {
+            Long ultimaNoBanco = leituraRepository.findMaxSequenciaLog();
+            sequenciaAplicada = ultimaNoBanco != null ? ultimaNoBanco : 0;
+        }
+        long inicio = sequenciaAplicada;
+        aplicarPendentes();
+        log.info("Log de leituras reaplicado: {} leitura(s) após a sequência {}", sequenciaAplicada - inicio, inicio);
+    }
+
+    /**
+     * Aplica ao banco, em lotes, todas as leituras duráveis ainda não aplicadas.
+     * Se um lote falhar, ele é tentado novamente na próxima execução; após
+     * maximoTentativas falhas seguidas, é aplicado registro a registro.
+     */
+    @Scheduled(fixedDelayString = "${leituras.log.intervalo-aplicacao-ms:100}")
+    public synchronized void aplicarPendentes() {
+        if (!logLeituras.isHabilitado() || sequenciaAplicada < 0) {
+            return;
+        }
+        while (true) {
+            List<RegistroLog> registros = logLeituras.ler(sequenciaAplicada, tamanhoLote);
+            if (registros.isEmpty()) {
+                break;
+            }
+            if (falhasConsecutivas >= maximoTentativas) {
+                if (!aplicarIndividualmente(registros)) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                contabilizar(registros, leituraService.aplicarRegistrosLog(registros));
+            } catch (Exception e) {
+                registrarFalha(e);
+                return;
+            }
+            lotesAplicados.increment();
+        }
+        if (descartarAplicados) {
+            logLeituras.descartarAte(sequenciaAplicada);
+        }
+    }
+
+    /**
+     * Aplica os registros de um lote que falhou repetidamente um a um, rejeitando os que
+     * falham sozinhos. Para no primeiro registro que falha com o banco fora do ar.
+     *
+     * @return true se todos os registros foram aplicados ou rejeitados
+     */
+    private boolean aplicarIndividualmente(List<RegistroLog> registros) {
+        for (RegistroLog registro : registros) {
+            try {
+                contabilizar(List.of(registro), leituraService.aplicarRegistrosLog(List.of(registro)));
+            } catch (Exception e) {
+                if (!bancoDisponivel()) {
+                    registrarFalha(e);
+                    return false;
+                }
+                registrosRejeitados.increment();
+                sequenciaAplicada = registro.sequencia();
+                log.error("Registro do log rejeitado após {} falhas do lote: {}", maximoTentativas, registro, e);
+            }
+        }
+        falhasConsecutivas = 0;
+        falhandoDesde = 0;
+        return true;
+    }
+
+    private boolean bancoDisponivel() {
+        try {
+            leituraRepository.findMaxSequenciaLog();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void contabilizar(List<RegistroLog> registros, int aplicadas) {
+        long ultima = registros.get(registros.size() - 1).sequencia();
+        int semSensor = registros.size() - aplicadas;
+        if (semSensor > 0) {
+            registrosSemSensor.add(semSensor);
+            log.warn("{} registro(s) do log descartados por sensor inexistente (sequências {} a {})",
+                    semSensor, registros.get(0).sequencia(), ultima);
+        }
+        leiturasAplicadas.add(aplicadas);
+        sequenciaAplicada = ultima;
+        falhasConsecutivas = 0;
+        falhandoDesde = 0;
+    }
+
+    private void registrarFalha(Exception e) {
+        falhas.increment();
+        if (falhasConsecutivas++ == 0) {
+            falhandoDesde = System.currentTimeMillis();
+        }
+        log.warn("Falha {} ao aplicar leituras do log após a sequência {}: {}",
+                falhasConsecutivas, sequenciaAplicada, e.getMessage());
+    }
+
+    public long getSequenciaAplicada() {
+        return sequenciaAplicada;
+    }
+
+    /**
+     * Retorna as métricas do log de leituras e da sua aplicação ao banco.
+     *
+     * @return Map com as métricas do log, sequência aplicada, atraso em leituras e bloqueio da aplicação
+     */
+    public Map<String, Object> obterMetricas() {
+        Map<String, Object> metricas = new LinkedHashMap<>(logLeituras.obterMetricas());
+        metricas.put("sequenciaAplicada", sequenciaAplicada);
+        metricas.put("atrasoAplicacao", Math.max(logLeituras.getSequenciaDuravel() - sequenciaAplicada, 0));
+        metricas.put("leiturasAplicadas", leiturasAplicadas.sum());
+        metricas.put("lotesAplicados", lotesAplicados.sum());
+        metricas.put("falhasAplicacao", falhas.sum());
+        metricas.put("registrosSemSensor", registrosSemSensor.sum());
+        metricas.put("registrosRejeitados", registrosRejeitados.sum());
+        metricas.put("falhasConsecutivas", falhasConsecutivas);
+        long desde = falhandoDesde;
+        metricas.put("aplicacaoParadaMs", desde > 0 ? System.currentTimeMillis() - desde : 0);
+        return metricas;
+    }
+}
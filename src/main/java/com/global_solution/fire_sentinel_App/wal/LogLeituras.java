@@ -0,0 +1,494 @@
+package com.global_solution.fire_sentinel_App.wal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Log de leituras somente-anexação, em segmentos de arquivo mapeados em memória.
+ * A ingestão grava a leitura no log antes de qualquer acesso ao banco; o ponto de
+ * durabilidade passa a ser a gravação no log, e não a transação JPA.
+ *
+ * As gravações são sincronizadas com o disco em grupo (group commit): uma thread
+ * força os segmentos a cada intervalo configurado e todas as leituras gravadas
+ * nesse intervalo ficam duráveis com uma única sincronização. Com intervalo 0 cada
+ * gravação sincroniza o log antes de retornar.
+ *
+ * Cada registro tem tamanho fixo (64 bytes) e termina com um CRC32; na abertura o
+ * log é percorrido até o último registro íntegro, descartando uma cauda incompleta.
+ * As sequências vêm dos próprios segmentos; um diretório vazio recomeçaria em 1, por
+ * isso AplicadorLogLeituras alinha a numeração com o banco (avancarSequencia) antes
+ * de a ingestão começar.
+ */
+@Component
+public class LogLeituras {
+
+    private static final Logger log = LoggerFactory.getLogger(LogLeituras.class);
+
+    // sequência, sensor, segundos, nanos, 4 métricas e CRC32
+    static final int TAMANHO_REGISTRO = 8 + 8 + 8 + 4 + 4 * 8 + 4;
+    private static final int TAMANHO_DADOS = TAMANHO_REGISTRO - 4;
+    private static final String PREFIXO = "leituras-";
+    private static final String SUFIXO = ".log";
+
+    private final boolean habilitado;
+    private final Path diretorio;
+    private final int registrosPorSegmento;
+    private final long intervaloSincronizacaoMs;
+
+    private final List<Segmento> segmentos = new CopyOnWriteArrayList<>();
+    private final Object monitorSincronizacao = new Object();
+    private final Object monitorDurabilidade = new Object();
+
+    private Segmento atual;
+    private long proximaSequencia = 1;
+    private volatile long sequenciaEscrita;
+    private volatile long sequenciaDuravel;
+    private volatile boolean aberto;
+    private Thread threadSincronizacao;
+
+    private final LongAdder registrosGravados = new LongAdder();
+    private final LongAdder sincronizacoes = new LongAdder();
+    private final LongAdder falhasSincronizacao = new LongAdder();
+
+    public LogLeituras(@Value("${leituras.log.habilitado:false}") boolean habilitado,
+            @Value("${leituras.log.diretorio:dados/log-leituras}") String diretorio,
+            @Value("${leituras.log.tamanho-segmento-bytes:67108864}") long tamanhoSegmentoBytes,
+            @Value("${leituras.log.intervalo-fsync-ms:10}") long intervaloSincronizacaoMs) {
+        if (tamanhoSegmentoBytes < TAMANHO_REGISTRO || tamanhoSegmentoBytes / TAMANHO_REGISTRO > Integer.MAX_VALUE / TAMANHO_REGISTRO) {
+            throw new IllegalArgumentException("Tamanho de segmento inválido: " + tamanhoSegmentoBytes);
+        }
+        this.habilitado = habilitado;
+        this.diretorio = Path.of(diretorio);
+        this.registrosPorSegmento = (int) (tamanhoSegmentoBytes / TAMANHO_REGISTRO);
+        this.intervaloSincronizacaoMs = intervaloSincronizacaoMs;
+    }
+
+    /**
+     * Abre (ou cria) o log e recupera a posição da última leitura íntegra.
+     */
+    @PostConstruct
+    public synchronized void abrir() {
+        if (!habilitado || aberto) {
+            return;
+        }
+        try {
+            Files.createDirectories(diretorio);
+            List<Path> arquivos;
+            try (Stream<Path> listagem = Files.list(diretorio)) {
+                arquivos = listagem
+                        .filter(arquivo -> arquivo.getFileName().toString().startsWith(PREFIXO)
+                                && arquivo.getFileName().toString().endsWith(SUFIXO))
+                        .sorted()
+                        .toList();
+            }
+            for (Path arquivo : arquivos) {
+                String nome = arquivo.getFileName().toString();
+                long primeira = Long.parseLong(nome.substring(PREFIXO.length(), nome.length() - SUFIXO.length()));
+                int capacidade = (int) Math.max(Files.size(arquivo) / TAMANHO_REGISTRO, 1);
+                segmentos.add(Segmento.abrir(arquivo, primeira, capacidade));
+            }
+            if (segmentos.isEmpty()) {
+                segmentos.add(criarSegmento(1));
+            }
+            atual = segmentos.get(segmentos.size() - 1);
+            int validos = recuperar(atual);
+            proximaSequencia = atual.primeiraSequencia + validos;
+            sequenciaEscrita = proximaSequencia - 1;
+            sequenciaDuravel = sequenciaEscrita;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir o log de leituras em " + diretorio, e);
+        }
+        aberto = true;
+        if (intervaloSincronizacaoMs > 0) {
+            threadSincronizacao = new Thread(this::sincronizarPeriodicamente, "log-leituras-fsync");
+            threadSincronizacao.setDaemon(true);
+            threadSincronizacao.start();
+        }
+        log.info("Log de leituras aberto em {}: {} segmento(s), última sequência {}",
+                diretorio, segmentos.size(), sequenciaEscrita);
+    }
+
+    /**
+     * Sincroniza o que estiver pendente e fecha os segmentos.
+     */
+    @PreDestroy
+    public void fechar() {
+        if (!aberto) {
+            return;
+        }
+        aberto = false;
+        if (threadSincronizacao != null) {
+            LockSupport.unpark(threadSincronizacao);
+            try {
+                threadSincronizacao.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        sincronizar();
+        synchronized (this) {
+            segmentos.forEach(Segmento::fechar);
+            segmentos.clear();
+            atual = null;
+        }
+        synchronized (monitorDurabilidade) {
+            monitorDurabilidade.notifyAll();
+        }
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Grava leituras no log e aguarda até que estejam sincronizadas com o disco.
+     * Chamadas concorrentes dentro do mesmo intervalo compartilham a sincronização.
+     *
+     * @param leituras leituras já validadas, com sensor e data/hora definidos
+     * @return long sequência da última leitura gravada
+     * @throws IllegalStateException se o log estiver fechado ou a espera for interrompida
+     */
+    public long anexar(List<LeituraDTO> leituras) {
+        long ultima;
+        synchronized (this) {
+            if (!aberto) {
+                throw new IllegalStateException("Log de leituras fechado");
+            }
+            for (LeituraDTO leitura : leituras) {
+                if (proximaSequencia - atual.primeiraSequencia >= atual.capacidade) {
+                    atual = criarSegmento(proximaSequencia);
+                    segmentos.add(atual);
+                }
+                atual.gravar(proximaSequencia, leitura);
+                proximaSequencia++;
+            }
+            ultima = proximaSequencia - 1;
+            sequenciaEscrita = ultima;
+        }
+        registrosGravados.add(leituras.size());
+        aguardarDurabilidade(ultima);
+        return ultima;
+    }
+
+    /**
+     * Lê as leituras duráveis gravadas após uma sequência.
+     *
+     * @param aposSequencia última sequência já consumida
+     * @param maximo quantidade máxima de registros retornados
+     * @return List<RegistroLog> registros em ordem de sequência
+     */
+    public List<RegistroLog> ler(long aposSequencia, int maximo) {
+        long ate = Math.min(sequenciaDuravel, aposSequencia + maximo);
+        List<RegistroLog> registros = new ArrayList<>((int) Math.max(ate - aposSequencia, 0));
+        Segmento segmento = null;
+        for (long sequencia = aposSequencia + 1; sequencia <= ate; sequencia++) {
+            if (segmento == null || !segmento.contem(sequencia)) {
+                segmento = localizar(sequencia);
+                if (segmento == null) {
+                    // Segmento já descartado: continua do primeiro segmento disponível
+                    continue;
+                }
+            }
+            registros.add(segmento.ler(sequencia));
+        }
+        return registros;
+    }
+
+    /**
+     * Remove os segmentos cujas leituras já foram todas aplicadas ao banco.
+     * O segmento em uso nunca é removido.
+     *
+     * @param sequenciaAplicada última sequência aplicada
+     * @return int quantidade de segmentos removidos
+     */
+    public synchronized int descartarAte(long sequenciaAplicada) {
+        int removidos = 0;
+        for (Segmento segmento : segmentos) {
+            if (segmento != atual && segmento.ultimaSequencia() <= sequenciaAplicada
+                    && segmento.ultimaSequencia() <= sequenciaDuravel) {
+                segmentos.remove(segmento);
+                segmento.fechar();
+                try {
+                    Files.deleteIfExists(segmento.arquivo);
+                    removidos++;
+                } catch (IOException e) {
+                    log.warn("Falha ao remover segmento {}: {}", segmento.arquivo, e.getMessage());
+                }
+            }
+        }
+        return removidos;
+    }
+
+    /**
+     * Garante que as próximas sequências sejam maiores que a maior sequência já aplicada
+     * ao banco. Se o log está vazio (diretório perdido ou recriado), a numeração é retomada
+     * em um segmento novo logo após essa sequência; caso contrário as leituras novas teriam
+     * sequências já aplicadas e seriam ignoradas pela reaplicação.
+     *
+     * @param sequenciaNoBanco maior sequência do log presente no banco
+     * @return boolean true se a numeração foi avançada
+     * @throws IllegalStateException se o log tem registros, mas termina antes da sequência
+     *         do banco (log de outra instalação ou restaurado de uma cópia antiga)
+     */
+    public synchronized boolean avancarSequencia(long sequenciaNoBanco) {
+        if (!aberto || proximaSequencia > sequenciaNoBanco) {
+            return false;
+        }
+        if (segmentos.size() > 1 || proximaSequencia != atual.primeiraSequencia) {
+            throw new IllegalStateException("O log de leituras em " + diretorio + " termina na sequência "
+                    + (proximaSequencia - 1) + ", antes da sequência " + sequenciaNoBanco + " já aplicada ao banco");
+        }
+        Segmento vazio = atual;
+        atual = criarSegmento(sequenciaNoBanco + 1);
+        segmentos.add(atual);
+        segmentos.remove(vazio);
+        vazio.fechar();
+        try {
+            Files.deleteIfExists(vazio.arquivo);
+        } catch (IOException e) {
+            log.warn("Falha ao remover segmento vazio {}: {}", vazio.arquivo, e.getMessage());
+        }
+        proximaSequencia = sequenciaNoBanco + 1;
+        sequenciaEscrita = sequenciaNoBanco;
+        sequenciaDuravel = sequenciaNoBanco;
+        log.warn("Log de leituras vazio em {}: numeração retomada após a sequência {} do banco",
+                diretorio, sequenciaNoBanco);
+        return true;
+    }
+
+    public long getSequenciaDuravel() {
+        return sequenciaDuravel;
+    }
+
+    /**
+     * Retorna as métricas do log de leituras.
+     *
+     * @return Map com sequências, sincronizações e registros por sincronização
+     */
+    public Map<String, Object> obterMetricas() {
+        long gravados = registrosGravados.sum();
+        long totalSincronizacoes = sincronizacoes.sum();
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("habilitado", habilitado);
+        metricas.put("sequenciaEscrita", sequenciaEscrita);
+        metricas.put("sequenciaDuravel", sequenciaDuravel);
+        metricas.put("registrosGravados", gravados);
+        metricas.put("sincronizacoes", totalSincronizacoes);
+        metricas.put("registrosPorSincronizacao", totalSincronizacoes == 0 ? 0.0 : (double) gravados / totalSincronizacoes);
+        metricas.put("falhasSincronizacao", falhasSincronizacao.sum());
+        metricas.put("segmentos", segmentos.size());
+        return metricas;
+    }
+
+    private void aguardarDurabilidade(long sequencia) {
+        if (intervaloSincronizacaoMs <= 0) {
+            sincronizar();
+        }
+        synchronized (monitorDurabilidade) {
+            while (sequenciaDuravel < sequencia) {
+                if (!aberto) {
+                    throw new IllegalStateException("Log de leituras fechado antes da sincronização");
+                }
+                try {
+                    monitorDurabilidade.wait(intervaloSincronizacaoMs + 1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrompido aguardando a sincronização do log", e);
+                }
+            }
+        }
+    }
+
+    private void sincronizarPeriodicamente() {
+        while (aberto) {
+            LockSupport.parkNanos(intervaloSincronizacaoMs * 1_000_000L);
+            sincronizar();
+        }
+    }
+
+    /**
+     * Força para o disco todos os segmentos com gravações ainda não sincronizadas
+     * e libera quem estiver aguardando por elas.
+     */
+    private void sincronizar() {
+        synchronized (monitorSincronizacao) {
+            long alvo = sequenciaEscrita;
+            if (alvo <= sequenciaDuravel) {
+                return;
+            }
+            try {
+                for (Segmento segmento : segmentos) {
+                    if (segmento.ultimaSequencia() > sequenciaDuravel && segmento.primeiraSequencia <= alvo) {
+                        segmento.buffer.force();
+                    }
+                }
+            } catch (RuntimeException e) {
+                falhasSincronizacao.increment();
+                log.error("Falha ao sincronizar o log de leituras: {}", e.getMessage());
+                return;
+            }
+            sincronizacoes.increment();
+            sequenciaDuravel = alvo;
+        }
+        synchronized (monitorDurabilidade) {
+            monitorDurabilidade.notifyAll();
+        }
+    }
+
+    private Segmento localizar(long sequencia) {
+        for (int i = segmentos.size() - 1; i >= 0; i--) {
+            Segmento segmento = segmentos.get(i);
+            if (segmento.contem(sequencia)) {
+                return segmento;
+            }
+        }
+        return null;
+    }
+
+    private Segmento criarSegmento(long primeiraSequencia) {
+        Path arquivo = diretorio.resolve(String.format("%s%020d%s", PREFIXO, primeiraSequencia, SUFIXO));
+        try {
+            return Segmento.abrir(arquivo, primeiraSequencia, registrosPorSegmento);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao criar segmento do log de leituras " + arquivo, e);
+        }
+    }
+
+    /**
+     * Percorre o segmento até o primeiro registro fora de sequência ou com CRC inválido
+     * e zera o que houver depois dele, para que restos de uma gravação interrompida
+     * nunca sejam lidos como leituras válidas.
+     */
+    private int recuperar(Segmento segmento) {
+        int validos = 0;
+        while (validos < segmento.capacidade && segmento.integro(validos, segmento.primeiraSequencia + validos)) {
+            validos++;
+        }
+        int ultimoSujo = -1;
+        for (int indice = validos; indice < segmento.capacidade; indice++) {
+            if (segmento.buffer.getLong(indice * TAMANHO_REGISTRO) != 0) {
+                ultimoSujo = indice;
+            }
+        }
+        if (ultimoSujo >= 0) {
+            log.warn("Descartando {} registro(s) incompletos no fim do log {}", ultimoSujo - validos + 1, segmento.arquivo);
+            byte[] zeros = new byte[TAMANHO_REGISTRO];
+            for (int indice = validos; indice <= ultimoSujo; indice++) {
+                segmento.buffer.put(indice * TAMANHO_REGISTRO, zeros);
+            }
+            segmento.buffer.force();
+        }
+        return validos;
+    }
+
+    private static final class Segmento {
+
+        private final Path arquivo;
+        private final long primeiraSequencia;
+        private final int capacidade;
+        private final FileChannel canal;
+        private final MappedByteBuffer buffer;
+
+        private Segmento(Path arquivo, long primeiraSequencia, int capacidade, FileChannel canal, MappedByteBuffer buffer) {
+            this.arquivo = arquivo;
+            this.primeiraSequencia = primeiraSequencia;
+            this.capacidade = capacidade;
+            this.canal = canal;
+            this.buffer = buffer;
+        }
+
+        static Segmento abrir(Path arquivo, long primeiraSequencia, int capacidade) throws IOException {
+            FileChannel canal = FileChannel.open(arquivo,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacidade * TAMANHO_REGISTRO);
+            return new Segmento(arquivo, primeiraSequencia, capacidade, canal, buffer);
+        }
+
+        long ultimaSequencia() {
+            return primeiraSequencia + capacidade - 1;
+        }
+
+        boolean contem(long sequencia) {
+            return sequencia >= primeiraSequencia && sequencia <= ultimaSequencia();
+        }
+
+        void gravar(long sequencia, LeituraDTO leitura) {
+            int posicao = (int) (sequencia - primeiraSequencia) * TAMANHO_REGISTRO;
+            LocalDateTime dataHora = leitura.getDataHora();
+            buffer.putLong(posicao, sequencia);
+            buffer.putLong(posicao + 8, leitura.getSensorId());
+            buffer.putLong(posicao + 16, dataHora.toEpochSecond(ZoneOffset.UTC));
+            buffer.putInt(posicao + 24, dataHora.getNano());
+            buffer.putDouble(posicao + 28, valorOuNaN(leitura.getTemperatura()));
+            buffer.putDouble(posicao + 36, valorOuNaN(leitura.getUmidade()));
+            buffer.putDouble(posicao + 44, valorOuNaN(leitura.getNivelFumaca()));
+            buffer.putDouble(posicao + 52, valorOuNaN(leitura.getCo2()));
+            buffer.putInt(posicao + TAMANHO_DADOS, crc(posicao));
+        }
+
+        RegistroLog ler(long sequencia) {
+            int posicao = (int) (sequencia - primeiraSequencia) * TAMANHO_REGISTRO;
+            LeituraDTO leitura = new LeituraDTO();
+            leitura.setSensorId(buffer.getLong(posicao + 8));
+            leitura.setDataHora(LocalDateTime.ofEpochSecond(buffer.getLong(posicao + 16), buffer.getInt(posicao + 24), ZoneOffset.UTC));
+            leitura.setTemperatura(valorOuNulo(buffer.getDouble(posicao + 28)));
+            leitura.setUmidade(valorOuNulo(buffer.getDouble(posicao + 36)));
+            leitura.setNivelFumaca(valorOuNulo(buffer.getDouble(posicao + 44)));
+            leitura.setCo2(valorOuNulo(buffer.getDouble(posicao + 52)));
+            return new RegistroLog(sequencia, leitura);
+        }
+
+        boolean integro(int indice, long sequenciaEsperada) {
+            int posicao = indice * TAMANHO_REGISTRO;
+            return buffer.getLong(posicao) == sequenciaEsperada && buffer.getInt(posicao + TAMANHO_DADOS) == crc(posicao);
+        }
+
+        void fechar() {
+            try {
+                canal.close();
+            } catch (IOException e) {
+                log.warn("Falha ao fechar segmento {}: {}", arquivo, e.getMessage());
+            }
+        }
+
+        private int crc(int posicao) {
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(posicao, TAMANHO_DADOS));
+            return (int) crc.getValue();
+        }
+
+        private static double valorOuNaN(Double valor) {
+            return valor != null ? valor : Double.NaN;
+        }
+
+        private static Double valorOuNulo(double valor) {
+            return Double.isNaN(valor) ? null : valor;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.global_solution.fire_sentinel_App.wal;
+
+import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+
+/**
+ * Leitura gravada no log, com a sequência atribuída no momento da gravação.
+ *
+ * @param sequencia posição da leitura no log (crescente, começando em 1)
+ * @param leitura dados da leitura (sem ID; sensor, data/hora e métricas)
+ */
+public record RegistroLog(long sequencia, LeituraDTO leitura) {
+}
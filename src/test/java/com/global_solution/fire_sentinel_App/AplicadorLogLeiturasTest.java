@@ -0,0 +1,203 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.SensorDTO;
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.repository.LeituraRepository;
+import com.global_solution.fire_sentinel_App.service.LeituraService;
+import com.global_solution.fire_sentinel_App.service.SensorService;
+import com.global_solution.fire_sentinel_App.wal.AplicadorLogLeituras;
+import com.global_solution.fire_sentinel_App.wal.LogLeituras;
+import com.global_solution.fire_sentinel_App.wal.RegistroLog;
+
+@TesteIntegracao
+class AplicadorLogLeiturasTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 10, 1, 8, 0);
+
+    @Autowired
+    private LeituraService leituraService;
+
+    @Autowired
+    private SensorService sensorService;
+
+    @Autowired
+    private LeituraRepository leituraRepository;
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void testReaplicaOLogNaInicializacaoSemDuplicar() {
+        Sensor sensor = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Log", "Temperatura", "Pampa", -30.0, -53.0, true));
+
+        LogLeituras logLeituras = new LogLeituras(true, diretorio.toString(), 1024 * 1024, 0);
+        logLeituras.abrir();
+        List<LeituraDTO> leituras = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            leituras.add(leitura(sensor.getId(), i));
+        }
+        leituras.add(leitura(-1L, 99)); // sensor removido depois de aceito pelo log
+        logLeituras.anexar(leituras);
+
+        // Primeira inicialização aplica tudo; a segunda (após uma "queda") não duplica
+        AplicadorLogLeituras aplicador = criarAplicador(logLeituras);
+        aplicador.reaplicar();
+        assertEquals(8, aplicador.getSequenciaAplicada());
+        logLeituras.anexar(List.of(leitura(sensor.getId(), 7)));
+        logLeituras.fechar();
+
+        LogLeituras reaberto = new LogLeituras(true, diretorio.toString(), 1024 * 1024, 0);
+        reaberto.abrir();
+        AplicadorLogLeituras aposQueda = criarAplicador(reaberto);
+        aposQueda.reaplicar();
+        reaberto.fechar();
+
+        List<Leitura> gravadas = leituraRepository.findBySensorIdOrderByDataHoraDesc(sensor.getId());
+        assertEquals(8, gravadas.size());
+        assertEquals(9L, gravadas.get(0).getSequenciaLog());
+        assertEquals(BASE.plusMinutes(7), gravadas.get(0).getDataHora());
+        assertEquals(1L, aplicador.obterMetricas().get("registrosSemSensor"));
+        // O registro sem sensor não chega ao banco: é reaplicado e descartado de novo após a queda
+        assertEquals(1L, aposQueda.obterMetricas().get("registrosSemSensor"));
+        System.out.println("Aplicação do log: " + aposQueda.obterMetricas());
+    }
+
+    @Test
+    void testLoteQueSempreFalhaEAplicadoRegistroARegistro() {
+        Sensor sensor = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Log Rejeitado", "Temperatura", "Pampa", -30.1, -53.1, true));
+
+        LogLeituras logLeituras = new LogLeituras(true, diretorio.toString(), 1024 * 1024, 0);
+        logLeituras.abrir();
+        List<LeituraDTO> leituras = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            leituras.add(leitura(sensor.getId(), i));
+        }
+        logLeituras.anexar(leituras);
+
+        // O registro de sequência 2 sempre faz o lote falhar, como um registro corrompido
+        AplicadorLogLeituras aplicador = criarAplicador(logLeituras, servicoRejeitando(2L));
+        ReflectionTestUtils.setField(aplicador, "maximoTentativas", 2);
+        // Aplica a partir do início deste log, independente das sequências já gravadas por outros testes
+        ReflectionTestUtils.setField(aplicador, "sequenciaAplicada", 0L);
+        aplicador.aplicarPendentes();
+        assertEquals(0, aplicador.getSequenciaAplicada());
+        Map<String, Object> parada = aplicador.obterMetricas();
+        assertEquals(1, parada.get("falhasConsecutivas"));
+
+        aplicador.aplicarPendentes();
+        assertEquals(2, aplicador.obterMetricas().get("falhasConsecutivas"));
+        aplicador.aplicarPendentes();
+        logLeituras.fechar();
+
+        Map<String, Object> metricas = aplicador.obterMetricas();
+        assertEquals(6, aplicador.getSequenciaAplicada());
+        assertEquals(1L, metricas.get("registrosRejeitados"));
+        assertEquals(5L, metricas.get("leiturasAplicadas"));
+        assertEquals(0, metricas.get("falhasConsecutivas"));
+        assertEquals(0L, metricas.get("aplicacaoParadaMs"));
+        List<Leitura> gravadas = leituraRepository.findBySensorIdOrderByDataHoraDesc(sensor.getId());
+        assertEquals(5, gravadas.size());
+        assertTrue(gravadas.stream().noneMatch(leitura -> leitura.getSequenciaLog() == 2L));
+        System.out.println("Aplicação do log com rejeição: " + metricas);
+        // Não deixa as sequências deste log como ponto de partida da reaplicação de outros testes
+        gravadas.forEach(leitura -> leitura.setSequenciaLog(null));
+        leituraRepository.saveAll(gravadas);
+    }
+
+    @Test
+    void testDiretorioDoLogRecriadoContinuaAposASequenciaDoBanco() {
+        Sensor sensor = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Log Recriado", "Temperatura", "Pampa", -30.2, -53.2, true));
+
+        LogLeituras original = new LogLeituras(true, diretorio.resolve("original").toString(), 1024 * 1024, 0);
+        original.abrir();
+        original.anexar(List.of(leitura(sensor.getId(), 0), leitura(sensor.getId(), 1), leitura(sensor.getId(), 2)));
+        AplicadorLogLeituras aplicador = criarAplicador(original);
+        aplicador.validar();
+        aplicador.reaplicar();
+        original.fechar();
+        long ultimaNoBanco = leituraRepository.findMaxSequenciaLog();
+
+        // Volume do log perdido: o diretório novo retoma a numeração após a sequência do banco
+        LogLeituras recriado = new LogLeituras(true, diretorio.resolve("recriado").toString(), 1024 * 1024, 0);
+        recriado.abrir();
+        AplicadorLogLeituras aposPerda = criarAplicador(recriado);
+        aposPerda.validar();
+        assertEquals(ultimaNoBanco + 2,
+                recriado.anexar(List.of(leitura(sensor.getId(), 3), leitura(sensor.getId(), 4))));
+        aposPerda.reaplicar();
+        recriado.fechar();
+
+        List<Leitura> gravadas = leituraRepository.findBySensorIdOrderByDataHoraDesc(sensor.getId());
+        assertEquals(5, gravadas.size());
+        assertEquals(ultimaNoBanco + 2, gravadas.get(0).getSequenciaLog());
+
+        // Um log com registros que termina antes da sequência do banco não é aceito
+        LogLeituras antigo = new LogLeituras(true, diretorio.resolve("antigo").toString(), 1024 * 1024, 0);
+        antigo.abrir();
+        antigo.anexar(List.of(leitura(sensor.getId(), 5)));
+        assertThrows(IllegalStateException.class, () -> criarAplicador(antigo).validar());
+        antigo.fechar();
+
+        gravadas.forEach(leitura -> leitura.setSequenciaLog(null));
+        leituraRepository.saveAll(gravadas);
+    }
+
+    private LeituraService servicoRejeitando(long sequencia) {
+        return (LeituraService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { LeituraService.class }, (proxy, metodo, argumentos) -> {
+                    if (metodo.getName().equals("aplicarRegistrosLog") && ((List<?>) argumentos[0]).stream()
+                            .anyMatch(registro -> ((RegistroLog) registro).sequencia() == sequencia)) {
+                        throw new IllegalArgumentException("Registro inválido: " + sequencia);
+                    }
+                    try {
+                        return metodo.invoke(leituraService, argumentos);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private AplicadorLogLeituras criarAplicador(LogLeituras logLeituras) {
+        return criarAplicador(logLeituras, leituraService);
+    }
+
+    private AplicadorLogLeituras criarAplicador(LogLeituras logLeituras, LeituraService servico) {
+        AplicadorLogLeituras aplicador = new AplicadorLogLeituras();
+        ReflectionTestUtils.setField(aplicador, "logLeituras", logLeituras);
+        ReflectionTestUtils.setField(aplicador, "leituraService", servico);
+        ReflectionTestUtils.setField(aplicador, "leituraRepository", leituraRepository);
+        ReflectionTestUtils.setField(aplicador, "tamanhoLote", 3);
+        return aplicador;
+    }
+
+    private LeituraDTO leitura(Long sensorId, int minutos) {
+        LeituraDTO dto = new LeituraDTO();
+        dto.setSensorId(sensorId);
+        dto.setDataHora(BASE.plusMinutes(minutos));
+        dto.setTemperatura(26.0 + minutos);
+        dto.setUmidade(40.0);
+        dto.setNivelFumaca(0.2);
+        dto.setCo2(410.0);
+        return dto;
+    }
+}
@@ -0,0 +1,106 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.RiscoDTO;
+import com.global_solution.fire_sentinel_App.dto.SensorDTO;
+import com.global_solution.fire_sentinel_App.ia.AvaliadorRiscoLocal;
+import com.global_solution.fire_sentinel_App.ia.IAEngine;
+import com.global_solution.fire_sentinel_App.ia.ModoAnaliseRisco;
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.model.SensorData;
+import com.global_solution.fire_sentinel_App.service.LeituraService;
+import com.global_solution.fire_sentinel_App.service.RiscoService;
+import com.global_solution.fire_sentinel_App.service.SensorService;
+
+@TesteIntegracao
+class AvaliadorRiscoLocalTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 10, 1, 14, 0);
+
+    @Autowired
+    private LeituraService leituraService;
+
+    @Autowired
+    private SensorService sensorService;
+
+    @Autowired
+    private RiscoService riscoService;
+
+    @Autowired
+    private AvaliadorRiscoLocal avaliadorRiscoLocal;
+
+    @Test
+    void testModoHibridoSoConsultaAApiNaFaixaAmbigua() {
+        assertEquals(ModoAnaliseRisco.HIBRIDO, avaliadorRiscoLocal.getModo());
+        Sensor sensor = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Risco Local", "Multissensor", "Pantanal", -18.0, -56.0, true));
+        Map<String, Object> antes = avaliadorRiscoLocal.obterMetricas();
+
+        // Faixa segura: respondida localmente, sem chamada à API
+        RiscoDTO seguro = analisar(sensor, 22.0, 60.0, 0.1);
+        assertEquals("BAIXO", seguro.getCategoria());
+        assertTrue(seguro.getNivelRisco() < 0.4);
+        assertNotNull(seguro.getId());
+
+        // Faixa crítica: também conclusiva, o alerta não espera a API
+        RiscoDTO critico = analisar(sensor, 50.0, 5.0, 100.0);
+        assertEquals("CRÍTICO", critico.getCategoria());
+
+        // Faixa ambígua: escalada à API, que está fora do ar; a análise local é o fallback
+        RiscoDTO ambiguo = analisar(sensor, 38.0, 25.0, 30.0);
+        assertEquals("MÉDIO", ambiguo.getCategoria());
+        assertEquals(0.525, ambiguo.getNivelRisco(), 1e-9);
+        assertTrue(ambiguo.getDescricao().contains("API indisponível"));
+
+        // Com o pipeline desabilitado a ingestão já analisa cada leitura uma vez:
+        // cada leitura do teste é analisada duas vezes
+        Map<String, Object> depois = avaliadorRiscoLocal.obterMetricas();
+        assertEquals(4L, diferenca(antes, depois, "chamadasRemotasEvitadas"));
+        assertEquals(2L, diferenca(antes, depois, "escalonamentosRemotos"));
+        assertEquals(2L, diferenca(antes, depois, "fallbacksLocais"));
+        System.out.println("Análise de risco local: " + depois);
+    }
+
+    @Test
+    void testSeveridadeComValoresPrimitivosIgualASensorData() {
+        SensorData sensorData = new SensorData();
+        for (double temperatura = 10; temperatura <= 60; temperatura += 5) {
+            for (double umidade = 0; umidade <= 100; umidade += 20) {
+                for (double fumaca = 0; fumaca <= 1; fumaca += 0.25) {
+                    sensorData.setTemperatura(temperatura);
+                    sensorData.setUmidade(umidade);
+                    sensorData.setNivelFumaca(fumaca);
+                    assertEquals(IAEngine.preverSeveridade(sensorData),
+                            IAEngine.preverSeveridade(temperatura, umidade, fumaca));
+                }
+            }
+        }
+        assertEquals("ALTO", AvaliadorRiscoLocal.categorizar(0.6));
+        assertEquals("MÉDIO", AvaliadorRiscoLocal.categorizar(0.59));
+    }
+
+    private RiscoDTO analisar(Sensor sensor, double temperatura, double umidade, double nivelFumaca) {
+        LeituraDTO dto = new LeituraDTO();
+        dto.setSensorId(sensor.getId());
+        dto.setDataHora(BASE);
+        dto.setTemperatura(temperatura);
+        dto.setUmidade(umidade);
+        dto.setNivelFumaca(nivelFumaca);
+        dto.setCo2(400.0);
+        Leitura leitura = leituraService.registrarLeitura(dto);
+        return riscoService.analisarRisco(leitura, sensor);
+    }
+
+    private static long diferenca(Map<String, Object> antes, Map<String, Object> depois, String chave) {
+        return (Long) depois.get(chave) - (Long) antes.get(chave);
+    }
+}
@@ -0,0 +1,128 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.global_solution.fire_sentinel_App.historico.BufferCircularLeituras;
+import com.global_solution.fire_sentinel_App.historico.HistoricoRecenteLeituras;
+import com.global_solution.fire_sentinel_App.historico.JanelaLeituras;
+import com.global_solution.fire_sentinel_App.historico.Metrica;
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.repository.LeituraRepository;
+
+class BufferCircularLeiturasTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 9, 1, 12, 0);
+
+    @Test
+    void testMantemApenasAsUltimasLeiturasEmOrdem() {
+        BufferCircularLeituras buffer = new BufferCircularLeituras(4);
+        for (int i = 0; i < 10; i++) {
+            adicionar(buffer, i, 20.0 + i);
+        }
+
+        JanelaLeituras janela = buffer.copiarJanela();
+        assertEquals(4, janela.tamanho());
+        assertEquals(BASE.plusMinutes(6), janela.getDataHora(0));
+        assertEquals(BASE.plusMinutes(9), janela.getDataHora(3));
+        assertEquals(26.0, janela.valor(Metrica.TEMPERATURA, 0));
+        assertEquals(29.0, janela.ultimo(Metrica.TEMPERATURA));
+    }
+
+    @Test
+    void testLeituraForaDeOrdemInseridaNaPosicaoCronologica() {
+        BufferCircularLeituras buffer = new BufferCircularLeituras(4);
+        adicionar(buffer, 0, 20.0);
+        adicionar(buffer, 10, 22.0);
+        adicionar(buffer, 20, 24.0);
+        adicionar(buffer, 30, 26.0);
+        adicionar(buffer, 15, 23.0);
+        adicionar(buffer, -5, 10.0);
+
+        JanelaLeituras janela = buffer.copiarJanela();
+        assertEquals(4, janela.tamanho());
+        assertEquals(22.0, janela.valor(Metrica.TEMPERATURA, 0));
+        assertEquals(23.0, janela.valor(Metrica.TEMPERATURA, 1));
+        assertEquals(26.0, janela.ultimo(Metrica.TEMPERATURA));
+    }
+
+    @Test
+    void testVariacaoETendencia() {
+        BufferCircularLeituras buffer = new BufferCircularLeituras(8);
+        // +2°C a cada 30 minutos => 4°C por hora
+        for (int i = 0; i < 5; i++) {
+            adicionar(buffer, i * 30, 20.0 + 2 * i);
+        }
+        buffer.adicionar(JanelaLeituras.paraInstante(BASE.plusMinutes(150)), 30.0, Double.NaN, 0.0, 400.0);
+
+        JanelaLeituras janela = buffer.copiarJanela();
+        assertEquals(4.0, janela.tendenciaPorHora(Metrica.TEMPERATURA), 1e-9);
+        assertEquals((30.0 - 28.0) / 28.0 * 100, janela.variacaoPercentual(Metrica.TEMPERATURA), 1e-9);
+        assertEquals(20.0, janela.minimo(Metrica.TEMPERATURA));
+        assertEquals(30.0, janela.maximo(Metrica.TEMPERATURA));
+        assertEquals(50.0, janela.ultimo(Metrica.UMIDADE));
+        // Base zero não gera divisão por zero
+        assertEquals(0.0, janela.variacaoPercentual(Metrica.NIVEL_FUMACA));
+    }
+
+    @Test
+    void testMemoriaFixaPorSensor() {
+        long bytes = BufferCircularLeituras.calcularBytes(64);
+        System.out.println("Memória por sensor (64 leituras): " + bytes + " bytes");
+        assertEquals(bytes, BufferCircularLeituras.calcularBytes(64));
+        assertTrue(bytes >= 64 * 5 * 8);
+    }
+
+    @Test
+    void testHistoricoAquecidoUmaVezPorSensorEDescartadoNaRemocao() {
+        List<Long> consultas = new ArrayList<>();
+        LeituraRepository repositorio = (LeituraRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { LeituraRepository.class }, (proxy, metodo, argumentos) -> {
+                    if (!metodo.getName().equals("findBySensorIdOrderByDataHoraDescIdDesc")) {
+                        throw new UnsupportedOperationException(metodo.getName());
+                    }
+                    consultas.add((Long) argumentos[0]);
+                    return List.of(leitura(10, 22.0), leitura(0, 20.0));
+                });
+        HistoricoRecenteLeituras historico = new HistoricoRecenteLeituras();
+        ReflectionTestUtils.setField(historico, "leituraRepository", repositorio);
+        ReflectionTestUtils.setField(historico, "capacidade", 8);
+
+        assertEquals(2, historico.obterJanela(1L).tamanho());
+        historico.registrar(leitura(20, 24.0));
+        JanelaLeituras janela = historico.obterJanela(1L);
+        assertEquals(3, janela.tamanho());
+        assertEquals(24.0, janela.ultimo(Metrica.TEMPERATURA));
+        assertEquals(List.of(1L), consultas);
+
+        historico.remover(1L);
+        assertEquals(0, historico.obterMetricas().get("sensores"));
+        assertEquals(2, historico.obterJanela(1L).tamanho());
+        assertEquals(2L, historico.obterMetricas().get("aquecimentosDoBanco"));
+    }
+
+    private Leitura leitura(int minutos, double temperatura) {
+        Sensor sensor = new Sensor();
+        sensor.setId(1L);
+        Leitura leitura = new Leitura();
+        leitura.setSensor(sensor);
+        leitura.setDataHora(BASE.plusMinutes(minutos));
+        leitura.setTemperatura(temperatura);
+        leitura.setUmidade(50.0);
+        leitura.setNivelFumaca(0.0);
+        leitura.setCo2(400.0);
+        return leitura;
+    }
+
+    private void adicionar(BufferCircularLeituras buffer, int minutos, double temperatura) {
+        buffer.adicionar(JanelaLeituras.paraInstante(BASE.plusMinutes(minutos)), temperatura, 50.0, 0.0, 400.0);
+    }
+}
@@ -0,0 +1,117 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.RiscoDTO;
+import com.global_solution.fire_sentinel_App.ia.CacheAnalisesRisco;
+
+class CacheAnalisesRiscoTest {
+
+    private static final double[] PASSOS = {0.5, 1.0, 1.0, 10.0};
+
+    @Test
+    void testLeiturasQuaseIdenticasReaproveitamAAnalise() {
+        CacheAnalisesRisco cache = new CacheAnalisesRisco(true, 100, 60_000, PASSOS);
+        cache.guardar("Multissensor", leitura(1L, 25.0, 60.0, 5.0, 400.0), risco(0.55, "MÉDIO"));
+
+        // Variações abaixo do passo caem na mesma chave; a cópia traz a leitura atual
+        RiscoDTO reaproveitado = cache.buscar("Multissensor", leitura(2L, 25.1, 60.3, 5.2, 402.0));
+        assertNotNull(reaproveitado);
+        assertEquals(0.55, reaproveitado.getNivelRisco());
+        assertEquals("MÉDIO", reaproveitado.getCategoria());
+        assertEquals(2L, reaproveitado.getLeituraId());
+
+        // Outro tipo de sensor ou valor fora do passo: falta
+        assertNull(cache.buscar("Fumaça", leitura(3L, 25.0, 60.0, 5.0, 400.0)));
+        assertNull(cache.buscar("Multissensor", leitura(4L, 26.0, 60.0, 5.0, 400.0)));
+        // Métrica ausente não coincide com valor presente
+        assertNull(cache.buscar("Multissensor", leitura(5L, 25.0, 60.0, 5.0, null)));
+
+        Map<String, Object> metricas = cache.obterMetricas();
+        assertEquals(1L, metricas.get("acertos"));
+        assertEquals(3L, metricas.get("faltas"));
+    }
+
+    @Test
+    void testExpiracaoEDespejoLru() throws InterruptedException {
+        CacheAnalisesRisco cache = new CacheAnalisesRisco(true, 2, 60_000, PASSOS);
+        cache.guardar("A", leitura(1L, 20.0, 50.0, 1.0, 400.0), risco(0.5, "MÉDIO"));
+        cache.guardar("B", leitura(2L, 20.0, 50.0, 1.0, 400.0), risco(0.6, "ALTO"));
+        // Uso de A torna B a entrada menos usada recentemente
+        assertNotNull(cache.buscar("A", leitura(3L, 20.0, 50.0, 1.0, 400.0)));
+        cache.guardar("C", leitura(4L, 20.0, 50.0, 1.0, 400.0), risco(0.7, "ALTO"));
+
+        assertNull(cache.buscar("B", leitura(5L, 20.0, 50.0, 1.0, 400.0)));
+        assertNotNull(cache.buscar("A", leitura(6L, 20.0, 50.0, 1.0, 400.0)));
+        assertNotNull(cache.buscar("C", leitura(7L, 20.0, 50.0, 1.0, 400.0)));
+        assertEquals(1L, cache.obterMetricas().get("despejos"));
+
+        CacheAnalisesRisco curto = new CacheAnalisesRisco(true, 10, 50, PASSOS);
+        curto.guardar("A", leitura(1L, 20.0, 50.0, 1.0, 400.0), risco(0.5, "MÉDIO"));
+        Thread.sleep(100);
+        assertNull(curto.buscar("A", leitura(2L, 20.0, 50.0, 1.0, 400.0)));
+        assertEquals(1L, curto.obterMetricas().get("expiracoes"));
+        assertEquals(0, curto.obterMetricas().get("tamanho"));
+    }
+
+    @Test
+    void testTaxaDeAcertoEmRegimeEstavel() {
+        CacheAnalisesRisco cache = new CacheAnalisesRisco(true, 10_000, 60_000, PASSOS);
+        Random aleatorio = new Random(42);
+        int sensores = 200;
+        int chamadasApi = 0;
+        int leituras = 0;
+
+        // Sensores em estado calmo: pequenas oscilações em torno de um ponto fixo
+        for (int rodada = 0; rodada < 50; rodada++) {
+            for (int s = 0; s < sensores; s++) {
+                LeituraDTO leitura = leitura((long) leituras, 22.0 + (s % 10) + aleatorio.nextGaussian() * 0.05,
+                        55.0 + aleatorio.nextGaussian() * 0.1, 1.0 + aleatorio.nextGaussian() * 0.05,
+                        400.0 + aleatorio.nextGaussian() * 1.0);
+                leituras++;
+                if (cache.buscar("Multissensor", leitura) == null) {
+                    chamadasApi++;
+                    cache.guardar("Multissensor", leitura, risco(0.45, "MÉDIO"));
+                }
+            }
+        }
+
+        double taxaAcerto = (double) cache.obterMetricas().get("taxaAcerto");
+        System.out.println("Leituras: " + leituras + ", chamadas à API: " + chamadasApi
+                + ", taxa de acerto: " + String.format("%.3f", taxaAcerto));
+        assertTrue(taxaAcerto > 0.9, "Maioria das análises deveria vir do cache: " + taxaAcerto);
+    }
+
+    @Test
+    void testCacheDesabilitado() {
+        CacheAnalisesRisco cache = new CacheAnalisesRisco(false, 100, 60_000, PASSOS);
+        cache.guardar("A", leitura(1L, 20.0, 50.0, 1.0, 400.0), risco(0.5, "MÉDIO"));
+        assertNull(cache.buscar("A", leitura(2L, 20.0, 50.0, 1.0, 400.0)));
+        assertEquals(0, cache.obterMetricas().get("tamanho"));
+    }
+
+    private static LeituraDTO leitura(Long id, Double temperatura, Double umidade, Double fumaca, Double co2) {
+        LeituraDTO leitura = new LeituraDTO();
+        leitura.setId(id);
+        leitura.setSensorId(1L);
+        leitura.setTemperatura(temperatura);
+        leitura.setUmidade(umidade);
+        leitura.setNivelFumaca(fumaca);
+        leitura.setCo2(co2);
+        return leitura;
+    }
+
+    private static RiscoDTO risco(double nivel, String categoria) {
+        RiscoDTO risco = new RiscoDTO();
+        risco.setNivelRisco(nivel);
+        risco.setCategoria(categoria);
+        risco.setDescricao("Análise da API");
+        return risco;
+    }
+}
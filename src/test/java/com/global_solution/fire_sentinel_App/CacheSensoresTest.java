@@ -0,0 +1,132 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.global_solution.fire_sentinel_App.cache.CacheSensores;
+import com.global_solution.fire_sentinel_App.dto.SensorDTO;
+import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.service.SensorService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@TesteIntegracao
+class CacheSensoresTest {
+
+    @Autowired
+    private CacheSensores cacheSensores;
+
+    @Autowired
+    private SensorService sensorService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void setUp() {
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testAcertosEFaltasContados() {
+        Sensor sensor = cadastrar("Sensor Cache");
+        long acertos = metrica("acertos");
+        long faltas = metrica("faltas");
+
+        estatisticas.clear();
+        assertEquals("Sensor Cache", cacheSensores.buscar(sensor.getId()).orElseThrow().getNome());
+        assertSemAcessoAoBanco();
+        assertEquals(acertos + 1, metrica("acertos"));
+
+        // Fora do cache: uma falta, resolvida no banco e guardada para a próxima busca
+        cacheSensores.remover(sensor.getId());
+        assertTrue(cacheSensores.buscar(sensor.getId()).isPresent());
+        assertTrue(cacheSensores.buscar(-1L).isEmpty());
+        assertEquals(faltas + 2, metrica("faltas"));
+        cacheSensores.buscar(sensor.getId());
+        assertEquals(acertos + 2, metrica("acertos"));
+        System.out.println("Métricas do cache de sensores: " + cacheSensores.obterMetricas());
+    }
+
+    @Test
+    void testBuscarTodosResolveAsFaltasEmUmaConsulta() {
+        Sensor presente = cadastrar("Sensor Presente");
+        Sensor ausente1 = cadastrar("Sensor Ausente 1");
+        Sensor ausente2 = cadastrar("Sensor Ausente 2");
+        cacheSensores.remover(ausente1.getId());
+        cacheSensores.remover(ausente2.getId());
+        long acertos = metrica("acertos");
+        long faltas = metrica("faltas");
+
+        estatisticas.clear();
+        Map<Long, Sensor> encontrados = cacheSensores.buscarTodos(
+                List.of(presente.getId(), ausente1.getId(), ausente2.getId(), -1L));
+
+        System.out.println("Consultas para 3 faltas em buscarTodos: " + consultasSensores());
+        assertEquals(1, consultasSensores());
+        assertEquals(3, encontrados.size());
+        assertEquals("Sensor Ausente 2", encontrados.get(ausente2.getId()).getNome());
+        assertEquals(acertos + 1, metrica("acertos"));
+        assertEquals(faltas + 3, metrica("faltas"));
+
+        // As faltas resolvidas ficam no cache
+        estatisticas.clear();
+        assertEquals(3, cacheSensores.buscarTodos(
+                List.of(presente.getId(), ausente1.getId(), ausente2.getId())).size());
+        assertSemAcessoAoBanco();
+    }
+
+    @Test
+    void testCacheAcompanhaAtualizacaoERemocao() {
+        Sensor sensor = cadastrar("Sensor Original");
+
+        sensorService.atualizarSensor(sensor.getId(),
+                new SensorDTO(null, "Sensor Renomeado", "Fumaça", "Setor Oeste", -10.0, -55.0, false));
+        estatisticas.clear();
+        Sensor emCache = cacheSensores.buscar(sensor.getId()).orElseThrow();
+        assertSemAcessoAoBanco();
+        assertEquals("Sensor Renomeado", emCache.getNome());
+        assertEquals("Setor Oeste", emCache.getLocalizacao());
+        assertFalse(emCache.isAtivo());
+
+        assertTrue(sensorService.removerSensor(sensor.getId()));
+        assertTrue(cacheSensores.listar().stream().noneMatch(s -> s.getId().equals(sensor.getId())));
+        assertTrue(cacheSensores.buscar(sensor.getId()).isEmpty());
+    }
+
+    /**
+     * As gravações periódicas dos agregados também passam pelas estatísticas do Hibernate;
+     * por isso a contagem considera só consultas e carregamentos da tabela sensores.
+     */
+    private long consultasSensores() {
+        return Arrays.stream(estatisticas.getQueries())
+                .filter(sql -> sql.contains(" from sensores "))
+                .mapToLong(sql -> estatisticas.getQueryStatistics(sql).getExecutionCount())
+                .sum();
+    }
+
+    private void assertSemAcessoAoBanco() {
+        assertEquals(0, consultasSensores());
+        assertEquals(0, estatisticas.getEntityStatistics(Sensor.class.getName()).getLoadCount());
+    }
+
+    private Sensor cadastrar(String nome) {
+        return sensorService.cadastrarSensor(
+                new SensorDTO(null, nome, "Temperatura", "Setor Sul", -12.0, -50.0, true));
+    }
+
+    private long metrica(String nome) {
+        return (long) cacheSensores.obterMetricas().get(nome);
+    }
+}
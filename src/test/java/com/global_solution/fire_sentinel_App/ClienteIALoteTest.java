@@ -0,0 +1,368 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.global_solution.fire_sentinel_App.config.AppConfig;
+import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.RiscoDTO;
+import com.global_solution.fire_sentinel_App.ia.ClienteIALote;
+import com.global_solution.fire_sentinel_App.ia.DisjuntorIA;
+import com.global_solution.fire_sentinel_App.ia.EndpointsIA;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class ClienteIALoteTest {
+    
+    private static final String CAMINHO = "/api/analisar-risco";
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final AtomicInteger chamadasLote = new AtomicInteger();
+    private final AtomicInteger chamadasIndividuais = new AtomicInteger();
+    private volatile long atrasoMs;
+    private volatile int statusForcado;
+    private HttpServer servidorIA;
+    private ClienteIALote cliente;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        servidorIA = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidorIA.createContext(CAMINHO, this::responderIndividual);
+        servidorIA.setExecutor(Executors.newCachedThreadPool());
+        servidorIA.start();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (cliente != null) {
+            cliente.encerrar();
+        }
+        servidorIA.stop(0);
+    }
+    
+    @Test
+    void testAgrupaLeiturasConcorrentesEmUmLote() throws Exception {
+        servidorIA.createContext(CAMINHO + "/lote", this::responderLote);
+        cliente = criarCliente(10, 500);
+        
+        List<CompletableFuture<RiscoDTO>> resultados = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            resultados.add(cliente.analisar(criarLeitura(i)));
+        }
+        
+        for (int i = 0; i < 10; i++) {
+            RiscoDTO risco = resultados.get(i).get(5, TimeUnit.SECONDS);
+            assertEquals(i, risco.getNivelRisco() * 100, 0.001);
+            assertEquals((long) i, risco.getSensorId());
+        }
+        assertEquals(1, chamadasLote.get());
+        assertEquals(0, chamadasIndividuais.get());
+    }
+    
+    @Test
+    void testEnviaLoteAoAtingirTempoMaximo() throws Exception {
+        servidorIA.createContext(CAMINHO + "/lote", this::responderLote);
+        cliente = criarCliente(100, 50);
+        
+        CompletableFuture<RiscoDTO> primeiro = cliente.analisar(criarLeitura(1));
+        CompletableFuture<RiscoDTO> segundo = cliente.analisar(criarLeitura(2));
+        
+        // O lote não chega a 100 itens, então deve ser enviado após a espera máxima
+        assertEquals(0.01, primeiro.get(5, TimeUnit.SECONDS).getNivelRisco(), 0.0001);
+        assertEquals(0.02, segundo.get(5, TimeUnit.SECONDS).getNivelRisco(), 0.0001);
+        assertEquals(1, chamadasLote.get());
+    }
+    
+    @Test
+    void testFallbackParaChamadasIndividuaisSemEndpointDeLote() throws Exception {
+        cliente = criarCliente(10, 200);
+        
+        List<CompletableFuture<RiscoDTO>> resultados = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            resultados.add(cliente.analisar(criarLeitura(i)));
+        }
+        
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i / 100.0, resultados.get(i).get(5, TimeUnit.SECONDS).getNivelRisco(), 0.0001);
+        }
+        assertEquals(5, chamadasIndividuais.get());
+        assertEquals(false, cliente.obterMetricas().get("loteSuportado"));
+    }
+    
+    @Test
+    void testTimeoutDeRespostaComApiLenta() throws Exception {
+        atrasoMs = 2000;
+        cliente = criarCliente(new AppConfig().restTemplate(500, 200), 1, 0, 8, new DisjuntorIA(5, 60_000));
+        
+        long inicio = System.nanoTime();
+        ExecutionException erro = assertThrows(ExecutionException.class,
+                () -> cliente.analisar(criarLeitura(1)).get(5, TimeUnit.SECONDS));
+        long decorridoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        
+        assertTrue(decorridoMs < 1500, "a chamada deveria expirar no prazo de resposta, levou " + decorridoMs + " ms");
+        assertInstanceOf(ResourceAccessException.class, erro.getCause());
+    }
+    
+    @Test
+    void testDisjuntorAbreComFalhasEFechaQuandoAApiVolta() throws Exception {
+        statusForcado = 503;
+        DisjuntorIA disjuntor = new DisjuntorIA(3, 300);
+        cliente = criarCliente(new AppConfig().restTemplate(500, 1000), 1, 0, 8, disjuntor);
+        
+        for (int i = 0; i < 3; i++) {
+            CompletableFuture<RiscoDTO> resultado = cliente.analisar(criarLeitura(i));
+            assertThrows(ExecutionException.class, () -> resultado.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(DisjuntorIA.Estado.ABERTO, disjuntor.getEstado());
+        
+        // Aberto: recusa na hora, sem chegar à API
+        int chamadasAntes = chamadasIndividuais.get();
+        CompletableFuture<RiscoDTO> recusado = cliente.analisar(criarLeitura(9));
+        assertTrue(recusado.isCompletedExceptionally());
+        assertEquals(chamadasAntes, chamadasIndividuais.get());
+        
+        // Após o tempo aberto, uma chamada de teste bem-sucedida fecha o disjuntor
+        statusForcado = 0;
+        Thread.sleep(400);
+        assertEquals(0.05, cliente.analisar(criarLeitura(5)).get(5, TimeUnit.SECONDS).getNivelRisco(), 0.0001);
+        assertEquals(DisjuntorIA.Estado.FECHADO, disjuntor.getEstado());
+        System.out.println("Cliente IA com disjuntor: " + cliente.obterMetricas());
+    }
+    
+    @Test
+    void testChamadasIndividuaisParamQuandoODisjuntorAbre() throws Exception {
+        statusForcado = 503;
+        DisjuntorIA disjuntor = new DisjuntorIA(2, 60_000);
+        // Lote desabilitado: um prazo esgotado no POST do lote falharia os 6 pedidos com uma só falha
+        String url = "http://localhost:" + servidorIA.getAddress().getPort() + CAMINHO;
+        cliente = new ClienteIALote(new AppConfig().restTemplate(500, 1000),
+                new EndpointsIA(List.of(url), 0.2, 1000, 10_000, true, 0.95, 20, 5), false, "/lote",
+                10, 200, 2, 8, disjuntor);
+        cliente.iniciar();
+        
+        // Os 6 pedidos do lote seguem em chamadas individuais
+        List<CompletableFuture<RiscoDTO>> resultados = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            resultados.add(cliente.analisar(criarLeitura(i)));
+        }
+        List<Throwable> erros = new ArrayList<>();
+        for (CompletableFuture<RiscoDTO> resultado : resultados) {
+            erros.add(assertThrows(ExecutionException.class, () -> resultado.get(5, TimeUnit.SECONDS)).getCause());
+        }
+        
+        // Duas falhas abrem o disjuntor: os 4 restantes são recusados sem chegar à API
+        assertEquals(DisjuntorIA.Estado.ABERTO, disjuntor.getEstado());
+        assertEquals(2, chamadasIndividuais.get());
+        assertEquals(4, erros.stream().filter(RejectedExecutionException.class::isInstance).count());
+        assertEquals(4L, cliente.obterMetricas().get("recusadasPorDisjuntor"));
+    }
+    
+    @Test
+    void testLimiteDeAnalisesEmAndamento() throws Exception {
+        atrasoMs = 300;
+        cliente = criarCliente(new AppConfig().restTemplate(500, 2000), 1, 0, 2, new DisjuntorIA(5, 60_000));
+        
+        List<CompletableFuture<RiscoDTO>> resultados = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            resultados.add(cliente.analisar(criarLeitura(i)));
+        }
+        
+        // Só 2 pedidos entram; os demais são recusados imediatamente
+        long recusados = resultados.stream().filter(CompletableFuture::isCompletedExceptionally).count();
+        assertEquals(3, recusados);
+        assertEquals(3L, cliente.obterMetricas().get("recusadasPorLimite"));
+        for (int i = 0; i < 2; i++) {
+            assertNotNull(resultados.get(i).get(5, TimeUnit.SECONDS));
+        }
+        // Concluídos os pedidos, as vagas são liberadas
+        assertNotNull(cliente.analisar(criarLeitura(7)).get(5, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    void testHedgeEnviaCopiaParaOutraReplicaQuandoAPrimariaDemora() throws Exception {
+        HttpServer replica = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        AtomicInteger chamadasReplica = new AtomicInteger();
+        replica.createContext(CAMINHO, exchange -> {
+            chamadasReplica.incrementAndGet();
+            LeituraDTO leitura = objectMapper.readValue(exchange.getRequestBody(), LeituraDTO.class);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            responder(exchange, 200, objectMapper.writeValueAsBytes(analisarNoStub(leitura)));
+        });
+        replica.setExecutor(Executors.newCachedThreadPool());
+        replica.start();
+        try {
+            EndpointsIA endpoints = new EndpointsIA(List.of(
+                    "http://localhost:" + servidorIA.getAddress().getPort() + CAMINHO,
+                    "http://localhost:" + replica.getAddress().getPort() + CAMINHO), 0.2, 1000, 10_000, true, 0.95, 5, 5);
+            cliente = criarCliente(new AppConfig().restTemplate(500, 3000), 1, 0, 8, new DisjuntorIA(5, 60_000), endpoints);
+            
+            // Aquecimento: a réplica leva 100 ms e o principal responde na hora, virando o primário
+            for (int i = 0; i < 10; i++) {
+                assertNotNull(cliente.analisar(criarLeitura(i)).get(5, TimeUnit.SECONDS));
+            }
+            long vencedoresAntes = (long) endpoints.obterMetricas().get("hedgesVencedores");
+            
+            // Principal lento: após o p95 da sua latência, a cópia vai para a réplica, que vence
+            atrasoMs = 1000;
+            long inicio = System.nanoTime();
+            assertEquals(0.42, cliente.analisar(criarLeitura(42)).get(5, TimeUnit.SECONDS).getNivelRisco(), 0.0001);
+            long decorridoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+            assertTrue(decorridoMs < 500, "o hedge deveria responder antes do principal lento, levou " + decorridoMs + " ms");
+            assertEquals(vencedoresAntes + 1, endpoints.obterMetricas().get("hedgesVencedores"));
+            
+            // Concluída a chamada lenta, a EWMA do principal sobe e a réplica passa a ser a escolhida
+            Thread.sleep(1200);
+            int principalAntes = chamadasIndividuais.get();
+            int replicaAntes = chamadasReplica.get();
+            assertNotNull(cliente.analisar(criarLeitura(7)).get(5, TimeUnit.SECONDS));
+            assertEquals(principalAntes, chamadasIndividuais.get());
+            assertEquals(replicaAntes + 1, chamadasReplica.get());
+            System.out.println("Endpoints da IA com hedge: " + endpoints.obterMetricas());
+        } finally {
+            replica.stop(0);
+        }
+    }
+    
+    @Test
+    void testReplicaQueFalhouVoltaAReceberChamadas() throws Exception {
+        List<HttpServer> replicas = new ArrayList<>();
+        AtomicInteger chamadasReplicas = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            HttpServer replica = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            replica.createContext(CAMINHO, exchange -> {
+                chamadasReplicas.incrementAndGet();
+                LeituraDTO leitura = objectMapper.readValue(exchange.getRequestBody(), LeituraDTO.class);
+                responder(exchange, 200, objectMapper.writeValueAsBytes(analisarNoStub(leitura)));
+            });
+            replica.setExecutor(Executors.newCachedThreadPool());
+            replica.start();
+            replicas.add(replica);
+        }
+        try {
+            // Três réplicas, sem hedge, meia-vida de 100 ms: a primeira falha uma vez e sai da rotação
+            List<String> urls = new ArrayList<>();
+            urls.add("http://localhost:" + servidorIA.getAddress().getPort() + CAMINHO);
+            replicas.forEach(replica -> urls.add("http://localhost:" + replica.getAddress().getPort() + CAMINHO));
+            EndpointsIA endpoints = new EndpointsIA(urls, 0.2, 1000, 100, false, 0.95, 20, 5);
+            cliente = criarCliente(new AppConfig().restTemplate(500, 1000), 1, 0, 8, new DisjuntorIA(5, 60_000), endpoints);
+            
+            statusForcado = 503;
+            CompletableFuture<RiscoDTO> falha = cliente.analisar(criarLeitura(1));
+            assertThrows(ExecutionException.class, () -> falha.get(5, TimeUnit.SECONDS));
+            assertEquals(1, chamadasIndividuais.get());
+            statusForcado = 0;
+            
+            // As outras réplicas recebem o tráfego até a EWMA da primeira decair abaixo das delas
+            int chamadas = 0;
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (chamadasIndividuais.get() == 1 && System.nanoTime() < limite) {
+                assertNotNull(cliente.analisar(criarLeitura(2)).get(5, TimeUnit.SECONDS));
+                chamadas++;
+                Thread.sleep(10);
+            }
+            System.out.println("Réplica recuperada após " + chamadas + " chamadas: " + endpoints.obterMetricas());
+            assertEquals(2, chamadasIndividuais.get(), "a réplica que falhou deveria voltar a receber chamadas");
+            assertTrue(chamadasReplicas.get() > 0);
+        } finally {
+            replicas.forEach(replica -> replica.stop(0));
+        }
+    }
+    
+    private ClienteIALote criarCliente(int tamanhoMaximo, long esperaMaximaMs) {
+        return criarCliente(new RestTemplate(), tamanhoMaximo, esperaMaximaMs, 64, new DisjuntorIA(5, 60_000));
+    }
+    
+    private ClienteIALote criarCliente(RestTemplate restTemplate, int tamanhoMaximo, long esperaMaximaMs,
+            int maximoEmAndamento, DisjuntorIA disjuntor) {
+        String url = "http://localhost:" + servidorIA.getAddress().getPort() + CAMINHO;
+        return criarCliente(restTemplate, tamanhoMaximo, esperaMaximaMs, maximoEmAndamento, disjuntor,
+                new EndpointsIA(List.of(url), 0.2, 1000, 10_000, true, 0.95, 20, 5));
+    }
+    
+    private ClienteIALote criarCliente(RestTemplate restTemplate, int tamanhoMaximo, long esperaMaximaMs,
+            int maximoEmAndamento, DisjuntorIA disjuntor, EndpointsIA endpoints) {
+        ClienteIALote novoCliente = new ClienteIALote(restTemplate, endpoints, true, "/lote",
+                tamanhoMaximo, esperaMaximaMs, 2, maximoEmAndamento, disjuntor);
+        novoCliente.iniciar();
+        return novoCliente;
+    }
+    
+    private LeituraDTO criarLeitura(int valor) {
+        LeituraDTO leitura = new LeituraDTO();
+        leitura.setSensorId((long) valor);
+        leitura.setTemperatura((double) valor);
+        leitura.setUmidade(50.0);
+        leitura.setNivelFumaca(10.0);
+        leitura.setCo2(400.0);
+        return leitura;
+    }
+    
+    private RiscoDTO analisarNoStub(LeituraDTO leitura) {
+        RiscoDTO risco = new RiscoDTO();
+        risco.setSensorId(leitura.getSensorId());
+        risco.setNivelRisco(leitura.getTemperatura() / 100);
+        risco.setCategoria("BAIXO");
+        return risco;
+    }
+    
+    private void responderIndividual(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestURI().getPath().equals(CAMINHO)) {
+            responder(exchange, 404, new byte[0]);
+            return;
+        }
+        chamadasIndividuais.incrementAndGet();
+        LeituraDTO leitura = objectMapper.readValue(exchange.getRequestBody(), LeituraDTO.class);
+        if (atrasoMs > 0) {
+            try {
+                Thread.sleep(atrasoMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (statusForcado != 0) {
+            responder(exchange, statusForcado, new byte[0]);
+            return;
+        }
+        responder(exchange, 200, objectMapper.writeValueAsBytes(analisarNoStub(leitura)));
+    }
+    
+    private void responderLote(HttpExchange exchange) throws IOException {
+        chamadasLote.incrementAndGet();
+        LeituraDTO[] leituras = objectMapper.readValue(exchange.getRequestBody(), LeituraDTO[].class);
+        List<RiscoDTO> riscos = new ArrayList<>();
+        for (LeituraDTO leitura : leituras) {
+            riscos.add(analisarNoStub(leitura));
+        }
+        responder(exchange, 200, objectMapper.writeValueAsBytes(riscos));
+    }
+    
+    private void responder(HttpExchange exchange, int status, byte[] corpo) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, corpo.length == 0 ? -1 : corpo.length);
+        try (OutputStream saida = exchange.getResponseBody()) {
+            saida.write(corpo);
+        }
+    }
+}
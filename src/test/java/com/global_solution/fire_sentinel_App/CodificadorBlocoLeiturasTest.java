@@ -0,0 +1,109 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.global_solution.fire_sentinel_App.historico.CodificadorBlocoLeituras;
+import com.global_solution.fire_sentinel_App.historico.JanelaLeituras;
+import com.global_solution.fire_sentinel_App.historico.Metrica;
+
+class CodificadorBlocoLeiturasTest {
+
+    private static final long BASE = JanelaLeituras.paraInstante(LocalDateTime.of(2024, 9, 1, 12, 0));
+
+    /**
+     * Estimativa (não medida) da carga útil de uma linha de leituras: id + sensor_id + data_hora
+     * + 4 métricas, 8 bytes cada, sem páginas, índices nem overhead do banco. O espaço real no H2
+     * é medido em EspacoBlocosLeiturasTest (mvn test -Pbenchmark).
+     */
+    private static final int BYTES_ESTIMADOS_POR_LINHA = 7 * 8;
+
+    // Uma hora de leituras a cada segundo, com pequenas variações como nos sensores reais
+    private static final long[] INSTANTES_UMA_HORA = new long[3600];
+    private static final double[][] VALORES_UMA_HORA = new double[Metrica.values().length][3600];
+
+    static {
+        int quantidade = 3600;
+        Random random = new Random(42);
+        for (int i = 0; i < quantidade; i++) {
+            INSTANTES_UMA_HORA[i] = BASE + i * 1000L + (random.nextInt(20) == 0 ? random.nextInt(50) : 0);
+            VALORES_UMA_HORA[0][i] = Math.round((25.0 + i / 600.0 + random.nextGaussian() * 0.1) * 10) / 10.0;
+            VALORES_UMA_HORA[1][i] = Math.round(45.0 - i / 1200.0);
+            VALORES_UMA_HORA[2][i] = i < 3000 ? 0.0 : 0.2;
+            VALORES_UMA_HORA[3][i] = 400.0 + (i / 300) * 5;
+        }
+    }
+
+    @Test
+    void testIdaEVoltaExata() {
+        long[] instantes = { BASE, BASE + 10_000, BASE + 20_000, BASE + 20_000, BASE + 19_000,
+                BASE + 5_000_000, BASE + 5_000_001, BASE + 400L * 24 * 3_600_000, Long.MAX_VALUE / 2 };
+        double[][] valores = new double[Metrica.values().length][instantes.length];
+        Random random = new Random(7);
+        for (double[] coluna : valores) {
+            for (int i = 0; i < coluna.length; i++) {
+                coluna[i] = random.nextGaussian() * 1000;
+            }
+        }
+        valores[0][2] = Double.NaN;
+        valores[1][3] = valores[1][2];
+        valores[2][4] = 0.0;
+        valores[2][5] = -0.0;
+        valores[3][6] = Double.MAX_VALUE;
+        valores[3][7] = Double.MIN_VALUE;
+
+        JanelaLeituras janela = CodificadorBlocoLeituras.decodificar(
+                CodificadorBlocoLeituras.codificar(instantes, valores));
+
+        assertEquals(instantes.length, janela.tamanho());
+        for (int i = 0; i < instantes.length; i++) {
+            assertEquals(instantes[i], janela.getInstante(i));
+            for (Metrica metrica : Metrica.values()) {
+                assertEquals(Double.doubleToRawLongBits(valores[metrica.ordinal()][i]),
+                        Double.doubleToRawLongBits(janela.valor(metrica, i)), metrica + " na posição " + i);
+            }
+        }
+    }
+
+    @Test
+    void testBlocoVazio() {
+        JanelaLeituras janela = CodificadorBlocoLeituras.decodificar(
+                CodificadorBlocoLeituras.codificar(new long[0], new double[Metrica.values().length][0]));
+        assertTrue(janela.isVazia());
+    }
+
+    @Test
+    void testCompressaoDeUmaHora() {
+        byte[] bloco = CodificadorBlocoLeituras.codificar(INSTANTES_UMA_HORA, VALORES_UMA_HORA);
+        double bytesPorLeitura = (double) bloco.length / INSTANTES_UMA_HORA.length;
+        System.out.printf("Bloco de %d leituras: %d bytes (%.2f bytes/leitura, linha estimada: %d bytes, %.1fx menor)%n",
+                INSTANTES_UMA_HORA.length, bloco.length, bytesPorLeitura, BYTES_ESTIMADOS_POR_LINHA,
+                BYTES_ESTIMADOS_POR_LINHA / bytesPorLeitura);
+        assertTrue(bytesPorLeitura < BYTES_ESTIMADOS_POR_LINHA / 4.0,
+                "Bloco deveria ocupar bem menos que a carga útil estimada das linhas: " + bytesPorLeitura);
+    }
+
+    /**
+     * Benchmark (mvn test -Pbenchmark): só imprime a vazão de decodificação, sem asserções sobre ela.
+     */
+    @Test
+    @Tag("benchmark")
+    void testVazaoDecodificacaoDeUmaHora() {
+        byte[] bloco = CodificadorBlocoLeituras.codificar(INSTANTES_UMA_HORA, VALORES_UMA_HORA);
+        int quantidade = INSTANTES_UMA_HORA.length;
+        int repeticoes = 200;
+        double soma = 0;
+        long inicio = System.nanoTime();
+        for (int r = 0; r < repeticoes; r++) {
+            soma += CodificadorBlocoLeituras.decodificar(bloco).ultimo(Metrica.TEMPERATURA);
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.printf("Decodificação: %.1f milhões de leituras/s%n", repeticoes * quantidade / segundos / 1e6);
+        assertEquals(VALORES_UMA_HORA[0][quantidade - 1] * repeticoes, soma, 1e-6);
+    }
+}
@@ -0,0 +1,80 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.RiscoDTO;
+import com.global_solution.fire_sentinel_App.dto.SensorDTO;
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.service.LeituraService;
+import com.global_solution.fire_sentinel_App.service.RiscoService;
+import com.global_solution.fire_sentinel_App.service.SensorService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@TesteIntegracao(properties = {
+        "ia.pipeline.filtro.habilitado=false"
+})
+class ConsultaRiscoAreaTest {
+    
+    private static final int SENSORES = 40;
+    
+    @Autowired
+    private SensorService sensorService;
+    
+    @Autowired
+    private LeituraService leituraService;
+    
+    @Autowired
+    private RiscoService riscoService;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Test
+    void testRiscosDaAreaBuscadosEmUmaUnicaConsulta() {
+        List<Long> ultimasLeituras = new ArrayList<>();
+        for (int i = 0; i < SENSORES; i++) {
+            Sensor sensor = sensorService.cadastrarSensor(new SensorDTO(null, "Sensor Área " + i, "Temperatura",
+                    "Chapada", -15.0 + i * 0.001, -47.0, true));
+            leituraService.registrarLeitura(criarLeitura(sensor.getId(), LocalDateTime.now().minusMinutes(5)));
+            Leitura ultima = leituraService.registrarLeitura(criarLeitura(sensor.getId(), LocalDateTime.now()));
+            ultimasLeituras.add(ultima.getId());
+        }
+        
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        
+        List<RiscoDTO> riscos = riscoService.obterRiscosPorArea(-15.0, -47.0, 10.0);
+        
+        long instrucoes = estatisticas.getPrepareStatementCount();
+        System.out.println("Instruções SQL para riscos de " + riscos.size() + " sensores: " + instrucoes);
+        
+        assertEquals(SENSORES, riscos.size());
+        assertEquals(1, instrucoes);
+        for (RiscoDTO risco : riscos) {
+            assertTrue(ultimasLeituras.contains(risco.getLeituraId()), "Risco não é o mais recente do sensor");
+        }
+    }
+    
+    private LeituraDTO criarLeitura(Long sensorId, LocalDateTime dataHora) {
+        LeituraDTO dto = new LeituraDTO();
+        dto.setSensorId(sensorId);
+        dto.setTemperatura(30.0);
+        dto.setUmidade(40.0);
+        dto.setNivelFumaca(0.1);
+        dto.setCo2(400.0);
+        dto.setDataHora(dataHora);
+        return dto;
+    }
+}
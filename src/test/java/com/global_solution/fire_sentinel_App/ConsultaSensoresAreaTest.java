@@ -0,0 +1,137 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.global_solution.fire_sentinel_App.geo.CaixaDelimitadora;
+import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.repository.SensorRepository;
+
+@TesteIntegracao(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.global_solution.fire_sentinel_App.ConsultaSensoresAreaTest$InspetorSql"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConsultaSensoresAreaTest {
+    
+    private static final int SENSORES = 200_000;
+    private static final long PRIMEIRO_ID = 10_000_000L;
+    
+    // SQL gerado pelo Hibernate para SensorRepository.findSensoresNaArea
+    private static final AtomicReference<String> SQL_CONSULTA_AREA = new AtomicReference<>();
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private SensorRepository sensorRepository;
+    
+    private final List<double[]> posicoes = new ArrayList<>(SENSORES);
+    
+    @BeforeAll
+    void setUp() {
+        Random random = new Random(42);
+        List<Object[]> linhas = new ArrayList<>(SENSORES);
+        for (int i = 0; i < SENSORES; i++) {
+            double lat = -33.0 + random.nextDouble() * 38.0;
+            double lon = -74.0 + random.nextDouble() * 40.0;
+            posicoes.add(new double[] {lat, lon});
+            linhas.add(new Object[] {PRIMEIRO_ID + i, "Sintético " + i, "Temperatura", lat, lon});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO sensores (id, nome, tipo, latitude, longitude, ativo) VALUES (?, ?, ?, ?, ?, TRUE)",
+                linhas);
+        jdbcTemplate.execute("ANALYZE TABLE sensores");
+    }
+    
+    @AfterAll
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM sensores WHERE id >= ?", PRIMEIRO_ID);
+    }
+    
+    @Test
+    void testPlanoDaConsultaPorAreaUsaIndiceLatitudeLongitude() {
+        double lat = -15.8, lon = -47.9, raio = 20.0;
+        CaixaDelimitadora caixa = CaixaDelimitadora.aoRedorDe(lat, lon, raio);
+        
+        // Plano do SQL realmente gerado pelo repositório, com os parâmetros na ordem do JPQL
+        SQL_CONSULTA_AREA.set(null);
+        sensorRepository.findSensoresNaArea(lat, lon, raio);
+        String sql = SQL_CONSULTA_AREA.get();
+        assertNotNull(sql, "SQL da consulta por área não foi capturado");
+        String plano = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class,
+                caixa.getLatitudeMinima(), caixa.getLatitudeMaxima(),
+                caixa.getLongitudeMinima(), caixa.getLongitudeMaxima(), lat, lon, lat, raio);
+        System.out.println("SQL da consulta por área:\n" + sql + "\nPlano:\n" + plano);
+        
+        assertTrue(plano.toUpperCase().contains("IDX_SENSORES_LAT_LON"), "Consulta deveria usar o índice: " + plano);
+        assertFalse(plano.toUpperCase().contains("TABLE SCAN"), "Consulta não deveria varrer a tabela: " + plano);
+    }
+    
+    @Test
+    void testConsultaPorAreaIgualAVarreduraCompleta() {
+        double lat = -15.8, lon = -47.9, raio = 20.0;
+        
+        long inicio = System.nanoTime();
+        List<Sensor> encontrados = sensorRepository.findSensoresNaArea(lat, lon, raio);
+        double duracaoMs = (System.nanoTime() - inicio) / 1e6;
+        
+        Sensor referencia = new Sensor();
+        long esperados = posicoes.stream()
+                .filter(p -> {
+                    referencia.setLatitude(p[0]);
+                    referencia.setLongitude(p[1]);
+                    return referencia.estaDentroArea(lat, lon, raio);
+                })
+                .count();
+        long sinteticos = encontrados.stream().filter(s -> s.getId() >= PRIMEIRO_ID).count();
+        System.out.printf("Consulta por área em %d sensores: %d encontrados em %.2f ms%n",
+                SENSORES, sinteticos, duracaoMs);
+        
+        assertTrue(esperados > 0);
+        assertEquals(esperados, sinteticos);
+    }
+    
+    @Test
+    void testConsultaPorAreaIgnoraSensoresInativosComoOIndice() {
+        double lat = -15.8, lon = -47.9, raio = 20.0;
+        Long inativo = sensorRepository.findSensoresNaArea(lat, lon, raio).stream()
+                .map(Sensor::getId)
+                .filter(id -> id >= PRIMEIRO_ID)
+                .findFirst()
+                .orElseThrow();
+        jdbcTemplate.update("UPDATE sensores SET ativo = FALSE WHERE id = ?", inativo);
+        try {
+            assertTrue(sensorRepository.findSensoresNaArea(lat, lon, raio).stream()
+                    .noneMatch(s -> s.getId().equals(inativo)));
+        } finally {
+            jdbcTemplate.update("UPDATE sensores SET ativo = TRUE WHERE id = ?", inativo);
+        }
+    }
+    
+    /**
+     * Guarda o SQL da consulta por área gerado pelo Hibernate.
+     */
+    public static class InspetorSql implements StatementInspector {
+        
+        @Override
+        public String inspect(String sql) {
+            if (sql.contains("acos(") && sql.contains("sensores")) {
+                SQL_CONSULTA_AREA.set(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.global_solution.fire_sentinel_App.anomalia.DetectorAnomalias;
+import com.global_solution.fire_sentinel_App.anomalia.EstadoEwma;
+import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.SensorDTO;
+import com.global_solution.fire_sentinel_App.historico.Metrica;
+import com.global_solution.fire_sentinel_App.model.Ocorrencia;
+import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.repository.OcorrenciaRepository;
+import com.global_solution.fire_sentinel_App.service.LeituraService;
+import com.global_solution.fire_sentinel_App.service.SensorService;
+
+@TesteIntegracao
+class DetectorAnomaliasTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 9, 2, 13, 0);
+
+    @Autowired
+    private LeituraService leituraService;
+
+    @Autowired
+    private SensorService sensorService;
+
+    @Autowired
+    private OcorrenciaRepository ocorrenciaRepository;
+
+    @Autowired
+    private DetectorAnomalias detectorAnomalias;
+
+    @Test
+    void testDerivaDeTemperaturaGeraUmaOcorrencia() {
+        Sensor estavel = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Estável", "Temperatura", "Cerrado Estável", -14.0, -48.0, true));
+        Sensor derivando = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Deriva", "Temperatura", "Cerrado Deriva", -14.1, -48.1, true));
+
+        Random random = new Random(17);
+        for (int minuto = 0; minuto < 60; minuto++) {
+            registrar(estavel.getId(), BASE.plusMinutes(minuto), 22.0 + random.nextGaussian() * 0.2);
+            registrar(derivando.getId(), BASE.plusMinutes(minuto), 22.0 + random.nextGaussian() * 0.2);
+        }
+        // 22°C -> 34°C em dez minutos, ainda abaixo de qualquer limite absoluto de risco
+        for (int minuto = 1; minuto <= 10; minuto++) {
+            registrar(derivando.getId(), BASE.plusMinutes(59 + minuto), 22.0 + 1.2 * minuto);
+        }
+
+        assertTrue(ocorrenciaRepository.findByRegiao("Cerrado Estável").isEmpty());
+        List<Ocorrencia> ocorrencias = ocorrenciaRepository.findByRegiao("Cerrado Deriva");
+        // Intervalo mínimo entre ocorrências: a deriva inteira gera uma única ocorrência
+        assertEquals(1, ocorrencias.size());
+        Ocorrencia ocorrencia = ocorrencias.get(0);
+        assertEquals("Detector de Anomalias", ocorrencia.getOrigem());
+        // Sinalizada nos primeiros minutos da deriva, com a temperatura ainda perto de 25°C
+        assertTrue(ocorrencia.getDataHora().isBefore(BASE.plusMinutes(63)));
+        assertTrue(ocorrencia.getSeveridade() >= 4);
+        assertTrue(ocorrencia.getDescricao().contains(Metrica.TEMPERATURA.name()));
+
+        // Após o intervalo mínimo, uma nova anomalia volta a gerar ocorrência
+        registrar(derivando.getId(), BASE.plusMinutes(90), 60.0);
+        assertEquals(2, ocorrenciaRepository.findByRegiao("Cerrado Deriva").size());
+        System.out.println("Ocorrência de anomalia: " + ocorrencia.getDescricao());
+        System.out.println("Detector de anomalias: " + detectorAnomalias.obterMetricas());
+    }
+
+    @Test
+    void testSaltoDeUmidadeSoGeraOcorrenciaQuandoCai() {
+        Sensor chuva = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Chuva", "Umidade", "Mata Chuva", -14.2, -48.2, true));
+        Sensor seca = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Seca", "Umidade", "Mata Seca", -14.3, -48.3, true));
+
+        Random random = new Random(23);
+        for (int minuto = 0; minuto < 30; minuto++) {
+            registrar(chuva.getId(), BASE.plusMinutes(minuto), 22.0, 50.0 + random.nextGaussian() * 0.5);
+            registrar(seca.getId(), BASE.plusMinutes(minuto), 22.0, 50.0 + random.nextGaussian() * 0.5);
+        }
+        // Chuva: umidade 50% -> 90%, muito acima da linha de base, mas no sentido oposto ao de incêndio
+        registrar(chuva.getId(), BASE.plusMinutes(30), 22.0, 90.0);
+        registrar(seca.getId(), BASE.plusMinutes(30), 22.0, 20.0);
+
+        assertTrue(ocorrenciaRepository.findByRegiao("Mata Chuva").isEmpty());
+        List<Ocorrencia> ocorrencias = ocorrenciaRepository.findByRegiao("Mata Seca");
+        assertEquals(1, ocorrencias.size());
+        assertTrue(ocorrencias.get(0).getDescricao().contains(Metrica.UMIDADE.name()));
+        assertTrue(Metrica.TEMPERATURA.indicaIncendio(5.0));
+        assertFalse(Metrica.UMIDADE.indicaIncendio(5.0));
+        assertTrue(Metrica.UMIDADE.indicaIncendio(-5.0));
+    }
+
+    @Test
+    void testEscoreComparaComALinhaDeBaseAnterior() {
+        EstadoEwma estado = new EstadoEwma(1);
+        double[] desviosMinimos = { 0.5 };
+        double[] escores = new double[1];
+        for (int i = 0; i < 20; i++) {
+            estado.avaliar(new double[] { i % 2 == 0 ? 21.0 : 23.0 }, 0.1, desviosMinimos, escores);
+        }
+        assertEquals(20, estado.getAmostras());
+        assertEquals(22.0, estado.getMedia(0), 0.2);
+
+        double media = estado.getMedia(0);
+        double desvio = Math.max(estado.getDesvioPadrao(0), 0.5);
+        estado.avaliar(new double[] { 30.0 }, 0.1, desviosMinimos, escores);
+        assertEquals((30.0 - media) / desvio, escores[0], 1e-4);
+        assertTrue(escores[0] > 4);
+
+        estado.avaliar(new double[] { Double.NaN }, 0.1, desviosMinimos, escores);
+        assertTrue(Double.isNaN(escores[0]));
+        assertEquals(64, EstadoEwma.calcularBytes(Metrica.values().length));
+    }
+
+    private void registrar(Long sensorId, LocalDateTime dataHora, double temperatura) {
+        registrar(sensorId, dataHora, temperatura, 50.0);
+    }
+
+    private void registrar(Long sensorId, LocalDateTime dataHora, double temperatura, double umidade) {
+        LeituraDTO dto = new LeituraDTO();
+        dto.setSensorId(sensorId);
+        dto.setDataHora(dataHora);
+        dto.setTemperatura(temperatura);
+        dto.setUmidade(umidade);
+        dto.setNivelFumaca(0.1);
+        dto.setCo2(400.0);
+        leituraService.registrarLeitura(dto);
+    }
+}
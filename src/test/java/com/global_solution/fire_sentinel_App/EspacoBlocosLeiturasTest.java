@@ -0,0 +1,105 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.global_solution.fire_sentinel_App.dto.SensorDTO;
+import com.global_solution.fire_sentinel_App.historico.ArmazenamentoBlocosLeituras;
+import com.global_solution.fire_sentinel_App.historico.JanelaLeituras;
+import com.global_solution.fire_sentinel_App.historico.Metrica;
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.repository.LeituraRepository;
+import com.global_solution.fire_sentinel_App.service.SensorService;
+
+/**
+ * Benchmark (mvn test -Pbenchmark): compara o espaço realmente ocupado no H2 e a leitura de uma hora
+ * de leituras (uma por segundo) como linhas de leituras e como bloco comprimido em blocos_leituras.
+ * Usa memFS porque o H2 só contabiliza páginas (DISK_SPACE_USED) de bancos com armazenamento;
+ * em jdbc:h2:mem o resultado é sempre 0.
+ */
+@Tag("benchmark")
+@TesteIntegracao(properties = "spring.datasource.url=jdbc:h2:memFS:blocos-${random.uuid}")
+class EspacoBlocosLeiturasTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 9, 1, 12, 0);
+
+    @Autowired
+    private SensorService sensorService;
+
+    @Autowired
+    private LeituraRepository leituraRepository;
+
+    @Autowired
+    private ArmazenamentoBlocosLeituras armazenamentoBlocosLeituras;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testEspacoELeituraDeLinhasVersusBlocos() {
+        Sensor sensor = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Benchmark Blocos", "Temperatura", "Serra", -22.7, -43.0, true));
+        int quantidade = 3600;
+        List<Leitura> leituras = new ArrayList<>(quantidade);
+        Random random = new Random(42);
+        for (int i = 0; i < quantidade; i++) {
+            Leitura leitura = new Leitura();
+            leitura.setSensor(sensor);
+            leitura.setDataHora(BASE.plusSeconds(i));
+            leitura.setTemperatura(Math.round((25.0 + i / 600.0 + random.nextGaussian() * 0.1) * 10) / 10.0);
+            leitura.setUmidade((double) Math.round(45.0 - i / 1200.0));
+            leitura.setNivelFumaca(i < 3000 ? 0.0 : 0.2);
+            leitura.setCo2(400.0 + (i / 300) * 5);
+            leitura.setAgregada(true);
+            leituras.add(leitura);
+        }
+
+        long linhasAntes = espacoUsado("LEITURAS");
+        long blocosAntes = espacoUsado("BLOCOS_LEITURAS");
+        leituraRepository.saveAll(leituras);
+        leituras.forEach(armazenamentoBlocosLeituras::registrar);
+        armazenamentoBlocosLeituras.gravarPendentes();
+        long bytesLinhas = espacoUsado("LEITURAS") - linhasAntes;
+        // O conteúdo @Lob fica no armazenamento de LOBs do H2, fora de DISK_SPACE_USED da tabela
+        long bytesBlocos = espacoUsado("BLOCOS_LEITURAS") - blocosAntes + jdbcTemplate.queryForObject(
+                "SELECT SUM(OCTET_LENGTH(dados)) FROM blocos_leituras WHERE sensor_id = ?", Long.class, sensor.getId());
+
+        LocalDateTime fim = BASE.plusHours(1).minusNanos(1);
+        assertEquals(quantidade, leituraRepository.findBySensorIdAndDataHoraBetween(sensor.getId(), BASE, fim).size());
+        assertEquals(quantidade, armazenamentoBlocosLeituras.buscarHistorico(sensor.getId(), BASE, fim).tamanho());
+
+        int repeticoes = 20;
+        long inicio = System.nanoTime();
+        for (int r = 0; r < repeticoes; r++) {
+            leituraRepository.findBySensorIdAndDataHoraBetween(sensor.getId(), BASE, fim);
+        }
+        double segundosLinhas = (System.nanoTime() - inicio) / 1e9;
+        inicio = System.nanoTime();
+        for (int r = 0; r < repeticoes; r++) {
+            JanelaLeituras janela = armazenamentoBlocosLeituras.buscarHistorico(sensor.getId(), BASE, fim);
+            janela.ultimo(Metrica.TEMPERATURA);
+        }
+        double segundosBlocos = (System.nanoTime() - inicio) / 1e9;
+
+        System.out.printf("Espaço no H2 para %d leituras: linhas %d bytes (%.1f/leitura), blocos %d bytes (%.1f/leitura)%n",
+                quantidade, bytesLinhas, (double) bytesLinhas / quantidade, bytesBlocos, (double) bytesBlocos / quantidade);
+        System.out.printf("Leitura de uma hora: linhas %.2f milhões de leituras/s, blocos %.2f milhões de leituras/s%n",
+                repeticoes * quantidade / segundosLinhas / 1e6, repeticoes * quantidade / segundosBlocos / 1e6);
+    }
+
+    private long espacoUsado(String tabela) {
+        // Grava as páginas pendentes para que DISK_SPACE_USED as contabilize
+        jdbcTemplate.execute("CHECKPOINT");
+        return jdbcTemplate.queryForObject("CALL DISK_SPACE_USED(?)", Long.class, tabela);
+    }
+}
@@ -0,0 +1,86 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.global_solution.fire_sentinel_App.historico.EstatisticaOnline;
+
+class EstatisticaOnlineTest {
+
+    @Test
+    void testMediaEVarianciaIguaisAoCalculoEmDuasPassadas() {
+        Random random = new Random(3);
+        double[] valores = new double[10_000];
+        EstatisticaOnline estatistica = new EstatisticaOnline();
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = 25.0 + random.nextGaussian() * 4;
+            estatistica.adicionar(valores[i]);
+        }
+        estatistica.adicionar(Double.NaN);
+
+        double media = 0;
+        for (double valor : valores) {
+            media += valor;
+        }
+        media /= valores.length;
+        double somaQuadrados = 0;
+        for (double valor : valores) {
+            somaQuadrados += (valor - media) * (valor - media);
+        }
+
+        assertEquals(valores.length, estatistica.getQuantidade());
+        assertEquals(media, estatistica.getMedia(), 1e-9);
+        assertEquals(somaQuadrados / (valores.length - 1), estatistica.getVariancia(), 1e-9);
+    }
+
+    @Test
+    void testEstavelComValoresGrandesEPoucaVariacao() {
+        // Com soma dos quadrados (E[x²] - E[x]²) a variância sairia negativa ou zero aqui
+        EstatisticaOnline estatistica = new EstatisticaOnline();
+        double[] desvios = { 4, 7, 13, 16 };
+        for (double desvio : desvios) {
+            estatistica.adicionar(1e9 + desvio);
+        }
+        assertEquals(1e9 + 10, estatistica.getMedia(), 1e-6);
+        assertEquals(30.0, estatistica.getVariancia(), 1e-6);
+    }
+
+    @Test
+    void testCombinarEquivaleAAdicionarTudo() {
+        Random random = new Random(11);
+        EstatisticaOnline tudo = new EstatisticaOnline();
+        EstatisticaOnline parteA = new EstatisticaOnline();
+        EstatisticaOnline parteB = new EstatisticaOnline();
+        for (int i = 0; i < 1000; i++) {
+            double valor = random.nextDouble() * 100;
+            tudo.adicionar(valor);
+            (i < 300 ? parteA : parteB).adicionar(valor);
+        }
+
+        EstatisticaOnline combinada = parteA.copiar();
+        combinada.combinar(parteB);
+        combinada.combinar(new EstatisticaOnline());
+
+        assertEquals(tudo.getQuantidade(), combinada.getQuantidade());
+        assertEquals(tudo.getMedia(), combinada.getMedia(), 1e-9);
+        assertEquals(tudo.getVariancia(), combinada.getVariancia(), 1e-9);
+        assertEquals(tudo.getMinimo(), combinada.getMinimo());
+        assertEquals(tudo.getMaximo(), combinada.getMaximo());
+        assertEquals(300, parteA.getQuantidade());
+    }
+
+    @Test
+    void testVazioEUmValor() {
+        EstatisticaOnline estatistica = new EstatisticaOnline();
+        assertTrue(Double.isNaN(estatistica.getMedia()));
+        assertTrue(Double.isNaN(estatistica.getMinimo()));
+        estatistica.adicionar(-3.5);
+        assertEquals(-3.5, estatistica.getMedia());
+        assertEquals(0.0, estatistica.getVariancia());
+        assertEquals(-3.5, estatistica.getMinimo());
+        assertEquals(-3.5, estatistica.getMaximo());
+    }
+}
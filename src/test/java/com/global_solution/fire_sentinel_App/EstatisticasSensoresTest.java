@@ -0,0 +1,107 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.global_solution.fire_sentinel_App.dto.EstatisticasSensorDTO;
+import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.SensorDTO;
+import com.global_solution.fire_sentinel_App.historico.EstatisticasSensores;
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.repository.LeituraRepository;
+import com.global_solution.fire_sentinel_App.repository.RiscoRepository;
+import com.global_solution.fire_sentinel_App.serie.AgregadorSeries;
+import com.global_solution.fire_sentinel_App.service.LeituraService;
+import com.global_solution.fire_sentinel_App.service.SensorService;
+
+@TesteIntegracao
+class EstatisticasSensoresTest {
+
+    private static final LocalDateTime REFERENCIA = LocalDateTime.of(2024, 11, 5, 15, 0);
+
+    @Autowired
+    private LeituraService leituraService;
+
+    @Autowired
+    private SensorService sensorService;
+
+    @Autowired
+    private EstatisticasSensores estatisticasSensores;
+
+    @Autowired
+    private AgregadorSeries agregadorSeries;
+
+    @Autowired
+    private LeituraRepository leituraRepository;
+
+    @Autowired
+    private RiscoRepository riscoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testEstatisticasTotaisEPorJanela() {
+        Sensor sensor = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Estatísticas", "Temperatura", "Caatinga", -9.0, -40.0, true));
+
+        registrar(sensor.getId(), REFERENCIA.minusDays(3), 10.0);
+        registrar(sensor.getId(), REFERENCIA.minusHours(5), 20.0);
+        registrar(sensor.getId(), REFERENCIA.minusMinutes(40), 30.0);
+        registrar(sensor.getId(), REFERENCIA.minusMinutes(10), 34.0);
+
+        EstatisticasSensorDTO estatisticas = estatisticasSensores.obter(sensor.getId(), REFERENCIA);
+        assertEquals(4, estatisticas.getTotal().getTemperatura().getQuantidade());
+        assertEquals(23.5, estatisticas.getTotal().getTemperatura().getMedia(), 1e-9);
+        assertEquals(10.0, estatisticas.getTotal().getTemperatura().getMinimo());
+        assertEquals(34.0, estatisticas.getTotal().getTemperatura().getMaximo());
+
+        assertEquals(2, estatisticas.getUltimaHora().getTemperatura().getQuantidade());
+        assertEquals(32.0, estatisticas.getUltimaHora().getTemperatura().getMedia(), 1e-9);
+        assertEquals(8.0, estatisticas.getUltimaHora().getTemperatura().getVariancia(), 1e-9);
+        assertEquals(3, estatisticas.getUltimas24Horas().getTemperatura().getQuantidade());
+        assertEquals(REFERENCIA.minusHours(24), estatisticas.getUltimas24Horas().getInicio());
+
+        // Após reiniciar (sem acumuladores em memória) os totais são reconstruídos dos agregados
+        estatisticasSensores.remover(sensor.getId());
+        EstatisticasSensorDTO aquecidas = estatisticasSensores.obter(sensor.getId(), REFERENCIA);
+        assertEquals(estatisticas, aquecidas);
+
+        // Mesmo sem as linhas de leituras (removidas pela retenção), pois o aquecimento não as lê
+        agregadorSeries.gravarPendentes();
+        List<Long> ids = leituraRepository.findBySensorIdOrderByDataHoraDesc(sensor.getId()).stream()
+                .map(Leitura::getId)
+                .toList();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            riscoRepository.desvincularLeituras(ids);
+            leituraRepository.deleteByIdIn(ids);
+        });
+        estatisticasSensores.remover(sensor.getId());
+        assertEquals(estatisticas, estatisticasSensores.obter(sensor.getId(), REFERENCIA));
+
+        registrar(sensor.getId(), REFERENCIA.minusMinutes(1), 36.0);
+        EstatisticasSensorDTO atualizadas = sensorService.obterEstatisticas(sensor.getId()).orElseThrow();
+        assertEquals(5, atualizadas.getTotal().getTemperatura().getQuantidade());
+        assertTrue(sensorService.obterEstatisticas(-1L).isEmpty());
+        System.out.println("Estatísticas por sensor: " + estatisticasSensores.obterMetricas());
+    }
+
+    private void registrar(Long sensorId, LocalDateTime dataHora, double temperatura) {
+        LeituraDTO dto = new LeituraDTO();
+        dto.setSensorId(sensorId);
+        dto.setDataHora(dataHora);
+        dto.setTemperatura(temperatura);
+        dto.setUmidade(50.0);
+        dto.setNivelFumaca(0.1);
+        dto.setCo2(400.0);
+        leituraService.registrarLeitura(dto);
+    }
+}
@@ -0,0 +1,220 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.RiscoDTO;
+import com.global_solution.fire_sentinel_App.dto.SensorDTO;
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Risco;
+import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.pipeline.FilaReanaliseRisco;
+import com.global_solution.fire_sentinel_App.repository.AnaliseRiscoPendenteRepository;
+import com.global_solution.fire_sentinel_App.repository.RiscoRepository;
+import com.global_solution.fire_sentinel_App.service.LeituraService;
+import com.global_solution.fire_sentinel_App.service.RiscoService;
+import com.global_solution.fire_sentinel_App.service.SensorService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.zaxxer.hikari.HikariDataSource;
+
+@TesteIntegracao(properties = {
+        "ia.risk.analysis.modo=REMOTO",
+        "ia.risk.analysis.lote.espera-maxima-ms=50",
+        "ia.risk.analysis.disjuntor.limite-falhas=100",
+        "ia.reanalise.intervalo-ms=600000",
+        "ia.reanalise.espera-inicial-ms=300",
+        "ia.reanalise.maximo-tentativas=5"
+})
+class FilaReanaliseRiscoTest {
+
+    private static final String CAMINHO = "/api/analisar-risco";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+    private static final AtomicInteger CHAMADAS_LOTE = new AtomicInteger();
+    private static final AtomicInteger MAIOR_CONEXOES_ATIVAS = new AtomicInteger(-1);
+    private static volatile int statusForcado = 503;
+    private static volatile HikariDataSource pool;
+    private static HttpServer servidorIA;
+
+    @Autowired
+    private LeituraService leituraService;
+
+    @Autowired
+    private SensorService sensorService;
+
+    @Autowired
+    private RiscoRepository riscoRepository;
+
+    @Autowired
+    private RiscoService riscoService;
+
+    @Autowired
+    private AnaliseRiscoPendenteRepository pendenteRepository;
+
+    @Autowired
+    private FilaReanaliseRisco filaReanaliseRisco;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @DynamicPropertySource
+    static void configurarApiIA(DynamicPropertyRegistry registro) throws IOException {
+        servidorIA = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidorIA.createContext(CAMINHO, FilaReanaliseRiscoTest::responder);
+        servidorIA.setExecutor(Executors.newCachedThreadPool());
+        servidorIA.start();
+        registro.add("ia.risk.analysis.url",
+                () -> "http://localhost:" + servidorIA.getAddress().getPort() + CAMINHO);
+    }
+
+    @AfterAll
+    static void encerrarApiIA() {
+        servidorIA.stop(0);
+    }
+
+    @Test
+    void testRiscoProvisorioSubstituidoQuandoAApiVolta() throws Exception {
+        Sensor sensor = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Reanálise", "Multissensor", "Caatinga", -9.4, -40.5, true));
+        long pendentesAntes = pendenteRepository.count();
+
+        // Com a API fora, o Risco vem do fallback local, é provisório e entra na fila
+        List<Leitura> leituras = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            leituras.add(leituraService.registrarLeitura(criarLeitura(sensor, 30.0 + i)));
+        }
+        List<Risco> provisorios = riscoRepository.findBySensorIdOrderByDataHoraAnaliseDesc(sensor.getId());
+        assertEquals(3, provisorios.size());
+        provisorios.forEach(risco -> assertTrue(risco.getDescricao().contains("API indisponível"), risco.getDescricao()));
+        assertEquals(pendentesAntes + 3, pendenteRepository.count());
+
+        // Análise mais nova do mesmo sensor, feita antes de as provisórias serem reanalisadas
+        Risco maisNovo = new Risco();
+        maisNovo.setSensor(provisorios.get(0).getSensor());
+        maisNovo.setDataHoraAnalise(provisorios.get(0).getDataHoraAnalise().plusSeconds(1));
+        maisNovo.setNivelRisco(0.1);
+        maisNovo.setCategoria("BAIXO");
+        maisNovo.setDescricao("Análise mais nova");
+        maisNovo = riscoRepository.save(maisNovo);
+
+        // Antes da espera inicial nada é reenviado
+        assertEquals(0, filaReanaliseRisco.processar());
+
+        // API ainda fora: a tentativa falha e a espera dobra
+        Thread.sleep(350);
+        assertEquals(0, filaReanaliseRisco.processar());
+        Map<String, Object> metricas = filaReanaliseRisco.obterMetricas();
+        assertEquals(1, metricas.get("maiorTentativa"));
+        assertEquals(pendentesAntes + 3, metricas.get("pendentes"));
+        assertNotNull(metricas.get("idadeMaisAntigaMs"));
+
+        // API de volta: após o backoff (600 ms) as três leituras são reanalisadas em um lote
+        statusForcado = 0;
+        assertEquals(0, filaReanaliseRisco.processar());
+        Thread.sleep(650);
+        int lotesAntes = CHAMADAS_LOTE.get();
+        assertEquals(3, filaReanaliseRisco.processar());
+        assertEquals(lotesAntes + 1, CHAMADAS_LOTE.get());
+
+        for (Risco provisorio : provisorios) {
+            Risco risco = riscoRepository.findById(provisorio.getId()).orElseThrow();
+            assertEquals("ALTO", risco.getCategoria());
+            assertEquals("Análise da API", risco.getDescricao());
+            assertEquals(provisorio.getDataHoraAnalise(), risco.getDataHoraAnalise());
+            assertNotNull(risco.getReanalisadoEm());
+        }
+        assertEquals(pendentesAntes, pendenteRepository.count());
+
+        // A reanálise não torna as provisórias o risco atual do sensor
+        List<RiscoDTO> ultimos = riscoService.obterUltimosRiscosPorSensores(List.of(sensor.getId()));
+        assertEquals(1, ultimos.size());
+        assertEquals(maisNovo.getId(), ultimos.get(0).getId());
+        assertNull(ultimos.get(0).getReanalisadoEm());
+        System.out.println("Fila de reanálise: " + filaReanaliseRisco.obterMetricas());
+    }
+
+    @Test
+    void testChamadaAApiNaoMantemConexaoDoBancoAberta() throws Exception {
+        Sensor sensor = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Conexões", "Multissensor", "Caatinga", -9.5, -40.6, true));
+        pool = dataSource.unwrap(HikariDataSource.class);
+        int statusAnterior = statusForcado;
+        statusForcado = 0;
+        try {
+            // O stub registra quantas conexões do pool estão em uso enquanto a API responde
+            leituraService.registrarLeitura(criarLeitura(sensor, 35.0));
+        } finally {
+            statusForcado = statusAnterior;
+            pool = null;
+        }
+        assertEquals(0, MAIOR_CONEXOES_ATIVAS.get());
+        assertEquals("Análise da API",
+                riscoRepository.findTopBySensorIdOrderByDataHoraAnaliseDesc(sensor.getId()).orElseThrow().getDescricao());
+    }
+
+    private static LeituraDTO criarLeitura(Sensor sensor, double temperatura) {
+        LeituraDTO leitura = new LeituraDTO();
+        leitura.setSensorId(sensor.getId());
+        leitura.setDataHora(LocalDateTime.now());
+        leitura.setTemperatura(temperatura);
+        leitura.setUmidade(50.0);
+        leitura.setNivelFumaca(20.0);
+        leitura.setCo2(450.0);
+        return leitura;
+    }
+
+    private static RiscoDTO analisarNoStub(LeituraDTO leitura) {
+        RiscoDTO risco = new RiscoDTO();
+        risco.setSensorId(leitura.getSensorId());
+        risco.setNivelRisco(leitura.getTemperatura() / 100);
+        risco.setCategoria("ALTO");
+        risco.setDescricao("Análise da API");
+        return risco;
+    }
+
+    private static void responder(HttpExchange exchange) throws IOException {
+        HikariDataSource poolAtual = pool;
+        if (poolAtual != null) {
+            MAIOR_CONEXOES_ATIVAS.accumulateAndGet(poolAtual.getHikariPoolMXBean().getActiveConnections(), Math::max);
+        }
+        byte[] corpo;
+        int status = statusForcado != 0 ? statusForcado : 200;
+        if (status != 200) {
+            corpo = new byte[0];
+        } else if (exchange.getRequestURI().getPath().endsWith("/lote")) {
+            CHAMADAS_LOTE.incrementAndGet();
+            List<RiscoDTO> riscos = new ArrayList<>();
+            for (LeituraDTO leitura : OBJECT_MAPPER.readValue(exchange.getRequestBody(), LeituraDTO[].class)) {
+                riscos.add(analisarNoStub(leitura));
+            }
+            corpo = OBJECT_MAPPER.writeValueAsBytes(riscos);
+        } else {
+            corpo = OBJECT_MAPPER.writeValueAsBytes(
+                    analisarNoStub(OBJECT_MAPPER.readValue(exchange.getRequestBody(), LeituraDTO.class)));
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, corpo.length == 0 ? -1 : corpo.length);
+        try (OutputStream saida = exchange.getResponseBody()) {
+            saida.write(corpo);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.RiscoDTO;
+import com.global_solution.fire_sentinel_App.dto.SensorDTO;
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.pipeline.FiltroVariacaoRisco;
+import com.global_solution.fire_sentinel_App.pipeline.PipelineAnaliseRisco;
+import com.global_solution.fire_sentinel_App.repository.RiscoRepository;
+import com.global_solution.fire_sentinel_App.service.LeituraService;
+import com.global_solution.fire_sentinel_App.service.SensorService;
+
+@TesteIntegracao(properties = {
+        "ia.pipeline.filtro.variacao-minima-percentual=5.0",
+        "ia.pipeline.filtro.validade-minutos=10"
+})
+class FiltroVariacaoRiscoTest {
+
+    @Autowired
+    private LeituraService leituraService;
+
+    @Autowired
+    private SensorService sensorService;
+
+    @Autowired
+    private RiscoRepository riscoRepository;
+
+    @Autowired
+    private PipelineAnaliseRisco pipelineAnaliseRisco;
+
+    @Test
+    void testLeiturasSemVariacaoNaoGeramNovoRisco() {
+        Sensor sensor = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Filtro", "Multissensor", "Cerrado", -15.8, -47.9, true));
+        long semVariacaoAntes = semVariacao();
+        long riscosAntes = riscoRepository.count();
+
+        // Primeira leitura sempre é analisada; as seguintes variam menos de 5%
+        leituraService.registrarLeitura(criarLeitura(sensor, 25.0, 60.0, 10.0));
+        leituraService.registrarLeitura(criarLeitura(sensor, 25.2, 60.5, 10.1));
+        leituraService.registrarLeitura(criarLeitura(sensor, 24.9, 59.8, 10.2));
+        assertEquals(riscosAntes + 1, riscoRepository.count());
+        assertEquals(semVariacaoAntes + 2, semVariacao());
+
+        // Variação grande (fumaça +50%): nova análise, que vira a nova base de comparação
+        leituraService.registrarLeitura(criarLeitura(sensor, 25.0, 60.0, 15.0));
+        assertEquals(riscosAntes + 2, riscoRepository.count());
+        leituraService.registrarLeitura(criarLeitura(sensor, 25.1, 60.0, 15.1));
+        assertEquals(riscosAntes + 2, riscoRepository.count());
+
+        // As leituras ignoradas continuam registradas e nas demais métricas
+        assertEquals(5, leituraService.buscarPorSensor(sensor.getId()).size());
+        assertEquals(semVariacaoAntes + 3, semVariacao());
+    }
+
+    @Test
+    void testAnaliseVencidaOuFumacaSaindoDeZero() {
+        Leitura base = criarEntidade(22.0, 55.0, 0.0);
+        Leitura semFumaca = criarEntidade(22.1, 55.0, 0.0);
+        Leitura comFumaca = criarEntidade(22.0, 55.0, 2.0);
+
+        FiltroVariacaoRisco filtro = new FiltroVariacaoRisco(true, 5.0, 10);
+        assertTrue(filtro.deveAnalisar(base));
+        filtro.registrarAnalise(base, new RiscoDTO());
+        assertFalse(filtro.deveAnalisar(semFumaca));
+        // Base zero de fumaça não gera divisão por zero: qualquer fumaça conta como variação
+        assertTrue(filtro.deveAnalisar(comFumaca));
+
+        // Validade negativa: a última análise nunca é considerada atualizada
+        FiltroVariacaoRisco semValidade = new FiltroVariacaoRisco(true, 5.0, -1);
+        semValidade.registrarAnalise(base, new RiscoDTO());
+        assertTrue(semValidade.deveAnalisar(semFumaca));
+
+        Map<String, Object> metricas = filtro.obterMetricas();
+        assertEquals(3L, metricas.get("leiturasAvaliadas"));
+        assertEquals(1L, metricas.get("analisesIgnoradas"));
+    }
+
+    private long semVariacao() {
+        return (long) pipelineAnaliseRisco.obterMetricas().get("semVariacao");
+    }
+
+    private static LeituraDTO criarLeitura(Sensor sensor, double temperatura, double umidade, double fumaca) {
+        LeituraDTO leitura = new LeituraDTO();
+        leitura.setSensorId(sensor.getId());
+        leitura.setDataHora(LocalDateTime.now());
+        leitura.setTemperatura(temperatura);
+        leitura.setUmidade(umidade);
+        leitura.setNivelFumaca(fumaca);
+        leitura.setCo2(400.0);
+        return leitura;
+    }
+
+    private static Leitura criarEntidade(double temperatura, double umidade, double fumaca) {
+        Sensor sensor = new Sensor();
+        sensor.setId(1L);
+        Leitura leitura = new Leitura();
+        leitura.setSensor(sensor);
+        leitura.setTemperatura(temperatura);
+        leitura.setUmidade(umidade);
+        leitura.setNivelFumaca(fumaca);
+        return leitura;
+    }
+}
@@ -0,0 +1,11 @@
+package com.global_solution.fire_sentinel_App;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Configuração usada pelos testes que sobem o contexto Spring (JPA + serviços)
+ * sobre o H2 em memória.
+ */
+@SpringBootApplication
+public class FireSentinelTestApplication {
+}
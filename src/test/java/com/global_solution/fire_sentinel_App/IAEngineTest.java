@@ -0,0 +1,102 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.global_solution.fire_sentinel_App.ia.IAEngine;
+import com.global_solution.fire_sentinel_App.model.SensorData;
+
+class IAEngineTest {
+
+    @Test
+    void testLoteIgualAoCalculoIndividual() {
+        Random random = new Random(42);
+        int n = 200_000;
+        double[] temperaturas = new double[n];
+        double[] umidades = new double[n];
+        double[] niveisFumaca = new double[n];
+        for (int i = 0; i < n; i++) {
+            temperaturas[i] = -10 + random.nextDouble() * 80;
+            umidades[i] = random.nextDouble() * 100;
+            niveisFumaca[i] = random.nextDouble() * 1.5;
+        }
+        // Valores exatamente nas bordas das faixas (score 30, 50, 70 e 90) e ausentes
+        double[][] bordas = { { 75, 0, 0 }, { 125, 0, 0 }, { 175, 0, 0 }, { 225, 0, 0 }, { 0, 0, 0.3 },
+                { Double.NaN, 50, 0.1 }, { 30, 0, 0.18 } };
+        for (int i = 0; i < bordas.length; i++) {
+            temperaturas[i] = bordas[i][0];
+            umidades[i] = bordas[i][1];
+            niveisFumaca[i] = bordas[i][2];
+        }
+
+        int[] severidades = new int[n];
+        IAEngine.preverSeveridades(temperaturas, umidades, niveisFumaca, severidades);
+        for (int i = 0; i < n; i++) {
+            assertEquals(IAEngine.preverSeveridade(temperaturas[i], umidades[i], niveisFumaca[i]), severidades[i],
+                    "posição " + i);
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> IAEngine.preverSeveridades(temperaturas, umidades, niveisFumaca, new int[n - 1]));
+    }
+
+    /**
+     * Benchmark (mvn test -Pbenchmark): compara o caminho usado hoje, uma chamada de
+     * preverSeveridade(SensorData) por leitura, com o lote. O tempo do lote inclui copiar
+     * os valores dos SensorData para os arrays. Só imprime os tempos, sem asserções sobre eles.
+     */
+    @Test
+    @Tag("benchmark")
+    void testDesempenhoLoteVersusIndividual() {
+        Random random = new Random(7);
+        int n = 500_000;
+        SensorData[] leituras = new SensorData[n];
+        for (int i = 0; i < n; i++) {
+            SensorData leitura = new SensorData();
+            leitura.setTemperatura(15 + random.nextDouble() * 40);
+            leitura.setUmidade(random.nextDouble() * 100);
+            leitura.setNivelFumaca(random.nextDouble());
+            leituras[i] = leitura;
+        }
+        double[] temperaturas = new double[n];
+        double[] umidades = new double[n];
+        double[] niveisFumaca = new double[n];
+        int[] severidades = new int[n];
+
+        long somaIndividual = 0;
+        long somaLote = 0;
+        long melhorIndividual = Long.MAX_VALUE;
+        long melhorLote = Long.MAX_VALUE;
+        // Várias rodadas para o JIT compilar os dois caminhos; vale a melhor de cada
+        for (int rodada = 0; rodada < 10; rodada++) {
+            long inicio = System.nanoTime();
+            long soma = 0;
+            for (SensorData leitura : leituras) {
+                soma += IAEngine.preverSeveridade(leitura);
+            }
+            melhorIndividual = Math.min(melhorIndividual, System.nanoTime() - inicio);
+            somaIndividual = soma;
+
+            inicio = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                temperaturas[i] = leituras[i].getTemperatura();
+                umidades[i] = leituras[i].getUmidade();
+                niveisFumaca[i] = leituras[i].getNivelFumaca();
+            }
+            IAEngine.preverSeveridades(temperaturas, umidades, niveisFumaca, severidades);
+            melhorLote = Math.min(melhorLote, System.nanoTime() - inicio);
+            soma = 0;
+            for (int severidade : severidades) {
+                soma += severidade;
+            }
+            somaLote = soma;
+        }
+
+        assertEquals(somaIndividual, somaLote);
+        System.out.printf("Severidade em 1 núcleo: SensorData individual %.1f M leituras/s, lote %.1f M leituras/s%n",
+                n / (melhorIndividual / 1e3), n / (melhorLote / 1e3));
+    }
+}
@@ -0,0 +1,148 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.global_solution.fire_sentinel_App.geo.IndiceEspacial;
+import com.global_solution.fire_sentinel_App.model.Sensor;
+
+class IndiceEspacialTest {
+    
+    private static final int TOTAL_SENSORES = 100_000;
+    private static final int CONSULTAS = 200;
+    
+    private IndiceEspacial indice;
+    private List<Sensor> sensores;
+    
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceEspacial(0.1);
+        sensores = new ArrayList<>(TOTAL_SENSORES);
+        Random random = new Random(42);
+        // Sensores espalhados aproximadamente pelo território brasileiro
+        for (long i = 1; i <= TOTAL_SENSORES; i++) {
+            Sensor sensor = criarSensor(i, -33.0 + random.nextDouble() * 38.0, -74.0 + random.nextDouble() * 40.0);
+            sensores.add(sensor);
+            indice.atualizar(sensor);
+        }
+    }
+    
+    @Test
+    void testBuscaNaAreaIgualAVarreduraCompleta() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100; i++) {
+            double lat = -33.0 + random.nextDouble() * 38.0;
+            double lon = -74.0 + random.nextDouble() * 40.0;
+            double raio = 5 + random.nextDouble() * 95;
+            assertEquals(ids(varrer(lat, lon, raio)), ids(indice.buscarNaArea(lat, lon, raio)));
+        }
+    }
+    
+    @Test
+    void testAtualizacaoMoveERemoveSensores() {
+        Sensor sensor = criarSensor(TOTAL_SENSORES + 1L, 60.0, 10.0);
+        indice.atualizar(sensor);
+        assertEquals(Set.of(sensor.getId()), ids(indice.buscarNaArea(60.0, 10.0, 1)));
+        
+        sensor.setLatitude(61.0);
+        indice.atualizar(sensor);
+        assertTrue(indice.buscarNaArea(60.0, 10.0, 1).isEmpty());
+        assertEquals(1, indice.buscarNaArea(61.0, 10.0, 1).size());
+        
+        sensor.setAtivo(false);
+        indice.atualizar(sensor);
+        assertTrue(indice.buscarNaArea(61.0, 10.0, 1).isEmpty());
+        
+        sensor.setAtivo(true);
+        indice.atualizar(sensor);
+        indice.remover(sensor.getId());
+        assertTrue(indice.buscarNaArea(61.0, 10.0, 1).isEmpty());
+    }
+    
+    @Test
+    void testBuscaCruzandoLinhaDeDataEPolo() {
+        Sensor leste = criarSensor(TOTAL_SENSORES + 1L, 0.0, 179.99);
+        Sensor oeste = criarSensor(TOTAL_SENSORES + 2L, 0.0, -179.99);
+        Sensor polo = criarSensor(TOTAL_SENSORES + 3L, 89.99, 45.0);
+        indice.atualizar(leste);
+        indice.atualizar(oeste);
+        indice.atualizar(polo);
+        
+        assertEquals(Set.of(leste.getId(), oeste.getId()), ids(indice.buscarNaArea(0.0, 180.0, 5)));
+        assertEquals(Set.of(polo.getId()), ids(indice.buscarNaArea(90.0, -120.0, 5)));
+    }
+    
+    /**
+     * Benchmark (mvn test -Pbenchmark): só imprime os tempos, sem asserções sobre eles.
+     */
+    @Test
+    @Tag("benchmark")
+    void testBenchmarkIndiceContraVarreduraCompleta() {
+        Random random = new Random(11);
+        double[][] consultas = new double[CONSULTAS][];
+        for (int i = 0; i < CONSULTAS; i++) {
+            consultas[i] = new double[] {-33.0 + random.nextDouble() * 38.0, -74.0 + random.nextDouble() * 40.0, 25};
+        }
+        
+        // Aquecimento do JIT
+        executar(consultas, true);
+        executar(consultas, false);
+        
+        long inicio = System.nanoTime();
+        long encontradosIndice = executar(consultas, true);
+        double mediaIndiceMs = (System.nanoTime() - inicio) / 1e6 / CONSULTAS;
+        
+        inicio = System.nanoTime();
+        long encontradosVarredura = executar(consultas, false);
+        double mediaVarreduraMs = (System.nanoTime() - inicio) / 1e6 / CONSULTAS;
+        
+        System.out.printf("Busca por área em %d sensores (raio 25 km): índice %.4f ms, varredura %.4f ms (%.0fx)%n",
+                TOTAL_SENSORES, mediaIndiceMs, mediaVarreduraMs, mediaVarreduraMs / mediaIndiceMs);
+        
+        assertEquals(encontradosVarredura, encontradosIndice);
+    }
+    
+    private long executar(double[][] consultas, boolean usarIndice) {
+        long encontrados = 0;
+        for (double[] consulta : consultas) {
+            encontrados += usarIndice
+                    ? indice.buscarNaArea(consulta[0], consulta[1], consulta[2]).size()
+                    : varrer(consulta[0], consulta[1], consulta[2]).size();
+        }
+        return encontrados;
+    }
+    
+    private List<Sensor> varrer(double latitude, double longitude, double raio) {
+        List<Sensor> encontrados = new ArrayList<>();
+        for (Sensor sensor : sensores) {
+            if (sensor.isAtivo() && sensor.estaDentroArea(latitude, longitude, raio)) {
+                encontrados.add(sensor);
+            }
+        }
+        return encontrados;
+    }
+    
+    private Set<Long> ids(List<Sensor> lista) {
+        return lista.stream().map(Sensor::getId).collect(Collectors.toSet());
+    }
+    
+    private Sensor criarSensor(Long id, double latitude, double longitude) {
+        Sensor sensor = new Sensor();
+        sensor.setId(id);
+        sensor.setNome("Sensor " + id);
+        sensor.setTipo("TEMPERATURA");
+        sensor.setLatitude(latitude);
+        sensor.setLongitude(longitude);
+        sensor.setAtivo(true);
+        return sensor;
+    }
+}
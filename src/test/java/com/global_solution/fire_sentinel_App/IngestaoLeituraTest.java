@@ -0,0 +1,104 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.SensorDTO;
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.repository.RiscoRepository;
+import com.global_solution.fire_sentinel_App.service.LeituraService;
+import com.global_solution.fire_sentinel_App.service.SensorService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@TesteIntegracao(properties = {
+        "ia.pipeline.filtro.habilitado=false",
+        "ia.reanalise.habilitado=false"
+})
+class IngestaoLeituraTest {
+    
+    private static final int LEITURAS = 20;
+    
+    @Autowired
+    private LeituraService leituraService;
+    
+    @Autowired
+    private SensorService sensorService;
+    
+    @Autowired
+    private RiscoRepository riscoRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Sensor sensor;
+    
+    @BeforeEach
+    void setUp() {
+        sensor = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Ingestão", "Temperatura", "Setor Sul", -23.5, -46.6, true));
+        // Aquecimento: aloca o bloco de IDs das sequências antes da medição
+        leituraService.registrarLeitura(criarLeitura(25.0));
+    }
+    
+    @Test
+    void testLeituraERiscoGravadosComDuasInstrucoesPorLeitura() {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        long riscosAntes = riscoRepository.count();
+        estatisticas.clear();
+        
+        for (int i = 0; i < LEITURAS; i++) {
+            Leitura leitura = leituraService.registrarLeitura(criarLeitura(25.0 + i));
+            assertNotNull(leitura.getId());
+        }
+        
+        long instrucoes = estatisticas.getPrepareStatementCount();
+        System.out.println("Instruções SQL para " + LEITURAS + " leituras: " + instrucoes);
+        
+        // Um INSERT da leitura e um INSERT do risco por leitura (mais eventuais chamadas às
+        // sequências de ID); sem releituras de sensor ou leitura
+        assertEquals(0, estatisticas.getEntityLoadCount());
+        assertEquals(2L * LEITURAS, estatisticas.getEntityInsertCount());
+        assertTrue(instrucoes <= 2L * LEITURAS + 4, "Instruções SQL por leitura acima do esperado: " + instrucoes);
+        assertEquals(riscosAntes + LEITURAS, riscoRepository.count());
+    }
+    
+    @Test
+    void testUltimaLeituraIgnoraLeituraForaDeOrdem() {
+        LocalDateTime agora = LocalDateTime.now();
+        LeituraDTO recente = criarLeitura(30.0);
+        recente.setDataHora(agora);
+        LeituraDTO atrasada = criarLeitura(18.0);
+        atrasada.setDataHora(agora.minusMinutes(10));
+        
+        leituraService.registrarLeitura(recente);
+        leituraService.registrarLeitura(atrasada);
+        
+        Leitura ultima = leituraService.obterUltimasLeiturasPorSensor().stream()
+                .filter(l -> l.getSensor().getId().equals(sensor.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(30.0, ultima.getTemperatura());
+        assertEquals(agora, ultima.getDataHora());
+    }
+    
+    private LeituraDTO criarLeitura(double temperatura) {
+        LeituraDTO leitura = new LeituraDTO();
+        leitura.setSensorId(sensor.getId());
+        leitura.setTemperatura(temperatura);
+        leitura.setUmidade(40.0);
+        leitura.setNivelFumaca(10.0);
+        leitura.setCo2(450.0);
+        return leitura;
+    }
+}
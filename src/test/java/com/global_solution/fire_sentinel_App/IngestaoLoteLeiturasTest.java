@@ -0,0 +1,193 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.global_solution.fire_sentinel_App.controller.LeituraController;
+import com.global_solution.fire_sentinel_App.dto.ItemResultadoLoteDTO;
+import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.ResultadoLoteLeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.SensorDTO;
+import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.repository.LeituraRepository;
+import com.global_solution.fire_sentinel_App.service.LeituraService;
+import com.global_solution.fire_sentinel_App.service.SensorService;
+import com.global_solution.fire_sentinel_App.wal.LogLeituras;
+import com.global_solution.fire_sentinel_App.wal.RegistroLog;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@TesteIntegracao(properties = {
+        "ia.pipeline.filtro.habilitado=false",
+        "ia.reanalise.habilitado=false"
+})
+class IngestaoLoteLeiturasTest {
+
+    private static final int LEITURAS = 20;
+
+    @Autowired
+    private LeituraController leituraController;
+
+    @Autowired
+    private LeituraService leituraService;
+
+    @Autowired
+    private SensorService sensorService;
+
+    @Autowired
+    private LeituraRepository leituraRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @TempDir
+    Path diretorio;
+
+    private Sensor sensor;
+
+    @BeforeEach
+    void setUp() {
+        sensor = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Lote", "Temperatura", "Setor Norte", -3.1, -60.0, true));
+    }
+
+    @Test
+    void testLoteTodoAceitoGravadoComInsertsEmLote() {
+        // Aquecimento: aloca o bloco de IDs das sequências antes da medição
+        leituraController.registrarLeituras(List.of(criarLeitura(sensor.getId(), 25.0)));
+
+        List<LeituraDTO> lote = new ArrayList<>();
+        for (int i = 0; i < LEITURAS; i++) {
+            lote.add(criarLeitura(sensor.getId(), 25.0 + i));
+        }
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        ResponseEntity<ResultadoLoteLeituraDTO> resposta = leituraController.registrarLeituras(lote);
+
+        long instrucoes = estatisticas.getPrepareStatementCount();
+        System.out.println("Instruções SQL para um lote de " + LEITURAS + " leituras: " + instrucoes
+                + " (" + estatisticas.getEntityInsertCount() + " inserts)");
+        assertEquals(HttpStatus.CREATED, resposta.getStatusCode());
+        ResultadoLoteLeituraDTO resultado = resposta.getBody();
+        assertEquals(LEITURAS, resultado.getTotal());
+        assertEquals(LEITURAS, resultado.getAceitas());
+        assertEquals(0, resultado.getRejeitadas());
+        for (int i = 0; i < LEITURAS; i++) {
+            ItemResultadoLoteDTO item = resultado.getItens().get(i);
+            assertEquals(i, item.getIndice());
+            assertEquals(ItemResultadoLoteDTO.ACEITA, item.getStatus());
+            assertTrue(leituraRepository.existsById(item.getLeituraId()));
+        }
+
+        // As leituras vão em um único insert em lote JDBC; os riscos, um por leitura
+        assertEquals(2L * LEITURAS, estatisticas.getEntityInsertCount());
+        assertEquals(0, estatisticas.getEntityLoadCount());
+        assertTrue(instrucoes <= LEITURAS + 4, "Inserts das leituras não foram agrupados: " + instrucoes);
+    }
+
+    @Test
+    void testItensInvalidosRejeitadosComMotivoSemAfetarOLote() {
+        LeituraDTO semSensor = criarLeitura(null, 25.0);
+        LeituraDTO sensorInexistente = criarLeitura(-99L, 25.0);
+        LeituraDTO semUmidade = criarLeitura(sensor.getId(), 25.0);
+        semUmidade.setUmidade(null);
+        List<LeituraDTO> lote = Arrays.asList(
+                criarLeitura(sensor.getId(), 30.0), null, semSensor, sensorInexistente, semUmidade,
+                criarLeitura(sensor.getId(), 31.0));
+
+        ResponseEntity<ResultadoLoteLeituraDTO> resposta = leituraController.registrarLeituras(lote);
+
+        assertEquals(HttpStatus.MULTI_STATUS, resposta.getStatusCode());
+        ResultadoLoteLeituraDTO resultado = resposta.getBody();
+        System.out.println("Lote com itens inválidos: " + resultado);
+        assertEquals(6, resultado.getTotal());
+        assertEquals(2, resultado.getAceitas());
+        assertEquals(4, resultado.getRejeitadas());
+        List<ItemResultadoLoteDTO> itens = resultado.getItens();
+        assertEquals(ItemResultadoLoteDTO.ACEITA, itens.get(0).getStatus());
+        assertEquals("Leitura vazia", itens.get(1).getMotivo());
+        assertEquals("ID do sensor não informado", itens.get(2).getMotivo());
+        assertEquals("Sensor não encontrado com ID: -99", itens.get(3).getMotivo());
+        assertEquals(-99L, itens.get(3).getSensorId());
+        assertEquals("Temperatura, umidade e nível de fumaça são obrigatórios", itens.get(4).getMotivo());
+        assertEquals(ItemResultadoLoteDTO.ACEITA, itens.get(5).getStatus());
+        itens.subList(1, 5).forEach(item -> {
+            assertEquals(ItemResultadoLoteDTO.REJEITADA, item.getStatus());
+            assertNull(item.getLeituraId());
+        });
+        assertEquals(2, leituraRepository.findBySensorIdOrderByDataHoraDesc(sensor.getId()).size());
+    }
+
+    @Test
+    void testLoteAcimaDoTamanhoMaximoRecusado() {
+        ReflectionTestUtils.setField(leituraController, "tamanhoMaximoLote", 3);
+        try {
+            List<LeituraDTO> lote = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                lote.add(criarLeitura(sensor.getId(), 25.0));
+            }
+            assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, leituraController.registrarLeituras(lote).getStatusCode());
+            assertEquals(HttpStatus.CREATED, leituraController.registrarLeituras(lote.subList(0, 3)).getStatusCode());
+            assertEquals(3, leituraRepository.findBySensorIdOrderByDataHoraDesc(sensor.getId()).size());
+        } finally {
+            ReflectionTestUtils.setField(leituraController, "tamanhoMaximoLote", 1000);
+        }
+    }
+
+    @Test
+    void testLoteAceitoPeloLogRespondeAccepted() {
+        Object servico = AopTestUtils.getUltimateTargetObject(leituraService);
+        Object logOriginal = ReflectionTestUtils.getField(servico, "logLeituras");
+        LogLeituras logLeituras = new LogLeituras(true, diretorio.toString(), 1024 * 1024, 0);
+        logLeituras.abrir();
+        ReflectionTestUtils.setField(servico, "logLeituras", logLeituras);
+        try {
+            ResponseEntity<ResultadoLoteLeituraDTO> resposta = leituraController.registrarLeituras(List.of(
+                    criarLeitura(sensor.getId(), 26.0), criarLeitura(sensor.getId(), 27.0)));
+
+            // Duráveis no log, ainda sem ID: a gravação no banco fica para o AplicadorLogLeituras
+            assertEquals(HttpStatus.ACCEPTED, resposta.getStatusCode());
+            assertEquals(2, resposta.getBody().getAceitas());
+            assertTrue(resposta.getBody().getItens().stream().allMatch(item -> item.getLeituraId() == null));
+            List<RegistroLog> registros = logLeituras.ler(0, 10);
+            assertEquals(2, registros.size());
+            assertEquals(27.0, registros.get(1).leitura().getTemperatura());
+            assertTrue(leituraRepository.findBySensorIdOrderByDataHoraDesc(sensor.getId()).isEmpty());
+
+            // Com itens rejeitados, o lote responde 207 mesmo pelo log
+            assertEquals(HttpStatus.MULTI_STATUS, leituraController.registrarLeituras(Arrays.asList(
+                    criarLeitura(sensor.getId(), 28.0), null)).getStatusCode());
+        } finally {
+            ReflectionTestUtils.setField(servico, "logLeituras", logOriginal);
+            logLeituras.fechar();
+        }
+    }
+
+    private LeituraDTO criarLeitura(Long sensorId, double temperatura) {
+        LeituraDTO dto = new LeituraDTO();
+        dto.setSensorId(sensorId);
+        dto.setDataHora(LocalDateTime.now());
+        dto.setTemperatura(temperatura);
+        dto.setUmidade(45.0);
+        dto.setNivelFumaca(0.1);
+        dto.setCo2(400.0);
+        return dto;
+    }
+}
@@ -75,6 +75,26 @@ class LeituraTest {
         assertTrue(diferenca > 0);
     }
     
+    @Test
+    void testCalcularDiferencaPercentualComBaseZero() {
+        Leitura base = new Leitura();
+        base.setTemperatura(20.0);
+        base.setUmidade(50.0);
+        base.setNivelFumaca(0.0);
+        
+        Leitura igual = new Leitura();
+        igual.setTemperatura(20.0);
+        igual.setUmidade(50.0);
+        igual.setNivelFumaca(0.0);
+        assertEquals(0.0, base.calcularDiferencaPercentual(igual));
+        
+        // Fumaça saindo de zero conta como 100% nesse parâmetro (média de 3 parâmetros)
+        igual.setNivelFumaca(5.0);
+        Double diferenca = base.calcularDiferencaPercentual(igual);
+        assertFalse(diferenca.isNaN() || diferenca.isInfinite());
+        assertEquals(100.0 / 3, diferenca, 1e-9);
+    }
+    
     @Test
     void testToString() {
         String resultado = leitura.toString();
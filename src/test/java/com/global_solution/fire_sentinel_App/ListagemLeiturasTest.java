@@ -0,0 +1,201 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.global_solution.fire_sentinel_App.cache.CacheUltimasLeituras;
+import com.global_solution.fire_sentinel_App.controller.LeituraController;
+import com.global_solution.fire_sentinel_App.controller.Paginacao;
+import com.global_solution.fire_sentinel_App.dto.CursorTemporal;
+import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.SensorDTO;
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.repository.LeituraRepository;
+import com.global_solution.fire_sentinel_App.repository.RiscoRepository;
+import com.global_solution.fire_sentinel_App.repository.UltimaLeituraSensorRepository;
+import com.global_solution.fire_sentinel_App.service.LeituraService;
+import com.global_solution.fire_sentinel_App.service.SensorService;
+
+@TesteIntegracao
+class ListagemLeiturasTest {
+    
+    private static final int LEITURAS = 7;
+    
+    @Autowired
+    private LeituraService leituraService;
+    
+    @Autowired
+    private SensorService sensorService;
+    
+    @Autowired
+    private LeituraController leituraController;
+    
+    @Autowired
+    private LeituraRepository leituraRepository;
+    
+    @Autowired
+    private RiscoRepository riscoRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private UltimaLeituraSensorRepository ultimaLeituraSensorRepository;
+    
+    @Autowired
+    private CacheUltimasLeituras cacheUltimasLeituras;
+    
+    private Sensor sensor;
+    private LocalDateTime base;
+    
+    @BeforeEach
+    void setUp() {
+        sensor = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Listagem", "Fumaça", "Setor Leste", -15.8, -47.9, true));
+        base = LocalDateTime.now().minusDays(1).withNano(0);
+        for (int i = 0; i < LEITURAS; i++) {
+            LeituraDTO leitura = new LeituraDTO();
+            leitura.setSensorId(sensor.getId());
+            // Duas leituras por instante para exercitar o desempate por ID
+            leitura.setDataHora(base.plusMinutes(i / 2));
+            leitura.setTemperatura(20.0 + i);
+            leitura.setUmidade(50.0);
+            leitura.setNivelFumaca(5.0);
+            leitura.setCo2(400.0);
+            leituraService.registrarLeitura(leitura);
+        }
+    }
+    
+    @Test
+    void testPaginacaoPorCursorDoSensorPercorreTodasSemRepetir() {
+        List<Leitura> percorridas = new ArrayList<>();
+        CursorTemporal cursor = null;
+        List<Leitura> pagina;
+        do {
+            pagina = leituraService.buscarPorSensor(sensor.getId(), cursor, 3);
+            percorridas.addAll(pagina);
+            cursor = pagina.isEmpty() ? null
+                    : new CursorTemporal(pagina.get(pagina.size() - 1).getDataHora(), pagina.get(pagina.size() - 1).getId());
+        } while (pagina.size() == 3);
+        
+        assertEquals(LEITURAS, percorridas.size());
+        assertEquals(LEITURAS, percorridas.stream().map(Leitura::getId).distinct().count());
+        for (int i = 1; i < percorridas.size(); i++) {
+            assertFalse(percorridas.get(i).getDataHora().isAfter(percorridas.get(i - 1).getDataHora()));
+        }
+    }
+    
+    @Test
+    void testPaginacaoPorCursorDoPeriodoEmOrdemCronologica() {
+        List<Leitura> primeira = leituraService.buscarPorPeriodo(base, base.plusHours(1), null, 4);
+        Leitura ultima = primeira.get(primeira.size() - 1);
+        List<Leitura> segunda = leituraService.buscarPorPeriodo(base, base.plusHours(1),
+                new CursorTemporal(ultima.getDataHora(), ultima.getId()), 4);
+        
+        assertEquals(4, primeira.size());
+        assertTrue(segunda.size() >= LEITURAS - 4);
+        assertFalse(segunda.get(0).getDataHora().isBefore(primeira.get(3).getDataHora()));
+        assertTrue(segunda.stream().noneMatch(primeira::contains));
+    }
+    
+    @Test
+    void testPaginacaoContinuaQuandoALeituraDoCursorEhRemovida() {
+        ResponseEntity<List<Leitura>> primeira = leituraController.listarLeituras(sensor.getId(), null, null, null, 3);
+        String cursor = primeira.getHeaders().getFirst(Paginacao.CABECALHO_PROXIMO_CURSOR);
+        Long removida = primeira.getBody().get(2).getId();
+        assertEquals(primeira.getBody().get(2).getDataHora() + "_" + removida, cursor);
+        
+        // A leitura do cursor sai do banco entre uma página e outra (retenção, exclusão)
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            riscoRepository.desvincularLeituras(List.of(removida));
+            leituraRepository.deleteByIdIn(List.of(removida));
+        });
+        
+        List<Leitura> percorridas = new ArrayList<>(primeira.getBody());
+        while (cursor != null) {
+            ResponseEntity<List<Leitura>> pagina = leituraController.listarLeituras(sensor.getId(), null, null, cursor, 3);
+            percorridas.addAll(pagina.getBody());
+            cursor = pagina.getHeaders().getFirst(Paginacao.CABECALHO_PROXIMO_CURSOR);
+        }
+        System.out.println("Leituras percorridas após remover a leitura do cursor: " + percorridas.size());
+        assertEquals(LEITURAS, percorridas.size());
+        assertEquals(LEITURAS, percorridas.stream().map(Leitura::getId).distinct().count());
+        
+        // Cursor em formato diferente do da listagem é rejeitado em vez de ignorado
+        assertEquals(HttpStatus.BAD_REQUEST,
+                leituraController.listarLeituras(sensor.getId(), null, null, String.valueOf(removida), 3).getStatusCode());
+    }
+    
+    @Test
+    void testUltimasLeiturasPreenchidasAPartirDeLeiturasComTabelaVazia() {
+        // Leituras gravadas direto no banco, como em uma base anterior à tabela ultimas_leituras
+        Sensor legado = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Legado", "Fumaça", "Setor Leste", -15.9, -47.8, true));
+        for (int i = 0; i < 3; i++) {
+            Leitura leitura = new Leitura();
+            leitura.setSensor(legado);
+            leitura.setDataHora(base.minusHours(i));
+            leitura.setTemperatura(30.0 - i);
+            leitura.setUmidade(40.0);
+            leitura.setNivelFumaca(2.0);
+            leitura.setCo2(400.0);
+            leituraRepository.save(leitura);
+        }
+        assertTrue(cacheUltimasLeituras.buscar(legado.getId()).isEmpty());
+        
+        cacheUltimasLeituras.gravarPendentes();
+        ultimaLeituraSensorRepository.deleteAll();
+        cacheUltimasLeituras.carregar();
+        
+        Leitura ultima = cacheUltimasLeituras.buscar(legado.getId()).orElseThrow();
+        assertEquals(base, ultima.getDataHora());
+        assertEquals(30.0, ultima.getTemperatura());
+        assertEquals(base, ultimaLeituraSensorRepository.findById(legado.getId()).orElseThrow().getDataHora());
+        // O sensor das leituras do teste também volta à tabela
+        assertTrue(ultimaLeituraSensorRepository.existsById(sensor.getId()));
+    }
+    
+    @Test
+    void testSensorRemovidoSaiDasUltimasLeituras() {
+        Sensor removido = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Removido", "Fumaça", "Setor Leste", -15.7, -47.7, true));
+        Leitura leitura = new Leitura();
+        leitura.setSensor(removido);
+        leitura.setDataHora(base);
+        leitura.setTemperatura(25.0);
+        leitura.setUmidade(50.0);
+        leitura.setNivelFumaca(1.0);
+        leitura.setCo2(400.0);
+        cacheUltimasLeituras.registrar(leitura);
+        cacheUltimasLeituras.gravarPendentes();
+        assertTrue(ultimaLeituraSensorRepository.existsById(removido.getId()));
+        
+        assertTrue(sensorService.removerSensor(removido.getId()));
+        
+        assertTrue(cacheUltimasLeituras.buscar(removido.getId()).isEmpty());
+        assertFalse(ultimaLeituraSensorRepository.existsById(removido.getId()));
+        assertTrue(cacheUltimasLeituras.listar().stream()
+                .noneMatch(ultima -> removido.getId().equals(ultima.getSensor().getId())));
+    }
+    
+    @Test
+    void testExportacaoEmStreamingEntregaTodasAsLeituras() {
+        List<LeituraDTO> exportadas = new ArrayList<>();
+        leituraService.exportarLeituras(sensor.getId(), exportadas::add);
+        
+        assertEquals(LEITURAS, exportadas.size());
+        assertTrue(exportadas.stream().allMatch(l -> sensor.getId().equals(l.getSensorId())));
+    }
+}
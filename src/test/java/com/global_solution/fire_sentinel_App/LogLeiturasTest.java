@@ -0,0 +1,159 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+import com.global_solution.fire_sentinel_App.wal.LogLeituras;
+import com.global_solution.fire_sentinel_App.wal.RegistroLog;
+
+class LogLeiturasTest {
+
+    private static final int TAMANHO_REGISTRO = 64;
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 9, 1, 12, 0, 0, 123_456_789);
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void testReabreMantendoLeiturasESequencias() {
+        LogLeituras logLeituras = abrir(1024 * 1024, 0);
+        assertEquals(2, logLeituras.anexar(List.of(leitura(1L, 0, 20.0), leitura(2L, 1, 21.0))));
+        LeituraDTO semCo2 = leitura(1L, 2, 22.0);
+        semCo2.setCo2(null);
+        assertEquals(3, logLeituras.anexar(List.of(semCo2)));
+        logLeituras.fechar();
+
+        LogLeituras reaberto = abrir(1024 * 1024, 0);
+        List<RegistroLog> registros = reaberto.ler(0, 100);
+        assertEquals(3, registros.size());
+        assertEquals(1, registros.get(0).sequencia());
+        assertEquals(BASE, registros.get(0).leitura().getDataHora());
+        assertEquals(2L, registros.get(1).leitura().getSensorId());
+        assertEquals(21.0, registros.get(1).leitura().getTemperatura());
+        assertEquals(400.0, registros.get(1).leitura().getCo2());
+        assertNull(registros.get(2).leitura().getCo2());
+
+        assertEquals(4, reaberto.anexar(List.of(leitura(1L, 3, 23.0))));
+        assertEquals(1, reaberto.ler(3, 100).size());
+        reaberto.fechar();
+    }
+
+    @Test
+    void testCaudaIncompletaDescartadaNaReabertura() throws Exception {
+        LogLeituras logLeituras = abrir(1024 * 1024, 0);
+        for (int i = 0; i < 5; i++) {
+            logLeituras.anexar(List.of(leitura(1L, i, 20.0 + i)));
+        }
+        logLeituras.fechar();
+
+        // Simula uma queda no meio da gravação da 4ª leitura
+        try (RandomAccessFile arquivo = new RandomAccessFile(segmentos().get(0).toFile(), "rw")) {
+            arquivo.seek(3 * TAMANHO_REGISTRO + 30);
+            arquivo.write(0x7F);
+        }
+
+        LogLeituras reaberto = abrir(1024 * 1024, 0);
+        assertEquals(3, reaberto.getSequenciaDuravel());
+        assertEquals(4, reaberto.anexar(List.of(leitura(1L, 10, 99.0))));
+        reaberto.fechar();
+
+        // A 5ª leitura antiga não pode reaparecer depois da nova 4ª
+        LogLeituras recuperado = abrir(1024 * 1024, 0);
+        List<RegistroLog> registros = recuperado.ler(0, 100);
+        assertEquals(4, registros.size());
+        assertEquals(99.0, registros.get(3).leitura().getTemperatura());
+        recuperado.fechar();
+    }
+
+    @Test
+    void testRolaEDescartaSegmentos() throws Exception {
+        LogLeituras logLeituras = abrir(10 * TAMANHO_REGISTRO, 0);
+        for (int i = 0; i < 25; i++) {
+            logLeituras.anexar(List.of(leitura(1L, i, i)));
+        }
+        assertEquals(3, segmentos().size());
+        assertEquals(25, logLeituras.ler(0, 100).size());
+        assertEquals(12.0, logLeituras.ler(12, 1).get(0).leitura().getTemperatura());
+
+        assertEquals(2, logLeituras.descartarAte(22));
+        assertEquals(1, segmentos().size());
+        List<RegistroLog> restantes = logLeituras.ler(20, 100);
+        assertEquals(5, restantes.size());
+        assertEquals(21, restantes.get(0).sequencia());
+        logLeituras.fechar();
+
+        LogLeituras reaberto = abrir(10 * TAMANHO_REGISTRO, 0);
+        assertEquals(25, reaberto.getSequenciaDuravel());
+        assertEquals(26, reaberto.anexar(List.of(leitura(1L, 30, 30.0))));
+        reaberto.fechar();
+    }
+
+    @Test
+    void testSincronizacaoEmGrupo() throws Exception {
+        LogLeituras logLeituras = abrir(64 * 1024 * 1024, 5);
+        int threads = 8;
+        int porThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long inicio = System.nanoTime();
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long sensorId = t + 1;
+            tarefas.add(executor.submit(() -> {
+                for (int i = 0; i < porThread; i++) {
+                    logLeituras.anexar(List.of(leitura(sensorId, i, 25.0)));
+                }
+            }));
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get(60, TimeUnit.SECONDS);
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        executor.shutdown();
+
+        Map<String, Object> metricas = logLeituras.obterMetricas();
+        System.out.printf("Log de leituras: %d gravações em %.2f s, métricas %s%n", threads * porThread, segundos, metricas);
+        assertEquals((long) threads * porThread, logLeituras.getSequenciaDuravel());
+        assertTrue((long) metricas.get("sincronizacoes") < threads * porThread,
+                "Gravações concorrentes deveriam compartilhar sincronizações");
+        logLeituras.fechar();
+    }
+
+    private LogLeituras abrir(long tamanhoSegmento, long intervaloFsyncMs) {
+        LogLeituras logLeituras = new LogLeituras(true, diretorio.toString(), tamanhoSegmento, intervaloFsyncMs);
+        logLeituras.abrir();
+        return logLeituras;
+    }
+
+    private List<Path> segmentos() throws Exception {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.sorted().toList();
+        }
+    }
+
+    private LeituraDTO leitura(Long sensorId, int minutos, double temperatura) {
+        LeituraDTO dto = new LeituraDTO();
+        dto.setSensorId(sensorId);
+        dto.setDataHora(BASE.plusMinutes(minutos));
+        dto.setTemperatura(temperatura);
+        dto.setUmidade(45.0);
+        dto.setNivelFumaca(0.1);
+        dto.setCo2(400.0);
+        return dto;
+    }
+}
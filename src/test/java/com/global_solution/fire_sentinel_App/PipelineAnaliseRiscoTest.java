@@ -0,0 +1,200 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.global_solution.fire_sentinel_App.dto.RiscoDTO;
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.pipeline.FiltroVariacaoRisco;
+import com.global_solution.fire_sentinel_App.pipeline.PipelineAnaliseRisco;
+import com.global_solution.fire_sentinel_App.pipeline.PoliticaDescarte;
+import com.global_solution.fire_sentinel_App.service.RiscoService;
+
+class PipelineAnaliseRiscoTest {
+
+    private final List<Long> analisadas = new CopyOnWriteArrayList<>();
+    private final List<String> threads = new CopyOnWriteArrayList<>();
+    private final CountDownLatch liberarWorker = new CountDownLatch(1);
+    private final CountDownLatch workerOcupado = new CountDownLatch(1);
+    private PipelineAnaliseRisco pipeline;
+
+    @BeforeEach
+    void setUp() {
+        analisadas.clear();
+        threads.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        liberarWorker.countDown();
+    }
+
+    @Test
+    void testDescartarNovaDescartaALeituraQueChega() throws Exception {
+        pipeline = criarPipeline(PoliticaDescarte.DESCARTAR_NOVA, 10_000);
+        encherFila();
+
+        pipeline.submeter(leitura(3));
+        assertEquals(1L, pipeline.obterMetricas().get("descartadas"));
+
+        liberarWorker.countDown();
+        encerrar();
+        assertEquals(List.of(1L, 2L), analisadas);
+        assertMetricas(3, 2, 1);
+    }
+
+    @Test
+    void testDescartarAntigaTrocaALeituraMaisAntigaDaFila() throws Exception {
+        pipeline = criarPipeline(PoliticaDescarte.DESCARTAR_ANTIGA, 10_000);
+        encherFila();
+
+        pipeline.submeter(leitura(3));
+        pipeline.submeter(leitura(4));
+        assertEquals(2L, pipeline.obterMetricas().get("descartadas"));
+        assertEquals(1, pipeline.obterMetricas().get("profundidadeFila"));
+
+        liberarWorker.countDown();
+        encerrar();
+        // A 2 e a 3 saem da fila para dar lugar às mais novas; a 4 é analisada
+        assertEquals(List.of(1L, 4L), analisadas);
+        assertMetricas(4, 2, 2);
+    }
+
+    @Test
+    void testExecutarNoChamadorAnalisaNaThreadDeIngestao() throws Exception {
+        pipeline = criarPipeline(PoliticaDescarte.EXECUTAR_NO_CHAMADOR, 10_000);
+        encherFila();
+
+        pipeline.submeter(leitura(3));
+        assertEquals(List.of(3L), analisadas);
+        assertEquals(Thread.currentThread().getName(), threads.get(0));
+
+        liberarWorker.countDown();
+        encerrar();
+        assertEquals(List.of(3L, 1L, 2L), analisadas);
+        assertTrue(threads.subList(1, 3).stream().allMatch(nome -> nome.startsWith("analise-risco-")));
+        assertMetricas(3, 3, 0);
+    }
+
+    @Test
+    void testSubmeterDentroDeTransacaoSoEnfileiraAposOCommit() throws Exception {
+        pipeline = criarPipeline(PoliticaDescarte.DESCARTAR_NOVA, 10_000);
+        liberarWorker.countDown();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            pipeline.submeter(leitura(1));
+            assertEquals(0L, pipeline.obterMetricas().get("enfileiradas"));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(1L, pipeline.obterMetricas().get("enfileiradas"));
+        encerrar();
+        assertEquals(List.of(1L), analisadas);
+    }
+
+    @Test
+    void testEncerramentoContaComoDescartadasAsLeiturasQueNaoTerminaram() throws Exception {
+        pipeline = criarPipeline(PoliticaDescarte.DESCARTAR_NOVA, 100);
+        encherFila();
+
+        // O worker continua preso além da espera do encerramento: a leitura da fila é
+        // descartada e a análise em andamento é interrompida
+        encerrar();
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((long) pipeline.obterMetricas().get("falhas") == 0 && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        Map<String, Object> metricas = pipeline.obterMetricas();
+        System.out.println("Pipeline encerrado com worker preso: " + metricas);
+        assertTrue(analisadas.isEmpty());
+        assertEquals(1L, metricas.get("descartadas"));
+        assertEquals(0L, metricas.get("processadas"));
+        assertEquals(1L, metricas.get("falhas"));
+    }
+
+    /**
+     * Um worker preso na leitura 1 e a leitura 2 ocupando a única vaga da fila.
+     */
+    private void encherFila() throws InterruptedException {
+        pipeline.submeter(leitura(1));
+        assertTrue(workerOcupado.await(5, TimeUnit.SECONDS));
+        pipeline.submeter(leitura(2));
+        assertEquals(1, pipeline.obterMetricas().get("profundidadeFila"));
+        assertEquals(0L, pipeline.obterMetricas().get("descartadas"));
+    }
+
+    private void encerrar() {
+        ReflectionTestUtils.invokeMethod(pipeline, "encerrar");
+    }
+
+    private void assertMetricas(long enfileiradas, long processadas, long descartadas) {
+        Map<String, Object> metricas = pipeline.obterMetricas();
+        System.out.println("Pipeline " + metricas.get("politicaDescarte") + ": " + metricas);
+        assertEquals(enfileiradas, metricas.get("enfileiradas"));
+        assertEquals(processadas, metricas.get("processadas"));
+        assertEquals(descartadas, metricas.get("descartadas"));
+        assertEquals(0L, metricas.get("falhas"));
+    }
+
+    private PipelineAnaliseRisco criarPipeline(PoliticaDescarte politica, long esperaEncerramentoMs) {
+        PipelineAnaliseRisco novo = new PipelineAnaliseRisco();
+        ReflectionTestUtils.setField(novo, "riscoService", servicoRisco());
+        ReflectionTestUtils.setField(novo, "filtroVariacaoRisco", new FiltroVariacaoRisco(false, 5.0, 10));
+        ReflectionTestUtils.setField(novo, "habilitado", true);
+        ReflectionTestUtils.setField(novo, "capacidadeFila", 1);
+        ReflectionTestUtils.setField(novo, "workers", 1);
+        ReflectionTestUtils.setField(novo, "politicaDescarte", politica);
+        ReflectionTestUtils.setField(novo, "esperaEncerramentoMs", esperaEncerramentoMs);
+        ReflectionTestUtils.invokeMethod(novo, "iniciar");
+        return novo;
+    }
+
+    /**
+     * Serviço de risco que registra a ordem das análises e prende o worker na leitura 1
+     * até o teste liberá-lo.
+     */
+    private RiscoService servicoRisco() {
+        return (RiscoService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { RiscoService.class }, (proxy, metodo, argumentos) -> {
+                    if (!metodo.getName().equals("analisarRisco") || argumentos.length != 2) {
+                        throw new UnsupportedOperationException(metodo.getName());
+                    }
+                    Leitura leitura = (Leitura) argumentos[0];
+                    if (leitura.getId() == 1L) {
+                        workerOcupado.countDown();
+                        liberarWorker.await();
+                    }
+                    analisadas.add(leitura.getId());
+                    threads.add(Thread.currentThread().getName());
+                    RiscoDTO risco = new RiscoDTO();
+                    risco.setNivelRisco(0.1);
+                    return risco;
+                });
+    }
+
+    private Leitura leitura(long id) {
+        Sensor sensor = new Sensor();
+        sensor.setId(1L);
+        Leitura leitura = new Leitura();
+        leitura.setId(id);
+        leitura.setSensor(sensor);
+        return leitura;
+    }
+}
@@ -0,0 +1,235 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.RelatorioRetencaoDTO;
+import com.global_solution.fire_sentinel_App.dto.SensorDTO;
+import com.global_solution.fire_sentinel_App.historico.ArmazenamentoBlocosLeituras;
+import com.global_solution.fire_sentinel_App.historico.JanelaLeituras;
+import com.global_solution.fire_sentinel_App.model.AgregadoLeitura;
+import com.global_solution.fire_sentinel_App.model.AgregadoRisco;
+import com.global_solution.fire_sentinel_App.model.Leitura;
+import com.global_solution.fire_sentinel_App.model.Resolucao;
+import com.global_solution.fire_sentinel_App.model.Risco;
+import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.repository.AgregadoLeituraRepository;
+import com.global_solution.fire_sentinel_App.repository.AgregadoRiscoRepository;
+import com.global_solution.fire_sentinel_App.repository.LeituraRepository;
+import com.global_solution.fire_sentinel_App.repository.RiscoRepository;
+import com.global_solution.fire_sentinel_App.retencao.PoliticaRetencao;
+import com.global_solution.fire_sentinel_App.serie.AgregadorSeries;
+import com.global_solution.fire_sentinel_App.service.LeituraService;
+import com.global_solution.fire_sentinel_App.service.SensorService;
+
+@TesteIntegracao(properties = {
+        "ia.pipeline.filtro.habilitado=false"
+})
+class PoliticaRetencaoTest {
+
+    @Autowired
+    private PoliticaRetencao politicaRetencao;
+
+    @Autowired
+    private LeituraService leituraService;
+
+    @Autowired
+    private SensorService sensorService;
+
+    @Autowired
+    private LeituraRepository leituraRepository;
+
+    @Autowired
+    private RiscoRepository riscoRepository;
+
+    @Autowired
+    private AgregadoRiscoRepository agregadoRiscoRepository;
+
+    @Autowired
+    private AgregadoLeituraRepository agregadoLeituraRepository;
+
+    @Autowired
+    private AgregadorSeries agregadorSeries;
+
+    @Autowired
+    private ArmazenamentoBlocosLeituras armazenamentoBlocosLeituras;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(politicaRetencao, "tamanhoLote", 1000);
+    }
+
+    @Test
+    void testCompactaERemoveDadosForaDaJanelaEmBlocos() {
+        Sensor sensor = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Retenção", "Temperatura", "Cerrado", -16.0, -48.0, true));
+        LocalDateTime antiga = LocalDate.now().minusDays(100).atTime(10, 0);
+
+        List<Leitura> leiturasAntigas = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            leiturasAntigas.add(registrar(sensor.getId(), antiga.plusMinutes(i)));
+        }
+        // Leituras gravadas antes de os agregados existirem: ainda não estão em agregados_leituras
+        for (int i = 0; i < 3; i++) {
+            Leitura legada = new Leitura();
+            legada.setSensor(sensor);
+            legada.setDataHora(antiga.plusMinutes(10 + i));
+            legada.setTemperatura(40.0);
+            legada.setUmidade(45.0);
+            legada.setNivelFumaca(0.1);
+            legada.setCo2(400.0);
+            leituraRepository.save(legada);
+        }
+        for (int i = 0; i < 3; i++) {
+            registrar(sensor.getId(), LocalDateTime.now().minusMinutes(i));
+        }
+
+        // As análises das 3 primeiras leituras antigas também ficam fora da janela de riscos
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("UPDATE riscos SET data_hora_analise = ?, nivel_risco = ? WHERE leitura_id = ?",
+                    antiga.plusMinutes(i), i == 0 ? 0.9 : 0.2, leiturasAntigas.get(i).getId());
+        }
+
+        ReflectionTestUtils.setField(politicaRetencao, "tamanhoLote", 2);
+        RelatorioRetencaoDTO relatorio = politicaRetencao.executar();
+        System.out.println("Relatório de retenção: " + relatorio);
+
+        // Blocos de 2: riscos 2+1, leituras 2+2+2+2
+        assertEquals(3, relatorio.getRiscosCompactados());
+        assertEquals(8, relatorio.getLeiturasRemovidas());
+        assertEquals(3, relatorio.getLeiturasCompactadas());
+        assertEquals(2, relatorio.getRiscosDesvinculados());
+        assertEquals(6, relatorio.getLotes());
+
+        // Os agregados cobrem as leituras removidas: as 5 da ingestão e as 3 legadas, sem contagem dupla
+        assertEquals(8, agregado(sensor, Resolucao.DAY, antiga).getQuantidade());
+        AgregadoLeitura hora = agregado(sensor, Resolucao.HOUR, antiga);
+        assertEquals(8, hora.getQuantidade());
+        assertEquals(40.0, hora.getTemperatura().getMaximo());
+        assertEquals(28.0 * 5 + 40.0 * 3, hora.getTemperatura().getSoma(), 1e-9);
+        assertEquals(antiga.plusMinutes(12), hora.getUltimaDataHora());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(1, agregado(sensor, Resolucao.MINUTE, antiga.plusMinutes(10 + i)).getQuantidade());
+        }
+
+        List<Leitura> leituras = leituraRepository.findBySensorIdOrderByDataHoraDesc(sensor.getId());
+        assertEquals(3, leituras.size());
+        assertTrue(leituras.stream().allMatch(l -> l.getDataHora().isAfter(relatorio.getLimiteLeituras())));
+
+        // Análises recentes de leituras removidas são mantidas sem a leitura
+        List<Risco> riscos = riscoRepository.findBySensorIdOrderByDataHoraAnaliseDesc(sensor.getId());
+        assertEquals(5, riscos.size());
+        assertEquals(2, riscos.stream().filter(r -> r.getLeitura() == null).count());
+
+        List<AgregadoRisco> agregados = agregadoRiscoRepository.findBySensorIdOrderByInicioAsc(sensor.getId());
+        assertEquals(1, agregados.size());
+        assertEquals(3, agregados.get(0).getNivelRisco().getQuantidade());
+        assertEquals(0.9, agregados.get(0).getNivelRisco().getMaximo());
+        assertEquals(1, agregados.get(0).getQuantidadeAlertas());
+    }
+
+    @Test
+    void testLeiturasComParciaisPerdidosSaoCompactadasNaRetencao() {
+        Sensor sensor = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Queda", "Temperatura", "Cerrado", -16.5, -48.5, true));
+        LocalDateTime antiga = LocalDate.now().minusDays(100).atTime(14, 0);
+
+        // Leitura cujos agregados foram gravados antes da queda
+        registrar(sensor.getId(), antiga);
+        agregadorSeries.gravarPendentes();
+        for (int i = 1; i <= 4; i++) {
+            registrar(sensor.getId(), antiga.plusMinutes(i));
+        }
+
+        // Queda do processo antes da gravação periódica: os parciais em memória se perdem
+        ((Map<?, ?>) ReflectionTestUtils.getField(agregadorSeries, "pendentes")).clear();
+        ((Set<?>) ReflectionTestUtils.getField(agregadorSeries, "leiturasPendentes")).clear();
+
+        RelatorioRetencaoDTO relatorio = politicaRetencao.executar();
+        System.out.println("Relatório de retenção após queda: " + relatorio);
+
+        assertEquals(5, relatorio.getLeiturasRemovidas());
+        assertEquals(4, relatorio.getLeiturasCompactadas());
+        assertEquals(5, agregado(sensor, Resolucao.DAY, antiga).getQuantidade());
+        assertEquals(5, agregado(sensor, Resolucao.HOUR, antiga).getQuantidade());
+        for (int i = 0; i <= 4; i++) {
+            assertEquals(1, agregado(sensor, Resolucao.MINUTE, antiga.plusMinutes(i)).getQuantidade());
+        }
+    }
+
+    @Test
+    void testHistoricoEmBlocosCompletoAposARetencao() {
+        Sensor sensor = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Histórico", "Temperatura", "Cerrado", -17.0, -49.0, true));
+        LocalDateTime antiga = LocalDate.now().minusDays(100).atTime(8, 0);
+
+        // Duas leituras já gravadas nos blocos e duas que se perdem da memória em uma queda
+        registrar(sensor.getId(), antiga);
+        registrar(sensor.getId(), antiga.plusMinutes(1));
+        armazenamentoBlocosLeituras.gravarPendentes();
+        registrar(sensor.getId(), antiga.plusMinutes(2));
+        registrar(sensor.getId(), antiga.plusMinutes(3));
+        ((Map<?, ?>) ReflectionTestUtils.getField(armazenamentoBlocosLeituras, "pendentes")).clear();
+        // Leituras anteriores aos blocos, uma delas idêntica a uma já gravada
+        List<Leitura> legadas = new ArrayList<>();
+        for (LocalDateTime dataHora : List.of(antiga, antiga.plusMinutes(4), antiga.plusMinutes(65))) {
+            Leitura legada = new Leitura();
+            legada.setSensor(sensor);
+            legada.setDataHora(dataHora);
+            legada.setTemperatura(28.0);
+            legada.setUmidade(45.0);
+            legada.setNivelFumaca(0.1);
+            legada.setCo2(400.0);
+            legadas.add(leituraRepository.save(legada));
+        }
+        assertEquals(2, armazenamentoBlocosLeituras.buscarHistorico(sensor.getId(), antiga, antiga.plusHours(2)).tamanho());
+
+        RelatorioRetencaoDTO relatorio = politicaRetencao.executar();
+        System.out.println("Relatório de retenção com histórico em blocos: " + relatorio);
+
+        assertEquals(7, relatorio.getLeiturasRemovidas());
+        assertEquals(5, relatorio.getLeiturasConsolidadasEmBlocos());
+        JanelaLeituras historico = armazenamentoBlocosLeituras.buscarHistorico(sensor.getId(), antiga, antiga.plusHours(2));
+        assertEquals(7, historico.tamanho());
+        assertEquals(antiga, historico.getDataHora(0));
+        assertEquals(antiga, historico.getDataHora(1));
+        assertEquals(antiga.plusMinutes(65), historico.getDataHora(6));
+        // Consolidar de novo as mesmas leituras não duplica o histórico
+        assertEquals(0, armazenamentoBlocosLeituras.consolidar(legadas));
+    }
+
+    private AgregadoLeitura agregado(Sensor sensor, Resolucao resolucao, LocalDateTime dataHora) {
+        LocalDateTime inicio = resolucao.truncar(dataHora);
+        List<AgregadoLeitura> agregados = agregadoLeituraRepository
+                .findBySensorIdAndResolucaoAndInicioBetweenOrderByInicioAsc(sensor.getId(), resolucao, inicio, inicio);
+        assertEquals(1, agregados.size(), "Agregado " + resolucao + " de " + inicio);
+        return agregados.get(0);
+    }
+
+    private Leitura registrar(Long sensorId, LocalDateTime dataHora) {
+        LeituraDTO dto = new LeituraDTO();
+        dto.setSensorId(sensorId);
+        dto.setDataHora(dataHora);
+        dto.setTemperatura(28.0);
+        dto.setUmidade(45.0);
+        dto.setNivelFumaca(0.1);
+        dto.setCo2(400.0);
+        return leituraService.registrarLeitura(dto);
+    }
+}
@@ -0,0 +1,171 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.global_solution.fire_sentinel_App.dto.LeituraDTO;
+import com.global_solution.fire_sentinel_App.dto.PercentisDTO;
+import com.global_solution.fire_sentinel_App.dto.PontoSerieDTO;
+import com.global_solution.fire_sentinel_App.dto.SensorDTO;
+import com.global_solution.fire_sentinel_App.historico.ArmazenamentoBlocosLeituras;
+import com.global_solution.fire_sentinel_App.historico.Metrica;
+import com.global_solution.fire_sentinel_App.model.Resolucao;
+import com.global_solution.fire_sentinel_App.model.Sensor;
+import com.global_solution.fire_sentinel_App.serie.AgregadorPercentis;
+import com.global_solution.fire_sentinel_App.serie.AgregadorSeries;
+import com.global_solution.fire_sentinel_App.service.LeituraService;
+import com.global_solution.fire_sentinel_App.service.SensorService;
+
+@TesteIntegracao
+class SerieLeiturasTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 8, 10, 10, 0);
+
+    @Autowired
+    private LeituraService leituraService;
+
+    @Autowired
+    private SensorService sensorService;
+
+    @Autowired
+    private AgregadorSeries agregadorSeries;
+
+    @Autowired
+    private ArmazenamentoBlocosLeituras armazenamentoBlocosLeituras;
+
+    @Autowired
+    private AgregadorPercentis agregadorPercentis;
+
+    @Test
+    void testSerieCombinaAgregadosGravadosEPendentes() {
+        Sensor sensor = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Série", "Temperatura", "Serra", -22.9, -43.2, true));
+
+        // 3 horas com uma leitura a cada 10 minutos; temperatura = 20 + hora + minuto/10
+        for (int hora = 0; hora < 3; hora++) {
+            for (int minuto = 0; minuto < 60; minuto += 10) {
+                registrar(sensor.getId(), BASE.plusHours(hora).plusMinutes(minuto), 20.0 + hora + minuto / 10.0);
+            }
+        }
+        List<PontoSerieDTO> pendente = leituraService.buscarSerie(sensor.getId(), Resolucao.HOUR, BASE, BASE.plusHours(3));
+
+        agregadorSeries.gravarPendentes();
+        List<PontoSerieDTO> gravada = leituraService.buscarSerie(sensor.getId(), Resolucao.HOUR, BASE, BASE.plusHours(3));
+        assertEquals(pendente, gravada);
+
+        assertEquals(3, gravada.size());
+        PontoSerieDTO primeiraHora = gravada.get(0);
+        assertEquals(BASE, primeiraHora.getInicio());
+        assertEquals(6, primeiraHora.getQuantidade());
+        assertEquals(20.0, primeiraHora.getTemperatura().getMinimo());
+        assertEquals(25.0, primeiraHora.getTemperatura().getMaximo());
+        assertEquals(22.5, primeiraHora.getTemperatura().getMedia(), 1e-9);
+        assertEquals(25.0, primeiraHora.getTemperatura().getUltimo());
+
+        // Leitura fora de ordem após a gravação: entra no agregado, mas não vira a "última"
+        registrar(sensor.getId(), BASE.plusMinutes(5), 10.0);
+        agregadorSeries.gravarPendentes();
+
+        PontoSerieDTO atualizada = leituraService.buscarSerie(sensor.getId(), Resolucao.HOUR, BASE, BASE).get(0);
+        assertEquals(7, atualizada.getQuantidade());
+        assertEquals(10.0, atualizada.getTemperatura().getMinimo());
+        assertEquals(25.0, atualizada.getTemperatura().getUltimo());
+
+        List<PontoSerieDTO> dia = leituraService.buscarSerie(sensor.getId(), Resolucao.DAY, BASE, BASE.plusHours(3));
+        assertEquals(1, dia.size());
+        assertEquals(19, dia.get(0).getQuantidade());
+
+        List<PontoSerieDTO> minutos = leituraService.buscarSerie(sensor.getId(), Resolucao.MINUTE, BASE, BASE.plusMinutes(59));
+        assertEquals(7, minutos.size());
+    }
+
+    @Test
+    void testHistoricoDecodificadoDosBlocosComprimidos() {
+        Sensor sensor = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Histórico", "Temperatura", "Serra", -22.8, -43.1, true));
+
+        for (int minuto = 0; minuto < 120; minuto += 5) {
+            registrar(sensor.getId(), BASE.plusMinutes(minuto), 20.0 + minuto / 10.0);
+        }
+        List<LeituraDTO> pendente = leituraService.buscarHistorico(sensor.getId(), BASE, BASE.plusHours(2));
+
+        armazenamentoBlocosLeituras.gravarPendentes();
+        // Nova leitura em um bloco já gravado é anexada a ele
+        registrar(sensor.getId(), BASE.plusMinutes(62), 99.0);
+        armazenamentoBlocosLeituras.gravarPendentes();
+
+        List<LeituraDTO> historico = leituraService.buscarHistorico(sensor.getId(), BASE, BASE.plusHours(2));
+        assertEquals(24, pendente.size());
+        assertEquals(25, historico.size());
+        assertEquals(BASE, historico.get(0).getDataHora());
+        assertEquals(20.0, historico.get(0).getTemperatura());
+        assertEquals(400.0, historico.get(0).getCo2());
+        assertEquals(BASE.plusMinutes(62), historico.get(13).getDataHora());
+        assertEquals(99.0, historico.get(13).getTemperatura());
+
+        List<LeituraDTO> recorte = leituraService.buscarHistorico(sensor.getId(), BASE.plusMinutes(30), BASE.plusMinutes(45));
+        assertEquals(4, recorte.size());
+        System.out.println("Blocos de leituras: " + armazenamentoBlocosLeituras.obterMetricas());
+    }
+
+    @Test
+    void testPercentisPorSensorEPorArea() {
+        Sensor sensorA = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Percentis A", "Temperatura", "Chapada", -15.50, -47.50, true));
+        Sensor sensorB = sensorService.cadastrarSensor(
+                new SensorDTO(null, "Sensor Percentis B", "Temperatura", "Chapada", -15.51, -47.51, true));
+
+        // A: 1..100 °C em duas horas; B: 101..200 °C
+        for (int i = 1; i <= 100; i++) {
+            registrar(sensorA.getId(), BASE.plusMinutes(i), i);
+            registrar(sensorB.getId(), BASE.plusMinutes(i), 100.0 + i);
+        }
+        List<Double> quantis = List.of(0.5, 0.95, 0.99);
+        PercentisDTO pendente = leituraService.buscarPercentis(sensorA.getId(), Metrica.TEMPERATURA, BASE, BASE.plusHours(2), quantis);
+
+        agregadorPercentis.gravarPendentes();
+        // Nova leitura em uma hora já gravada é combinada ao sketch existente
+        registrar(sensorA.getId(), BASE.plusMinutes(30), 1000.0);
+        agregadorPercentis.gravarPendentes();
+
+        PercentisDTO sensor = leituraService.buscarPercentis(sensorA.getId(), Metrica.TEMPERATURA, BASE, BASE.plusHours(2), quantis);
+        assertEquals(100, pendente.getQuantidade());
+        assertEquals(50.0, pendente.getPercentis().get("p50"), 50.0 * 0.01);
+        assertEquals(95.0, pendente.getPercentis().get("p95"), 95.0 * 0.01);
+        assertEquals(101, sensor.getQuantidade());
+        assertEquals(1000.0, sensor.getMaximo());
+        assertEquals(100.0, sensor.getPercentis().get("p99"), 100.0 * 0.01);
+
+        PercentisDTO area = leituraService.buscarPercentisPorArea(-15.505, -47.505, 5.0, Metrica.TEMPERATURA,
+                BASE, BASE.plusHours(2), quantis);
+        assertEquals(2, area.getSensores());
+        assertEquals(201, area.getQuantidade());
+        assertEquals(1.0, area.getMinimo());
+        assertEquals(100.0, area.getPercentis().get("p50"), 100.0 * 0.01);
+        assertEquals(191.0, area.getPercentis().get("p95"), 191.0 * 0.01);
+
+        PercentisDTO umidade = leituraService.buscarPercentis(sensorA.getId(), Metrica.UMIDADE, BASE, BASE.plusHours(2), quantis);
+        assertEquals(50.0, umidade.getPercentis().get("p99"), 50.0 * 0.01);
+
+        PercentisDTO vazio = leituraService.buscarPercentis(sensorA.getId(), Metrica.TEMPERATURA, BASE.minusDays(2), BASE.minusDays(1), quantis);
+        assertEquals(0, vazio.getQuantidade());
+        assertNull(vazio.getPercentis().get("p50"));
+        System.out.println("Percentis da área: " + area.getPercentis() + " " + agregadorPercentis.obterMetricas());
+    }
+
+    private void registrar(Long sensorId, LocalDateTime dataHora, double temperatura) {
+        LeituraDTO dto = new LeituraDTO();
+        dto.setSensorId(sensorId);
+        dto.setDataHora(dataHora);
+        dto.setTemperatura(temperatura);
+        dto.setUmidade(50.0);
+        dto.setNivelFumaca(0.1);
+        dto.setCo2(400.0);
+        leituraService.registrarLeitura(dto);
+    }
+}
@@ -0,0 +1,137 @@
+package com.global_solution.fire_sentinel_App;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.global_solution.fire_sentinel_App.serie.SketchQuantis;
+
+class SketchQuantisTest {
+
+    private static final double[] QUANTIS = { 0.0, 0.01, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 0.999, 1.0 };
+
+    @Test
+    void testQuantisDentroDoErroRelativo() {
+        Random random = new Random(5);
+        double[] valores = new double[50_000];
+        SketchQuantis sketch = new SketchQuantis();
+        for (int i = 0; i < valores.length; i++) {
+            // Temperaturas com cauda longa (focos de calor)
+            valores[i] = 25.0 + random.nextGaussian() * 5 + (random.nextInt(100) == 0 ? random.nextDouble() * 300 : 0);
+            sketch.adicionar(valores[i]);
+        }
+        sketch.adicionar(Double.NaN);
+
+        assertEquals(valores.length, sketch.getQuantidade());
+        verificarQuantis(valores, sketch);
+    }
+
+    @Test
+    void testValoresNegativosEZeros() {
+        Random random = new Random(8);
+        double[] valores = new double[20_000];
+        SketchQuantis sketch = new SketchQuantis();
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = i % 10 == 0 ? 0.0 : random.nextGaussian() * 15;
+            sketch.adicionar(valores[i]);
+        }
+        verificarQuantis(valores, sketch);
+        assertTrue(Double.isNaN(new SketchQuantis().quantil(0.5)));
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantil(1.5));
+    }
+
+    @Test
+    void testCombinarEquivaleAUmUnicoSketch() {
+        Random random = new Random(13);
+        SketchQuantis tudo = new SketchQuantis();
+        SketchQuantis[] partes = { new SketchQuantis(), new SketchQuantis(), new SketchQuantis() };
+        for (int i = 0; i < 9_000; i++) {
+            double valor = random.nextDouble() * 1000;
+            tudo.adicionar(valor);
+            partes[i % 3].adicionar(valor);
+        }
+        SketchQuantis combinado = new SketchQuantis();
+        for (SketchQuantis parte : partes) {
+            combinado.combinar(parte);
+        }
+        assertEquals(tudo.getQuantidade(), combinado.getQuantidade());
+        for (double quantil : QUANTIS) {
+            assertEquals(tudo.quantil(quantil), combinado.quantil(quantil));
+        }
+        assertThrows(IllegalArgumentException.class, () -> combinado.combinar(new SketchQuantis(0.05)));
+    }
+
+    @Test
+    void testSerializacaoPreservaOSketch() throws IOException {
+        Random random = new Random(21);
+        SketchQuantis sketch = new SketchQuantis();
+        for (int i = 0; i < 3_600; i++) {
+            sketch.adicionar(20.0 + random.nextGaussian() * 2 - (i % 50 == 0 ? 40 : 0));
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sketch.escrever(new DataOutputStream(bytes));
+        SketchQuantis lido = SketchQuantis.ler(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(sketch.getQuantidade(), lido.getQuantidade());
+        assertEquals(sketch.getMinimo(), lido.getMinimo());
+        assertEquals(sketch.getMaximo(), lido.getMaximo());
+        for (double quantil : QUANTIS) {
+            assertEquals(sketch.quantil(quantil), lido.quantil(quantil));
+        }
+        System.out.println("Sketch de 3600 leituras serializado em " + bytes.size() + " bytes");
+    }
+
+    @Test
+    void testDesempenhoSketchVersusOrdenacao() {
+        Random random = new Random(34);
+        int horas = 24 * 30;
+        int leiturasPorHora = 360;
+        SketchQuantis[] sketches = new SketchQuantis[horas];
+        double[] valores = new double[horas * leiturasPorHora];
+        for (int hora = 0; hora < horas; hora++) {
+            sketches[hora] = new SketchQuantis();
+            for (int i = 0; i < leiturasPorHora; i++) {
+                double valor = 25.0 + random.nextGaussian() * 5;
+                valores[hora * leiturasPorHora + i] = valor;
+                sketches[hora].adicionar(valor);
+            }
+        }
+
+        long inicio = System.nanoTime();
+        double[] ordenados = valores.clone();
+        Arrays.sort(ordenados);
+        double p99Exato = ordenados[(int) Math.floor(0.99 * (ordenados.length - 1))];
+        long tempoOrdenacao = System.nanoTime() - inicio;
+
+        inicio = System.nanoTime();
+        SketchQuantis mes = new SketchQuantis();
+        for (SketchQuantis sketch : sketches) {
+            mes.combinar(sketch);
+        }
+        double p99Sketch = mes.quantil(0.99);
+        long tempoSketch = System.nanoTime() - inicio;
+
+        assertEquals(p99Exato, p99Sketch, Math.abs(p99Exato) * SketchQuantis.PRECISAO_PADRAO + 1e-9);
+        System.out.printf("p99 de %d leituras (%d sketches horários): ordenação %.2f ms, sketches %.2f ms%n",
+                valores.length, horas, tempoOrdenacao / 1e6, tempoSketch / 1e6);
+    }
+
+    private static void verificarQuantis(double[] valores, SketchQuantis sketch) {
+        double[] ordenados = valores.clone();
+        Arrays.sort(ordenados);
+        for (double quantil : QUANTIS) {
+            double exato = ordenados[(int) Math.floor(quantil * (ordenados.length - 1))];
+            double estimado = sketch.quantil(quantil);
+            assertEquals(exato, estimado, Math.abs(exato) * SketchQuantis.PRECISAO_PADRAO + 1e-9,
+                    "quantil " + quantil);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.global_solution.fire_sentinel_App;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Teste com contexto Spring sobre o H2 em memória, com a configuração comum de
+ * teste-integracao.properties. Cada classe informa em properties apenas o que difere;
+ * essas propriedades têm precedência sobre o arquivo comum.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@SpringBootTest
+@TestPropertySource(locations = "classpath:teste-integracao.properties")
+public @interface TesteIntegracao {
+
+    /**
+     * Propriedades específicas do teste (formato chave=valor).
+     */
+    @AliasFor(annotation = SpringBootTest.class)
+    String[] properties() default {};
+}